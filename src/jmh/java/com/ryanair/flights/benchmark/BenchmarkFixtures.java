@@ -0,0 +1,60 @@
+package com.ryanair.flights.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.ryanair.flights.model.external.Route;
+import com.ryanair.flights.model.external.Schedule;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.util.List;
+
+/**
+ * Loads the fixture data under {@code src/jmh/resources/fixtures}. The files use the upstream API format:
+ * a route list of the size Ryanair publishes, and a dense, a regular and a sparse monthly schedule.
+ */
+final class BenchmarkFixtures {
+
+    static final String ROUTES = "routes.json";
+    static final String DENSE_SCHEDULE = "schedule-dense.json";
+    static final String REGULAR_SCHEDULE = "schedule-regular.json";
+    static final String SPARSE_SCHEDULE = "schedule-sparse.json";
+
+    // Configured like the ObjectMapper used by the RestTemplate message converters
+    private static final ObjectMapper OBJECT_MAPPER = Jackson2ObjectMapperBuilder.json().build();
+
+    static ObjectMapper objectMapper() {
+        return OBJECT_MAPPER;
+    }
+
+    static byte[] readBytes(String fixture) {
+        try (InputStream inputStream = BenchmarkFixtures.class.getResourceAsStream("/fixtures/" + fixture)) {
+            if (inputStream == null) {
+                throw new IllegalStateException("Missing fixture " + fixture);
+            }
+            return inputStream.readAllBytes();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    static List<Route> routes() {
+        try {
+            return List.of(OBJECT_MAPPER.readValue(readBytes(ROUTES), Route[].class));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    static Schedule schedule(String fixture) {
+        try {
+            return OBJECT_MAPPER.readValue(readBytes(fixture), Schedule.class);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private BenchmarkFixtures() {
+    }
+}
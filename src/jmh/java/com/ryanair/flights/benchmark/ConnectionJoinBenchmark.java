@@ -0,0 +1,94 @@
+package com.ryanair.flights.benchmark;
+
+import com.ryanair.flights.model.dto.Flight;
+import com.ryanair.flights.model.internal.CompactSchedule;
+import com.ryanair.flights.model.internal.FlightOrder;
+import com.ryanair.flights.model.internal.ScheduleKey;
+import com.ryanair.flights.model.internal.ScheduleWindow;
+import com.ryanair.flights.util.ConnectionJoiner;
+import com.ryanair.flights.util.ListConnectionJoiner;
+import com.ryanair.flights.util.TopFlights;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the join behind {@code InterconnectionService.combineFlightLegs} on two dense legs, both on
+ * materialized flights and on compact schedule windows, and the ranked join keeping only the best connections.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ConnectionJoinBenchmark {
+
+    private static final YearMonth MONTH = YearMonth.of(2025, 10);
+    private static final long MIN_LAYOVER_MINUTES = 120;
+
+    @Param({"3", "14", "31"})
+    public int windowDays;
+
+    private List<CompactSchedule> firstLegSchedule;
+    private List<CompactSchedule> secondLegSchedule;
+    private LocalDateTime start;
+    private LocalDateTime end;
+    private List<Flight> firstLegFlights;
+    private List<Flight> secondLegFlights;
+
+    @Setup
+    public void setUp() {
+        start = MONTH.atDay(1).atStartOfDay();
+        end = start.plusDays(windowDays);
+        firstLegSchedule = List.of(CompactSchedule.from(new ScheduleKey("DUB", "STN", MONTH),
+                BenchmarkFixtures.schedule(BenchmarkFixtures.DENSE_SCHEDULE)));
+        secondLegSchedule = List.of(CompactSchedule.from(new ScheduleKey("STN", "WRO", MONTH),
+                BenchmarkFixtures.schedule(BenchmarkFixtures.REGULAR_SCHEDULE)));
+        firstLegFlights = ScheduleWindow.of(firstLegSchedule, start, end).toFlights();
+        secondLegFlights = ScheduleWindow.of(secondLegSchedule, start, end).toFlights();
+    }
+
+    @Benchmark
+    public List<Flight> join() {
+        return ListConnectionJoiner.join(firstLegFlights, secondLegFlights, MIN_LAYOVER_MINUTES, ConnectionJoiner.NO_MAX_LAYOVER);
+    }
+
+    @Benchmark
+    public List<Flight> joinWithMaxLayover() {
+        return ListConnectionJoiner.join(firstLegFlights, secondLegFlights, MIN_LAYOVER_MINUTES, TimeUnit.HOURS.toMinutes(8));
+    }
+
+    /**
+     * Includes selecting both windows, as every route pair of a search does.
+     */
+    @Benchmark
+    public List<Flight> joinScheduleWindows() {
+        return ConnectionJoiner.join(ScheduleWindow.of(firstLegSchedule, start, end),
+                ScheduleWindow.of(secondLegSchedule, start, end), MIN_LAYOVER_MINUTES, ConnectionJoiner.NO_MAX_LAYOVER);
+    }
+
+    /**
+     * Same windows as {@link #joinScheduleWindows()}, keeping only the ten earliest arrivals.
+     */
+    @Benchmark
+    public List<Flight> joinScheduleWindowsTopTen() {
+        TopFlights best = new TopFlights(FlightOrder.EARLIEST_ARRIVAL, 10);
+        ConnectionJoiner.join(ScheduleWindow.of(firstLegSchedule, start, end),
+                ScheduleWindow.of(secondLegSchedule, start, end), MIN_LAYOVER_MINUTES, ConnectionJoiner.NO_MAX_LAYOVER, best);
+        return best.toList();
+    }
+}
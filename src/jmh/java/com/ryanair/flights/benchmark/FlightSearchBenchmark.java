@@ -0,0 +1,117 @@
+package com.ryanair.flights.benchmark;
+
+import com.ryanair.flights.client.RyanairApiClient;
+import com.ryanair.flights.config.CacheConfig;
+import com.ryanair.flights.config.ConnectivityProperties;
+import com.ryanair.flights.config.PaginationProperties;
+import com.ryanair.flights.config.ResultCacheProperties;
+import com.ryanair.flights.config.RouteCacheProperties;
+import com.ryanair.flights.config.ScheduleCacheProperties;
+import com.ryanair.flights.config.SearchProperties;
+import com.ryanair.flights.metrics.SearchMetrics;
+import com.ryanair.flights.model.dto.Flight;
+import com.ryanair.flights.model.internal.FlightSearchCriteria;
+import com.ryanair.flights.service.CachedRouteService;
+import com.ryanair.flights.service.FlightService;
+import com.ryanair.flights.service.HubConnectivityService;
+import com.ryanair.flights.service.InterconnectionService;
+import com.ryanair.flights.service.MultiStopSearchService;
+import com.ryanair.flights.service.ResultPages;
+import com.ryanair.flights.service.RouteService;
+import com.ryanair.flights.service.ScheduleService;
+import com.ryanair.flights.service.SearchPopularity;
+import com.ryanair.flights.service.SearchResultCache;
+import io.micrometer.core.instrument.composite.CompositeMeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * End-to-end {@link FlightService#searchFlights} against the in-process {@link StubRyanairApiClient},
+ * wired by hand the same way the Spring context wires it, without the caches.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class FlightSearchBenchmark {
+
+    @Param({"1", "2"})
+    public int maxStops;
+
+    @Param({"2", "7"})
+    public int windowDays;
+
+    private ExecutorService executor;
+    private FlightService flightService;
+    private FlightSearchCriteria criteria;
+
+    @Setup
+    public void setUp() {
+        executor = Executors.newFixedThreadPool(16);
+        RyanairApiClient client = new StubRyanairApiClient();
+        SearchProperties searchProperties = new SearchProperties();
+        SearchMetrics searchMetrics = new SearchMetrics(new SimpleMeterRegistry());
+        RouteService routeService = new RouteService(new CachedRouteService(client, new RouteCacheProperties(), Runnable::run,
+                new SimpleMeterRegistry()));
+
+        InterconnectionService interconnectionService = new InterconnectionService();
+        ReflectionTestUtils.setField(interconnectionService, "routeService", routeService);
+        // A schedule cache that keeps nothing, so every search reads and converts its schedules again
+        ScheduleCacheProperties scheduleCacheProperties = new ScheduleCacheProperties();
+        scheduleCacheProperties.setMaximumSize(0);
+        ScheduleService scheduleService = new ScheduleService(new CacheConfig().cacheManager(scheduleCacheProperties, client,
+                event -> {
+                }, executor));
+        ReflectionTestUtils.setField(interconnectionService, "scheduleService", scheduleService);
+        ReflectionTestUtils.setField(interconnectionService, "searchProperties", searchProperties);
+        ReflectionTestUtils.setField(interconnectionService, "upstreamExecutor", executor);
+        ReflectionTestUtils.setField(interconnectionService, "searchMetrics", searchMetrics);
+        ConnectivityProperties connectivityProperties = new ConnectivityProperties();
+        connectivityProperties.setMode(ConnectivityProperties.Mode.OFF);
+        ReflectionTestUtils.setField(interconnectionService, "hubConnectivity",
+                new HubConnectivityService(connectivityProperties, null, new SimpleMeterRegistry()));
+
+        MultiStopSearchService multiStopSearchService =
+                new MultiStopSearchService(routeService, interconnectionService, searchProperties, searchMetrics);
+        ResultCacheProperties resultCacheProperties = new ResultCacheProperties();
+        resultCacheProperties.setEnabled(false);
+        flightService = new FlightService(interconnectionService, multiStopSearchService, searchProperties, searchMetrics,
+                new SearchResultCache(resultCacheProperties, new CompositeMeterRegistry()), new SearchPopularity(),
+                new ResultPages(new PaginationProperties(), new CompositeMeterRegistry()));
+
+        LocalDateTime start = LocalDateTime.of(2025, 10, 6, 6, 0);
+        criteria = new FlightSearchCriteria("DUB", "WRO", start, start.plusDays(windowDays));
+        criteria.setMaxStops(maxStops);
+    }
+
+    @TearDown
+    public void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Benchmark
+    public List<Flight> searchFlights() throws ExecutionException, InterruptedException {
+        return flightService.searchFlights(criteria);
+    }
+}
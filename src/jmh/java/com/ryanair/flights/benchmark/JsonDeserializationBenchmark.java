@@ -0,0 +1,48 @@
+package com.ryanair.flights.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.ryanair.flights.model.external.Route;
+import com.ryanair.flights.model.external.Schedule;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JsonDeserializationBenchmark {
+
+    private ObjectMapper objectMapper;
+    private byte[] routes;
+    private byte[] denseSchedule;
+
+    @Setup
+    public void setUp() {
+        objectMapper = BenchmarkFixtures.objectMapper();
+        routes = BenchmarkFixtures.readBytes(BenchmarkFixtures.ROUTES);
+        denseSchedule = BenchmarkFixtures.readBytes(BenchmarkFixtures.DENSE_SCHEDULE);
+    }
+
+    @Benchmark
+    public Route[] readRoutes() throws IOException {
+        return objectMapper.readValue(routes, Route[].class);
+    }
+
+    @Benchmark
+    public Schedule readSchedule() throws IOException {
+        return objectMapper.readValue(denseSchedule, Schedule.class);
+    }
+}
@@ -0,0 +1,52 @@
+package com.ryanair.flights.benchmark;
+
+import com.ryanair.flights.config.RouteCacheProperties;
+import com.ryanair.flights.model.external.Route;
+import com.ryanair.flights.service.CachedRouteService;
+import com.ryanair.flights.service.RouteService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RouteServiceBenchmark {
+
+    private RouteService routeService;
+
+    @Setup
+    public void setUp() {
+        routeService = new RouteService(new CachedRouteService(new StubRyanairApiClient(), new RouteCacheProperties(),
+                Runnable::run, new SimpleMeterRegistry()));
+    }
+
+    @Benchmark
+    public List<Route> findRoutesFromHub() {
+        return routeService.findRoutesFrom("STN");
+    }
+
+    @Benchmark
+    public List<Route> findRoutesToHub() {
+        return routeService.findRoutesTo("DUB");
+    }
+
+    @Benchmark
+    public List<Route> findDirectRoute() {
+        return routeService.findDirectRoute("DUB", "STN");
+    }
+}
@@ -0,0 +1,66 @@
+package com.ryanair.flights.benchmark;
+
+import com.ryanair.flights.model.external.Schedule;
+import com.ryanair.flights.model.internal.CompactSchedule;
+import com.ryanair.flights.model.internal.ScheduleKey;
+import com.ryanair.flights.model.internal.ScheduleWindow;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures building the cached {@link CompactSchedule} of a route-month, once per cache load, and selecting the
+ * flights of a search window from it, once per search.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ScheduleWindowBenchmark {
+
+    private static final ScheduleKey KEY = new ScheduleKey("DUB", "STN", YearMonth.of(2025, 10));
+
+    @Param({BenchmarkFixtures.DENSE_SCHEDULE, BenchmarkFixtures.SPARSE_SCHEDULE})
+    public String scheduleFixture;
+
+    @Param({"2", "31"})
+    public int windowDays;
+
+    private Schedule schedule;
+    private CompactSchedule compactSchedule;
+    private LocalDateTime start;
+    private LocalDateTime end;
+
+    @Setup
+    public void setUp() {
+        schedule = BenchmarkFixtures.schedule(scheduleFixture);
+        compactSchedule = CompactSchedule.from(KEY, schedule);
+        start = KEY.month().atDay(1).atStartOfDay();
+        end = start.plusDays(windowDays);
+    }
+
+    @Benchmark
+    public CompactSchedule buildCompactSchedule() {
+        return CompactSchedule.from(KEY, schedule);
+    }
+
+    @Benchmark
+    public ScheduleWindow selectWindow() {
+        return ScheduleWindow.of(List.of(compactSchedule), start, end);
+    }
+}
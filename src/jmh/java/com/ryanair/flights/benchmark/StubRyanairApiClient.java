@@ -0,0 +1,31 @@
+package com.ryanair.flights.benchmark;
+
+import com.ryanair.flights.client.RyanairApiClient;
+import com.ryanair.flights.model.external.Route;
+import com.ryanair.flights.model.external.Schedule;
+
+import java.util.List;
+
+/**
+ * In-process {@link RyanairApiClient} serving the fixture data. Every route gets the dense, regular or sparse
+ * schedule depending on its airports, so the same route always returns the same timetable.
+ */
+class StubRyanairApiClient implements RyanairApiClient {
+
+    private final List<Route> routes = BenchmarkFixtures.routes();
+    private final Schedule[] schedules = {
+            BenchmarkFixtures.schedule(BenchmarkFixtures.DENSE_SCHEDULE),
+            BenchmarkFixtures.schedule(BenchmarkFixtures.REGULAR_SCHEDULE),
+            BenchmarkFixtures.schedule(BenchmarkFixtures.SPARSE_SCHEDULE)
+    };
+
+    @Override
+    public List<Route> getRoutes() {
+        return routes;
+    }
+
+    @Override
+    public Schedule getSchedule(String from, String to, int year, int month) {
+        return schedules[Math.floorMod((from + to).hashCode(), schedules.length)];
+    }
+}
@@ -4,9 +4,32 @@ import com.ryanair.flights.model.external.Route;
 import com.ryanair.flights.model.external.Schedule;
 
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
 
 public interface RyanairApiClient {
+
+    /**
+     * Qualifier of the client that actually calls the Ryanair APIs, as opposed to the decorators around it.
+     */
+    String UPSTREAM = "upstream";
+
     List<Route> getRoutes();
 
     Schedule getSchedule(String from, String to, int year, int month);
-}
\ No newline at end of file
+
+    /**
+     * Fetches a schedule without blocking the caller. Blocking implementations run {@link #getSchedule} on the
+     * given executor; non-blocking ones ignore it.
+     */
+    default CompletableFuture<Schedule> getScheduleAsync(String from, String to, int year, int month, Executor executor) {
+        return CompletableFuture.supplyAsync(() -> getSchedule(from, to, year, month), executor);
+    }
+
+    /**
+     * @return true when {@link #getScheduleAsync} does not hold a thread while the request is in flight.
+     */
+    default boolean isNonBlocking() {
+        return false;
+    }
+}
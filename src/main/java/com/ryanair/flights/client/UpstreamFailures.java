@@ -0,0 +1,54 @@
+package com.ryanair.flights.client;
+
+import com.ryanair.flights.exception.ExternalApiException;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.client.ResourceAccessException;
+import org.springframework.web.client.RestClientResponseException;
+import org.springframework.web.reactive.function.client.WebClientRequestException;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+
+import java.util.concurrent.CompletionException;
+
+/**
+ * Classifies failed calls to the Ryanair APIs. The upstream clients wrap the HTTP client exception in an
+ * {@link ExternalApiException}; asynchronous callers may see it wrapped once more in a {@link CompletionException}.
+ */
+public final class UpstreamFailures {
+
+    private UpstreamFailures() {
+    }
+
+    /**
+     * @return true when the failure is a sign of a temporary upstream problem (throttling, a server error, an I/O
+     * error or a timeout) rather than an answer about the request itself, such as a 404 for a route without a
+     * schedule.
+     */
+    public static boolean isTransient(Throwable failure) {
+        Throwable cause = unwrap(failure);
+        while (cause instanceof ExternalApiException && cause.getCause() != null) {
+            cause = cause.getCause();
+        }
+        if (cause instanceof RestClientResponseException responseException) {
+            return isTransient(responseException.getStatusCode().value());
+        }
+        if (cause instanceof WebClientResponseException responseException) {
+            return isTransient(responseException.getStatusCode().value());
+        }
+        return cause instanceof ResourceAccessException || cause instanceof WebClientRequestException;
+    }
+
+    /**
+     * @return the failure without the {@link CompletionException} added by {@code CompletableFuture}.
+     */
+    public static Throwable unwrap(Throwable failure) {
+        Throwable cause = failure;
+        while (cause instanceof CompletionException && cause.getCause() != null) {
+            cause = cause.getCause();
+        }
+        return cause;
+    }
+
+    private static boolean isTransient(int status) {
+        return status == HttpStatus.TOO_MANY_REQUESTS.value() || status >= 500;
+    }
+}
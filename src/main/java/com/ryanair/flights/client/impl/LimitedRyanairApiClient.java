@@ -0,0 +1,109 @@
+package com.ryanair.flights.client.impl;
+
+import com.ryanair.flights.client.RyanairApiClient;
+import com.ryanair.flights.client.UpstreamFailures;
+import com.ryanair.flights.client.limit.AdaptiveConcurrencyLimiter;
+import com.ryanair.flights.client.limit.AdaptiveConcurrencyLimiter.Outcome;
+import com.ryanair.flights.client.limit.AdaptiveConcurrencyLimiter.Permit;
+import com.ryanair.flights.client.limit.UpstreamTenant;
+import com.ryanair.flights.model.external.Route;
+import com.ryanair.flights.model.external.Schedule;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+
+/**
+ * Passes schedule requests to the wrapped client through an {@link AdaptiveConcurrencyLimiter}, so the number of
+ * requests in flight follows what upstream can currently take instead of what the searches ask for.
+ * {@link UpstreamFailures#isTransient Transient failures} and slow responses lower the limit; client errors such as
+ * a 404 for a route without a schedule do not. The route list is fetched directly, it is a single request.
+ */
+public class LimitedRyanairApiClient implements RyanairApiClient {
+
+    private final RyanairApiClient delegate;
+    private final AdaptiveConcurrencyLimiter limiter;
+
+    public LimitedRyanairApiClient(RyanairApiClient delegate, AdaptiveConcurrencyLimiter limiter) {
+        this.delegate = delegate;
+        this.limiter = limiter;
+    }
+
+    @Override
+    public List<Route> getRoutes() {
+        return delegate.getRoutes();
+    }
+
+    @Override
+    public Schedule getSchedule(String from, String to, int year, int month) {
+        Permit permit = awaitPermit();
+        try {
+            Schedule schedule = delegate.getSchedule(from, to, year, month);
+            permit.release(Outcome.SUCCESS);
+            return schedule;
+        } catch (RuntimeException e) {
+            permit.release(outcomeOf(e));
+            throw e;
+        }
+    }
+
+    /**
+     * Cancelling the returned future gives up the place in the limiter queue or, once the request was sent, cancels
+     * it and frees its slot.
+     */
+    @Override
+    public CompletableFuture<Schedule> getScheduleAsync(String from, String to, int year, int month, Executor executor) {
+        CompletableFuture<Schedule> result = new CompletableFuture<>();
+        CompletableFuture<Permit> waiter = limiter.acquire(UpstreamTenant.current());
+        waiter.whenComplete((permit, failure) -> {
+            if (failure != null) {
+                result.completeExceptionally(failure);
+                return;
+            }
+            if (result.isDone()) {
+                permit.release(Outcome.IGNORED);
+                return;
+            }
+            CompletableFuture<Schedule> schedule;
+            try {
+                schedule = delegate.getScheduleAsync(from, to, year, month, executor);
+            } catch (RuntimeException e) {
+                permit.release(outcomeOf(e));
+                result.completeExceptionally(e);
+                return;
+            }
+            schedule.whenComplete((loaded, ex) -> {
+                permit.release(ex == null ? Outcome.SUCCESS : outcomeOf(ex));
+                if (ex == null) {
+                    result.complete(loaded);
+                } else {
+                    result.completeExceptionally(ex);
+                }
+            });
+            result.whenComplete((loaded, ex) -> schedule.cancel(true));
+        });
+        result.whenComplete((loaded, ex) -> waiter.cancel(true));
+        return result;
+    }
+
+    @Override
+    public boolean isNonBlocking() {
+        return delegate.isNonBlocking();
+    }
+
+    private Permit awaitPermit() {
+        try {
+            return limiter.acquire(UpstreamTenant.current()).join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    private static Outcome outcomeOf(Throwable failure) {
+        return UpstreamFailures.isTransient(failure) ? Outcome.DROPPED : Outcome.IGNORED;
+    }
+}
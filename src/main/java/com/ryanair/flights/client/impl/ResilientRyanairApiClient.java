@@ -0,0 +1,298 @@
+package com.ryanair.flights.client.impl;
+
+import com.ryanair.flights.client.RyanairApiClient;
+import com.ryanair.flights.client.UpstreamFailures;
+import com.ryanair.flights.client.limit.UpstreamTenant;
+import com.ryanair.flights.client.resilience.CircuitBreaker;
+import com.ryanair.flights.client.resilience.LatencyTracker;
+import com.ryanair.flights.config.UpstreamResilienceProperties;
+import com.ryanair.flights.exception.CircuitBreakerOpenException;
+import com.ryanair.flights.exception.ConcurrencyLimitExceededException;
+import com.ryanair.flights.exception.ExternalApiException;
+import com.ryanair.flights.model.external.Route;
+import com.ryanair.flights.model.external.Schedule;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Adds a circuit breaker per endpoint, retries of transient failures and, for the non-blocking client, hedged
+ * schedule requests to the wrapped client. A transient 5xx therefore costs a short backoff instead of a month of
+ * flights, a failing upstream is given a rest instead of a steady stream of requests, and a slow response is raced
+ * against a second request once it is slower than most recent ones.
+ * <p>
+ * Only {@link UpstreamFailures#isTransient transient failures} are retried and count against the circuit breaker;
+ * an answer such as a 404 shows upstream is healthy. While a breaker is open, calls fail immediately with a
+ * {@link CircuitBreakerOpenException}.
+ */
+public class ResilientRyanairApiClient implements RyanairApiClient {
+
+    public static final String CIRCUIT_STATE_METRIC = "ryanair.upstream.circuit.state";
+    public static final String CIRCUIT_REJECTED_METRIC = "ryanair.upstream.circuit.rejected";
+    public static final String RETRY_METRIC = "ryanair.upstream.retries";
+    public static final String HEDGE_METRIC = "ryanair.upstream.hedges";
+
+    private static final String ROUTES = "routes";
+    private static final String SCHEDULES = "schedules";
+    private static final int LATENCY_SAMPLES = 1000;
+
+    /**
+     * The circuit breaker and counters of one endpoint.
+     */
+    private record Endpoint(String name, CircuitBreaker circuitBreaker, Counter rejected, Counter retries) {
+    }
+
+    private final RyanairApiClient delegate;
+    private final Endpoint routes;
+    private final Endpoint schedules;
+    private final int maxAttempts;
+    private final long initialBackoffNanos;
+    private final long maxBackoffNanos;
+    private final boolean hedging;
+    private final long minHedgeDelayNanos;
+    private final double maxHedgeRatio;
+    private final LatencyTracker scheduleLatency;
+    private final AtomicLong hedgeableRequests = new AtomicLong();
+    private final AtomicLong hedgesSent = new AtomicLong();
+    private final Counter hedgesSentCounter;
+    private final Counter hedgesWonCounter;
+
+    public ResilientRyanairApiClient(RyanairApiClient delegate, UpstreamResilienceProperties properties,
+                                     MeterRegistry meterRegistry) {
+        this.delegate = delegate;
+        this.routes = endpoint(ROUTES, properties.getCircuitBreaker(), meterRegistry);
+        this.schedules = endpoint(SCHEDULES, properties.getCircuitBreaker(), meterRegistry);
+
+        UpstreamResilienceProperties.Retry retry = properties.getRetry();
+        this.maxAttempts = retry.isEnabled() ? Math.max(1, retry.getMaxAttempts()) : 1;
+        this.initialBackoffNanos = retry.getInitialBackoff().toNanos();
+        this.maxBackoffNanos = retry.getMaxBackoff().toNanos();
+
+        UpstreamResilienceProperties.Hedge hedge = properties.getHedge();
+        this.hedging = hedge.isEnabled() && delegate.isNonBlocking();
+        this.minHedgeDelayNanos = hedge.getMinDelay().toNanos();
+        this.maxHedgeRatio = hedge.getMaxRatio();
+        this.scheduleLatency = new LatencyTracker(LATENCY_SAMPLES, hedge.getPercentile(), hedge.getMinSamples());
+        this.hedgesSentCounter = Counter.builder(HEDGE_METRIC)
+                .description("Hedged schedule requests, and how many of them answered first")
+                .tag("result", "sent")
+                .register(meterRegistry);
+        this.hedgesWonCounter = Counter.builder(HEDGE_METRIC)
+                .description("Hedged schedule requests, and how many of them answered first")
+                .tag("result", "won")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public List<Route> getRoutes() {
+        return call(routes, delegate::getRoutes);
+    }
+
+    @Override
+    public Schedule getSchedule(String from, String to, int year, int month) {
+        return call(schedules, () -> delegate.getSchedule(from, to, year, month));
+    }
+
+    @Override
+    public CompletableFuture<Schedule> getScheduleAsync(String from, String to, int year, int month, Executor executor) {
+        // Retries and hedges start on other threads, they keep the tenant of the original request
+        Object tenant = UpstreamTenant.current();
+        Supplier<CompletableFuture<Schedule>> request = () -> UpstreamTenant.callAs(tenant,
+                () -> delegate.getScheduleAsync(from, to, year, month, executor));
+        CompletableFuture<Schedule> result = new CompletableFuture<>();
+        attemptAsync(hedging ? () -> hedged(request) : request, 1, result);
+        return result;
+    }
+
+    @Override
+    public boolean isNonBlocking() {
+        return delegate.isNonBlocking();
+    }
+
+    private <T> T call(Endpoint endpoint, Supplier<T> request) {
+        for (int attempt = 1; ; attempt++) {
+            acquire(endpoint);
+            try {
+                T result = request.get();
+                endpoint.circuitBreaker().onSuccess();
+                return result;
+            } catch (RuntimeException e) {
+                if (!shouldRetry(endpoint, e, attempt)) {
+                    throw e;
+                }
+            }
+            try {
+                TimeUnit.NANOSECONDS.sleep(backoffNanos(attempt));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new ExternalApiException("Interrupted while waiting to retry the " + endpoint.name() + " request", e);
+            }
+        }
+    }
+
+    /**
+     * Sends one attempt of the request. A result completed by the caller, for instance cancelled when the search
+     * gave up on it, cancels the attempt in flight and stops any further retries.
+     */
+    private void attemptAsync(Supplier<CompletableFuture<Schedule>> request, int attempt, CompletableFuture<Schedule> result) {
+        if (result.isDone()) {
+            return;
+        }
+        CompletableFuture<Schedule> response;
+        try {
+            acquire(schedules);
+            response = request.get();
+        } catch (RuntimeException e) {
+            response = CompletableFuture.failedFuture(e);
+        }
+        CompletableFuture<Schedule> inFlight = response;
+        result.whenComplete((schedule, ex) -> inFlight.cancel(true));
+        response.whenComplete((schedule, ex) -> {
+            if (ex == null) {
+                schedules.circuitBreaker().onSuccess();
+                result.complete(schedule);
+            } else if (shouldRetry(schedules, ex, attempt)) {
+                CompletableFuture.delayedExecutor(backoffNanos(attempt), TimeUnit.NANOSECONDS)
+                        .execute(() -> attemptAsync(request, attempt + 1, result));
+            } else {
+                result.completeExceptionally(UpstreamFailures.unwrap(ex));
+            }
+        });
+    }
+
+    private void acquire(Endpoint endpoint) {
+        if (!endpoint.circuitBreaker().tryAcquire()) {
+            endpoint.rejected().increment();
+            throw new CircuitBreakerOpenException("Circuit breaker for the " + endpoint.name() + " endpoint is open");
+        }
+    }
+
+    /**
+     * Reports the failure to the circuit breaker and tells whether it is worth another attempt. Rejections by an
+     * open breaker or a full concurrency limiter are not reported as outcomes, as they never reached upstream.
+     */
+    private boolean shouldRetry(Endpoint endpoint, Throwable failure, int attempt) {
+        Throwable cause = UpstreamFailures.unwrap(failure);
+        if (cause instanceof CircuitBreakerOpenException) {
+            return false;
+        }
+        if (cause instanceof ConcurrencyLimitExceededException) {
+            endpoint.circuitBreaker().onNotSent();
+            return false;
+        }
+        if (!UpstreamFailures.isTransient(failure)) {
+            endpoint.circuitBreaker().onSuccess();
+            return false;
+        }
+        endpoint.circuitBreaker().onFailure();
+        if (attempt >= maxAttempts || endpoint.circuitBreaker().getState() == CircuitBreaker.State.OPEN) {
+            return false;
+        }
+        endpoint.retries().increment();
+        return true;
+    }
+
+    /**
+     * Exponential backoff with full jitter: a random wait between zero and the backoff of this attempt, so clients
+     * that failed together do not all retry at the same moment.
+     */
+    private long backoffNanos(int attempt) {
+        long backoff = Math.min(maxBackoffNanos, initialBackoffNanos << Math.min(attempt - 1, 30));
+        return backoff > 0 ? ThreadLocalRandom.current().nextLong(backoff + 1) : 0;
+    }
+
+    /**
+     * Sends the request, and sends it again if it is still unanswered after the hedge delay and the hedge budget
+     * allows. The first successful response wins and the other request is cancelled, giving back its limiter slot
+     * and connection; the attempt fails only when every request sent failed.
+     */
+    private CompletableFuture<Schedule> hedged(Supplier<CompletableFuture<Schedule>> request) {
+        long percentile = scheduleLatency.percentileNanos();
+        hedgeableRequests.incrementAndGet();
+        if (percentile < 0) {
+            return timed(request);
+        }
+
+        CompletableFuture<Schedule> result = new CompletableFuture<>();
+        AtomicInteger outstanding = new AtomicInteger(1);
+        CompletableFuture<Schedule> first = timed(request);
+        first.whenComplete((schedule, ex) -> settle(result, outstanding, schedule, ex, false));
+        result.whenComplete((schedule, ex) -> first.cancel(true));
+        CompletableFuture.delayedExecutor(Math.max(minHedgeDelayNanos, percentile), TimeUnit.NANOSECONDS).execute(() -> {
+            if (result.isDone() || !takeHedgeBudget()) {
+                return;
+            }
+            outstanding.incrementAndGet();
+            hedgesSentCounter.increment();
+            CompletableFuture<Schedule> second = timed(request);
+            second.whenComplete((schedule, ex) -> settle(result, outstanding, schedule, ex, true));
+            result.whenComplete((schedule, ex) -> second.cancel(true));
+        });
+        return result;
+    }
+
+    private void settle(CompletableFuture<Schedule> result, AtomicInteger outstanding, Schedule schedule, Throwable ex,
+                        boolean hedge) {
+        if (ex == null) {
+            if (result.complete(schedule) && hedge) {
+                hedgesWonCounter.increment();
+            }
+        } else if (outstanding.decrementAndGet() == 0) {
+            result.completeExceptionally(ex);
+        }
+    }
+
+    private boolean takeHedgeBudget() {
+        while (true) {
+            long sent = hedgesSent.get();
+            if (sent + 1 > maxHedgeRatio * hedgeableRequests.get()) {
+                return false;
+            }
+            if (hedgesSent.compareAndSet(sent, sent + 1)) {
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Sends the request and records its latency. The request future itself is returned, so cancelling it cancels
+     * the request.
+     */
+    private CompletableFuture<Schedule> timed(Supplier<CompletableFuture<Schedule>> request) {
+        long start = System.nanoTime();
+        CompletableFuture<Schedule> response = request.get();
+        response.whenComplete((schedule, ex) -> {
+            if (ex == null) {
+                scheduleLatency.record(System.nanoTime() - start);
+            }
+        });
+        return response;
+    }
+
+    private static Endpoint endpoint(String name, UpstreamResilienceProperties.CircuitBreaker properties,
+                                     MeterRegistry meterRegistry) {
+        CircuitBreaker circuitBreaker = new CircuitBreaker(properties);
+        Gauge.builder(CIRCUIT_STATE_METRIC, circuitBreaker, breaker -> breaker.getState().ordinal())
+                .description("State of the circuit breaker: 0 closed, 1 half-open, 2 open")
+                .tag("endpoint", name)
+                .register(meterRegistry);
+        Counter rejected = Counter.builder(CIRCUIT_REJECTED_METRIC)
+                .description("Calls rejected because the circuit breaker was open")
+                .tag("endpoint", name)
+                .register(meterRegistry);
+        Counter retries = Counter.builder(RETRY_METRIC)
+                .description("Calls retried after a transient failure")
+                .tag("endpoint", name)
+                .register(meterRegistry);
+        return new Endpoint(name, circuitBreaker, rejected, retries);
+    }
+}
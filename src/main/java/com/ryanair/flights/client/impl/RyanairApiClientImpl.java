@@ -2,46 +2,74 @@ package com.ryanair.flights.client.impl;
 
 import com.ryanair.flights.client.RyanairApiClient;
 import com.ryanair.flights.exception.ExternalApiException;
+import com.ryanair.flights.metrics.SearchMetrics;
 import com.ryanair.flights.model.external.Route;
 import com.ryanair.flights.model.external.Schedule;
 import com.ryanair.flights.util.Constants;
-import org.springframework.beans.factory.annotation.Autowired;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.stereotype.Service;
+import org.springframework.web.client.ResourceAccessException;
+import org.springframework.web.client.RestClientResponseException;
 import org.springframework.web.client.RestTemplate;
 
 import java.text.MessageFormat;
 import java.util.List;
 
 @Service
+@Qualifier(RyanairApiClient.UPSTREAM)
+@ConditionalOnProperty(name = "ryanair.upstream.http.client", havingValue = "rest-template", matchIfMissing = true)
 public class RyanairApiClientImpl implements RyanairApiClient {
 
     private final RestTemplate restTemplate;
+    private final SearchMetrics searchMetrics;
 
-    @Autowired
-    public RyanairApiClientImpl(RestTemplate restTemplate) {
+    public RyanairApiClientImpl(RestTemplate restTemplate, SearchMetrics searchMetrics) {
         this.restTemplate = restTemplate;
+        this.searchMetrics = searchMetrics;
     }
 
     @Override
     public List<Route> getRoutes() {
+        Timer.Sample sample = searchMetrics.startTimer();
+        Route[] routes;
         try {
-            Route[] routes = restTemplate.getForObject(Constants.ROUTES_API_URL, Route[].class);
-            if (routes != null && routes.length == 0) {
-                throw new ExternalApiException("No routes found");
-            }
-            return List.of(routes);
+            routes = restTemplate.getForObject(Constants.ROUTES_API_URL, Route[].class);
         } catch (Exception e) {
-            throw new ExternalApiException(e.getMessage());
+            recordFailure(sample, "routes", e);
+            throw new ExternalApiException(e.getMessage(), e);
         }
+        searchMetrics.recordUpstreamCall(sample, "routes", "2xx", "success");
+        if (routes == null || routes.length == 0) {
+            throw new ExternalApiException("No routes found");
+        }
+        return List.of(routes);
     }
 
     @Override
     public Schedule getSchedule(String from, String to, int year, int month) {
         String url = MessageFormat.format(Constants.SCHEDULES_API_URL, from, to, String.valueOf(year), String.valueOf(month));
+        Timer.Sample sample = searchMetrics.startTimer();
         try {
-            return restTemplate.getForObject(url, Schedule.class);
+            Schedule schedule = restTemplate.getForObject(url, Schedule.class);
+            searchMetrics.recordUpstreamCall(sample, "schedules", "2xx", "success");
+            return schedule;
         } catch (Exception e) {
-            throw new ExternalApiException(e.getMessage());
+            recordFailure(sample, "schedules", e);
+            throw new ExternalApiException(e.getMessage(), e);
+        }
+    }
+
+    private void recordFailure(Timer.Sample sample, String endpoint, Exception e) {
+        if (e instanceof RestClientResponseException responseException) {
+            int status = responseException.getStatusCode().value();
+            searchMetrics.recordUpstreamCall(sample, endpoint, String.valueOf(status),
+                    status >= 500 ? "server_error" : "client_error");
+        } else if (e instanceof ResourceAccessException) {
+            searchMetrics.recordUpstreamCall(sample, endpoint, "IO_ERROR", "error");
+        } else {
+            searchMetrics.recordUpstreamCall(sample, endpoint, "NONE", "error");
         }
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,101 @@
+package com.ryanair.flights.client.impl;
+
+import com.ryanair.flights.client.RyanairApiClient;
+import com.ryanair.flights.config.WebClientConfig;
+import com.ryanair.flights.exception.ExternalApiException;
+import com.ryanair.flights.metrics.SearchMetrics;
+import com.ryanair.flights.model.external.Route;
+import com.ryanair.flights.model.external.Schedule;
+import com.ryanair.flights.util.Constants;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.reactive.function.client.WebClientRequestException;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import reactor.core.publisher.Mono;
+
+import java.text.MessageFormat;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+
+/**
+ * Non-blocking client of the Ryanair APIs. Requests only hold a connection while in flight, never a thread, so
+ * the number of concurrent calls is bounded by the connection pool of {@link WebClientConfig} rather than by an
+ * executor. The blocking methods wait on the reactive ones for callers that need a value, such as cache loaders.
+ */
+@Service
+@Qualifier(RyanairApiClient.UPSTREAM)
+@ConditionalOnProperty(name = "ryanair.upstream.http.client", havingValue = "web-client")
+public class WebClientRyanairApiClient implements RyanairApiClient {
+
+    private final WebClient webClient;
+    private final SearchMetrics searchMetrics;
+
+    public WebClientRyanairApiClient(@Qualifier(WebClientConfig.UPSTREAM_WEB_CLIENT) WebClient webClient,
+                                     SearchMetrics searchMetrics) {
+        this.webClient = webClient;
+        this.searchMetrics = searchMetrics;
+    }
+
+    @Override
+    public List<Route> getRoutes() {
+        return routes().block();
+    }
+
+    @Override
+    public Schedule getSchedule(String from, String to, int year, int month) {
+        return schedule(from, to, year, month).block();
+    }
+
+    @Override
+    public CompletableFuture<Schedule> getScheduleAsync(String from, String to, int year, int month, Executor executor) {
+        return schedule(from, to, year, month).toFuture();
+    }
+
+    @Override
+    public boolean isNonBlocking() {
+        return true;
+    }
+
+    public Mono<List<Route>> routes() {
+        return call("routes", Constants.ROUTES_API_URL, Route[].class)
+                .filter(routes -> routes.length > 0)
+                .switchIfEmpty(Mono.error(() -> new ExternalApiException("No routes found")))
+                .map(List::of);
+    }
+
+    public Mono<Schedule> schedule(String from, String to, int year, int month) {
+        String url = MessageFormat.format(Constants.SCHEDULES_API_URL, from, to, String.valueOf(year), String.valueOf(month));
+        return call("schedules", url, Schedule.class);
+    }
+
+    private <T> Mono<T> call(String endpoint, String url, Class<T> type) {
+        return Mono.defer(() -> {
+            Timer.Sample sample = searchMetrics.startTimer();
+            return webClient.get()
+                    .uri(url)
+                    .retrieve()
+                    .bodyToMono(type)
+                    .doOnSuccess(body -> searchMetrics.recordUpstreamCall(sample, endpoint, "2xx", "success"))
+                    .onErrorMap(e -> !(e instanceof ExternalApiException), e -> {
+                        recordFailure(sample, endpoint, e);
+                        return new ExternalApiException(e.getMessage(), e);
+                    });
+        });
+    }
+
+    private void recordFailure(Timer.Sample sample, String endpoint, Throwable e) {
+        if (e instanceof WebClientResponseException responseException) {
+            int status = responseException.getStatusCode().value();
+            searchMetrics.recordUpstreamCall(sample, endpoint, String.valueOf(status),
+                    status >= 500 ? "server_error" : "client_error");
+        } else if (e instanceof WebClientRequestException) {
+            searchMetrics.recordUpstreamCall(sample, endpoint, "IO_ERROR", "error");
+        } else {
+            searchMetrics.recordUpstreamCall(sample, endpoint, "NONE", "error");
+        }
+    }
+}
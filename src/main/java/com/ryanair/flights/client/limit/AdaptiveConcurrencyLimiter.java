@@ -0,0 +1,204 @@
+package com.ryanair.flights.client.limit;
+
+import com.ryanair.flights.config.UpstreamLimitProperties;
+import com.ryanair.flights.exception.ConcurrencyLimitExceededException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.LongSupplier;
+
+/**
+ * Limits the number of upstream requests in flight with an AIMD (additive increase, multiplicative decrease)
+ * limit. Every successful response grows the limit by one while at least half of it is in use; a throttled,
+ * failed or slow response shrinks it by the backoff ratio. Only one decrease is applied per generation of
+ * requests, so a burst of failures caused by a single overload does not collapse the limit.
+ * <p>
+ * Requests that find the limit reached wait in one queue per {@link UpstreamTenant}, and freed slots are handed
+ * to the tenants in turn. A search with hundreds of pending requests therefore gets one slot for every slot of a
+ * search with a few, instead of all the slots that free up before the smaller search gets to ask.
+ */
+public class AdaptiveConcurrencyLimiter {
+
+    public static final String LIMIT_METRIC = "ryanair.upstream.limit";
+    public static final String IN_FLIGHT_METRIC = "ryanair.upstream.limit.inflight";
+    public static final String QUEUED_METRIC = "ryanair.upstream.limit.queued";
+    public static final String DECREASE_METRIC = "ryanair.upstream.limit.decreases";
+    public static final String REJECTED_METRIC = "ryanair.upstream.limit.rejected";
+
+    public enum Outcome {
+        /**
+         * Upstream answered in time.
+         */
+        SUCCESS,
+        /**
+         * Upstream is overloaded: it throttled, failed, timed out, or answered slower than the latency threshold.
+         */
+        DROPPED,
+        /**
+         * The response says nothing about upstream load, e.g. a 404 for a route without a schedule.
+         */
+        IGNORED
+    }
+
+    /**
+     * A slot taken by one request. It must be released exactly once with the outcome of the request.
+     */
+    public final class Permit {
+        private final long startNanos;
+        private final long generation;
+        private final AtomicBoolean released = new AtomicBoolean();
+
+        private Permit(long generation) {
+            this.startNanos = nanoTime.getAsLong();
+            this.generation = generation;
+        }
+
+        public void release(Outcome outcome) {
+            if (released.compareAndSet(false, true)) {
+                AdaptiveConcurrencyLimiter.this.release(this, outcome, nanoTime.getAsLong() - startNanos);
+            }
+        }
+    }
+
+    private record Grant(CompletableFuture<Permit> waiter, Permit permit) {
+    }
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final double backoffRatio;
+    private final long latencyThresholdNanos;
+    private final int maxQueued;
+    private final LongSupplier nanoTime;
+    private final Counter decreases;
+    private final Counter rejected;
+
+    private final Map<Object, Queue<CompletableFuture<Permit>>> waiting = new HashMap<>();
+    private final Queue<Object> turns = new ArrayDeque<>();
+    private double limit;
+    private int inFlight;
+    private int queued;
+    private long generation;
+
+    public AdaptiveConcurrencyLimiter(UpstreamLimitProperties properties, MeterRegistry meterRegistry) {
+        this(properties, meterRegistry, System::nanoTime);
+    }
+
+    AdaptiveConcurrencyLimiter(UpstreamLimitProperties properties, MeterRegistry meterRegistry, LongSupplier nanoTime) {
+        this.minLimit = Math.max(1, properties.getMinLimit());
+        this.maxLimit = Math.max(minLimit, properties.getMaxLimit());
+        this.backoffRatio = properties.getBackoffRatio();
+        this.latencyThresholdNanos = properties.getLatencyThreshold().toNanos();
+        this.maxQueued = properties.getMaxQueued();
+        this.nanoTime = nanoTime;
+        this.limit = Math.min(maxLimit, Math.max(minLimit, properties.getInitialLimit()));
+
+        Gauge.builder(LIMIT_METRIC, this, AdaptiveConcurrencyLimiter::getLimit)
+                .description("Current limit on concurrent upstream schedule requests")
+                .register(meterRegistry);
+        Gauge.builder(IN_FLIGHT_METRIC, this, AdaptiveConcurrencyLimiter::getInFlight)
+                .description("Upstream schedule requests in flight")
+                .register(meterRegistry);
+        Gauge.builder(QUEUED_METRIC, this, AdaptiveConcurrencyLimiter::getQueued)
+                .description("Upstream schedule requests waiting for a slot")
+                .register(meterRegistry);
+        this.decreases = Counter.builder(DECREASE_METRIC)
+                .description("Times the limit was lowered after upstream throttled, failed or slowed down")
+                .register(meterRegistry);
+        this.rejected = Counter.builder(REJECTED_METRIC)
+                .description("Upstream schedule requests rejected because too many were waiting")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Takes a slot for the given tenant. The future completes immediately when a slot is free, later when one is
+     * handed to this tenant, or exceptionally with a {@link ConcurrencyLimitExceededException} when the queue is
+     * full. Cancelling a waiting future gives up its place in the queue.
+     */
+    public synchronized CompletableFuture<Permit> acquire(Object tenant) {
+        if (queued == 0 && inFlight < getLimit()) {
+            inFlight++;
+            return CompletableFuture.completedFuture(new Permit(generation));
+        }
+        if (queued >= maxQueued) {
+            rejected.increment();
+            return CompletableFuture.failedFuture(new ConcurrencyLimitExceededException("Too many upstream requests are waiting"));
+        }
+        CompletableFuture<Permit> waiter = new CompletableFuture<>();
+        waiting.computeIfAbsent(tenant, k -> {
+            turns.add(k);
+            return new ArrayDeque<>();
+        }).add(waiter);
+        queued++;
+        return waiter;
+    }
+
+    public synchronized int getLimit() {
+        return (int) limit;
+    }
+
+    public synchronized int getInFlight() {
+        return inFlight;
+    }
+
+    public synchronized int getQueued() {
+        return queued;
+    }
+
+    private void release(Permit permit, Outcome outcome, long latencyNanos) {
+        List<Grant> grants;
+        synchronized (this) {
+            if (outcome == Outcome.SUCCESS && latencyNanos > latencyThresholdNanos) {
+                outcome = Outcome.DROPPED;
+            }
+            if (outcome == Outcome.SUCCESS && inFlight * 2 >= limit) {
+                limit = Math.min(maxLimit, limit + 1);
+            } else if (outcome == Outcome.DROPPED && permit.generation == generation) {
+                // Requests started before this decrease were sent under the old limit; their failures are not news
+                limit = Math.max(minLimit, limit * backoffRatio);
+                generation++;
+                decreases.increment();
+            }
+            inFlight--;
+            grants = grantWaiting();
+        }
+        for (Grant grant : grants) {
+            if (!grant.waiter().complete(grant.permit())) {
+                grant.permit().release(Outcome.IGNORED);
+            }
+        }
+    }
+
+    /**
+     * Hands free slots to waiting requests, one per tenant in turn. A tenant that still has waiting requests goes
+     * to the back of the line. The waiters are completed by the caller, outside the lock, as completing them may
+     * start the next request.
+     */
+    private List<Grant> grantWaiting() {
+        List<Grant> grants = new ArrayList<>();
+        while (queued > 0 && inFlight < getLimit()) {
+            Object tenant = turns.poll();
+            Queue<CompletableFuture<Permit>> tenantWaiters = waiting.get(tenant);
+            CompletableFuture<Permit> waiter = tenantWaiters.poll();
+            queued--;
+            if (tenantWaiters.isEmpty()) {
+                waiting.remove(tenant);
+            } else {
+                turns.add(tenant);
+            }
+            if (!waiter.isDone()) {
+                inFlight++;
+                grants.add(new Grant(waiter, new Permit(generation)));
+            }
+        }
+        return grants;
+    }
+}
@@ -0,0 +1,38 @@
+package com.ryanair.flights.client.limit;
+
+import java.util.function.Supplier;
+
+/**
+ * Identifies on whose behalf upstream requests are made, so the {@link AdaptiveConcurrencyLimiter} can share its
+ * slots fairly between searches. The tenant is bound to the calling thread for the duration of
+ * {@link #callAs}, which covers cache loads that run on that thread. Requests made outside of it, such as
+ * background cache refreshes, belong to {@link #BACKGROUND}.
+ */
+public final class UpstreamTenant {
+
+    public static final Object BACKGROUND = "background";
+
+    private static final ThreadLocal<Object> CURRENT = new ThreadLocal<>();
+
+    private UpstreamTenant() {
+    }
+
+    public static Object current() {
+        Object tenant = CURRENT.get();
+        return tenant != null ? tenant : BACKGROUND;
+    }
+
+    public static <T> T callAs(Object tenant, Supplier<T> action) {
+        Object previous = CURRENT.get();
+        CURRENT.set(tenant);
+        try {
+            return action.get();
+        } finally {
+            if (previous != null) {
+                CURRENT.set(previous);
+            } else {
+                CURRENT.remove();
+            }
+        }
+    }
+}
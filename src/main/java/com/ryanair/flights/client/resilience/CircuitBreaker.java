@@ -0,0 +1,136 @@
+package com.ryanair.flights.client.resilience;
+
+import com.ryanair.flights.config.UpstreamResilienceProperties;
+
+import java.util.function.LongSupplier;
+
+/**
+ * Count-based circuit breaker. While closed, it keeps the outcome of the last {@code slidingWindowSize} calls and
+ * opens once enough of them failed. While open, every call is rejected until {@code openDuration} has passed; then
+ * a few trial calls are let through, and the breaker closes when all of them succeed or opens again on the first
+ * failure. A disabled breaker stays closed.
+ */
+public class CircuitBreaker {
+
+    public enum State {
+        CLOSED,
+        HALF_OPEN,
+        OPEN
+    }
+
+    private final boolean enabled;
+    private final double failureRateThreshold;
+    private final int minimumCalls;
+    private final long openDurationNanos;
+    private final int halfOpenCalls;
+    private final LongSupplier nanoTime;
+
+    private final boolean[] window;
+    private int windowNext;
+    private int windowCount;
+    private int windowFailures;
+
+    private State state = State.CLOSED;
+    private long openedAt;
+    private int trialCallsStarted;
+    private int trialCallsSucceeded;
+
+    public CircuitBreaker(UpstreamResilienceProperties.CircuitBreaker properties) {
+        this(properties, System::nanoTime);
+    }
+
+    CircuitBreaker(UpstreamResilienceProperties.CircuitBreaker properties, LongSupplier nanoTime) {
+        this.enabled = properties.isEnabled();
+        this.failureRateThreshold = properties.getFailureRateThreshold();
+        this.window = new boolean[Math.max(1, properties.getSlidingWindowSize())];
+        this.minimumCalls = Math.min(window.length, Math.max(1, properties.getMinimumCalls()));
+        this.openDurationNanos = properties.getOpenDuration().toNanos();
+        this.halfOpenCalls = Math.max(1, properties.getHalfOpenCalls());
+        this.nanoTime = nanoTime;
+    }
+
+    /**
+     * @return true when the call may go ahead. The caller must then report its outcome with {@link #onSuccess()},
+     * {@link #onFailure()} or, when the call was not sent after all, {@link #onNotSent()}.
+     */
+    public synchronized boolean tryAcquire() {
+        if (state == State.OPEN) {
+            if (nanoTime.getAsLong() - openedAt < openDurationNanos) {
+                return false;
+            }
+            state = State.HALF_OPEN;
+            trialCallsStarted = 0;
+            trialCallsSucceeded = 0;
+        }
+        if (state == State.HALF_OPEN) {
+            if (trialCallsStarted >= halfOpenCalls) {
+                return false;
+            }
+            trialCallsStarted++;
+        }
+        return true;
+    }
+
+    public synchronized void onSuccess() {
+        if (state == State.HALF_OPEN) {
+            if (++trialCallsSucceeded >= halfOpenCalls) {
+                state = State.CLOSED;
+                resetWindow();
+            }
+        } else if (state == State.CLOSED) {
+            record(false);
+        }
+    }
+
+    public synchronized void onFailure() {
+        if (state == State.HALF_OPEN) {
+            open();
+        } else if (state == State.CLOSED && enabled) {
+            record(true);
+            if (windowCount >= minimumCalls && windowFailures >= failureRateThreshold * windowCount) {
+                open();
+            }
+        }
+    }
+
+    /**
+     * Reports a call that was let through but never reached upstream. It says nothing about upstream health, so it
+     * only hands back its half-open trial slot.
+     */
+    public synchronized void onNotSent() {
+        if (state == State.HALF_OPEN && trialCallsStarted > trialCallsSucceeded) {
+            trialCallsStarted--;
+        }
+    }
+
+    public synchronized State getState() {
+        return state;
+    }
+
+    private void open() {
+        state = State.OPEN;
+        openedAt = nanoTime.getAsLong();
+        resetWindow();
+    }
+
+    private void record(boolean failed) {
+        if (windowCount == window.length) {
+            if (window[windowNext]) {
+                windowFailures--;
+            }
+        } else {
+            windowCount++;
+        }
+        window[windowNext] = failed;
+        if (failed) {
+            windowFailures++;
+        }
+        windowNext = (windowNext + 1) % window.length;
+    }
+
+    private void resetWindow() {
+        windowNext = 0;
+        windowCount = 0;
+        windowFailures = 0;
+    }
+}
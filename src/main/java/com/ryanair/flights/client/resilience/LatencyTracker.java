@@ -0,0 +1,43 @@
+package com.ryanair.flights.client.resilience;
+
+import java.util.Arrays;
+
+/**
+ * Keeps the latencies of the most recent requests and a percentile of them. The percentile is recomputed every
+ * {@link #RECOMPUTE_INTERVAL} samples rather than on every read, as it is read once per request.
+ */
+public class LatencyTracker {
+
+    static final int RECOMPUTE_INTERVAL = 50;
+
+    private final long[] samples;
+    private final double percentile;
+    private final int minSamples;
+    private int next;
+    private long count;
+    private volatile long percentileNanos = -1;
+
+    public LatencyTracker(int capacity, double percentile, int minSamples) {
+        this.samples = new long[Math.max(1, capacity)];
+        this.percentile = percentile;
+        this.minSamples = Math.max(1, Math.min(samples.length, minSamples));
+    }
+
+    public synchronized void record(long latencyNanos) {
+        samples[next] = latencyNanos;
+        next = (next + 1) % samples.length;
+        count++;
+        if (count >= minSamples && (count == minSamples || count % RECOMPUTE_INTERVAL == 0)) {
+            long[] sorted = Arrays.copyOf(samples, (int) Math.min(count, samples.length));
+            Arrays.sort(sorted);
+            percentileNanos = sorted[(int) Math.max(0, Math.min(sorted.length - 1, Math.ceil(percentile * sorted.length) - 1))];
+        }
+    }
+
+    /**
+     * @return the percentile latency in nanoseconds, or -1 while fewer than {@code minSamples} were recorded.
+     */
+    public long percentileNanos() {
+        return percentileNanos;
+    }
+}
@@ -0,0 +1,122 @@
+package com.ryanair.flights.config;
+
+import java.util.List;
+import java.util.concurrent.AbstractExecutorService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Runs every task on its own virtual thread, but at most {@code maxConcurrency} of them at once. Up to
+ * {@code queueCapacity} more tasks wait for a turn, in submission order, on a parked virtual thread; a task beyond
+ * that is rejected by the rejection policy, as a full {@link java.util.concurrent.ThreadPoolExecutor} would.
+ */
+class BoundedVirtualThreadExecutor extends AbstractExecutorService {
+
+    private final ExecutorService threads;
+    private final Semaphore running;
+    private final Semaphore admitted;
+    private final UpstreamExecutorProperties.RejectionPolicy rejectionPolicy;
+    private final Runnable onRejected;
+    private final AtomicInteger active = new AtomicInteger();
+    private final AtomicInteger queued = new AtomicInteger();
+
+    BoundedVirtualThreadExecutor(int maxConcurrency, int queueCapacity, UpstreamExecutorProperties.RejectionPolicy rejectionPolicy,
+                                 ThreadFactory threadFactory, Runnable onRejected) {
+        this.threads = Executors.newThreadPerTaskExecutor(threadFactory);
+        this.running = new Semaphore(maxConcurrency, true);
+        this.admitted = new Semaphore(maxConcurrency + queueCapacity);
+        this.rejectionPolicy = rejectionPolicy;
+        this.onRejected = onRejected;
+    }
+
+    @Override
+    public void execute(Runnable task) {
+        if (threads.isShutdown()) {
+            throw new RejectedExecutionException("The executor is shut down");
+        }
+        if (!admitted.tryAcquire()) {
+            reject(task);
+            return;
+        }
+        queued.incrementAndGet();
+        try {
+            threads.execute(() -> runWhenAllowed(task));
+        } catch (RejectedExecutionException e) {
+            queued.decrementAndGet();
+            admitted.release();
+            throw e;
+        }
+    }
+
+    /**
+     * @return The number of tasks running.
+     */
+    int getActiveCount() {
+        return active.get();
+    }
+
+    /**
+     * @return The number of tasks waiting for their turn to run.
+     */
+    int getQueueSize() {
+        return queued.get();
+    }
+
+    private void runWhenAllowed(Runnable task) {
+        try {
+            running.acquire();
+        } catch (InterruptedException e) {
+            // Interrupted by shutdownNow before the task got its turn: the task is dropped
+            queued.decrementAndGet();
+            admitted.release();
+            return;
+        }
+        queued.decrementAndGet();
+        active.incrementAndGet();
+        try {
+            task.run();
+        } finally {
+            active.decrementAndGet();
+            running.release();
+            admitted.release();
+        }
+    }
+
+    private void reject(Runnable task) {
+        onRejected.run();
+        switch (rejectionPolicy) {
+            case CALLER_RUNS -> task.run();
+            case ABORT -> throw new RejectedExecutionException("Upstream executor is full, " + queued.get() + " tasks are queued");
+        }
+    }
+
+    @Override
+    public void shutdown() {
+        threads.shutdown();
+    }
+
+    @Override
+    public List<Runnable> shutdownNow() {
+        return threads.shutdownNow();
+    }
+
+    @Override
+    public boolean isShutdown() {
+        return threads.isShutdown();
+    }
+
+    @Override
+    public boolean isTerminated() {
+        return threads.isTerminated();
+    }
+
+    @Override
+    public boolean awaitTermination(long timeout, TimeUnit unit) throws InterruptedException {
+        return threads.awaitTermination(timeout, unit);
+    }
+}
@@ -1,23 +1,91 @@
 package com.ryanair.flights.config;
 
+import com.github.benmanes.caffeine.cache.AsyncLoadingCache;
 import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.LoadingCache;
+import com.ryanair.flights.client.RyanairApiClient;
+import com.ryanair.flights.model.internal.CompactSchedule;
+import com.ryanair.flights.model.internal.ScheduleEvictedEvent;
+import com.ryanair.flights.model.internal.ScheduleKey;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.cache.Cache;
 import org.springframework.cache.CacheManager;
 import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.caffeine.CaffeineCache;
 import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
-import java.util.concurrent.TimeUnit;
+import java.time.Clock;
+import java.util.concurrent.Executor;
 
 @Configuration
 @EnableCaching
+@EnableConfigurationProperties({ScheduleCacheProperties.class, RouteCacheProperties.class, ResultCacheProperties.class,
+        PrewarmProperties.class, SnapshotProperties.class})
 public class CacheConfig {
+
+    public static final String SCHEDULES_CACHE = "schedules";
+
+    /**
+     * Schedules load through the Ryanair API client and are kept as {@link CompactSchedule}s. The cache is an
+     * asynchronous one, so a month being loaded is a single future that every caller asking for it shares, and a
+     * blocking client runs its requests on the upstream executor. Entries read after their refresh-after-write
+     * age are reloaded in the background while the previous value keeps being served.
+     * Every schedule leaving the cache is announced as a {@link ScheduleEvictedEvent}, so that search results
+     * built from it can be dropped as well.
+     */
     @Bean
-    public CacheManager cacheManager() {
-        CaffeineCacheManager cacheManager = new CaffeineCacheManager("routes");
-        cacheManager.setCaffeine(Caffeine.newBuilder()
-                .maximumSize(5000)
-                .expireAfterWrite(12, TimeUnit.HOURS));
+    public CacheManager cacheManager(ScheduleCacheProperties scheduleCacheProperties, RyanairApiClient ryanairApiClient,
+                                     ApplicationEventPublisher eventPublisher,
+                                     @Qualifier(ExecutorConfig.UPSTREAM_EXECUTOR) Executor upstreamExecutor) {
+        CaffeineCacheManager cacheManager = new CaffeineCacheManager();
+        cacheManager.registerCustomCache(SCHEDULES_CACHE, Caffeine.newBuilder()
+                .maximumSize(scheduleCacheProperties.getMaximumSize())
+                .expireAfter(new ScheduleExpiry(scheduleCacheProperties, Clock.systemDefaultZone()))
+                .refreshAfterWrite(scheduleCacheProperties.getRefreshAfterWrite())
+                .executor(upstreamExecutor)
+                .removalListener((key, value, cause) -> {
+                    if (key instanceof ScheduleKey scheduleKey) {
+                        eventPublisher.publishEvent(new ScheduleEvictedEvent(scheduleKey));
+                    }
+                })
+                .recordStats()
+                .buildAsync((key, executor) -> {
+                    ScheduleKey scheduleKey = (ScheduleKey) key;
+                    return ryanairApiClient.getScheduleAsync(scheduleKey.from(), scheduleKey.to(),
+                                    scheduleKey.month().getYear(), scheduleKey.month().getMonthValue(), executor)
+                            .thenApply(schedule -> CompactSchedule.from(scheduleKey, schedule));
+                }));
         return cacheManager;
     }
-}
\ No newline at end of file
+
+    /**
+     * @return A synchronous view of the Caffeine cache behind the {@link #SCHEDULES_CACHE}, for the bulk reads and
+     * writes the Spring {@link Cache} does not offer, or null when there is no cache manager or the cache is not a
+     * loading one.
+     */
+    @SuppressWarnings("unchecked")
+    public static LoadingCache<Object, Object> schedulesCache(CacheManager cacheManager) {
+        Cache cache = cacheManager == null ? null : cacheManager.getCache(SCHEDULES_CACHE);
+        if (cache != null && cache.getNativeCache() instanceof LoadingCache<?, ?> loadingCache) {
+            return (LoadingCache<Object, Object>) loadingCache;
+        }
+        return null;
+    }
+
+    /**
+     * @return The asynchronous Caffeine cache behind the {@link #SCHEDULES_CACHE}.
+     * @throws IllegalStateException When the cache manager has no schedule cache built by {@link #cacheManager}.
+     */
+    @SuppressWarnings("unchecked")
+    public static AsyncLoadingCache<Object, Object> schedulesAsyncCache(CacheManager cacheManager) {
+        if (cacheManager.getCache(SCHEDULES_CACHE) instanceof CaffeineCache cache
+                && cache.getAsyncCache() instanceof AsyncLoadingCache<?, ?> loadingCache) {
+            return (AsyncLoadingCache<Object, Object>) loadingCache;
+        }
+        throw new IllegalStateException("The " + SCHEDULES_CACHE + " cache is not an asynchronous loading cache");
+    }
+}
@@ -0,0 +1,29 @@
+package com.ryanair.flights.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Settings of the hub connectivity index built from the cached schedules. In {@code shadow} mode the index only
+ * predicts which route pairs cannot connect and every prediction is checked against the search; in {@code prune}
+ * mode those pairs are skipped before their schedules are fetched, except for a {@code verificationRate} share that
+ * is still searched to keep measuring how often the index is right.
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "ryanair.connectivity")
+public class ConnectivityProperties {
+
+    public enum Mode {
+        OFF,
+        SHADOW,
+        PRUNE
+    }
+
+    private Mode mode = Mode.SHADOW;
+    private Duration interval = Duration.ofMinutes(10);
+    private double verificationRate = 0.05;
+}
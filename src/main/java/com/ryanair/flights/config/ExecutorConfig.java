@@ -0,0 +1,80 @@
+package com.ryanair.flights.config;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.BaseUnits;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionHandler;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+@Configuration
+@EnableConfigurationProperties(UpstreamExecutorProperties.class)
+public class ExecutorConfig {
+
+    public static final String UPSTREAM_EXECUTOR = "upstreamExecutor";
+    public static final String REJECTED_METRIC = "executor.rejected";
+
+    /**
+     * Executor for blocking upstream I/O, kept apart from {@code ForkJoinPool.commonPool()} which is sized to the
+     * CPU count and shared with parallel streams. Both modes bound the tasks running and queued, and count the
+     * tasks the rejection policy had to handle.
+     */
+    @Bean(name = UPSTREAM_EXECUTOR, destroyMethod = "shutdown")
+    public ExecutorService upstreamExecutor(UpstreamExecutorProperties properties, MeterRegistry meterRegistry) {
+        Counter rejected = Counter.builder(REJECTED_METRIC)
+                .description("Tasks that found the executor and its queue full and were handled by the rejection policy")
+                .tag("name", UPSTREAM_EXECUTOR)
+                .register(meterRegistry);
+        ExecutorService executor = switch (properties.getMode()) {
+            case VIRTUAL -> virtualExecutor(properties, meterRegistry, rejected);
+            case BOUNDED -> new ThreadPoolExecutor(
+                    properties.getCorePoolSize(),
+                    properties.getMaxPoolSize(),
+                    properties.getKeepAlive().toMillis(), TimeUnit.MILLISECONDS,
+                    new LinkedBlockingQueue<>(properties.getQueueCapacity()),
+                    Thread.ofPlatform().name("upstream-", 0).daemon().factory(),
+                    rejectionHandler(properties.getRejectionPolicy(), rejected));
+        };
+        return ExecutorServiceMetrics.monitor(meterRegistry, executor, UPSTREAM_EXECUTOR);
+    }
+
+    /**
+     * {@link ExecutorServiceMetrics} reports the running and queued tasks of the JDK thread pools only, so the
+     * virtual thread executor registers them under the same names itself.
+     */
+    private ExecutorService virtualExecutor(UpstreamExecutorProperties properties, MeterRegistry meterRegistry, Counter rejected) {
+        BoundedVirtualThreadExecutor executor = new BoundedVirtualThreadExecutor(properties.getMaxPoolSize(),
+                properties.getQueueCapacity(), properties.getRejectionPolicy(),
+                Thread.ofVirtual().name("upstream-vt-", 0).factory(), rejected::increment);
+        Gauge.builder("executor.active", executor, BoundedVirtualThreadExecutor::getActiveCount)
+                .description("The approximate number of threads that are actively executing tasks")
+                .tag("name", UPSTREAM_EXECUTOR)
+                .baseUnit(BaseUnits.THREADS)
+                .register(meterRegistry);
+        Gauge.builder("executor.queued", executor, BoundedVirtualThreadExecutor::getQueueSize)
+                .description("The approximate number of tasks that are queued for execution")
+                .tag("name", UPSTREAM_EXECUTOR)
+                .baseUnit(BaseUnits.TASKS)
+                .register(meterRegistry);
+        return executor;
+    }
+
+    private RejectedExecutionHandler rejectionHandler(UpstreamExecutorProperties.RejectionPolicy policy, Counter rejected) {
+        RejectedExecutionHandler handler = switch (policy) {
+            case CALLER_RUNS -> new ThreadPoolExecutor.CallerRunsPolicy();
+            case ABORT -> new ThreadPoolExecutor.AbortPolicy();
+        };
+        return (task, executor) -> {
+            rejected.increment();
+            handler.rejectedExecution(task, executor);
+        };
+    }
+}
@@ -0,0 +1,32 @@
+package com.ryanair.flights.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "ryanair.pagination")
+public class PaginationProperties {
+    /**
+     * Flights per page when a paginated request does not name a page size.
+     */
+    private int defaultPageSize = 50;
+
+    /**
+     * Largest page size a request may ask for.
+     */
+    private int maxPageSize = 500;
+
+    /**
+     * Total number of flight legs held across all paginated result sets.
+     */
+    private long maximumWeight = 500_000;
+
+    /**
+     * How long a result set can be paged through after its first page was served.
+     */
+    private Duration ttl = Duration.ofMinutes(10);
+}
@@ -0,0 +1,26 @@
+package com.ryanair.flights.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Settings of the background job loading routes and the schedules of popular searches before users ask for them.
+ * Popular searches are the configured {@code routes}, written as {@code DUB-WRO}, plus the {@code topRecentSearches}
+ * most frequent recent searches.
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "ryanair.prewarm")
+public class PrewarmProperties {
+    private boolean enabled = true;
+    private Duration interval = Duration.ofMinutes(30);
+    // Current month included
+    private int months = 3;
+    private List<String> routes = new ArrayList<>();
+    private int topRecentSearches = 20;
+}
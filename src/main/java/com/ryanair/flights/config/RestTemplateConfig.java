@@ -1,26 +1,93 @@
 package com.ryanair.flights.config;
 
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.httpcomponents.hc5.PoolingHttpClientConnectionManagerMetricsBinder;
 import org.apache.hc.client5.http.classic.HttpClient;
+import org.apache.hc.client5.http.config.ConnectionConfig;
 import org.apache.hc.client5.http.config.RequestConfig;
+import org.apache.hc.client5.http.impl.DefaultConnectionKeepAliveStrategy;
 import org.apache.hc.client5.http.impl.classic.HttpClients;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManager;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManagerBuilder;
+import org.apache.hc.core5.util.TimeValue;
+import org.apache.hc.core5.util.Timeout;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.client.ClientHttpRequestFactory;
 import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.http.client.JdkClientHttpRequestFactory;
 import org.springframework.web.client.RestTemplate;
 
+import java.time.Duration;
+
 @Configuration
+@EnableConfigurationProperties(UpstreamHttpProperties.class)
 public class RestTemplateConfig {
 
+    public static final String UPSTREAM_POOL_NAME = "ryanair-api";
+
+    @Bean
+    public RestTemplate restTemplate(ClientHttpRequestFactory upstreamRequestFactory) {
+        return new RestTemplate(upstreamRequestFactory);
+    }
+
     @Bean
-    public RestTemplate restTemplate() {
+    public ClientHttpRequestFactory upstreamRequestFactory(UpstreamHttpProperties properties, MeterRegistry meterRegistry) {
+        if (properties.isHttp2()) {
+            return http2RequestFactory(properties);
+        }
+        return pooledRequestFactory(properties, meterRegistry);
+    }
+
+    private ClientHttpRequestFactory pooledRequestFactory(UpstreamHttpProperties properties, MeterRegistry meterRegistry) {
+        ConnectionConfig connectionConfig = ConnectionConfig.custom()
+                .setConnectTimeout(toTimeout(properties.getConnectTimeout()))
+                .setSocketTimeout(toTimeout(properties.getResponseTimeout()))
+                .setTimeToLive(toTimeValue(properties.getConnectionTimeToLive()))
+                .build();
+
+        PoolingHttpClientConnectionManager connectionManager = PoolingHttpClientConnectionManagerBuilder.create()
+                .setMaxConnTotal(properties.getMaxConnectionsTotal())
+                .setMaxConnPerRoute(properties.getMaxConnectionsPerRoute())
+                .setDefaultConnectionConfig(connectionConfig)
+                .build();
+        new PoolingHttpClientConnectionManagerMetricsBinder(connectionManager, UPSTREAM_POOL_NAME).bindTo(meterRegistry);
+
         RequestConfig requestConfig = RequestConfig.custom()
-                .setResponseTimeout(5000, java.util.concurrent.TimeUnit.MILLISECONDS)
+                .setConnectionRequestTimeout(toTimeout(properties.getConnectionRequestTimeout()))
+                .setResponseTimeout(toTimeout(properties.getResponseTimeout()))
                 .build();
 
+        TimeValue maxKeepAlive = toTimeValue(properties.getKeepAlive());
         HttpClient httpClient = HttpClients.custom()
+                .setConnectionManager(connectionManager)
                 .setDefaultRequestConfig(requestConfig)
+                // Honour the server's Keep-Alive header, but never keep a connection longer than configured
+                .setKeepAliveStrategy((response, context) -> DefaultConnectionKeepAliveStrategy.INSTANCE
+                        .getKeepAliveDuration(response, context).min(maxKeepAlive))
+                .evictExpiredConnections()
+                .evictIdleConnections(toTimeValue(properties.getMaxIdleTime()))
                 .build();
 
-        return new RestTemplate(new HttpComponentsClientHttpRequestFactory(httpClient));
+        return new HttpComponentsClientHttpRequestFactory(httpClient);
+    }
+
+    private ClientHttpRequestFactory http2RequestFactory(UpstreamHttpProperties properties) {
+        java.net.http.HttpClient httpClient = java.net.http.HttpClient.newBuilder()
+                .version(java.net.http.HttpClient.Version.HTTP_2)
+                .connectTimeout(properties.getConnectTimeout())
+                .build();
+        JdkClientHttpRequestFactory requestFactory = new JdkClientHttpRequestFactory(httpClient);
+        requestFactory.setReadTimeout(properties.getResponseTimeout());
+        return requestFactory;
+    }
+
+    private static Timeout toTimeout(Duration duration) {
+        return Timeout.ofMilliseconds(duration.toMillis());
+    }
+
+    private static TimeValue toTimeValue(Duration duration) {
+        return TimeValue.ofMilliseconds(duration.toMillis());
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,17 @@
+package com.ryanair.flights.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "ryanair.cache.results")
+public class ResultCacheProperties {
+    private boolean enabled = true;
+    // Total number of flight legs held across all cached results
+    private long maximumWeight = 500_000;
+    private Duration ttl = Duration.ofMinutes(5);
+}
@@ -0,0 +1,20 @@
+package com.ryanair.flights.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Settings of the route list snapshot. There is no expiry: a snapshot older than {@code refreshAfterWrite} is
+ * refreshed in the background and served until the refresh succeeds. After a failed refresh the next one starts
+ * no sooner than {@code retryAfterFailure} later.
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "ryanair.cache.routes")
+public class RouteCacheProperties {
+    private Duration refreshAfterWrite = Duration.ofHours(6);
+    private Duration retryAfterFailure = Duration.ofMinutes(1);
+}
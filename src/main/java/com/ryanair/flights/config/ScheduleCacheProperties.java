@@ -0,0 +1,19 @@
+package com.ryanair.flights.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "ryanair.cache.schedules")
+public class ScheduleCacheProperties {
+    private long maximumSize = 20000;
+    private Duration pastMonthTtl = Duration.ofHours(24);
+    private Duration currentMonthTtl = Duration.ofHours(2);
+    private Duration futureMonthTtl = Duration.ofHours(6);
+    // Entries read after this age are reloaded in the background while the old schedule is still served
+    private Duration refreshAfterWrite = Duration.ofHours(1);
+}
@@ -0,0 +1,52 @@
+package com.ryanair.flights.config;
+
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.ryanair.flights.model.internal.ScheduleKey;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.YearMonth;
+
+/**
+ * Expires cached schedules depending on whether their month is in the past, the current month or in the future.
+ * Past timetables never change, while the current month is the one most likely to be amended.
+ */
+public class ScheduleExpiry implements Expiry<Object, Object> {
+
+    private final ScheduleCacheProperties properties;
+    private final Clock clock;
+
+    public ScheduleExpiry(ScheduleCacheProperties properties, Clock clock) {
+        this.properties = properties;
+        this.clock = clock;
+    }
+
+    @Override
+    public long expireAfterCreate(Object key, Object value, long currentTime) {
+        return ttlFor(key).toNanos();
+    }
+
+    @Override
+    public long expireAfterUpdate(Object key, Object value, long currentTime, long currentDuration) {
+        return ttlFor(key).toNanos();
+    }
+
+    @Override
+    public long expireAfterRead(Object key, Object value, long currentTime, long currentDuration) {
+        return currentDuration;
+    }
+
+    public Duration ttlFor(Object key) {
+        if (!(key instanceof ScheduleKey scheduleKey)) {
+            return properties.getCurrentMonthTtl();
+        }
+        YearMonth now = YearMonth.now(clock);
+        if (scheduleKey.month().isBefore(now)) {
+            return properties.getPastMonthTtl();
+        }
+        if (scheduleKey.month().isAfter(now)) {
+            return properties.getFutureMonthTtl();
+        }
+        return properties.getCurrentMonthTtl();
+    }
+}
@@ -0,0 +1,9 @@
+package com.ryanair.flights.config;
+
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@EnableConfigurationProperties({SearchProperties.class, PaginationProperties.class, ConnectivityProperties.class})
+public class SearchConfig {
+}
@@ -0,0 +1,43 @@
+package com.ryanair.flights.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "ryanair.search")
+public class SearchProperties {
+    /**
+     * Overall deadline of a search. A branch that is still running when it passes contributes no flights.
+     */
+    private Duration timeout = Duration.ofSeconds(10);
+
+    /**
+     * Longest layover accepted between two legs. Unbounded when not set.
+     */
+    private Duration maxLayover;
+
+    /**
+     * Upper bound of partial itineraries kept per leg in multi-stop searches; the rest are dropped with a warning,
+     * and a search that dropped any is not cached.
+     */
+    private int maxItinerariesPerLeg = 20000;
+
+    /**
+     * Upper bound of schedule fetches a single search keeps in flight; further fetches wait for one to finish.
+     */
+    private int maxConcurrentFetches = 64;
+
+    /**
+     * Upper bound of departure-arrival pairs in a single batch search.
+     */
+    private int maxBatchPairs = 100;
+
+    /**
+     * Upper bound of days in a single date-matrix search.
+     */
+    private int maxMatrixDays = 31;
+}
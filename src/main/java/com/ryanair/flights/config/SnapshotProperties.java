@@ -0,0 +1,22 @@
+package com.ryanair.flights.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.nio.file.Path;
+import java.time.Duration;
+
+/**
+ * Settings of the on-disk snapshot of the route list and the cached schedules, read back at startup.
+ * A snapshot older than {@code maxAge} is ignored.
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "ryanair.snapshot")
+public class SnapshotProperties {
+    private boolean enabled = true;
+    private Path path = Path.of(System.getProperty("java.io.tmpdir"), "ryanair-flights", "cache-snapshot.bin");
+    private Duration interval = Duration.ofMinutes(5);
+    private Duration maxAge = Duration.ofHours(24);
+}
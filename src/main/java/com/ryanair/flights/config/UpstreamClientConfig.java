@@ -0,0 +1,35 @@
+package com.ryanair.flights.config;
+
+import com.ryanair.flights.client.RyanairApiClient;
+import com.ryanair.flights.client.impl.LimitedRyanairApiClient;
+import com.ryanair.flights.client.impl.ResilientRyanairApiClient;
+import com.ryanair.flights.client.limit.AdaptiveConcurrencyLimiter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+
+@Configuration
+@EnableConfigurationProperties({UpstreamLimitProperties.class, UpstreamResilienceProperties.class})
+public class UpstreamClientConfig {
+
+    /**
+     * The client the services use: the {@link RyanairApiClient#UPSTREAM upstream} client behind the concurrency
+     * limit, behind the circuit breakers and retries. Every retry and hedged request takes its own slot of the
+     * limit, and calls rejected by an open breaker never wait for one.
+     */
+    @Bean
+    @Primary
+    public RyanairApiClient ryanairApiClient(@Qualifier(RyanairApiClient.UPSTREAM) RyanairApiClient upstream,
+                                             UpstreamLimitProperties limitProperties,
+                                             UpstreamResilienceProperties resilienceProperties,
+                                             MeterRegistry meterRegistry) {
+        RyanairApiClient client = upstream;
+        if (limitProperties.isEnabled()) {
+            client = new LimitedRyanairApiClient(client, new AdaptiveConcurrencyLimiter(limitProperties, meterRegistry));
+        }
+        return new ResilientRyanairApiClient(client, resilienceProperties, meterRegistry);
+    }
+}
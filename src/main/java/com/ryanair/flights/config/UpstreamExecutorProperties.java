@@ -0,0 +1,34 @@
+package com.ryanair.flights.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Settings of the executor running blocking calls to the Ryanair APIs.
+ * In {@link Mode#VIRTUAL} mode every task gets its own virtual thread, at most {@code maxPoolSize} of them run at once
+ * and up to {@code queueCapacity} more wait their turn; the core pool size and keep-alive are ignored.
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "ryanair.upstream.executor")
+public class UpstreamExecutorProperties {
+    private Mode mode = Mode.BOUNDED;
+    private int corePoolSize = 64;
+    private int maxPoolSize = 64;
+    private int queueCapacity = 2000;
+    private Duration keepAlive = Duration.ofSeconds(60);
+    private RejectionPolicy rejectionPolicy = RejectionPolicy.CALLER_RUNS;
+
+    public enum Mode {
+        VIRTUAL,
+        BOUNDED
+    }
+
+    public enum RejectionPolicy {
+        CALLER_RUNS,
+        ABORT
+    }
+}
@@ -0,0 +1,39 @@
+package com.ryanair.flights.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Settings of the HTTP client used to call the Ryanair APIs. All traffic goes to a single host, so the per-route
+ * limit normally matches the total limit. When {@code http2} is enabled the JDK HTTP client is used instead of
+ * the pooled Apache client, and the pool settings do not apply.
+ * <p>
+ * With {@link Client#WEB_CLIENT} the non-blocking WebClient is used instead. Its connection pool allows
+ * {@code maxConnectionsTotal} requests in flight across the application and queues up to
+ * {@code maxPendingRequests} more; requests beyond that fail immediately.
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "ryanair.upstream.http")
+public class UpstreamHttpProperties {
+    private int maxConnectionsTotal = 200;
+    private int maxConnectionsPerRoute = 200;
+    private Duration connectTimeout = Duration.ofSeconds(2);
+    private Duration connectionRequestTimeout = Duration.ofSeconds(2);
+    private Duration responseTimeout = Duration.ofSeconds(5);
+    private Duration keepAlive = Duration.ofSeconds(30);
+    private Duration connectionTimeToLive = Duration.ofMinutes(5);
+    // Connections idle for longer are closed by a background task
+    private Duration maxIdleTime = Duration.ofSeconds(30);
+    private boolean http2 = false;
+    private Client client = Client.REST_TEMPLATE;
+    private int maxPendingRequests = 5000;
+
+    public enum Client {
+        REST_TEMPLATE,
+        WEB_CLIENT
+    }
+}
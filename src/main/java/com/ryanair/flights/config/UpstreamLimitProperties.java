@@ -0,0 +1,26 @@
+package com.ryanair.flights.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Settings of the adaptive limit on concurrent schedule requests. The limit starts at {@code initialLimit}, grows
+ * by one for every successful response while it is in use, and shrinks by {@code backoffRatio} when upstream
+ * throttles, fails, or takes longer than {@code latencyThreshold}. It always stays between {@code minLimit} and
+ * {@code maxLimit}. Up to {@code maxQueued} requests wait for a slot; requests beyond that fail immediately.
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "ryanair.upstream.limit")
+public class UpstreamLimitProperties {
+    private boolean enabled = true;
+    private int initialLimit = 32;
+    private int minLimit = 4;
+    private int maxLimit = 200;
+    private double backoffRatio = 0.9;
+    private Duration latencyThreshold = Duration.ofSeconds(2);
+    private int maxQueued = 10000;
+}
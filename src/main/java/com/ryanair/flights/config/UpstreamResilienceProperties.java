@@ -0,0 +1,60 @@
+package com.ryanair.flights.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Settings of the circuit breakers, retries and hedged requests around the calls to the Ryanair APIs.
+ * <p>
+ * Each endpoint has its own circuit breaker. It opens when at least {@code failureRateThreshold} of the last
+ * {@code slidingWindowSize} calls failed, provided there were {@code minimumCalls}, and rejects calls for
+ * {@code openDuration}. Then {@code halfOpenCalls} trial calls decide whether it closes again.
+ * <p>
+ * Failed calls are tried up to {@code maxAttempts} times in total, waiting a random time between zero and an
+ * exponentially growing backoff, capped at {@code maxBackoff}, between attempts.
+ * <p>
+ * A schedule request that has not been answered within the {@code percentile} latency of recent requests is sent a
+ * second time, and the first answer wins. At most {@code maxRatio} of the requests are hedged. Hedging only applies
+ * to the non-blocking client, where a second request costs a connection rather than a thread.
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "ryanair.upstream.resilience")
+public class UpstreamResilienceProperties {
+    private CircuitBreaker circuitBreaker = new CircuitBreaker();
+    private Retry retry = new Retry();
+    private Hedge hedge = new Hedge();
+
+    @Getter
+    @Setter
+    public static class CircuitBreaker {
+        private boolean enabled = true;
+        private double failureRateThreshold = 0.5;
+        private int slidingWindowSize = 20;
+        private int minimumCalls = 10;
+        private Duration openDuration = Duration.ofSeconds(30);
+        private int halfOpenCalls = 3;
+    }
+
+    @Getter
+    @Setter
+    public static class Retry {
+        private boolean enabled = true;
+        private int maxAttempts = 3;
+        private Duration initialBackoff = Duration.ofMillis(100);
+        private Duration maxBackoff = Duration.ofSeconds(1);
+    }
+
+    @Getter
+    @Setter
+    public static class Hedge {
+        private boolean enabled = false;
+        private double percentile = 0.95;
+        private Duration minDelay = Duration.ofMillis(50);
+        private int minSamples = 100;
+        private double maxRatio = 0.1;
+    }
+}
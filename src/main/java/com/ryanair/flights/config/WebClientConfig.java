@@ -0,0 +1,54 @@
+package com.ryanair.flights.config;
+
+import io.netty.channel.ChannelOption;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.netty.http.HttpProtocol;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
+
+/**
+ * Non-blocking HTTP client for the Ryanair APIs, used when {@code ryanair.upstream.http.client} is
+ * {@code web-client}.
+ */
+@Configuration
+@ConditionalOnProperty(name = "ryanair.upstream.http.client", havingValue = "web-client")
+public class WebClientConfig {
+
+    public static final String UPSTREAM_WEB_CLIENT = "upstreamWebClient";
+
+    /**
+     * The route list is a single response of several megabytes, well above the default buffer limit.
+     */
+    private static final int MAX_RESPONSE_BYTES = 16 * 1024 * 1024;
+
+    @Bean(destroyMethod = "dispose")
+    public ConnectionProvider upstreamConnectionProvider(UpstreamHttpProperties properties) {
+        return ConnectionProvider.builder(RestTemplateConfig.UPSTREAM_POOL_NAME)
+                .maxConnections(properties.getMaxConnectionsTotal())
+                .pendingAcquireMaxCount(properties.getMaxPendingRequests())
+                .pendingAcquireTimeout(properties.getConnectionRequestTimeout())
+                .maxIdleTime(properties.getMaxIdleTime())
+                .maxLifeTime(properties.getConnectionTimeToLive())
+                .evictInBackground(properties.getMaxIdleTime())
+                .build();
+    }
+
+    @Bean(name = UPSTREAM_WEB_CLIENT)
+    public WebClient upstreamWebClient(WebClient.Builder builder, ConnectionProvider upstreamConnectionProvider,
+                                       UpstreamHttpProperties properties) {
+        HttpClient httpClient = HttpClient.create(upstreamConnectionProvider)
+                .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, (int) properties.getConnectTimeout().toMillis())
+                .responseTimeout(properties.getResponseTimeout());
+        if (properties.isHttp2()) {
+            httpClient = httpClient.protocol(HttpProtocol.H2, HttpProtocol.HTTP11);
+        }
+        return builder
+                .clientConnector(new ReactorClientHttpConnector(httpClient))
+                .codecs(codecs -> codecs.defaultCodecs().maxInMemorySize(MAX_RESPONSE_BYTES))
+                .build();
+    }
+}
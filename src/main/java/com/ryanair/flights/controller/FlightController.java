@@ -2,22 +2,34 @@ package com.ryanair.flights.controller;
 
 import com.ryanair.flights.exception.FlightNotFoundException;
 import com.ryanair.flights.exception.InvalidRequestException;
+import com.ryanair.flights.model.dto.DayFlights;
 import com.ryanair.flights.model.dto.Flight;
+import com.ryanair.flights.model.dto.FlightPage;
+import com.ryanair.flights.model.dto.RoutePairFlights;
+import com.ryanair.flights.model.internal.DateMatrixCriteria;
+import com.ryanair.flights.model.internal.FlightOrder;
 import com.ryanair.flights.model.internal.FlightSearchCriteria;
 import com.ryanair.flights.service.FlightService;
 import com.ryanair.flights.util.FlightValidator;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
 
+import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.time.LocalTime;
 import java.time.format.DateTimeFormatter;
 import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Locale;
+import java.util.Set;
 import java.util.concurrent.ExecutionException;
 
 @RestController
@@ -39,7 +51,163 @@ public class FlightController {
             @RequestParam("departure") String departure,
             @RequestParam("arrival") String arrival,
             @RequestParam("arrivalDateTime") String arrivalDateTime,
-            @RequestParam("departureDateTime") String departureDateTime) throws ExecutionException, InterruptedException {
+            @RequestParam("departureDateTime") String departureDateTime,
+            @RequestParam(value = "maxStops", required = false) Integer maxStops,
+            @RequestParam(value = "sort", required = false) String sort,
+            @RequestParam(value = "limit", required = false) Integer limit) throws ExecutionException, InterruptedException {
+        FlightSearchCriteria flightSearchCriteria = toSearchCriteria(departure, arrival, departureDateTime, arrivalDateTime, maxStops);
+        applyOrder(flightSearchCriteria, sort, limit);
+
+        List<Flight> response = flightService.searchFlights(flightSearchCriteria);
+
+        if (response.isEmpty()) {
+            throw new FlightNotFoundException("No flights found for the given criteria.");
+        }
+        return ResponseEntity.ok(response);
+    }
+
+    // Returns the same flights a page at a time, e.g. ...&pageSize=100. The response carries a nextCursor until
+    // the last page; pass it as the only parameter to get the next page.
+    @GetMapping(value = "/interconnections", params = {"pageSize", "!cursor"})
+    public ResponseEntity<FlightPage> getInterconnectionsPage(
+            @RequestParam("departure") String departure,
+            @RequestParam("arrival") String arrival,
+            @RequestParam("arrivalDateTime") String arrivalDateTime,
+            @RequestParam("departureDateTime") String departureDateTime,
+            @RequestParam(value = "maxStops", required = false) Integer maxStops,
+            @RequestParam(value = "sort", required = false) String sort,
+            @RequestParam(value = "limit", required = false) Integer limit,
+            @RequestParam("pageSize") Integer pageSize) throws ExecutionException, InterruptedException {
+        FlightSearchCriteria flightSearchCriteria = toSearchCriteria(departure, arrival, departureDateTime, arrivalDateTime, maxStops);
+        applyOrder(flightSearchCriteria, sort, limit);
+
+        FlightPage page = flightService.searchFlightsPage(flightSearchCriteria, pageSize);
+
+        if (page.getFlights().isEmpty()) {
+            throw new FlightNotFoundException("No flights found for the given criteria.");
+        }
+        return ResponseEntity.ok(page);
+    }
+
+    @GetMapping(value = "/interconnections", params = "cursor")
+    public ResponseEntity<FlightPage> getNextInterconnectionsPage(
+            @RequestParam("cursor") String cursor,
+            @RequestParam(value = "pageSize", required = false) Integer pageSize) {
+        return ResponseEntity.ok(flightService.nextFlightsPage(cursor, pageSize));
+    }
+
+    // Searches every departure-arrival combination with one window, e.g.
+    // /ryanair/interconnections/batch?departures=STN,LTN&arrivals=WRO,KRK&departureDateTime=...&arrivalDateTime=...
+    // Every pair is listed in the response, also when no flights were found for it.
+    @GetMapping("/interconnections/batch")
+    public ResponseEntity<List<RoutePairFlights>> getBatchInterconnections(
+            @RequestParam("departures") List<String> departures,
+            @RequestParam("arrivals") List<String> arrivals,
+            @RequestParam("arrivalDateTime") String arrivalDateTime,
+            @RequestParam("departureDateTime") String departureDateTime,
+            @RequestParam(value = "maxStops", required = false) Integer maxStops) throws ExecutionException, InterruptedException {
+        List<FlightSearchCriteria> pairs = new ArrayList<>();
+        for (String departure : airportCodes(departures)) {
+            for (String arrival : airportCodes(arrivals)) {
+                if (!departure.equals(arrival)) {
+                    pairs.add(toSearchCriteria(departure, arrival, departureDateTime, arrivalDateTime, maxStops));
+                }
+            }
+        }
+        if (pairs.isEmpty()) {
+            throw new InvalidRequestException("No departure-arrival pair to search.");
+        }
+
+        return ResponseEntity.ok(flightService.searchFlightsBatchAsync(pairs).get());
+    }
+
+    // Searches the same daily window on every day of a date range, e.g.
+    // /ryanair/interconnections/matrix?departure=DUB&arrival=WRO&fromDate=2025-10-06&toDate=2025-10-12&departureTime=07:00&arrivalTime=21:00
+    // With summary=true each day only carries its counts and earliest arrival.
+    @GetMapping("/interconnections/matrix")
+    public ResponseEntity<List<DayFlights>> getDateMatrix(
+            @RequestParam("departure") String departure,
+            @RequestParam("arrival") String arrival,
+            @RequestParam("fromDate") String fromDate,
+            @RequestParam("toDate") String toDate,
+            @RequestParam("departureTime") String departureTime,
+            @RequestParam("arrivalTime") String arrivalTime,
+            @RequestParam(value = "maxStops", required = false) Integer maxStops,
+            @RequestParam(value = "summary", defaultValue = "false") boolean summary) {
+        DateMatrixCriteria criteria;
+        try {
+            criteria = new DateMatrixCriteria(departure.toUpperCase(Locale.ROOT), arrival.toUpperCase(Locale.ROOT),
+                    LocalDate.parse(fromDate), LocalDate.parse(toDate),
+                    LocalTime.parse(departureTime, DateTimeFormatter.ofPattern("HH:mm")),
+                    LocalTime.parse(arrivalTime, DateTimeFormatter.ofPattern("HH:mm")),
+                    maxStops == null ? 1 : maxStops);
+        } catch (DateTimeParseException ex) {
+            throw new InvalidRequestException(ex.getMessage());
+        }
+        FlightValidator.validateDateMatrixCriteria(criteria);
+
+        return ResponseEntity.ok(flightService.searchDateMatrix(criteria, summary));
+    }
+
+    // Streams the same flights as newline-delimited JSON, one flight per line, as soon as each part of the
+    // search completes. An empty stream means no flights were found.
+    @GetMapping(value = "/interconnections", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<ResponseBodyEmitter> streamInterconnections(
+            @RequestParam("departure") String departure,
+            @RequestParam("arrival") String arrival,
+            @RequestParam("arrivalDateTime") String arrivalDateTime,
+            @RequestParam("departureDateTime") String departureDateTime,
+            @RequestParam(value = "maxStops", required = false) Integer maxStops) {
+        return streamFlights(toSearchCriteria(departure, arrival, departureDateTime, arrivalDateTime, maxStops));
+    }
+
+    @GetMapping(value = "/interconnections", params = "stream=true")
+    public ResponseEntity<ResponseBodyEmitter> streamInterconnectionsOnRequest(
+            @RequestParam("departure") String departure,
+            @RequestParam("arrival") String arrival,
+            @RequestParam("arrivalDateTime") String arrivalDateTime,
+            @RequestParam("departureDateTime") String departureDateTime,
+            @RequestParam(value = "maxStops", required = false) Integer maxStops) {
+        return streamFlights(toSearchCriteria(departure, arrival, departureDateTime, arrivalDateTime, maxStops));
+    }
+
+    private void applyOrder(FlightSearchCriteria criteria, String sort, Integer limit) {
+        if (sort == null && limit == null) {
+            return;
+        }
+        // A limit without an order keeps the earliest arrivals
+        criteria.setSort(sort == null ? FlightOrder.EARLIEST_ARRIVAL : toFlightOrder(sort));
+        if (limit != null) {
+            if (limit < 1) {
+                throw new InvalidRequestException("Limit must be at least 1.");
+            }
+            criteria.setLimit(limit);
+        }
+    }
+
+    private FlightOrder toFlightOrder(String sort) {
+        try {
+            return FlightOrder.parse(sort);
+        } catch (IllegalArgumentException ex) {
+            throw new InvalidRequestException("Unknown sort order: " + sort);
+        }
+    }
+
+    private Set<String> airportCodes(List<String> codes) {
+        Set<String> normalized = new LinkedHashSet<>();
+        codes.forEach(code -> normalized.add(code.trim().toUpperCase(Locale.ROOT)));
+        return normalized;
+    }
+
+    private ResponseEntity<ResponseBodyEmitter> streamFlights(FlightSearchCriteria flightSearchCriteria) {
+        FlightStreamEmitter emitter = new FlightStreamEmitter();
+        flightService.streamFlights(flightSearchCriteria, emitter::sendFlights)
+                .whenComplete((ignored, failure) -> emitter.finish(failure));
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_NDJSON).body(emitter);
+    }
+
+    private FlightSearchCriteria toSearchCriteria(String departure, String arrival, String departureDateTime, String arrivalDateTime,
+                                                  Integer maxStops) {
         LocalDateTime departureDateTimeParsed;
         LocalDateTime arrivalDateTimeParsed;
         try {
@@ -51,14 +219,11 @@ public class FlightController {
 
         FlightSearchCriteria flightSearchCriteria = new FlightSearchCriteria(departure.toUpperCase(Locale.ROOT),
                 arrival.toUpperCase(Locale.ROOT), departureDateTimeParsed, arrivalDateTimeParsed);
+        if (maxStops != null) {
+            flightSearchCriteria.setMaxStops(maxStops);
+        }
 
         FlightValidator.validateSearchCriteria(flightSearchCriteria);
-
-        List<Flight> response = flightService.searchFlights(flightSearchCriteria);
-
-        if (response.isEmpty()) {
-            throw new FlightNotFoundException("No flights found for the given criteria.");
-        }
-        return ResponseEntity.ok(response);
+        return flightSearchCriteria;
     }
-}
\ No newline at end of file
+}
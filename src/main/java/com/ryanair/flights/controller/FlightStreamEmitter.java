@@ -0,0 +1,66 @@
+package com.ryanair.flights.controller;
+
+import com.ryanair.flights.model.dto.Flight;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.MediaType;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+
+/**
+ * Writes flights as newline-delimited JSON, one flight per line, while the search is still running.
+ * Batches can arrive from several threads; once the emitter is finished further batches are dropped.
+ * <p>
+ * Writing blocks on the client connection, so batches are not written on the thread that hands them over, which
+ * is a search thread. They are queued and written one at a time, in order, on virtual threads.
+ */
+class FlightStreamEmitter extends ResponseBodyEmitter {
+
+    private static final Logger log = LoggerFactory.getLogger(FlightStreamEmitter.class);
+    private static final String LINE_SEPARATOR = "\n";
+    private static final Executor WRITER = task -> Thread.ofVirtual().name("flight-stream").start(task);
+
+    private CompletableFuture<Void> writes = CompletableFuture.completedFuture(null);
+    private boolean finished;
+    private volatile boolean clientGone;
+
+    synchronized void sendFlights(List<Flight> flights) {
+        if (finished) {
+            return;
+        }
+        writes = writes.thenRunAsync(() -> write(flights), WRITER);
+    }
+
+    synchronized void finish(Throwable failure) {
+        if (finished) {
+            return;
+        }
+        finished = true;
+        writes = writes.thenRunAsync(() -> {
+            if (failure == null) {
+                complete();
+            } else {
+                completeWithError(failure);
+            }
+        }, WRITER);
+    }
+
+    private void write(List<Flight> flights) {
+        if (clientGone) {
+            return;
+        }
+        try {
+            for (Flight flight : flights) {
+                send(flight, MediaType.APPLICATION_JSON);
+                send(LINE_SEPARATOR, MediaType.TEXT_PLAIN);
+            }
+        } catch (IOException | IllegalStateException e) {
+            log.debug("Stopped streaming flights, the client is gone", e);
+            clientGone = true;
+        }
+    }
+}
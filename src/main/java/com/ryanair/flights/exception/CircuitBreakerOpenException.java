@@ -0,0 +1,10 @@
+package com.ryanair.flights.exception;
+
+/**
+ * Thrown instead of calling the Ryanair APIs while the circuit breaker of the endpoint is open.
+ */
+public class CircuitBreakerOpenException extends ExternalApiException {
+    public CircuitBreakerOpenException(String message) {
+        super(message);
+    }
+}
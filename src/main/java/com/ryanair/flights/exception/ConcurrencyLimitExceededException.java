@@ -0,0 +1,11 @@
+package com.ryanair.flights.exception;
+
+/**
+ * Thrown instead of queueing an upstream request when too many requests are already waiting for the concurrency
+ * limiter. The request never reached the Ryanair APIs.
+ */
+public class ConcurrencyLimitExceededException extends ExternalApiException {
+    public ConcurrencyLimitExceededException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,176 @@
+package com.ryanair.flights.metrics;
+
+import com.ryanair.flights.model.dto.Flight;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.function.Supplier;
+
+/**
+ * Timers and distribution summaries for every stage of a search and for the upstream calls it makes.
+ * All of them publish percentile histograms, so latency percentiles can be aggregated across instances.
+ * <p>
+ * Together with the {@code upstreamExecutor} metrics ({@code executor.idle} is the time a fetch waited for a thread)
+ * they tell apart a slow upstream, a starved executor and CPU-bound joins.
+ */
+@Component
+public class SearchMetrics {
+
+    public static final String SEARCH_DURATION = "ryanair.search.duration";
+    public static final String SEARCH_RESULTS = "ryanair.search.results";
+    public static final String SEARCH_FAN_OUT = "ryanair.search.fanout";
+    public static final String CANDIDATE_GENERATION = "ryanair.search.candidates";
+    public static final String ROUTE_PAIRS = "ryanair.search.route.pairs";
+    public static final String PRUNED_ROUTE_PAIRS = "ryanair.search.route.pairs.pruned";
+    public static final String CONNECTIVITY_PREDICTIONS = "ryanair.search.connectivity.predictions";
+    public static final String SCHEDULE_FETCH = "ryanair.search.schedule.fetch";
+    public static final String SCHEDULE_BUILD = "ryanair.search.schedule.build";
+    public static final String CONNECTION_JOIN = "ryanair.search.join";
+    public static final String UPSTREAM_REQUESTS = "ryanair.upstream.requests";
+
+    private final MeterRegistry registry;
+    private final Timer candidateGenerationTimer;
+    private final DistributionSummary routePairsSummary;
+    private final Timer scheduleBuildTimer;
+    private final Timer connectionJoinTimer;
+
+    public SearchMetrics(MeterRegistry registry) {
+        this.registry = registry;
+        this.candidateGenerationTimer = Timer.builder(CANDIDATE_GENERATION)
+                .description("Time spent finding the route pairs of an interconnected search")
+                .publishPercentileHistogram()
+                .register(registry);
+        this.routePairsSummary = DistributionSummary.builder(ROUTE_PAIRS)
+                .description("Candidate route pairs per interconnected search")
+                .publishPercentileHistogram()
+                .register(registry);
+        this.scheduleBuildTimer = Timer.builder(SCHEDULE_BUILD)
+                .description("Time spent selecting the flights inside the search window from the cached schedules of one leg")
+                .publishPercentileHistogram()
+                .register(registry);
+        this.connectionJoinTimer = Timer.builder(CONNECTION_JOIN)
+                .description("Time spent joining the legs of one route pair into connections")
+                .publishPercentileHistogram()
+                .register(registry);
+    }
+
+    public Timer.Sample startTimer() {
+        return Timer.start(registry);
+    }
+
+    /**
+     * Records a whole search.
+     *
+     * @param mode     {@code collect}, {@code ranked}, {@code stream}, {@code batch} or {@code matrix}.
+     * @param outcome  {@code success} or {@code error}.
+     * @param results  Number of flights found, or -1 when unknown.
+     */
+    public void recordSearch(Timer.Sample sample, String mode, int maxStops, String outcome, int results) {
+        sample.stop(Timer.builder(SEARCH_DURATION)
+                .description("Duration of a flight search")
+                .tags("mode", mode, "maxStops", String.valueOf(maxStops), "outcome", outcome)
+                .publishPercentileHistogram()
+                .register(registry));
+        if (results >= 0) {
+            DistributionSummary.builder(SEARCH_RESULTS)
+                    .description("Flights returned per search")
+                    .tags("mode", mode, "maxStops", String.valueOf(maxStops))
+                    .publishPercentileHistogram()
+                    .register(registry)
+                    .record(results);
+        }
+    }
+
+    /**
+     * Records how many distinct route-months one branch of a search had to fetch.
+     *
+     * @param branch {@code search}, {@code direct}, {@code interconnected}, {@code multi-stop}, {@code batch},
+     *               {@code matrix}, {@code ranked} or {@code stream}.
+     */
+    public void recordFanOut(String branch, int scheduleFetches) {
+        DistributionSummary.builder(SEARCH_FAN_OUT)
+                .description("Distinct route-month schedule fetches per search branch")
+                .tag("branch", branch)
+                .publishPercentileHistogram()
+                .register(registry)
+                .record(scheduleFetches);
+    }
+
+    public <T> List<T> timeCandidateGeneration(Supplier<List<T>> candidates) {
+        List<T> routePairs = candidateGenerationTimer.record(candidates);
+        routePairsSummary.record(routePairs.size());
+        return routePairs;
+    }
+
+    /**
+     * Records a route pair that was left out of a search because none of its connections could make the result.
+     *
+     * @param reason {@code rank} when the pair could not beat the flights already found, {@code connectivity} when
+     *               the hub connectivity index ruled out every connection.
+     */
+    public void recordPrunedRoutePair(String reason) {
+        Counter.builder(PRUNED_ROUTE_PAIRS)
+                .description("Candidate route pairs skipped without joining their legs")
+                .tag("reason", reason)
+                .register(registry)
+                .increment();
+    }
+
+    /**
+     * Records a route pair the hub connectivity index said could not connect, and that was searched anyway.
+     *
+     * @param correct Whether the search indeed found no connection.
+     */
+    public void recordConnectivityPrediction(boolean correct) {
+        Counter.builder(CONNECTIVITY_PREDICTIONS)
+                .description("Route pairs predicted not to connect that were verified by searching them")
+                .tag("outcome", correct ? "correct" : "wrong")
+                .register(registry)
+                .increment();
+    }
+
+    /**
+     * Records the time from submitting a route-month fetch to its completion, including the wait for an
+     * executor thread and cache hits.
+     *
+     * @param outcome {@code success}, {@code empty} or {@code error}.
+     */
+    public void recordScheduleFetch(Timer.Sample sample, String outcome) {
+        sample.stop(Timer.builder(SCHEDULE_FETCH)
+                .description("Time to obtain the schedule of one route-month")
+                .tag("outcome", outcome)
+                .publishPercentileHistogram()
+                .register(registry));
+    }
+
+    public <T> T timeScheduleBuild(Supplier<T> build) {
+        return scheduleBuildTimer.record(build);
+    }
+
+    public List<Flight> timeConnectionJoin(Supplier<List<Flight>> join) {
+        return connectionJoinTimer.record(join);
+    }
+
+    public void timeConnectionJoin(Runnable join) {
+        connectionJoinTimer.record(join);
+    }
+
+    /**
+     * Records one call to the Ryanair API.
+     *
+     * @param endpoint {@code routes} or {@code schedules}.
+     * @param status   The HTTP status code, {@code 2xx} on success or {@code IO_ERROR} when no response was received.
+     * @param outcome  {@code success}, {@code client_error}, {@code server_error} or {@code error}.
+     */
+    public void recordUpstreamCall(Timer.Sample sample, String endpoint, String status, String outcome) {
+        sample.stop(Timer.builder(UPSTREAM_REQUESTS)
+                .description("Calls to the Ryanair API")
+                .tags("endpoint", endpoint, "status", status, "outcome", outcome)
+                .publishPercentileHistogram()
+                .register(registry));
+    }
+}
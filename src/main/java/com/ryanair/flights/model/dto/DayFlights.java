@@ -0,0 +1,35 @@
+package com.ryanair.flights.model.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * The result of one day of a date-matrix search: how many direct and one-stop flights fit the daily window, the
+ * earliest arrival among them, and the flights themselves unless only a summary was asked for.
+ */
+@Getter
+@Setter
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class DayFlights {
+    private LocalDate date;
+    private int directFlights;
+    private int oneStopFlights;
+    private LocalDateTime earliestArrival;
+    private List<Flight> flights;
+
+    public DayFlights(LocalDate date, int directFlights, int oneStopFlights, LocalDateTime earliestArrival, List<Flight> flights) {
+        this.date = date;
+        this.directFlights = directFlights;
+        this.oneStopFlights = oneStopFlights;
+        this.earliestArrival = earliestArrival;
+        this.flights = flights;
+    }
+
+    public DayFlights() {
+    }
+}
@@ -0,0 +1,31 @@
+package com.ryanair.flights.model.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * One page of a paginated search: its flights, the number of flights of the whole result, and the cursor of the
+ * next page, left out on the last page. The total is left out of a first page served while the rest of the result
+ * was still being searched for.
+ */
+@Getter
+@Setter
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class FlightPage {
+    private List<Flight> flights = new ArrayList<>();
+    private Integer total;
+    private String nextCursor;
+
+    public FlightPage(List<Flight> flights, Integer total, String nextCursor) {
+        this.flights = flights;
+        this.total = total;
+        this.nextCursor = nextCursor;
+    }
+
+    public FlightPage() {
+    }
+}
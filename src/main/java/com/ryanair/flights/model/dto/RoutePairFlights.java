@@ -0,0 +1,37 @@
+package com.ryanair.flights.model.dto;
+
+import lombok.Getter;
+import lombok.Setter;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The flights found for one departure-arrival pair of a batch search.
+ */
+@Getter
+@Setter
+public class RoutePairFlights {
+    private String departure;
+    private String arrival;
+    private List<Flight> flights = new ArrayList<>();
+    /**
+     * Whether part of the search missed its deadline or a schedule it needed could not be fetched, so
+     * {@code flights} may be missing some.
+     */
+    private boolean incomplete;
+
+    public RoutePairFlights(String departure, String arrival, List<Flight> flights) {
+        this(departure, arrival, flights, false);
+    }
+
+    public RoutePairFlights(String departure, String arrival, List<Flight> flights, boolean incomplete) {
+        this.departure = departure;
+        this.arrival = arrival;
+        this.flights = flights;
+        this.incomplete = incomplete;
+    }
+
+    public RoutePairFlights() {
+    }
+}
@@ -0,0 +1,18 @@
+package com.ryanair.flights.model.internal;
+
+import com.ryanair.flights.model.external.Route;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Contents of the on-disk cache snapshot: the route list, if one was loaded, and the cached schedule months.
+ */
+public record CacheSnapshot(Instant createdAt, List<Route> routes, Instant routesLoadedAt, List<ScheduleEntry> schedules) {
+
+    /**
+     * A cached schedule month, with the time it was loaded from upstream and the time its cache entry expires.
+     */
+    public record ScheduleEntry(ScheduleKey key, CompactSchedule schedule, Instant loadedAt, Instant expiresAt) {
+    }
+}
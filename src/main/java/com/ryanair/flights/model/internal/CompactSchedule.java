@@ -0,0 +1,195 @@
+package com.ryanair.flights.model.internal;
+
+import com.ryanair.flights.model.dto.FlightLeg;
+import com.ryanair.flights.model.external.Day;
+import com.ryanair.flights.model.external.FlightSchedule;
+import com.ryanair.flights.model.external.Schedule;
+import com.ryanair.flights.util.DateTimeUtil;
+import lombok.Getter;
+
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.Arrays;
+
+/**
+ * Monthly timetable of one route, stored column-wise: departure and arrival as minutes since the start of the
+ * month and the flight number as a {@link FlightNumbers} id, ordered by departure.
+ * <p>
+ * This is the value kept in the schedule cache. Window filtering and connection matching work on the minutes;
+ * {@link FlightLeg}s are only created for the flights that end up in a result. The index of the first flight of
+ * every day is kept as well, so a search window is located by its day-of-month before any flight is looked at.
+ */
+public final class CompactSchedule {
+
+    private static final int MINUTES_PER_DAY = 24 * 60;
+
+    @Getter
+    private final String from;
+    @Getter
+    private final String to;
+    @Getter
+    private final YearMonth month;
+    private final long monthStart;
+    private final int[] departures;
+    private final int[] arrivals;
+    private final int[] flightNumbers;
+    private final int[] firstFlightOfDay;
+
+    private CompactSchedule(String from, String to, YearMonth month, int[] departures, int[] arrivals, int[] flightNumbers) {
+        this.from = from;
+        this.to = to;
+        this.month = month;
+        this.monthStart = DateTimeUtil.toEpochMinutes(month.atDay(1).atStartOfDay());
+        this.departures = departures;
+        this.arrivals = arrivals;
+        this.flightNumbers = flightNumbers;
+        this.firstFlightOfDay = new int[month.lengthOfMonth() + 1];
+        int flight = 0;
+        for (int day = 0; day < firstFlightOfDay.length; day++) {
+            while (flight < departures.length && departures[flight] < day * MINUTES_PER_DAY) {
+                flight++;
+            }
+            firstFlightOfDay[day] = flight;
+        }
+    }
+
+    /**
+     * Builds the compact form of an upstream schedule.
+     *
+     * @return The compact schedule, or null when there is no schedule or it has no days.
+     */
+    public static CompactSchedule from(ScheduleKey key, Schedule schedule) {
+        if (schedule == null || schedule.getDays() == null) {
+            return null;
+        }
+        int count = 0;
+        for (Day day : schedule.getDays()) {
+            count += day.getFlights() == null ? 0 : day.getFlights().size();
+        }
+        int[] departures = new int[count];
+        int[] arrivals = new int[count];
+        int[] flightNumbers = new int[count];
+        int i = 0;
+        for (Day day : schedule.getDays()) {
+            if (day.getFlights() == null) {
+                continue;
+            }
+            int dayStart = (day.getDay() - 1) * MINUTES_PER_DAY;
+            for (FlightSchedule flight : day.getFlights()) {
+                int departure = DateTimeUtil.parseMinuteOfDay(flight.getDepartureTime());
+                int arrival = DateTimeUtil.parseMinuteOfDay(flight.getArrivalTime());
+                if (arrival < departure) {
+                    arrival += MINUTES_PER_DAY;
+                }
+                departures[i] = dayStart + departure;
+                arrivals[i] = dayStart + arrival;
+                flightNumbers[i] = FlightNumbers.idOf(flight.getNumber());
+                i++;
+            }
+        }
+        return of(key, departures, arrivals, flightNumbers);
+    }
+
+    /**
+     * Builds a compact schedule from its columns, sorting them by departure if they are not sorted yet.
+     */
+    public static CompactSchedule of(ScheduleKey key, int[] departures, int[] arrivals, int[] flightNumbers) {
+        if (departures.length != arrivals.length || departures.length != flightNumbers.length) {
+            throw new IllegalArgumentException("Schedule columns differ in length");
+        }
+        if (!isSorted(departures)) {
+            long[] order = new long[departures.length];
+            for (int i = 0; i < order.length; i++) {
+                order[i] = (long) departures[i] << 32 | i;
+            }
+            Arrays.sort(order);
+            int[] sortedDepartures = new int[order.length];
+            int[] sortedArrivals = new int[order.length];
+            int[] sortedFlightNumbers = new int[order.length];
+            for (int i = 0; i < order.length; i++) {
+                int source = (int) order[i];
+                sortedDepartures[i] = departures[source];
+                sortedArrivals[i] = arrivals[source];
+                sortedFlightNumbers[i] = flightNumbers[source];
+            }
+            departures = sortedDepartures;
+            arrivals = sortedArrivals;
+            flightNumbers = sortedFlightNumbers;
+        }
+        return new CompactSchedule(key.from(), key.to(), key.month(), departures, arrivals, flightNumbers);
+    }
+
+    public int size() {
+        return departures.length;
+    }
+
+    public boolean isEmpty() {
+        return departures.length == 0;
+    }
+
+    /**
+     * @return The departure of the i-th flight in epoch minutes, see {@link DateTimeUtil#toEpochMinutes}.
+     */
+    public long departureAt(int i) {
+        return monthStart + departures[i];
+    }
+
+    /**
+     * @return The arrival of the i-th flight in epoch minutes, see {@link DateTimeUtil#toEpochMinutes}.
+     */
+    public long arrivalAt(int i) {
+        return monthStart + arrivals[i];
+    }
+
+    /**
+     * Jumps to the day of the given time and scans only the flights of that day.
+     *
+     * @return The index of the first flight departing at or after the given epoch minute, or {@link #size()}.
+     */
+    public int firstDepartingAtOrAfter(long epochMinute) {
+        long offset = epochMinute - monthStart;
+        if (offset <= 0) {
+            return 0;
+        }
+        int i = firstFlightOfDay[(int) Math.min(offset / MINUTES_PER_DAY, firstFlightOfDay.length - 1)];
+        while (i < departures.length && departures[i] < offset) {
+            i++;
+        }
+        return i;
+    }
+
+    public int departureMinuteOfMonth(int i) {
+        return departures[i];
+    }
+
+    public int arrivalMinuteOfMonth(int i) {
+        return arrivals[i];
+    }
+
+    public String flightNumberAt(int i) {
+        return FlightNumbers.numberOf(flightNumbers[i]);
+    }
+
+    /**
+     * Materializes the i-th flight.
+     */
+    public FlightLeg toLeg(int i) {
+        LocalDateTime start = month.atDay(1).atStartOfDay();
+        FlightLeg leg = new FlightLeg();
+        leg.setFlightNumber(flightNumberAt(i));
+        leg.setFlightFrom(from);
+        leg.setFlightTo(to);
+        leg.setFlightDepartureTime(start.plusMinutes(departures[i]));
+        leg.setFlightArrivalTime(start.plusMinutes(arrivals[i]));
+        return leg;
+    }
+
+    private static boolean isSorted(int[] values) {
+        for (int i = 1; i < values.length; i++) {
+            if (values[i] < values[i - 1]) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
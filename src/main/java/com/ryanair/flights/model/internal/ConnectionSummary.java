@@ -0,0 +1,18 @@
+package com.ryanair.flights.model.internal;
+
+/**
+ * The number of flights of a search and the earliest arrival among them, in epoch minutes, or
+ * {@link Long#MAX_VALUE} when there are none.
+ */
+public record ConnectionSummary(int count, long earliestArrival) {
+
+    public static final ConnectionSummary NONE = new ConnectionSummary(0, Long.MAX_VALUE);
+
+    public ConnectionSummary plus(ConnectionSummary other) {
+        return new ConnectionSummary(count + other.count, Math.min(earliestArrival, other.earliestArrival));
+    }
+
+    public boolean isEmpty() {
+        return count == 0;
+    }
+}
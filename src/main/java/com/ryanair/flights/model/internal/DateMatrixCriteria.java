@@ -0,0 +1,48 @@
+package com.ryanair.flights.model.internal;
+
+import lombok.Getter;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.List;
+
+/**
+ * A search repeated over a range of days with the same daily window: on every day from {@code firstDate} to
+ * {@code lastDate}, flights departing at or after {@code departureTime} and arriving at or before
+ * {@code arrivalTime}. When the arrival time is not after the departure time, the window ends on the next day.
+ */
+@Getter
+public class DateMatrixCriteria {
+    private final String departure;
+    private final String arrival;
+    private final LocalDate firstDate;
+    private final LocalDate lastDate;
+    private final LocalTime departureTime;
+    private final LocalTime arrivalTime;
+    private final int maxStops;
+
+    public DateMatrixCriteria(String departure, String arrival, LocalDate firstDate, LocalDate lastDate,
+                              LocalTime departureTime, LocalTime arrivalTime, int maxStops) {
+        this.departure = departure;
+        this.arrival = arrival;
+        this.firstDate = firstDate;
+        this.lastDate = lastDate;
+        this.departureTime = departureTime;
+        this.arrivalTime = arrivalTime;
+        this.maxStops = maxStops;
+    }
+
+    public List<LocalDate> getDates() {
+        return firstDate.datesUntil(lastDate.plusDays(1)).toList();
+    }
+
+    public LocalDateTime windowStart(LocalDate date) {
+        return date.atTime(departureTime);
+    }
+
+    public LocalDateTime windowEnd(LocalDate date) {
+        return arrivalTime.isAfter(departureTime) ? date.atTime(arrivalTime) : date.plusDays(1).atTime(arrivalTime);
+    }
+
+}
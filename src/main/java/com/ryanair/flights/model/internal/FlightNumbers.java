@@ -0,0 +1,52 @@
+package com.ryanair.flights.model.internal;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Process-wide table of flight numbers, so that compact schedules store a small int per flight instead of a
+ * String. Ids are never released; the set of flight numbers is small and changes slowly.
+ */
+public final class FlightNumbers {
+
+    public static final int NONE = -1;
+
+    private static final Map<String, Integer> IDS = new ConcurrentHashMap<>();
+    private static volatile String[] numbers = new String[1024];
+    private static int size;
+
+    /**
+     * @return The id of the flight number, registering it on first use, or {@link #NONE} for null.
+     */
+    public static int idOf(String number) {
+        if (number == null) {
+            return NONE;
+        }
+        Integer id = IDS.get(number);
+        return id != null ? id : register(number);
+    }
+
+    public static String numberOf(int id) {
+        return id == NONE ? null : numbers[id];
+    }
+
+    private static synchronized int register(String number) {
+        Integer existing = IDS.get(number);
+        if (existing != null) {
+            return existing;
+        }
+        String[] current = numbers;
+        if (size == current.length) {
+            current = Arrays.copyOf(current, current.length * 2);
+        }
+        current[size] = number;
+        numbers = current;
+        IDS.put(number, size);
+        return size++;
+    }
+
+    private FlightNumbers() {
+        // Private constructor to prevent instantiation
+    }
+}
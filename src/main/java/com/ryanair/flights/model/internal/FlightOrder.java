@@ -0,0 +1,67 @@
+package com.ryanair.flights.model.internal;
+
+import com.ryanair.flights.model.dto.Flight;
+import com.ryanair.flights.model.dto.FlightLeg;
+import com.ryanair.flights.util.DateTimeUtil;
+
+import java.util.Comparator;
+import java.util.Locale;
+
+/**
+ * Orders in which the flights of a search can be returned. Every order ranks a flight by a single number computed
+ * from its departure and arrival, lower being better, so a candidate can be ranked before it is created. Flights
+ * of equal rank are ordered by departure, arrival, stops and flight numbers, which makes the order total.
+ */
+public enum FlightOrder {
+    EARLIEST_ARRIVAL,
+    SHORTEST_DURATION,
+    LATEST_DEPARTURE;
+
+    private static final Comparator<Flight> TIE_BREAK = Comparator
+            .comparing((Flight flight) -> flight.getLegs().getFirst().getFlightDepartureTime())
+            .thenComparing(flight -> flight.getLegs().getLast().getFlightArrivalTime())
+            .thenComparingInt(Flight::getStops)
+            .thenComparing(FlightOrder::flightNumbers);
+
+    /**
+     * @param departure Departure of the first leg, in epoch minutes.
+     * @param arrival   Arrival of the last leg, in epoch minutes.
+     * @return The rank of a flight with the given times; lower is better.
+     */
+    public long rank(long departure, long arrival) {
+        return switch (this) {
+            case EARLIEST_ARRIVAL -> arrival;
+            case SHORTEST_DURATION -> arrival - departure;
+            case LATEST_DEPARTURE -> -departure;
+        };
+    }
+
+    public long rank(Flight flight) {
+        return rank(DateTimeUtil.toEpochMinutes(flight.getLegs().getFirst().getFlightDepartureTime()),
+                DateTimeUtil.toEpochMinutes(flight.getLegs().getLast().getFlightArrivalTime()));
+    }
+
+    /**
+     * @return A comparator putting the best flight first.
+     */
+    public Comparator<Flight> comparator() {
+        return Comparator.<Flight>comparingLong(this::rank).thenComparing(TIE_BREAK);
+    }
+
+    /**
+     * Reads an order from a request parameter such as {@code earliest-arrival}.
+     *
+     * @throws IllegalArgumentException when the value names no order.
+     */
+    public static FlightOrder parse(String value) {
+        return valueOf(value.trim().toUpperCase(Locale.ROOT).replace('-', '_'));
+    }
+
+    private static String flightNumbers(Flight flight) {
+        StringBuilder numbers = new StringBuilder();
+        for (FlightLeg leg : flight.getLegs()) {
+            numbers.append(leg.getFlightFrom()).append(leg.getFlightNumber()).append(' ');
+        }
+        return numbers.toString();
+    }
+}
@@ -7,6 +7,9 @@ public class FlightSearchCriteria {
     private String arrival;
     private LocalDateTime departureDateTime;
     private LocalDateTime arrivalDateTime;
+    private int maxStops = 1;
+    private FlightOrder sort;
+    private int limit;
 
     public FlightSearchCriteria(String departure, String arrival, LocalDateTime departureDateTime, LocalDateTime arrivalDateTime) {
         this.departure = departure;
@@ -50,4 +53,54 @@ public class FlightSearchCriteria {
     public void setArrivalDateTime(LocalDateTime arrivalDateTime) {
         this.arrivalDateTime = arrivalDateTime;
     }
-}
\ No newline at end of file
+
+    public int getMaxStops() {
+        return maxStops;
+    }
+
+    public void setMaxStops(int maxStops) {
+        this.maxStops = maxStops;
+    }
+
+    /**
+     * @return The order of the results, or null to keep the direct flights first, followed by the connections.
+     */
+    public FlightOrder getSort() {
+        return sort;
+    }
+
+    public void setSort(FlightOrder sort) {
+        this.sort = sort;
+    }
+
+    /**
+     * @return The most flights to return, or 0 for all of them.
+     */
+    public int getLimit() {
+        return limit;
+    }
+
+    public void setLimit(int limit) {
+        this.limit = limit;
+    }
+
+    /**
+     * @return A copy of these criteria with the given order.
+     */
+    public FlightSearchCriteria withSort(FlightOrder sort) {
+        FlightSearchCriteria copy = new FlightSearchCriteria(departure, arrival, departureDateTime, arrivalDateTime);
+        copy.setMaxStops(maxStops);
+        copy.setLimit(limit);
+        copy.setSort(sort);
+        return copy;
+    }
+
+    /**
+     * @return A copy of these criteria with the given limit.
+     */
+    public FlightSearchCriteria withLimit(int limit) {
+        FlightSearchCriteria copy = withSort(sort);
+        copy.setLimit(limit);
+        return copy;
+    }
+}
@@ -0,0 +1,139 @@
+package com.ryanair.flights.model.internal;
+
+import com.ryanair.flights.util.DateTimeUtil;
+
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * For every intermediate airport, the hourly bands of the week in which each route into it arrives and each route
+ * out of it departs, taken from cached schedules. It answers whether a first leg into a hub and a second leg out of
+ * it could possibly connect within a search window, without looking at the schedules of that window.
+ * <p>
+ * The answer assumes that the week-by-week pattern of a route holds in the searched weeks as well. Within that
+ * assumption it never rules out a pair that has a connection: a first-leg arrival at minute {@code t} falls in band
+ * {@code t / 60}, and a second leg leaving at least the layover later falls in a band at least the layover's whole
+ * hours further. A route that is not indexed may always connect.
+ */
+public final class HubConnectivityIndex {
+
+    public static final int BAND_MINUTES = 60;
+    static final int BANDS_PER_DAY = 24 * 60 / BAND_MINUTES;
+    static final int SLOTS = 7 * BANDS_PER_DAY;
+    // 1970-01-01, epoch day 0, was a Thursday
+    private static final int EPOCH_DAY_OF_WEEK = 3;
+
+    public static final HubConnectivityIndex EMPTY = new HubConnectivityIndex(Map.of(), Map.of(), 0);
+
+    private final Map<String, Map<String, long[]>> arrivalsByHub;
+    private final Map<String, Map<String, long[]>> departuresByHub;
+    private final int routes;
+
+    private HubConnectivityIndex(Map<String, Map<String, long[]>> arrivalsByHub,
+                                 Map<String, Map<String, long[]>> departuresByHub, int routes) {
+        this.arrivalsByHub = arrivalsByHub;
+        this.departuresByHub = departuresByHub;
+        this.routes = routes;
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * @return The number of routes with at least one indexed flight.
+     */
+    public int routes() {
+        return routes;
+    }
+
+    /**
+     * Tells whether a flight from {@code from} to {@code hub}, followed at least {@code minLayoverMinutes} later by a
+     * flight from {@code hub} to {@code to}, could fit between {@code start} and {@code end}.
+     *
+     * @return false only when the indexed bands of both legs rule every connection out.
+     */
+    public boolean mayConnect(String from, String hub, String to, LocalDateTime start, LocalDateTime end,
+                              long minLayoverMinutes) {
+        long[] arrivals = arrivalsByHub.getOrDefault(hub, Map.of()).get(from);
+        long[] departures = departuresByHub.getOrDefault(hub, Map.of()).get(to);
+        if (arrivals == null || departures == null) {
+            return true;
+        }
+        long startBand = Math.floorDiv(DateTimeUtil.toEpochMinutes(start), BAND_MINUTES);
+        long endBand = Math.floorDiv(DateTimeUtil.toEpochMinutes(end), BAND_MINUTES);
+        long layoverBands = minLayoverMinutes / BAND_MINUTES;
+
+        // The earliest possible arrival leaves the most room for a departure; the pattern repeats every week
+        long lastArrivalBand = Math.min(endBand - layoverBands, startBand + SLOTS - 1);
+        for (long arrivalBand = startBand; arrivalBand <= lastArrivalBand; arrivalBand++) {
+            if (isSet(arrivals, slotOf(arrivalBand))) {
+                long lastDepartureBand = Math.min(endBand, arrivalBand + layoverBands + SLOTS - 1);
+                for (long departureBand = arrivalBand + layoverBands; departureBand <= lastDepartureBand; departureBand++) {
+                    if (isSet(departures, slotOf(departureBand))) {
+                        return true;
+                    }
+                }
+                return false;
+            }
+        }
+        return false;
+    }
+
+    static int slotOf(long band) {
+        long epochMinute = band * BAND_MINUTES;
+        int dayOfWeek = Math.floorMod(Math.floorDiv(epochMinute, 24 * 60) + EPOCH_DAY_OF_WEEK, 7);
+        return dayOfWeek * BANDS_PER_DAY + Math.floorMod(epochMinute, 24 * 60) / BAND_MINUTES;
+    }
+
+    private static boolean isSet(long[] bits, int slot) {
+        return (bits[slot >>> 6] & (1L << slot)) != 0;
+    }
+
+    /**
+     * Collects the bands of the flights of any number of schedules. Not thread-safe.
+     */
+    public static final class Builder {
+        private final Map<String, Map<String, long[]>> arrivalsByHub = new HashMap<>();
+        private final Map<String, Map<String, long[]>> departuresByHub = new HashMap<>();
+        private int routes;
+
+        private Builder() {
+        }
+
+        public Builder add(CompactSchedule schedule) {
+            if (schedule.isEmpty()) {
+                return this;
+            }
+            String from = schedule.getFrom();
+            String to = schedule.getTo();
+            // The arrivals of the route are indexed at its destination, its departures at its origin
+            long[] arrivals = arrivalsByHub.computeIfAbsent(to, k -> new HashMap<>()).computeIfAbsent(from, k -> bits());
+            Map<String, long[]> departuresFrom = departuresByHub.computeIfAbsent(from, k -> new HashMap<>());
+            long[] departures = departuresFrom.get(to);
+            if (departures == null) {
+                departures = bits();
+                departuresFrom.put(to, departures);
+                routes++;
+            }
+            for (int i = 0; i < schedule.size(); i++) {
+                set(arrivals, slotOf(Math.floorDiv(schedule.arrivalAt(i), BAND_MINUTES)));
+                set(departures, slotOf(Math.floorDiv(schedule.departureAt(i), BAND_MINUTES)));
+            }
+            return this;
+        }
+
+        public HubConnectivityIndex build() {
+            return new HubConnectivityIndex(arrivalsByHub, departuresByHub, routes);
+        }
+
+        private static long[] bits() {
+            return new long[(SLOTS + 63) / 64];
+        }
+
+        private static void set(long[] bits, int slot) {
+            bits[slot >>> 6] |= 1L << slot;
+        }
+    }
+}
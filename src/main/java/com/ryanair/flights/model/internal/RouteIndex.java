@@ -0,0 +1,97 @@
+package com.ryanair.flights.model.internal;
+
+import com.ryanair.flights.model.external.Route;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.function.Predicate;
+
+/**
+ * Immutable adjacency index over the route list, keyed by upper-case IATA code.
+ * Routes rejected by the filter are dropped while building, so lookups only return usable routes
+ * and never allocate.
+ */
+public final class RouteIndex {
+
+    public static final RouteIndex EMPTY = new RouteIndex(null, Map.of(), Map.of(), Map.of());
+
+    private final List<Route> source;
+    private final Map<String, List<Route>> outgoing;
+    private final Map<String, List<Route>> incoming;
+    private final Map<String, Map<String, List<Route>>> outgoingByDestination;
+
+    private RouteIndex(List<Route> source,
+                       Map<String, List<Route>> outgoing,
+                       Map<String, List<Route>> incoming,
+                       Map<String, Map<String, List<Route>>> outgoingByDestination) {
+        this.source = source;
+        this.outgoing = outgoing;
+        this.incoming = incoming;
+        this.outgoingByDestination = outgoingByDestination;
+    }
+
+    public static RouteIndex build(List<Route> routes, Predicate<Route> filter) {
+        Map<String, List<Route>> outgoing = new HashMap<>();
+        Map<String, List<Route>> incoming = new HashMap<>();
+        Map<String, Map<String, List<Route>>> outgoingByDestination = new HashMap<>();
+
+        for (Route route : routes) {
+            if (!filter.test(route) || route.getAirportFrom() == null || route.getAirportTo() == null) {
+                continue;
+            }
+            String from = normalize(route.getAirportFrom());
+            String to = normalize(route.getAirportTo());
+            outgoing.computeIfAbsent(from, k -> new ArrayList<>()).add(route);
+            incoming.computeIfAbsent(to, k -> new ArrayList<>()).add(route);
+            outgoingByDestination.computeIfAbsent(from, k -> new HashMap<>())
+                    .computeIfAbsent(to, k -> new ArrayList<>()).add(route);
+        }
+
+        Map<String, Map<String, List<Route>>> frozenByDestination = new HashMap<>();
+        outgoingByDestination.forEach((from, byDestination) -> frozenByDestination.put(from, freeze(byDestination)));
+        return new RouteIndex(routes, freeze(outgoing), freeze(incoming), Map.copyOf(frozenByDestination));
+    }
+
+    public List<Route> routesFrom(String airport) {
+        if (airport == null) {
+            return Collections.emptyList();
+        }
+        return outgoing.getOrDefault(normalize(airport), Collections.emptyList());
+    }
+
+    public List<Route> routesTo(String airport) {
+        if (airport == null) {
+            return Collections.emptyList();
+        }
+        return incoming.getOrDefault(normalize(airport), Collections.emptyList());
+    }
+
+    public List<Route> routesBetween(String from, String to) {
+        if (from == null || to == null) {
+            return Collections.emptyList();
+        }
+        return outgoingByDestination.getOrDefault(normalize(from), Collections.emptyMap())
+                .getOrDefault(normalize(to), Collections.emptyList());
+    }
+
+    /**
+     * @return whether this index was built from exactly the given list instance.
+     */
+    public boolean isBuiltFrom(List<Route> routes) {
+        return source == routes;
+    }
+
+    public static String normalize(String airport) {
+        return airport.toUpperCase(Locale.ROOT);
+    }
+
+    private static Map<String, List<Route>> freeze(Map<String, List<Route>> map) {
+        Map<String, List<Route>> frozen = new HashMap<>();
+        map.forEach((key, value) -> frozen.put(key, List.copyOf(value)));
+        return Map.copyOf(frozen);
+    }
+}
@@ -0,0 +1,7 @@
+package com.ryanair.flights.model.internal;
+
+/**
+ * Published when a route-month leaves the schedule cache, whether it expired, was evicted or was replaced.
+ */
+public record ScheduleEvictedEvent(ScheduleKey key) {
+}
@@ -0,0 +1,13 @@
+package com.ryanair.flights.model.internal;
+
+import java.time.YearMonth;
+
+/**
+ * Identifies a single monthly timetable of a route, e.g. DUB-STN for 2025-10.
+ */
+public record ScheduleKey(String from, String to, YearMonth month) {
+
+    public static ScheduleKey of(String from, String to, int year, int month) {
+        return new ScheduleKey(from, to, YearMonth.of(year, month));
+    }
+}
@@ -0,0 +1,165 @@
+package com.ryanair.flights.model.internal;
+
+import com.ryanair.flights.model.dto.Flight;
+import com.ryanair.flights.model.dto.FlightLeg;
+import com.ryanair.flights.util.ConnectionJoiner;
+import com.ryanair.flights.util.DateTimeUtil;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * The flights of one or more {@link CompactSchedule}s that depart and arrive inside a search window, ordered by
+ * departure. Times are kept in epoch minutes, and a flight is only turned into a {@link FlightLeg} on request.
+ */
+public final class ScheduleWindow {
+
+    public static final ScheduleWindow EMPTY = new ScheduleWindow(new long[0], new long[0], new CompactSchedule[0], new int[0]);
+
+    private final long[] departures;
+    private final long[] arrivals;
+    private final CompactSchedule[] schedules;
+    private final int[] positions;
+    private final FlightLeg[] legs;
+
+    private ScheduleWindow(long[] departures, long[] arrivals, CompactSchedule[] schedules, int[] positions) {
+        this.departures = departures;
+        this.arrivals = arrivals;
+        this.schedules = schedules;
+        this.positions = positions;
+        this.legs = new FlightLeg[departures.length];
+    }
+
+    /**
+     * Selects the flights of the given schedules that depart at or after {@code start} and arrive at or before
+     * {@code end}.
+     */
+    public static ScheduleWindow of(List<CompactSchedule> schedules, LocalDateTime start, LocalDateTime end) {
+        long windowStart = DateTimeUtil.toEpochMinutes(start);
+        long windowEnd = DateTimeUtil.toEpochMinutes(end);
+
+        // Flights are ordered by departure, so only the range departing inside the window is visited
+        int[] firstInWindow = new int[schedules.size()];
+        int count = 0;
+        for (int s = 0; s < schedules.size(); s++) {
+            CompactSchedule schedule = schedules.get(s);
+            firstInWindow[s] = schedule.firstDepartingAtOrAfter(windowStart);
+            for (int i = firstInWindow[s]; i < schedule.size() && schedule.departureAt(i) <= windowEnd; i++) {
+                if (schedule.arrivalAt(i) <= windowEnd) {
+                    count++;
+                }
+            }
+        }
+        if (count == 0) {
+            return EMPTY;
+        }
+
+        long[] departures = new long[count];
+        long[] arrivals = new long[count];
+        CompactSchedule[] sources = new CompactSchedule[count];
+        int[] positions = new int[count];
+        int n = 0;
+        for (int s = 0; s < schedules.size(); s++) {
+            CompactSchedule schedule = schedules.get(s);
+            for (int i = firstInWindow[s]; i < schedule.size() && schedule.departureAt(i) <= windowEnd; i++) {
+                if (schedule.arrivalAt(i) <= windowEnd) {
+                    departures[n] = schedule.departureAt(i);
+                    arrivals[n] = schedule.arrivalAt(i);
+                    sources[n] = schedule;
+                    positions[n] = i;
+                    n++;
+                }
+            }
+        }
+        ScheduleWindow window = new ScheduleWindow(departures, arrivals, sources, positions);
+        return isSorted(departures) ? window : window.sortedByDeparture();
+    }
+
+    public int size() {
+        return departures.length;
+    }
+
+    public boolean isEmpty() {
+        return departures.length == 0;
+    }
+
+    public long departureAt(int i) {
+        return departures[i];
+    }
+
+    public long arrivalAt(int i) {
+        return arrivals[i];
+    }
+
+    /**
+     * @return The index of the first flight departing at or after the given epoch minute, or {@link #size()}.
+     */
+    public int firstDepartingAtOrAfter(long epochMinute) {
+        return ConnectionJoiner.lowerBound(departures, epochMinute);
+    }
+
+    /**
+     * @return The number of flights of the window and the earliest arrival among them.
+     */
+    public ConnectionSummary summarize() {
+        long earliestArrival = Long.MAX_VALUE;
+        for (long arrival : arrivals) {
+            earliestArrival = Math.min(earliestArrival, arrival);
+        }
+        return new ConnectionSummary(size(), earliestArrival);
+    }
+
+    /**
+     * Returns the i-th flight, creating its {@link FlightLeg} on first use. Not thread-safe; a window belongs to
+     * a single search step.
+     */
+    public FlightLeg legAt(int i) {
+        FlightLeg leg = legs[i];
+        if (leg == null) {
+            leg = schedules[i].toLeg(positions[i]);
+            legs[i] = leg;
+        }
+        return leg;
+    }
+
+    /**
+     * @return Every flight of the window as a direct flight.
+     */
+    public List<Flight> toFlights() {
+        List<Flight> flights = new ArrayList<>(size());
+        for (int i = 0; i < size(); i++) {
+            flights.add(Flight.createFlightsFromLegs(List.of(legAt(i))));
+        }
+        return flights;
+    }
+
+    private ScheduleWindow sortedByDeparture() {
+        Integer[] order = new Integer[size()];
+        for (int i = 0; i < order.length; i++) {
+            order[i] = i;
+        }
+        Arrays.sort(order, (a, b) -> Long.compare(departures[a], departures[b]));
+        long[] sortedDepartures = new long[order.length];
+        long[] sortedArrivals = new long[order.length];
+        CompactSchedule[] sortedSchedules = new CompactSchedule[order.length];
+        int[] sortedPositions = new int[order.length];
+        for (int i = 0; i < order.length; i++) {
+            sortedDepartures[i] = departures[order[i]];
+            sortedArrivals[i] = arrivals[order[i]];
+            sortedSchedules[i] = schedules[order[i]];
+            sortedPositions[i] = positions[order[i]];
+        }
+        return new ScheduleWindow(sortedDepartures, sortedArrivals, sortedSchedules, sortedPositions);
+    }
+
+    private static boolean isSorted(long[] values) {
+        for (int i = 1; i < values.length; i++) {
+            if (values[i] < values[i - 1]) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
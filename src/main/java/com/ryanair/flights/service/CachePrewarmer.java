@@ -0,0 +1,165 @@
+package com.ryanair.flights.service;
+
+import com.github.benmanes.caffeine.cache.LoadingCache;
+import com.ryanair.flights.config.CacheConfig;
+import com.ryanair.flights.config.PrewarmProperties;
+import com.ryanair.flights.model.external.Route;
+import com.ryanair.flights.model.internal.RouteIndex;
+import com.ryanair.flights.model.internal.ScheduleKey;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.YearMonth;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.OptionalLong;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Keeps the route and schedule caches warm so user requests do not wait for a cold cache.
+ * <p>
+ * Once the application is ready, and then every {@code ryanair.prewarm.interval}, it refreshes the route list
+ * ahead of time and loads the schedules of the next {@code months} months for every popular search: the direct
+ * route and both legs of every one-stop connection. Entries that are missing or would expire before the next run
+ * are reloaded in the background; the previous value is served until the reload completes.
+ */
+@Component
+public class CachePrewarmer {
+
+    private static final Logger log = LoggerFactory.getLogger(CachePrewarmer.class);
+
+    private final PrewarmProperties properties;
+    private final CachedRouteService cachedRouteService;
+    private final RouteService routeService;
+    private final SearchPopularity searchPopularity;
+    private final CacheManager cacheManager;
+    private final Clock clock;
+    private ScheduledExecutorService scheduler;
+
+    @Autowired
+    public CachePrewarmer(PrewarmProperties properties, CachedRouteService cachedRouteService, RouteService routeService,
+                          SearchPopularity searchPopularity, CacheManager cacheManager) {
+        this(properties, cachedRouteService, routeService, searchPopularity, cacheManager, Clock.systemDefaultZone());
+    }
+
+    CachePrewarmer(PrewarmProperties properties, CachedRouteService cachedRouteService, RouteService routeService,
+                   SearchPopularity searchPopularity, CacheManager cacheManager, Clock clock) {
+        this.properties = properties;
+        this.cachedRouteService = cachedRouteService;
+        this.routeService = routeService;
+        this.searchPopularity = searchPopularity;
+        this.cacheManager = cacheManager;
+        this.clock = clock;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void start() {
+        if (!properties.isEnabled() || scheduler != null) {
+            return;
+        }
+        scheduler = Executors.newSingleThreadScheduledExecutor(Thread.ofPlatform().name("cache-prewarmer").daemon().factory());
+        scheduler.scheduleWithFixedDelay(this::prewarmSafely, 0, properties.getInterval().toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public synchronized void stop() {
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+            scheduler = null;
+        }
+    }
+
+    private void prewarmSafely() {
+        try {
+            prewarm();
+        } catch (Exception e) {
+            // Keep the schedule running, the next run retries
+            log.warn("Cache prewarming failed", e);
+        }
+    }
+
+    /**
+     * Runs one prewarming pass.
+     *
+     * @return The number of schedule entries that were loaded or reloaded.
+     */
+    public int prewarm() {
+        Duration horizon = properties.getInterval().multipliedBy(2);
+        cachedRouteService.refreshAhead(horizon);
+
+        LoadingCache<Object, Object> schedulesCache = CacheConfig.schedulesCache(cacheManager);
+        if (schedulesCache == null) {
+            return 0;
+        }
+        int refreshed = 0;
+        for (ScheduleKey key : scheduleKeys(popularSearches())) {
+            if (expiresWithin(schedulesCache, key, horizon)) {
+                schedulesCache.refresh(key);
+                refreshed++;
+            }
+        }
+        searchPopularity.decay();
+        log.debug("Prewarming requested {} schedule loads", refreshed);
+        return refreshed;
+    }
+
+    private Set<SearchPopularity.RoutePair> popularSearches() {
+        Set<SearchPopularity.RoutePair> searches = new LinkedHashSet<>();
+        for (String route : properties.getRoutes()) {
+            String[] airports = route.split("-");
+            if (airports.length == 2) {
+                searches.add(new SearchPopularity.RoutePair(airports[0].trim().toUpperCase(Locale.ROOT),
+                        airports[1].trim().toUpperCase(Locale.ROOT)));
+            } else {
+                log.warn("Ignoring prewarm route '{}', expected the form DUB-WRO", route);
+            }
+        }
+        searches.addAll(searchPopularity.top(properties.getTopRecentSearches()));
+        return searches;
+    }
+
+    private Set<ScheduleKey> scheduleKeys(Set<SearchPopularity.RoutePair> searches) {
+        RouteIndex routeIndex = routeService.getRouteIndex();
+        YearMonth firstMonth = YearMonth.now(clock);
+        Set<ScheduleKey> keys = new LinkedHashSet<>();
+        for (SearchPopularity.RoutePair search : searches) {
+            for (int i = 0; i < properties.getMonths(); i++) {
+                YearMonth month = firstMonth.plusMonths(i);
+                if (!routeIndex.routesBetween(search.departure(), search.arrival()).isEmpty()) {
+                    keys.add(new ScheduleKey(search.departure(), search.arrival(), month));
+                }
+                for (Route firstLeg : routeIndex.routesFrom(search.departure())) {
+                    String stop = RouteIndex.normalize(firstLeg.getAirportTo());
+                    if (!stop.equals(search.arrival()) && !routeIndex.routesBetween(stop, search.arrival()).isEmpty()) {
+                        keys.add(new ScheduleKey(search.departure(), stop, month));
+                        keys.add(new ScheduleKey(stop, search.arrival(), month));
+                    }
+                }
+            }
+        }
+        return keys;
+    }
+
+    private static boolean expiresWithin(LoadingCache<Object, Object> cache, Object key, Duration horizon) {
+        // Checked through the map view, a plain read would itself trigger a refresh-after-write reload
+        if (!cache.asMap().containsKey(key)) {
+            return true;
+        }
+        OptionalLong remainingNanos = cache.policy().expireVariably()
+                .map(expiration -> expiration.getExpiresAfter(key, TimeUnit.NANOSECONDS))
+                .orElse(OptionalLong.empty());
+        return remainingNanos.isPresent() && remainingNanos.getAsLong() <= horizon.toNanos();
+    }
+}
@@ -0,0 +1,178 @@
+package com.ryanair.flights.service;
+
+import com.github.benmanes.caffeine.cache.LoadingCache;
+import com.github.benmanes.caffeine.cache.Policy;
+import com.ryanair.flights.config.CacheConfig;
+import com.ryanair.flights.config.ScheduleCacheProperties;
+import com.ryanair.flights.config.SnapshotProperties;
+import com.ryanair.flights.model.internal.CacheSnapshot;
+import com.ryanair.flights.model.internal.CompactSchedule;
+import com.ryanair.flights.model.internal.ScheduleKey;
+import com.ryanair.flights.util.CacheSnapshotCodec;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.OptionalLong;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Persists the route list and the cached schedule months to a local file and restores them at startup, so a
+ * restarted instance answers from warm data instead of calling upstream for everything.
+ * <p>
+ * The snapshot is restored before the application accepts requests and written every
+ * {@code ryanair.snapshot.interval} and at shutdown. Schedules keep the expiry they had when the snapshot was
+ * written; those already expired are skipped. Restored data older than the refresh-after-write age is served
+ * while it is reloaded in the background.
+ */
+@Component
+public class CacheSnapshotService implements SmartInitializingSingleton {
+
+    private static final Logger log = LoggerFactory.getLogger(CacheSnapshotService.class);
+
+    private final SnapshotProperties properties;
+    private final ScheduleCacheProperties scheduleCacheProperties;
+    private final CachedRouteService cachedRouteService;
+    private final CacheManager cacheManager;
+    private final Clock clock;
+    private ScheduledExecutorService scheduler;
+
+    @Autowired
+    public CacheSnapshotService(SnapshotProperties properties, ScheduleCacheProperties scheduleCacheProperties,
+                                CachedRouteService cachedRouteService, CacheManager cacheManager) {
+        this(properties, scheduleCacheProperties, cachedRouteService, cacheManager, Clock.systemUTC());
+    }
+
+    CacheSnapshotService(SnapshotProperties properties, ScheduleCacheProperties scheduleCacheProperties,
+                         CachedRouteService cachedRouteService, CacheManager cacheManager, Clock clock) {
+        this.properties = properties;
+        this.scheduleCacheProperties = scheduleCacheProperties;
+        this.cachedRouteService = cachedRouteService;
+        this.cacheManager = cacheManager;
+        this.clock = clock;
+    }
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        restore();
+        scheduler = Executors.newSingleThreadScheduledExecutor(Thread.ofPlatform().name("cache-snapshot").daemon().factory());
+        long intervalMillis = properties.getInterval().toMillis();
+        scheduler.scheduleWithFixedDelay(this::writeSafely, intervalMillis, intervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+            scheduler = null;
+            writeSafely();
+        }
+    }
+
+    /**
+     * Loads the snapshot file into the route service and the schedule cache.
+     *
+     * @return The number of schedule months restored.
+     */
+    public int restore() {
+        long started = System.nanoTime();
+        Optional<CacheSnapshot> read;
+        try {
+            read = CacheSnapshotCodec.read(properties.getPath());
+        } catch (IOException e) {
+            log.warn("Ignoring unreadable cache snapshot {}", properties.getPath(), e);
+            return 0;
+        }
+        if (read.isEmpty()) {
+            log.info("No cache snapshot of version {} at {}", CacheSnapshotCodec.VERSION, properties.getPath());
+            return 0;
+        }
+        CacheSnapshot snapshot = read.get();
+        Instant now = clock.instant();
+        if (Duration.between(snapshot.createdAt(), now).compareTo(properties.getMaxAge()) > 0) {
+            log.info("Ignoring cache snapshot written at {}, it is older than {}", snapshot.createdAt(), properties.getMaxAge());
+            return 0;
+        }
+
+        if (snapshot.routes() != null) {
+            cachedRouteService.restore(snapshot.routes(), snapshot.routesLoadedAt());
+        }
+
+        int restored = 0;
+        LoadingCache<Object, Object> schedulesCache = CacheConfig.schedulesCache(cacheManager);
+        Optional<Policy.VarExpiration<Object, Object>> expiration =
+                schedulesCache == null ? Optional.empty() : schedulesCache.policy().expireVariably();
+        if (expiration.isPresent()) {
+            for (CacheSnapshot.ScheduleEntry entry : snapshot.schedules()) {
+                Duration remaining = Duration.between(now, entry.expiresAt());
+                if (remaining.isNegative() || remaining.isZero()) {
+                    continue;
+                }
+                expiration.get().putIfAbsent(entry.key(), entry.schedule(), remaining.toNanos(), TimeUnit.NANOSECONDS);
+                if (Duration.between(entry.loadedAt(), now).compareTo(scheduleCacheProperties.getRefreshAfterWrite()) >= 0) {
+                    schedulesCache.refresh(entry.key());
+                }
+                restored++;
+            }
+        }
+        log.info("Restored {} routes and {} schedule months from the cache snapshot in {} ms",
+                snapshot.routes() == null ? 0 : snapshot.routes().size(), restored,
+                TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started));
+        return restored;
+    }
+
+    /**
+     * Writes the current route list and schedule cache to the snapshot file.
+     */
+    public void write() throws IOException {
+        Instant now = clock.instant();
+        List<CacheSnapshot.ScheduleEntry> schedules = new ArrayList<>();
+        LoadingCache<Object, Object> schedulesCache = CacheConfig.schedulesCache(cacheManager);
+        if (schedulesCache != null) {
+            Policy<Object, Object> policy = schedulesCache.policy();
+            for (Map.Entry<Object, Object> entry : schedulesCache.asMap().entrySet()) {
+                if (!(entry.getKey() instanceof ScheduleKey key) || !(entry.getValue() instanceof CompactSchedule schedule)) {
+                    continue;
+                }
+                OptionalLong remainingNanos = policy.expireVariably()
+                        .map(expiration -> expiration.getExpiresAfter(key, TimeUnit.NANOSECONDS))
+                        .orElse(OptionalLong.empty());
+                OptionalLong ageNanos = policy.refreshAfterWrite()
+                        .map(refresh -> refresh.ageOf(key, TimeUnit.NANOSECONDS))
+                        .orElse(OptionalLong.empty());
+                if (remainingNanos.isPresent()) {
+                    schedules.add(new CacheSnapshot.ScheduleEntry(key, schedule,
+                            now.minusNanos(ageNanos.orElse(0)), now.plusNanos(remainingNanos.getAsLong())));
+                }
+            }
+        }
+        CacheSnapshotCodec.write(new CacheSnapshot(now, cachedRouteService.peekRoutes().orElse(null),
+                cachedRouteService.getLoadedAt().orElse(null), schedules), properties.getPath());
+        log.debug("Wrote {} schedule months to the cache snapshot {}", schedules.size(), properties.getPath());
+    }
+
+    private void writeSafely() {
+        try {
+            write();
+        } catch (IOException | RuntimeException e) {
+            log.warn("Writing the cache snapshot to {} failed", properties.getPath(), e);
+        }
+    }
+}
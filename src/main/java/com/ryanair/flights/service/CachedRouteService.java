@@ -1,23 +1,179 @@
 package com.ryanair.flights.service;
 
 import com.ryanair.flights.client.RyanairApiClient;
+import com.ryanair.flights.config.ExecutorConfig;
+import com.ryanair.flights.config.RouteCacheProperties;
+import com.ryanair.flights.exception.ExternalApiException;
 import com.ryanair.flights.model.external.Route;
-import org.springframework.cache.annotation.Cacheable;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.stereotype.Service;
 
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
 import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicReference;
 
+/**
+ * Serves the route list from an in-memory snapshot that is refreshed with stale-while-revalidate semantics.
+ * <p>
+ * Only the very first call waits for the Ryanair API. Once the snapshot is older than
+ * {@code ryanair.cache.routes.refresh-after-write}, the next call starts a refresh in the background and still
+ * gets the current snapshot. At most one load runs at a time and concurrent callers share it. A failed refresh
+ * keeps the last good snapshot, however old it is; its age is published as {@code ryanair.routes.staleness}.
+ * After a failure no refresh is started until {@code ryanair.cache.routes.retry-after-failure} has passed.
+ */
 @Service
 public class CachedRouteService {
 
+    public static final String STALENESS_METRIC = "ryanair.routes.staleness";
+    public static final String REFRESH_METRIC = "ryanair.routes.refresh";
+
+    private static final Logger log = LoggerFactory.getLogger(CachedRouteService.class);
+
+    private record Snapshot(List<Route> routes, Instant loadedAt) {
+    }
+
     private final RyanairApiClient ryanairApiClient;
+    private final RouteCacheProperties properties;
+    private final Executor executor;
+    private final Clock clock;
+    private final AtomicReference<Snapshot> snapshot = new AtomicReference<>();
+    private final AtomicReference<CompletableFuture<Snapshot>> inFlight = new AtomicReference<>();
+    private volatile Instant lastFailureAt;
+    private final Counter refreshSuccesses;
+    private final Counter refreshFailures;
+
+    @Autowired
+    public CachedRouteService(RyanairApiClient ryanairApiClient, RouteCacheProperties properties,
+                              @Qualifier(ExecutorConfig.UPSTREAM_EXECUTOR) Executor executor, MeterRegistry meterRegistry) {
+        this(ryanairApiClient, properties, executor, meterRegistry, Clock.systemUTC());
+    }
 
-    public CachedRouteService(RyanairApiClient ryanairApiClient) {
+    CachedRouteService(RyanairApiClient ryanairApiClient, RouteCacheProperties properties, Executor executor,
+                       MeterRegistry meterRegistry, Clock clock) {
         this.ryanairApiClient = ryanairApiClient;
+        this.properties = properties;
+        this.executor = executor;
+        this.clock = clock;
+        Gauge.builder(STALENESS_METRIC, this, service -> service.getAge().map(age -> age.toMillis() / 1000.0).orElse(Double.NaN))
+                .description("Age of the route list being served")
+                .baseUnit("seconds")
+                .register(meterRegistry);
+        this.refreshSuccesses = Counter.builder(REFRESH_METRIC).tag("outcome", "success").register(meterRegistry);
+        this.refreshFailures = Counter.builder(REFRESH_METRIC).tag("outcome", "error").register(meterRegistry);
     }
 
-    @Cacheable("routes")
+    /**
+     * Returns the current route list, waiting only when no list has been loaded yet.
+     *
+     * @throws ExternalApiException if no list has been loaded yet and loading it fails.
+     */
     public List<Route> getAllRoutes() {
-        return ryanairApiClient.getRoutes();
+        Snapshot current = snapshot.get();
+        if (current == null) {
+            try {
+                return load().join().routes();
+            } catch (CompletionException e) {
+                throw e.getCause() instanceof ExternalApiException apiException
+                        ? apiException
+                        : new ExternalApiException(e.getCause().getMessage(), e.getCause());
+            }
+        }
+        if (age(current).compareTo(properties.getRefreshAfterWrite()) >= 0 && !backingOff()) {
+            load();
+        }
+        return current.routes();
+    }
+
+    /**
+     * Starts a background refresh if the snapshot is missing or will be due for one within the given horizon.
+     */
+    public void refreshAhead(Duration horizon) {
+        Snapshot current = snapshot.get();
+        if (current == null || (age(current).plus(horizon).compareTo(properties.getRefreshAfterWrite()) >= 0 && !backingOff())) {
+            load();
+        }
+    }
+
+    /**
+     * Installs a route list loaded earlier, e.g. from the on-disk snapshot, unless one has been loaded already.
+     * A list older than the refresh age is served while it is refreshed in the background.
+     *
+     * @return Whether the list was installed.
+     */
+    public boolean restore(List<Route> routes, Instant loadedAt) {
+        return snapshot.compareAndSet(null, new Snapshot(List.copyOf(routes), loadedAt));
+    }
+
+    /**
+     * Returns the current route list without loading or refreshing it.
+     */
+    public Optional<List<Route>> peekRoutes() {
+        return Optional.ofNullable(snapshot.get()).map(Snapshot::routes);
+    }
+
+    public Optional<Instant> getLoadedAt() {
+        return Optional.ofNullable(snapshot.get()).map(Snapshot::loadedAt);
+    }
+
+    public Optional<Duration> getAge() {
+        return Optional.ofNullable(snapshot.get()).map(this::age);
+    }
+
+    private Duration age(Snapshot current) {
+        return Duration.between(current.loadedAt(), clock.instant());
+    }
+
+    private boolean backingOff() {
+        Instant failedAt = lastFailureAt;
+        return failedAt != null && clock.instant().isBefore(failedAt.plus(properties.getRetryAfterFailure()));
+    }
+
+    private CompletableFuture<Snapshot> load() {
+        CompletableFuture<Snapshot> promise = new CompletableFuture<>();
+        CompletableFuture<Snapshot> running = inFlight.compareAndExchange(null, promise);
+        if (running != null) {
+            return running;
+        }
+        try {
+            CompletableFuture.supplyAsync(() -> new Snapshot(ryanairApiClient.getRoutes(), clock.instant()), executor)
+                    .whenComplete((loaded, ex) -> complete(promise, loaded, ex instanceof CompletionException ? ex.getCause() : ex));
+        } catch (RuntimeException e) {
+            // The executor rejected the load
+            complete(promise, null, e);
+        }
+        return promise;
+    }
+
+    private void complete(CompletableFuture<Snapshot> promise, Snapshot loaded, Throwable failure) {
+        if (failure == null) {
+            snapshot.set(loaded);
+            lastFailureAt = null;
+            refreshSuccesses.increment();
+        } else {
+            lastFailureAt = clock.instant();
+            refreshFailures.increment();
+            if (snapshot.get() != null) {
+                log.warn("Refreshing the route list failed, serving the one loaded {} ago and retrying in {}",
+                        getAge().orElseThrow(), properties.getRetryAfterFailure(), failure);
+            }
+        }
+        inFlight.set(null);
+        if (failure == null) {
+            promise.complete(loaded);
+        } else {
+            promise.completeExceptionally(failure);
+        }
     }
-}
\ No newline at end of file
+}
@@ -1,29 +1,359 @@
 package com.ryanair.flights.service;
 
+import com.ryanair.flights.config.SearchProperties;
+import com.ryanair.flights.exception.ExternalApiException;
+import com.ryanair.flights.exception.InvalidRequestException;
+import com.ryanair.flights.metrics.SearchMetrics;
+import com.ryanair.flights.model.dto.DayFlights;
 import com.ryanair.flights.model.dto.Flight;
+import com.ryanair.flights.model.dto.FlightPage;
+import com.ryanair.flights.model.dto.RoutePairFlights;
+import com.ryanair.flights.model.internal.DateMatrixCriteria;
+import com.ryanair.flights.model.internal.FlightOrder;
 import com.ryanair.flights.model.internal.FlightSearchCriteria;
+import com.ryanair.flights.util.TopFlights;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
+import java.time.temporal.ChronoUnit;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BiFunction;
+import java.util.function.Consumer;
 
 @Service
 public class FlightService {
 
+    private static final Logger log = LoggerFactory.getLogger(FlightService.class);
+
     private final InterconnectionService interconnectionService;
+    private final MultiStopSearchService multiStopSearchService;
+    private final SearchProperties searchProperties;
+    private final SearchMetrics searchMetrics;
+    private final SearchResultCache searchResultCache;
+    private final SearchPopularity searchPopularity;
+    private final ResultPages resultPages;
 
     @Autowired
-    public FlightService(InterconnectionService interconnectionService) {
+    public FlightService(InterconnectionService interconnectionService, MultiStopSearchService multiStopSearchService,
+                         SearchProperties searchProperties, SearchMetrics searchMetrics, SearchResultCache searchResultCache,
+                         SearchPopularity searchPopularity, ResultPages resultPages) {
         this.interconnectionService = interconnectionService;
+        this.multiStopSearchService = multiStopSearchService;
+        this.searchProperties = searchProperties;
+        this.searchMetrics = searchMetrics;
+        this.searchResultCache = searchResultCache;
+        this.searchPopularity = searchPopularity;
+        this.resultPages = resultPages;
     }
 
     public List<Flight> searchFlights(FlightSearchCriteria criteria) throws ExecutionException, InterruptedException {
-        List<Flight> directFlights = interconnectionService.findDirectFlights(criteria).get();
-        List<Flight> interconnectedFlights = interconnectionService.findInterconnectedFlights(criteria).get();
-        return combineResults(directFlights, interconnectedFlights);
+        return searchFlightsAsync(criteria).get();
+    }
+
+    /**
+     * Starts the direct and the interconnected search at the same time and combines them once both are done.
+     * Both branches share one deadline; a branch that misses it contributes no flights instead of failing the search.
+     * Searches allowing more than one stop are handed to the {@link MultiStopSearchService} instead.
+     * Results are served from the {@link SearchResultCache} when a cached search covers the requested window;
+     * otherwise the search runs over whole days and is cached unless a branch missed the deadline or a schedule
+     * could not be fetched.
+     * <p>
+     * When the criteria have a sort order, the flights are returned in it. A search with at most one stop that is
+     * also limited keeps only the best flights while it runs, see
+     * {@link InterconnectionService#findBestFlights}; it is not cached, as it does not find every flight.
+     *
+     * @param criteria The search criteria for the flights.
+     * @return A CompletableFuture containing the direct flights followed by the interconnected ones, or the flights
+     * in the requested order.
+     */
+    public CompletableFuture<List<Flight>> searchFlightsAsync(FlightSearchCriteria criteria) {
+        Timer.Sample sample = searchMetrics.startTimer();
+        searchPopularity.record(criteria.getDeparture(), criteria.getArrival());
+        CompletableFuture<List<Flight>> flights = criteria.getSort() != null && criteria.getLimit() > 0 && criteria.getMaxStops() <= 1
+                ? searchBest(criteria)
+                : cachedSearch(criteria, new AtomicBoolean(), this::search).thenApply(found -> ranked(found, criteria));
+        return flights.whenComplete((found, ex) -> searchMetrics.recordSearch(sample, criteria.getSort() == null ? "collect" : "ranked",
+                criteria.getMaxStops(), ex == null ? "success" : "error", ex == null ? found.size() : -1));
+    }
+
+    /**
+     * Returns the first page of a search. The flights are put in the requested order, or by earliest arrival when
+     * none was requested, so that the pages of a result follow one deterministic order, and later pages are read
+     * from {@link ResultPages} with {@link #nextFlightsPage}.
+     * <p>
+     * A search with at most one stop serves its first page from a search keeping only the best flights, one more
+     * than a page to tell whether there is a second page, see {@link #searchBest}. When there is, the complete
+     * search runs in the background and its result is kept for the later pages; the first page then has no total.
+     * As the order is total, the first page is the start of the complete result. A search with more stops, or with
+     * a limit of at most a page, waits for its result and serves every page from it.
+     *
+     * @param criteria The search criteria for the flights.
+     * @param pageSize Flights per page, or null for the default page size.
+     * @return The first page of flights.
+     */
+    public FlightPage searchFlightsPage(FlightSearchCriteria criteria, Integer pageSize) throws ExecutionException, InterruptedException {
+        int size = resultPages.pageSize(pageSize);
+        FlightSearchCriteria ordered = criteria.getSort() == null ? criteria.withSort(FlightOrder.EARLIEST_ARRIVAL) : criteria;
+        if (ordered.getMaxStops() > 1 || (ordered.getLimit() > 0 && ordered.getLimit() <= size)) {
+            return resultPages.firstPage(searchFlights(ordered), size);
+        }
+        List<Flight> best = searchBest(ordered.withLimit(size + 1)).get();
+        if (best.size() <= size) {
+            return resultPages.firstPage(best, size);
+        }
+        return resultPages.firstPage(best, size, searchFlightsAsync(ordered));
+    }
+
+    /**
+     * @param cursor   The cursor returned with the previous page.
+     * @param pageSize Flights per page, or null to keep the size of the previous page.
+     * @return The next page of a search started with {@link #searchFlightsPage}.
+     */
+    public FlightPage nextFlightsPage(String cursor, Integer pageSize) {
+        return resultPages.nextPage(cursor, pageSize);
+    }
+
+    /**
+     * Serves a limited, sorted search from the {@link SearchResultCache} when it covers the window, and otherwise
+     * runs it keeping only the best flights. Past the deadline, the best flights found so far are returned.
+     */
+    private CompletableFuture<List<Flight>> searchBest(FlightSearchCriteria criteria) {
+        Optional<List<Flight>> cached = searchResultCache.get(criteria);
+        if (cached.isPresent()) {
+            return CompletableFuture.completedFuture(ranked(cached.get(), criteria));
+        }
+        TopFlights best = new TopFlights(criteria.getSort(), criteria.getLimit());
+        long timeoutMillis = searchProperties.getTimeout().toMillis();
+        return interconnectionService.findBestFlights(criteria, best).copy()
+                .orTimeout(timeoutMillis, TimeUnit.MILLISECONDS)
+                .exceptionally(ex -> {
+                    Throwable cause = ex instanceof CompletionException ? ex.getCause() : ex;
+                    if (cause instanceof TimeoutException) {
+                        log.warn("The ranked search for {}-{} did not finish within {} ms, returning the best flights found so far",
+                                criteria.getDeparture(), criteria.getArrival(), timeoutMillis);
+                        return null;
+                    }
+                    throw ex instanceof CompletionException completionException ? completionException : new CompletionException(ex);
+                })
+                .thenApply(v -> best.toList());
+    }
+
+    private static List<Flight> ranked(List<Flight> flights, FlightSearchCriteria criteria) {
+        if (criteria.getSort() == null) {
+            return flights;
+        }
+        if (criteria.getLimit() > 0) {
+            return TopFlights.of(criteria.getSort(), criteria.getLimit(), flights);
+        }
+        return flights.stream().sorted(criteria.getSort().comparator()).toList();
+    }
+
+    /**
+     * Searches every departure-arrival pair of a batch at once. All pairs share one {@link ScheduleFetchContext},
+     * so a route-month needed by several pairs, such as the legs into a common hub, is fetched once for the whole
+     * batch instead of once per pair. Each pair is answered from the {@link SearchResultCache} when possible and
+     * has the usual deadline; a branch that misses it contributes no flights to its pair, and the pair is marked
+     * {@link RoutePairFlights#isIncomplete() incomplete} so it is not mistaken for a pair without flights. As the
+     * context is shared, a failed fetch marks every pair that completes after it incomplete, not only those that
+     * needed the schedule.
+     *
+     * @param pairs The search criteria of every pair, all with at most one stop.
+     * @return A CompletableFuture containing the flights of every pair, in the order of {@code pairs}.
+     */
+    public CompletableFuture<List<RoutePairFlights>> searchFlightsBatchAsync(List<FlightSearchCriteria> pairs) {
+        if (pairs.size() > searchProperties.getMaxBatchPairs()) {
+            throw new InvalidRequestException("A batch search can cover at most " + searchProperties.getMaxBatchPairs() + " airport pairs.");
+        }
+        if (pairs.stream().anyMatch(criteria -> criteria.getMaxStops() > 1)) {
+            throw new InvalidRequestException("A batch search allows at most one stop.");
+        }
+        Timer.Sample sample = searchMetrics.startTimer();
+        ScheduleFetchContext fetchContext = new ScheduleFetchContext(searchProperties.getMaxConcurrentFetches());
+        List<CompletableFuture<RoutePairFlights>> results = pairs.stream()
+                .map(criteria -> {
+                    searchPopularity.record(criteria.getDeparture(), criteria.getArrival());
+                    AtomicBoolean incomplete = new AtomicBoolean();
+                    return cachedSearch(criteria, incomplete, (pairCriteria, pairIncomplete) -> search(pairCriteria, fetchContext, pairIncomplete))
+                            .thenApply(flights -> new RoutePairFlights(criteria.getDeparture(), criteria.getArrival(), flights,
+                                    incomplete.get()));
+                })
+                .toList();
+        return CompletableFuture.allOf(results.toArray(new CompletableFuture[0]))
+                .thenApply(v -> results.stream().map(CompletableFuture::join).toList())
+                .whenComplete((pairFlights, ex) -> {
+                    searchMetrics.recordFanOut("batch", fetchContext.getFetchCount());
+                    searchMetrics.recordSearch(sample, "batch", pairs.isEmpty() ? 0 : pairs.getFirst().getMaxStops(),
+                            ex == null ? "success" : "error",
+                            ex == null ? pairFlights.stream().mapToInt(pair -> pair.getFlights().size()).sum() : -1);
+                });
+    }
 
+    /**
+     * Searches every day of a date range with the same daily window, see
+     * {@link InterconnectionService#findDateMatrix(DateMatrixCriteria, boolean)}. Unlike a single search, a matrix
+     * that misses the deadline fails with an {@link ExternalApiException}, as there is no partial answer per day.
+     *
+     * @param criteria The date range, daily window and maximum number of stops.
+     * @param summary  Whether to return only the counts and the earliest arrival of each day.
+     * @return One entry per day of the range, in date order.
+     */
+    public List<DayFlights> searchDateMatrix(DateMatrixCriteria criteria, boolean summary) {
+        long days = ChronoUnit.DAYS.between(criteria.getFirstDate(), criteria.getLastDate()) + 1;
+        if (days > searchProperties.getMaxMatrixDays()) {
+            throw new InvalidRequestException("A date matrix can cover at most " + searchProperties.getMaxMatrixDays() + " days.");
+        }
+        if (criteria.getMaxStops() > 1) {
+            throw new InvalidRequestException("A date matrix allows at most one stop.");
+        }
+        Timer.Sample sample = searchMetrics.startTimer();
+        searchPopularity.record(criteria.getDeparture(), criteria.getArrival());
+        long timeoutMillis = searchProperties.getTimeout().toMillis();
+        try {
+            List<DayFlights> matrix = interconnectionService.findDateMatrix(criteria, summary)
+                    .get(timeoutMillis, TimeUnit.MILLISECONDS);
+            searchMetrics.recordSearch(sample, "matrix", criteria.getMaxStops(), "success",
+                    matrix.stream().mapToInt(day -> day.getDirectFlights() + day.getOneStopFlights()).sum());
+            return matrix;
+        } catch (TimeoutException e) {
+            searchMetrics.recordSearch(sample, "matrix", criteria.getMaxStops(), "error", -1);
+            throw new ExternalApiException("The date matrix search did not finish within " + timeoutMillis + " ms", e);
+        } catch (ExecutionException e) {
+            searchMetrics.recordSearch(sample, "matrix", criteria.getMaxStops(), "error", -1);
+            throw new ExternalApiException("The date matrix search failed", e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ExternalApiException("Interrupted while waiting for the date matrix search", e);
+        }
+    }
+
+    /**
+     * @param incomplete Set when a branch of the search missed its deadline, lost flights to a failed schedule
+     *                   fetch or dropped itineraries over the multi-stop cap; such a result is not cached.
+     */
+    private CompletableFuture<List<Flight>> cachedSearch(FlightSearchCriteria criteria, AtomicBoolean incomplete,
+                                                         BiFunction<FlightSearchCriteria, AtomicBoolean, CompletableFuture<List<Flight>>> search) {
+        Optional<List<Flight>> cached = searchResultCache.get(criteria);
+        if (cached.isPresent()) {
+            return CompletableFuture.completedFuture(cached.get());
+        }
+        if (!searchResultCache.isEnabled()) {
+            return search.apply(criteria, incomplete);
+        }
+        FlightSearchCriteria normalized = SearchResultCache.normalize(criteria);
+        long generation = searchResultCache.generation();
+        return search.apply(normalized, incomplete).thenApply(flights -> {
+            if (!incomplete.get()) {
+                searchResultCache.put(normalized, flights, generation);
+            }
+            return SearchResultCache.filter(flights, criteria);
+        });
+    }
+
+    private CompletableFuture<List<Flight>> search(FlightSearchCriteria criteria, AtomicBoolean incomplete) {
+        ScheduleFetchContext fetchContext = new ScheduleFetchContext(searchProperties.getMaxConcurrentFetches());
+        if (criteria.getMaxStops() > 1) {
+            return withDeadline(multiStopSearchService.findFlights(criteria, fetchContext, flights -> {
+            }), searchProperties.getTimeout().toMillis(), "multi-stop", criteria, incomplete)
+                    .thenApply(flights -> flagIncomplete(flights, fetchContext, incomplete));
+        }
+        return search(criteria, fetchContext, incomplete)
+                .whenComplete((flights, ex) -> searchMetrics.recordFanOut("search", fetchContext.getFetchCount()));
+    }
+
+    private CompletableFuture<List<Flight>> search(FlightSearchCriteria criteria, ScheduleFetchContext fetchContext, AtomicBoolean incomplete) {
+        long timeoutMillis = searchProperties.getTimeout().toMillis();
+        CompletableFuture<List<Flight>> directFlights = withDeadline(interconnectionService.findDirectFlights(criteria, fetchContext),
+                timeoutMillis, "direct", criteria, incomplete);
+        CompletableFuture<List<Flight>> interconnectedFlights = criteria.getMaxStops() == 0
+                ? CompletableFuture.completedFuture(Collections.emptyList())
+                : withDeadline(interconnectionService.findInterconnectedFlights(criteria, fetchContext),
+                timeoutMillis, "interconnected", criteria, incomplete);
+        return directFlights.thenCombine(interconnectedFlights, this::combineResults)
+                .thenApply(flights -> flagIncomplete(flights, fetchContext, incomplete));
+    }
+
+    /**
+     * Streaming variant of {@link #searchFlightsAsync(FlightSearchCriteria)}: direct flights and the connections of
+     * each route pair are handed to the sink as soon as they are available, instead of being collected first.
+     * The sink may be called concurrently, and is not called any more once the deadline has passed; one-stop
+     * connections are not collected on the way. A search already in the {@link SearchResultCache} is handed to the
+     * sink in one batch.
+     *
+     * @param criteria The search criteria for the flights.
+     * @param sink     Receives batches of flights.
+     * @return A CompletableFuture completed once the search is done or its deadline has passed.
+     */
+    public CompletableFuture<Void> streamFlights(FlightSearchCriteria criteria, Consumer<List<Flight>> sink) {
+        Timer.Sample sample = searchMetrics.startTimer();
+        searchPopularity.record(criteria.getDeparture(), criteria.getArrival());
+        Optional<List<Flight>> cached = searchResultCache.get(criteria);
+        if (cached.isPresent()) {
+            if (!cached.get().isEmpty()) {
+                sink.accept(cached.get());
+            }
+            searchMetrics.recordSearch(sample, "stream", criteria.getMaxStops(), "success", cached.get().size());
+            return CompletableFuture.completedFuture(null);
+        }
+        AtomicInteger streamed = new AtomicInteger();
+        Consumer<List<Flight>> countingSink = flights -> {
+            streamed.addAndGet(flights.size());
+            sink.accept(flights);
+        };
+        return stream(criteria, countingSink).whenComplete((ignored, ex) -> searchMetrics.recordSearch(sample, "stream",
+                criteria.getMaxStops(), ex == null ? "success" : "error", streamed.get()));
+    }
+
+    private CompletableFuture<Void> stream(FlightSearchCriteria criteria, Consumer<List<Flight>> searchSink) {
+        long timeoutMillis = searchProperties.getTimeout().toMillis();
+        // Branches keep running after the deadline, their flights must not reach the caller any more
+        AtomicBoolean open = new AtomicBoolean(true);
+        Consumer<List<Flight>> sink = flights -> {
+            if (open.get()) {
+                searchSink.accept(flights);
+            }
+        };
+        ScheduleFetchContext fetchContext = new ScheduleFetchContext(searchProperties.getMaxConcurrentFetches());
+        CompletableFuture<Void> search;
+        if (criteria.getMaxStops() > 1) {
+            search = multiStopSearchService.findFlights(criteria, fetchContext, sink).thenApply(flights -> null);
+        } else {
+            CompletableFuture<Void> directFlights = interconnectionService.findDirectFlights(criteria, fetchContext)
+                    .thenAccept(flights -> {
+                        if (!flights.isEmpty()) {
+                            sink.accept(flights);
+                        }
+                    });
+            CompletableFuture<Void> interconnectedFlights = criteria.getMaxStops() == 0
+                    ? CompletableFuture.completedFuture(null)
+                    : interconnectionService.streamInterconnectedFlights(criteria, fetchContext, sink);
+            search = CompletableFuture.allOf(directFlights, interconnectedFlights);
+        }
+        search.whenComplete((ignored, ex) -> searchMetrics.recordFanOut("stream", fetchContext.getFetchCount()));
+        return search
+                .orTimeout(timeoutMillis, TimeUnit.MILLISECONDS)
+                .whenComplete((ignored, ex) -> open.set(false))
+                .exceptionally(ex -> {
+                    Throwable cause = ex instanceof CompletionException ? ex.getCause() : ex;
+                    if (cause instanceof TimeoutException) {
+                        log.warn("The streamed search for {}-{} did not finish within {} ms, results are partial",
+                                criteria.getDeparture(), criteria.getArrival(), timeoutMillis);
+                        return null;
+                    }
+                    throw ex instanceof CompletionException completionException ? completionException : new CompletionException(ex);
+                });
     }
 
     public List<Flight> combineResults(List<Flight> direct, List<Flight> interconnected) {
@@ -32,4 +362,27 @@ public class FlightService {
         combined.addAll(interconnected);
         return combined;
     }
+
+    private CompletableFuture<List<Flight>> withDeadline(CompletableFuture<List<Flight>> branch, long timeoutMillis,
+                                                         String branchName, FlightSearchCriteria criteria, AtomicBoolean incomplete) {
+        return branch.copy()
+                .orTimeout(timeoutMillis, TimeUnit.MILLISECONDS)
+                .exceptionally(ex -> {
+                    Throwable cause = ex instanceof CompletionException ? ex.getCause() : ex;
+                    if (cause instanceof TimeoutException) {
+                        incomplete.set(true);
+                        log.warn("The {} search for {}-{} did not finish within {} ms, returning partial results",
+                                branchName, criteria.getDeparture(), criteria.getArrival(), timeoutMillis);
+                        return Collections.emptyList();
+                    }
+                    throw ex instanceof CompletionException completionException ? completionException : new CompletionException(ex);
+                });
+    }
+
+    private static List<Flight> flagIncomplete(List<Flight> flights, ScheduleFetchContext fetchContext, AtomicBoolean incomplete) {
+        if (fetchContext.isIncomplete()) {
+            incomplete.set(true);
+        }
+        return flights;
+    }
 }
@@ -0,0 +1,141 @@
+package com.ryanair.flights.service;
+
+import com.github.benmanes.caffeine.cache.LoadingCache;
+import com.ryanair.flights.config.CacheConfig;
+import com.ryanair.flights.config.ConnectivityProperties;
+import com.ryanair.flights.model.internal.CompactSchedule;
+import com.ryanair.flights.model.internal.HubConnectivityIndex;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.function.DoubleSupplier;
+
+/**
+ * Keeps a {@link HubConnectivityIndex} of the cached schedules and decides, from it, whether a candidate route pair
+ * of a one-stop search is worth fetching.
+ * <p>
+ * Once the application is ready, and then every {@code ryanair.connectivity.interval}, the index is rebuilt from
+ * the schedule cache and swapped in whole; searches keep using the previous one until then. Nothing is fetched from
+ * upstream to build it, so routes that are not cached are never ruled out.
+ */
+@Component
+public class HubConnectivityService {
+
+    public static final String INDEXED_ROUTES_METRIC = "ryanair.connectivity.routes";
+
+    private static final Logger log = LoggerFactory.getLogger(HubConnectivityService.class);
+
+    public enum Decision {
+        /**
+         * The pair may connect, search it.
+         */
+        SEARCH,
+        /**
+         * The index says the pair cannot connect; search it anyway and report whether that was right.
+         */
+        VERIFY,
+        /**
+         * The index says the pair cannot connect, leave it out.
+         */
+        SKIP
+    }
+
+    private final ConnectivityProperties properties;
+    private final CacheManager cacheManager;
+    private final DoubleSupplier random;
+    private volatile HubConnectivityIndex index = HubConnectivityIndex.EMPTY;
+    private ScheduledExecutorService scheduler;
+
+    @Autowired
+    public HubConnectivityService(ConnectivityProperties properties, CacheManager cacheManager, MeterRegistry meterRegistry) {
+        this(properties, cacheManager, meterRegistry, () -> ThreadLocalRandom.current().nextDouble());
+    }
+
+    HubConnectivityService(ConnectivityProperties properties, CacheManager cacheManager, MeterRegistry meterRegistry,
+                           DoubleSupplier random) {
+        this.properties = properties;
+        this.cacheManager = cacheManager;
+        this.random = random;
+        Gauge.builder(INDEXED_ROUTES_METRIC, this, service -> service.index.routes())
+                .description("Routes in the hub connectivity index")
+                .register(meterRegistry);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void start() {
+        if (properties.getMode() == ConnectivityProperties.Mode.OFF || scheduler != null) {
+            return;
+        }
+        scheduler = Executors.newSingleThreadScheduledExecutor(Thread.ofPlatform().name("hub-connectivity").daemon().factory());
+        scheduler.scheduleWithFixedDelay(this::rebuildSafely, 0, properties.getInterval().toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public synchronized void stop() {
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+            scheduler = null;
+        }
+    }
+
+    private void rebuildSafely() {
+        try {
+            rebuild();
+        } catch (Exception e) {
+            // Keep the schedule running and the previous index in use, the next run retries
+            log.warn("Rebuilding the hub connectivity index failed", e);
+        }
+    }
+
+    /**
+     * Rebuilds the index from the schedules currently cached.
+     *
+     * @return The number of routes indexed.
+     */
+    public int rebuild() {
+        LoadingCache<Object, Object> schedulesCache = CacheConfig.schedulesCache(cacheManager);
+        if (schedulesCache == null) {
+            return 0;
+        }
+        long started = System.nanoTime();
+        HubConnectivityIndex.Builder builder = HubConnectivityIndex.builder();
+        for (Object value : schedulesCache.asMap().values()) {
+            if (value instanceof CompactSchedule schedule) {
+                builder.add(schedule);
+            }
+        }
+        index = builder.build();
+        log.debug("Indexed the connectivity of {} routes in {} ms", index.routes(),
+                TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started));
+        return index.routes();
+    }
+
+    /**
+     * Decides whether the route pair from {@code from} through {@code hub} to {@code to} is searched for connections
+     * between {@code start} and {@code end}. In prune mode a {@code verificationRate} share of the pairs that would
+     * be skipped is verified instead.
+     */
+    public Decision decide(String from, String hub, String to, LocalDateTime start, LocalDateTime end, long minLayoverMinutes) {
+        ConnectivityProperties.Mode mode = properties.getMode();
+        if (mode == ConnectivityProperties.Mode.OFF || index.mayConnect(from, hub, to, start, end, minLayoverMinutes)) {
+            return Decision.SEARCH;
+        }
+        if (mode == ConnectivityProperties.Mode.PRUNE && random.getAsDouble() >= properties.getVerificationRate()) {
+            return Decision.SKIP;
+        }
+        return Decision.VERIFY;
+    }
+}
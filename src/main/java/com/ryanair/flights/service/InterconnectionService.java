@@ -1,25 +1,42 @@
 package com.ryanair.flights.service;
 
+import com.ryanair.flights.client.limit.UpstreamTenant;
+import com.ryanair.flights.config.ExecutorConfig;
+import com.ryanair.flights.config.SearchProperties;
+import com.ryanair.flights.metrics.SearchMetrics;
+import com.ryanair.flights.model.dto.DayFlights;
 import com.ryanair.flights.model.dto.Flight;
-import com.ryanair.flights.model.dto.FlightLeg;
 import com.ryanair.flights.model.external.Route;
-import com.ryanair.flights.model.external.Schedule;
+import com.ryanair.flights.model.internal.CompactSchedule;
+import com.ryanair.flights.model.internal.ConnectionSummary;
+import com.ryanair.flights.model.internal.DateMatrixCriteria;
 import com.ryanair.flights.model.internal.FlightSearchCriteria;
-import com.ryanair.flights.model.internal.InternalSchedule;
+import com.ryanair.flights.model.internal.ScheduleKey;
+import com.ryanair.flights.model.internal.ScheduleWindow;
+import com.ryanair.flights.util.ConnectionJoiner;
 import com.ryanair.flights.util.Constants;
 import com.ryanair.flights.util.DateTimeUtil;
-import com.ryanair.flights.util.FlightValidator;
+import com.ryanair.flights.util.TopFlights;
+import io.micrometer.core.instrument.Timer;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.stereotype.Service;
 
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.time.YearMonth;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
 
 @Service
@@ -33,6 +50,21 @@ public class InterconnectionService {
     @Autowired
     private ScheduleService scheduleService;
 
+    @Autowired
+    private SearchProperties searchProperties;
+
+    // Runs the window builds and joins that follow the schedule fetches, so the joins never run on a WebClient
+    // event loop or whichever thread happened to complete the last fetch
+    @Autowired
+    @Qualifier(ExecutorConfig.UPSTREAM_EXECUTOR)
+    private Executor upstreamExecutor;
+
+    @Autowired
+    private SearchMetrics searchMetrics;
+
+    @Autowired
+    private HubConnectivityService hubConnectivity;
+
     private record RoutePair(Route firstLeg, Route secondLeg) {
     }
 
@@ -45,58 +77,266 @@ public class InterconnectionService {
      */
 
     public CompletableFuture<List<Flight>> findDirectFlights(FlightSearchCriteria criteria) {
+        ScheduleFetchContext fetchContext = new ScheduleFetchContext(searchProperties.getMaxConcurrentFetches());
+        return findDirectFlights(criteria, fetchContext)
+                .whenComplete((flights, ex) -> searchMetrics.recordFanOut("direct", fetchContext.getFetchCount()));
+    }
+
+    /**
+     * Same as {@link #findDirectFlights(FlightSearchCriteria)}, but shares schedule fetches with the other
+     * lookups of the same search through the given context.
+     *
+     * @param criteria     The search criteria for the flights.
+     * @param fetchContext The per-search context coalescing schedule fetches.
+     * @return A CompletableFuture containing a list of direct flights.
+     */
+    public CompletableFuture<List<Flight>> findDirectFlights(FlightSearchCriteria criteria, ScheduleFetchContext fetchContext) {
+        return findDirectLegs(criteria, fetchContext).thenApply(ScheduleWindow::toFlights);
+    }
+
+    /**
+     * Collects the direct flights of the criteria from the compact schedules of every route and month, without
+     * creating a {@link com.ryanair.flights.model.dto.FlightLeg} for any of them.
+     */
+    private CompletableFuture<ScheduleWindow> findDirectLegs(FlightSearchCriteria criteria, ScheduleFetchContext fetchContext) {
         List<Route> directRoutes = routeService.findDirectRoute(criteria.getDeparture(), criteria.getArrival());
         if (directRoutes.isEmpty()) {
-            return CompletableFuture.completedFuture(Collections.emptyList());
+            return CompletableFuture.completedFuture(ScheduleWindow.EMPTY);
         }
+        return fetchSchedules(directRoutes, criteria.getDepartureDateTime(), criteria.getArrivalDateTime(), fetchContext)
+                .thenApplyAsync(schedules -> searchMetrics.timeScheduleBuild(() ->
+                        ScheduleWindow.of(schedules, criteria.getDepartureDateTime(), criteria.getArrivalDateTime())), upstreamExecutor);
+    }
 
-        List<YearMonth> monthsToScan = DateTimeUtil.getMonthsBetween(criteria.getDepartureDateTime(), criteria.getArrivalDateTime());
+    /**
+     * Fetches the schedules of the given routes for every month between start and end. A month that cannot be
+     * fetched is left out rather than failing the search, and the fetch context is marked incomplete.
+     */
+    private CompletableFuture<List<CompactSchedule>> fetchSchedules(List<Route> routes, LocalDateTime start, LocalDateTime end,
+                                                                    ScheduleFetchContext fetchContext) {
+        List<YearMonth> monthsToScan = DateTimeUtil.getMonthsBetween(start, end);
 
-        List<CompletableFuture<List<Flight>>> monthlyFutures = directRoutes.stream()
+        List<CompletableFuture<CompactSchedule>> monthlyFutures = routes.stream()
                 .flatMap(route -> monthsToScan.stream().map(month ->
-                        CompletableFuture.supplyAsync(() -> {
-                            // This logic fetches and processes flights for a single route and month.
-                            Schedule schedule = scheduleService.getSchedule(route.getAirportFrom(), route.getAirportTo(), month.getYear(), month.getMonthValue());
-                            if (schedule == null || schedule.getDays() == null) {
-                                return Collections.<Flight>emptyList();
-                            }
-                            InternalSchedule internalSchedule = new InternalSchedule(schedule, criteria, route, month);
-                            return internalSchedule.getFlightsByDay().values().stream()
-                                    .flatMap(List::stream)
-                                    .map(x -> Flight.createFlightsFromLegs(List.of(x)))
-                                    .toList();
-                        }).exceptionally(ex -> {
+                        fetchSchedule(route, month, fetchContext).exceptionally(ex -> {
                             log.error("Failed to fetch direct schedule for route {}-{} and month {}",
                                     route.getAirportFrom(), route.getAirportTo(), month, ex);
-                            return Collections.emptyList(); // Return empty list on failure to not break the whole process.
+                            fetchContext.markIncomplete();
+                            return null; // Skip the month on failure to not break the whole process.
                         })
                 ))
                 .toList();
 
-        return combineFutures(monthlyFutures);
+        return CompletableFuture.allOf(monthlyFutures.toArray(new CompletableFuture[0])).thenApply(v ->
+                monthlyFutures.stream()
+                        .map(CompletableFuture::join)
+                        .filter(Objects::nonNull)
+                        .toList());
+    }
+
+    private CompletableFuture<CompactSchedule> fetchSchedule(Route route, YearMonth month, ScheduleFetchContext fetchContext) {
+        ScheduleKey key = new ScheduleKey(route.getAirportFrom(), route.getAirportTo(), month);
+        return fetchContext.fetch(key, k -> {
+            Timer.Sample sample = searchMetrics.startTimer();
+            // The fetch context is the tenant the upstream limiter shares its slots by
+            CompletableFuture<CompactSchedule> load = UpstreamTenant.callAs(fetchContext, () -> scheduleService.getScheduleAsync(
+                    k.from(), k.to(), k.month().getYear(), k.month().getMonthValue()));
+            return load.whenComplete((schedule, ex) -> searchMetrics.recordScheduleFetch(sample,
+                    ex != null ? "error" : schedule == null ? "empty" : "success"));
+        });
     }
 
     /**
      * Finds interconnected flights (with one stop) by asynchronously searching for all valid leg pairs
-     * and combining them.
+     * and combining them. Legs shared by several route pairs are fetched only once per search.
      *
      * @param criteria The search criteria for the flights.
      * @return A list of interconnected flights.
      */
     public CompletableFuture<List<Flight>> findInterconnectedFlights(FlightSearchCriteria criteria) {
-        List<RoutePair> candidateRoutePairs = findCandidateRoutePairs(criteria.getDeparture(), criteria.getArrival());
+        ScheduleFetchContext fetchContext = new ScheduleFetchContext(searchProperties.getMaxConcurrentFetches());
+        return findInterconnectedFlights(criteria, fetchContext)
+                .whenComplete((flights, ex) -> searchMetrics.recordFanOut("interconnected", fetchContext.getFetchCount()));
+    }
+
+    /**
+     * Same as {@link #findInterconnectedFlights(FlightSearchCriteria)}, but shares schedule fetches with other
+     * searches through the given context, so legs needed by several searches of a batch are fetched once.
+     *
+     * @param criteria     The search criteria for the flights.
+     * @param fetchContext The context coalescing schedule fetches.
+     * @return A list of interconnected flights.
+     */
+    public CompletableFuture<List<Flight>> findInterconnectedFlights(FlightSearchCriteria criteria, ScheduleFetchContext fetchContext) {
+        List<RoutePair> candidateRoutePairs =
+                searchMetrics.timeCandidateGeneration(() -> findCandidateRoutePairs(criteria.getDeparture(), criteria.getArrival()));
 
         if (candidateRoutePairs.isEmpty()) {
             return CompletableFuture.completedFuture(Collections.emptyList());
         }
 
         List<CompletableFuture<List<Flight>>> connectionFutures = candidateRoutePairs.stream()
-                .map(pair -> processRoutePair(pair, criteria))
+                .map(pair -> processRoutePair(pair, criteria, fetchContext))
                 .toList();
 
         return combineFutures(connectionFutures);
     }
 
+    /**
+     * Same as {@link #findInterconnectedFlights(FlightSearchCriteria)}, but hands the connections of every route
+     * pair to the sink as soon as that pair is done instead of collecting them, so the whole result is never held
+     * at once. The sink may be called concurrently.
+     *
+     * @param criteria     The search criteria for the flights.
+     * @param fetchContext The context the schedules are fetched through, shared with the rest of the stream.
+     * @param sink         Receives the non-empty connections of each route pair.
+     * @return A CompletableFuture completed once every route pair is done.
+     */
+    public CompletableFuture<Void> streamInterconnectedFlights(FlightSearchCriteria criteria, ScheduleFetchContext fetchContext,
+                                                              Consumer<List<Flight>> sink) {
+        List<CompletableFuture<Void>> connectionFutures =
+                searchMetrics.timeCandidateGeneration(() -> findCandidateRoutePairs(criteria.getDeparture(), criteria.getArrival()))
+                        .stream()
+                        .map(pair -> processRoutePair(pair, criteria, fetchContext).thenAccept(flights -> {
+                            if (!flights.isEmpty()) {
+                                sink.accept(flights);
+                            }
+                        }))
+                        .toList();
+        return CompletableFuture.allOf(connectionFutures.toArray(new CompletableFuture[0]));
+    }
+
+    /**
+     * Searches every day of a date matrix at once. The schedules of the direct routes and of both legs of every
+     * route pair are fetched once for the whole date range, and each day is then cut out of them with
+     * {@link ScheduleWindow#of}, so a month shared by several days is fetched and scanned for the range instead of
+     * once per day. In summary mode only the counts and the earliest arrival of each day are computed, without
+     * creating any flight.
+     *
+     * @param criteria The date range, daily window and maximum number of stops.
+     * @param summary  Whether to leave out the flights of each day.
+     * @return A CompletableFuture containing one entry per day, in date order.
+     */
+    public CompletableFuture<List<DayFlights>> findDateMatrix(DateMatrixCriteria criteria, boolean summary) {
+        List<LocalDate> dates = criteria.getDates();
+        LocalDateTime rangeStart = criteria.windowStart(dates.getFirst());
+        LocalDateTime rangeEnd = criteria.windowEnd(dates.getLast());
+        ScheduleFetchContext fetchContext = new ScheduleFetchContext(searchProperties.getMaxConcurrentFetches());
+
+        List<Route> directRoutes = routeService.findDirectRoute(criteria.getDeparture(), criteria.getArrival());
+        CompletableFuture<List<CompactSchedule>> directFuture = fetchSchedules(directRoutes, rangeStart, rangeEnd, fetchContext);
+
+        List<RoutePair> candidateRoutePairs = criteria.getMaxStops() == 0
+                ? Collections.emptyList()
+                : searchMetrics.timeCandidateGeneration(() -> findCandidateRoutePairs(criteria.getDeparture(), criteria.getArrival()));
+        List<CompletableFuture<List<CompactSchedule>>> firstLegFutures = candidateRoutePairs.stream()
+                .map(pair -> fetchSchedules(List.of(pair.firstLeg()), rangeStart,
+                        rangeEnd.minusHours(Constants.MINIMUM_LAYOVER_HOURS), fetchContext))
+                .toList();
+        List<CompletableFuture<List<CompactSchedule>>> secondLegFutures = candidateRoutePairs.stream()
+                .map(pair -> fetchSchedules(List.of(pair.secondLeg()), rangeStart.plusHours(Constants.MINIMUM_LAYOVER_HOURS),
+                        rangeEnd, fetchContext))
+                .toList();
+
+        List<CompletableFuture<?>> allFutures = new ArrayList<>(firstLegFutures);
+        allFutures.addAll(secondLegFutures);
+        allFutures.add(directFuture);
+        return CompletableFuture.allOf(allFutures.toArray(new CompletableFuture[0]))
+                .thenApplyAsync(v -> dates.stream()
+                        .map(date -> searchDay(criteria, date, summary, directFuture.join(),
+                                firstLegFutures.stream().map(CompletableFuture::join).toList(),
+                                secondLegFutures.stream().map(CompletableFuture::join).toList()))
+                        .toList(), upstreamExecutor)
+                .whenComplete((days, ex) -> searchMetrics.recordFanOut("matrix", fetchContext.getFetchCount()));
+    }
+
+    private DayFlights searchDay(DateMatrixCriteria criteria, LocalDate date, boolean summary, List<CompactSchedule> directSchedules,
+                                 List<List<CompactSchedule>> firstLegSchedules, List<List<CompactSchedule>> secondLegSchedules) {
+        LocalDateTime start = criteria.windowStart(date);
+        LocalDateTime end = criteria.windowEnd(date);
+        ScheduleWindow direct = ScheduleWindow.of(directSchedules, start, end);
+        ConnectionSummary directSummary = direct.summarize();
+        ConnectionSummary oneStopSummary = ConnectionSummary.NONE;
+        List<Flight> flights = summary ? null : new ArrayList<>(direct.toFlights());
+
+        for (int i = 0; i < firstLegSchedules.size(); i++) {
+            ScheduleWindow firstLegs = ScheduleWindow.of(firstLegSchedules.get(i), start,
+                    end.minusHours(Constants.MINIMUM_LAYOVER_HOURS));
+            ScheduleWindow secondLegs = firstLegs.isEmpty() ? ScheduleWindow.EMPTY
+                    : ScheduleWindow.of(secondLegSchedules.get(i), start.plusHours(Constants.MINIMUM_LAYOVER_HOURS), end);
+            if (summary) {
+                oneStopSummary = oneStopSummary.plus(ConnectionJoiner.summarize(firstLegs, secondLegs,
+                        TimeUnit.HOURS.toMinutes(Constants.MINIMUM_LAYOVER_HOURS), maxLayoverMinutes()));
+            } else {
+                List<Flight> connections = combineFlightLegs(firstLegs, secondLegs);
+                oneStopSummary = oneStopSummary.plus(new ConnectionSummary(connections.size(), connections.stream()
+                        .mapToLong(flight -> DateTimeUtil.toEpochMinutes(flight.getLegs().getLast().getFlightArrivalTime()))
+                        .min()
+                        .orElse(Long.MAX_VALUE)));
+                flights.addAll(connections);
+            }
+        }
+
+        ConnectionSummary total = directSummary.plus(oneStopSummary);
+        return new DayFlights(date, directSummary.count(), oneStopSummary.count(),
+                total.isEmpty() ? null : DateTimeUtil.fromEpochMinutes(total.earliestArrival()), flights);
+    }
+
+    /**
+     * Finds the best direct and one-stop flights of the criteria by the order of {@code best}, keeping only as many
+     * as it holds. Every route pair is checked against the flights found so far once its legs are known, and is
+     * skipped when even its best possible connection would not make it in; the others are joined without creating
+     * the connections that rank too low. The flights are in {@code best} once the returned future completes, and
+     * those found so far can be read from it at any time.
+     *
+     * @param criteria The search criteria for the flights, with at most one stop.
+     * @param best     Collects the best flights.
+     * @return A CompletableFuture completed once every route pair is done.
+     */
+    public CompletableFuture<Void> findBestFlights(FlightSearchCriteria criteria, TopFlights best) {
+        ScheduleFetchContext fetchContext = new ScheduleFetchContext(searchProperties.getMaxConcurrentFetches());
+        List<CompletableFuture<Void>> futures = new ArrayList<>();
+        futures.add(findDirectLegs(criteria, fetchContext).thenAccept(best::offer));
+        if (criteria.getMaxStops() > 0) {
+            searchMetrics.timeCandidateGeneration(() -> findCandidateRoutePairs(criteria.getDeparture(), criteria.getArrival()))
+                    .forEach(pair -> futures.add(findBestConnections(pair, criteria, fetchContext, best)));
+        }
+        return CompletableFuture.allOf(futures.toArray(new CompletableFuture[0]))
+                .whenComplete((v, ex) -> searchMetrics.recordFanOut("ranked", fetchContext.getFetchCount()));
+    }
+
+    private CompletableFuture<Void> findBestConnections(RoutePair pair, FlightSearchCriteria originalCriteria,
+                                                        ScheduleFetchContext fetchContext, TopFlights best) {
+        HubConnectivityService.Decision decision = decideConnectivity(pair, originalCriteria);
+        if (decision == HubConnectivityService.Decision.SKIP) {
+            return CompletableFuture.completedFuture(null);
+        }
+        CompletableFuture<ScheduleWindow> firstLegsFuture = findDirectLegs(createFirstLegCriteria(pair.firstLeg(), originalCriteria), fetchContext);
+        CompletableFuture<ScheduleWindow> secondLegsFuture = findDirectLegs(createSecondLegCriteria(pair.secondLeg(), originalCriteria), fetchContext);
+
+        return firstLegsFuture
+                .thenAcceptBothAsync(secondLegsFuture, (firstLegs, secondLegs) -> {
+                    long minLayoverMinutes = TimeUnit.HOURS.toMinutes(Constants.MINIMUM_LAYOVER_HOURS);
+                    if (decision == HubConnectivityService.Decision.VERIFY) {
+                        searchMetrics.recordConnectivityPrediction(ConnectionJoiner.summarize(firstLegs, secondLegs,
+                                minLayoverMinutes, maxLayoverMinutes()).isEmpty());
+                    }
+                    if (ConnectionJoiner.bestPossibleRank(best.getOrder(), firstLegs, secondLegs, minLayoverMinutes) > best.threshold()) {
+                        searchMetrics.recordPrunedRoutePair("rank");
+                        return;
+                    }
+                    searchMetrics.timeConnectionJoin(() ->
+                            ConnectionJoiner.join(firstLegs, secondLegs, minLayoverMinutes, maxLayoverMinutes(), best));
+                }, upstreamExecutor)
+                .exceptionally(ex -> {
+                    log.error("Failed to process interconnected flight for routes {}-{} and {}-{}",
+                            pair.firstLeg().getAirportFrom(), pair.firstLeg().getAirportTo(),
+                            pair.secondLeg().getAirportFrom(), pair.secondLeg().getAirportTo(), ex);
+                    fetchContext.markIncomplete();
+                    return null;
+                });
+    }
+
     private List<RoutePair> findCandidateRoutePairs(String departure, String arrival) {
         List<Route> routesFromDeparture = routeService.findRoutesFrom(departure).stream()
                 .filter(route -> !route.getAirportTo().equalsIgnoreCase(arrival))
@@ -114,40 +354,57 @@ public class InterconnectionService {
                 .toList();
     }
 
-    private CompletableFuture<List<Flight>> processRoutePair(RoutePair pair, FlightSearchCriteria originalCriteria) {
+    private CompletableFuture<List<Flight>> processRoutePair(RoutePair pair, FlightSearchCriteria originalCriteria,
+                                                             ScheduleFetchContext fetchContext) {
+        HubConnectivityService.Decision decision = decideConnectivity(pair, originalCriteria);
+        if (decision == HubConnectivityService.Decision.SKIP) {
+            return CompletableFuture.completedFuture(Collections.emptyList());
+        }
         FlightSearchCriteria firstLegCriteria = createFirstLegCriteria(pair.firstLeg(), originalCriteria);
         FlightSearchCriteria secondLegCriteria = createSecondLegCriteria(pair.secondLeg(), originalCriteria);
 
-        CompletableFuture<List<Flight>> firstLegFlightsFuture = findDirectFlights(firstLegCriteria);
-        CompletableFuture<List<Flight>> secondLegFlightsFuture = findDirectFlights(secondLegCriteria);
+        CompletableFuture<ScheduleWindow> firstLegsFuture = findDirectLegs(firstLegCriteria, fetchContext);
+        CompletableFuture<ScheduleWindow> secondLegsFuture = findDirectLegs(secondLegCriteria, fetchContext);
 
-        return firstLegFlightsFuture
-                .thenCombine(secondLegFlightsFuture, this::combineFlightLegs)
+        return firstLegsFuture
+                .thenCombineAsync(secondLegsFuture, this::combineFlightLegs, upstreamExecutor)
+                .thenApply(flights -> {
+                    if (decision == HubConnectivityService.Decision.VERIFY) {
+                        searchMetrics.recordConnectivityPrediction(flights.isEmpty());
+                    }
+                    return flights;
+                })
                 .exceptionally(ex -> {
                     log.error("Failed to process interconnected flight for routes {}-{} and {}-{}",
                             pair.firstLeg().getAirportFrom(), pair.firstLeg().getAirportTo(),
                             pair.secondLeg().getAirportFrom(), pair.secondLeg().getAirportTo(), ex);
+                    fetchContext.markIncomplete();
                     return Collections.emptyList();
                 });
     }
 
-    private List<Flight> combineFlightLegs(List<Flight> firstLegFlights, List<Flight> secondLegFlights) {
-        if (firstLegFlights.isEmpty() || secondLegFlights.isEmpty()) {
-            return Collections.emptyList();
+    /**
+     * Asks the hub connectivity index whether the pair can connect within the search window, before any of its
+     * schedules is fetched. A skipped pair is counted as pruned.
+     */
+    private HubConnectivityService.Decision decideConnectivity(RoutePair pair, FlightSearchCriteria criteria) {
+        HubConnectivityService.Decision decision = hubConnectivity.decide(pair.firstLeg().getAirportFrom(),
+                pair.firstLeg().getAirportTo(), pair.secondLeg().getAirportTo(), criteria.getDepartureDateTime(),
+                criteria.getArrivalDateTime(), TimeUnit.HOURS.toMinutes(Constants.MINIMUM_LAYOVER_HOURS));
+        if (decision == HubConnectivityService.Decision.SKIP) {
+            searchMetrics.recordPrunedRoutePair("connectivity");
         }
+        return decision;
+    }
 
-        List<Flight> interconnected = new ArrayList<>();
-        for (Flight firstLegFlight : firstLegFlights) {
-            for (Flight secondLegFlight : secondLegFlights) {
-                FlightLeg firstLeg = firstLegFlight.getLegs().getFirst();
-                FlightLeg secondLeg = secondLegFlight.getLegs().getFirst();
+    private List<Flight> combineFlightLegs(ScheduleWindow firstLegs, ScheduleWindow secondLegs) {
+        return searchMetrics.timeConnectionJoin(() -> ConnectionJoiner.join(firstLegs, secondLegs,
+                TimeUnit.HOURS.toMinutes(Constants.MINIMUM_LAYOVER_HOURS), maxLayoverMinutes()));
+    }
 
-                if (FlightValidator.validateConnection(firstLeg, secondLeg)) {
-                    interconnected.add(Flight.createFlightsFromLegs(List.of(firstLeg, secondLeg)));
-                }
-            }
-        }
-        return interconnected;
+    private long maxLayoverMinutes() {
+        Duration maxLayover = searchProperties.getMaxLayover();
+        return maxLayover == null ? ConnectionJoiner.NO_MAX_LAYOVER : maxLayover.toMinutes();
     }
 
     private FlightSearchCriteria createFirstLegCriteria(Route route, FlightSearchCriteria original) {
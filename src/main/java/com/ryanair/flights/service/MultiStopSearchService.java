@@ -0,0 +1,349 @@
+package com.ryanair.flights.service;
+
+import com.ryanair.flights.config.SearchProperties;
+import com.ryanair.flights.metrics.SearchMetrics;
+import com.ryanair.flights.model.dto.Flight;
+import com.ryanair.flights.model.dto.FlightLeg;
+import com.ryanair.flights.model.external.Route;
+import com.ryanair.flights.model.internal.FlightSearchCriteria;
+import com.ryanair.flights.model.internal.RouteIndex;
+import com.ryanair.flights.util.ConnectionJoiner;
+import com.ryanair.flights.util.Constants;
+import com.ryanair.flights.util.DateTimeUtil;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * Finds itineraries with up to {@code maxStops} stops on a time-expanded view of the route graph.
+ * <p>
+ * Itineraries are extended one leg at a time. Before any schedule is fetched, an edge must lead to an airport
+ * from which the destination can still be reached with the legs that are left, and it must still be possible to
+ * arrive before the deadline once the minimum layover of every remaining connection is accounted for.
+ * Schedules are therefore only fetched for edges that can still be part of a valid itinerary.
+ */
+@Service
+public class MultiStopSearchService {
+
+    private static final Logger log = LoggerFactory.getLogger(MultiStopSearchService.class);
+    private static final long MINIMUM_LAYOVER_MINUTES = TimeUnit.HOURS.toMinutes(Constants.MINIMUM_LAYOVER_HOURS);
+
+    private final RouteService routeService;
+    private final InterconnectionService interconnectionService;
+    private final SearchProperties searchProperties;
+    private final SearchMetrics searchMetrics;
+
+    public MultiStopSearchService(RouteService routeService, InterconnectionService interconnectionService,
+                                  SearchProperties searchProperties, SearchMetrics searchMetrics) {
+        this.routeService = routeService;
+        this.interconnectionService = interconnectionService;
+        this.searchProperties = searchProperties;
+        this.searchMetrics = searchMetrics;
+    }
+
+    /**
+     * A partial itinerary ending at {@code airport}, whose next leg may depart at {@code readyAt} at the earliest.
+     */
+    private record Itinerary(List<FlightLeg> legs, String airport, LocalDateTime readyAt) {
+
+        boolean hasVisited(String candidate) {
+            return legs.stream().anyMatch(leg -> leg.getFlightFrom().equalsIgnoreCase(candidate));
+        }
+    }
+
+    private record SearchState(FlightSearchCriteria criteria, int maxStops, String destination,
+                               Map<String, Integer> legsToDestination, ScheduleFetchContext fetchContext,
+                               List<Flight> results, Consumer<List<Flight>> onResults) {
+    }
+
+    /**
+     * Finds every itinerary with at most {@code criteria.getMaxStops()} stops that departs and arrives within
+     * the criteria window.
+     *
+     * @param criteria  The search criteria for the flights.
+     * @param onResults Receives the itineraries found for each number of legs as soon as that leg count is done.
+     * @return A CompletableFuture containing all itineraries, ordered by number of stops.
+     */
+    public CompletableFuture<List<Flight>> findFlights(FlightSearchCriteria criteria, Consumer<List<Flight>> onResults) {
+        return findFlights(criteria, new ScheduleFetchContext(searchProperties.getMaxConcurrentFetches()), onResults);
+    }
+
+    /**
+     * Same as {@link #findFlights(FlightSearchCriteria, Consumer)}, but fetches schedules through the given context.
+     * The context is marked incomplete when a schedule cannot be fetched or when partial itineraries are dropped
+     * because there are more than {@code maxItinerariesPerLeg}, as valid itineraries may then be missing.
+     *
+     * @param criteria     The search criteria for the flights.
+     * @param fetchContext The context the schedules are fetched through.
+     * @param onResults    Receives the itineraries found for each number of legs as soon as that leg count is done.
+     * @return A CompletableFuture containing all itineraries, ordered by number of stops.
+     */
+    public CompletableFuture<List<Flight>> findFlights(FlightSearchCriteria criteria, ScheduleFetchContext fetchContext,
+                                                       Consumer<List<Flight>> onResults) {
+        RouteIndex routeIndex = routeService.getRouteIndex();
+        String origin = RouteIndex.normalize(criteria.getDeparture());
+        String destination = RouteIndex.normalize(criteria.getArrival());
+        int maxStops = criteria.getMaxStops();
+
+        Map<String, Integer> legsToDestination = legsToDestination(routeIndex, destination, maxStops + 1);
+        if (!legsToDestination.containsKey(origin)) {
+            return CompletableFuture.completedFuture(Collections.emptyList());
+        }
+
+        SearchState state = new SearchState(criteria, maxStops, destination, legsToDestination,
+                fetchContext, new ArrayList<>(), onResults);
+        Itinerary start = new Itinerary(List.of(), origin, criteria.getDepartureDateTime());
+        return extend(routeIndex, List.of(start), 0, state)
+                .whenComplete((flights, ex) -> searchMetrics.recordFanOut("multi-stop", fetchContext.getFetchCount()));
+    }
+
+    private CompletableFuture<List<Flight>> extend(RouteIndex routeIndex, List<Itinerary> frontier, int legsTaken, SearchState state) {
+        if (frontier.isEmpty() || legsTaken > state.maxStops()) {
+            return CompletableFuture.completedFuture(state.results());
+        }
+        int legsLeftAfterNext = state.maxStops() - legsTaken;
+
+        Map<String, List<Itinerary>> itinerariesByAirport = new LinkedHashMap<>();
+        frontier.forEach(itinerary -> itinerariesByAirport.computeIfAbsent(itinerary.airport(), k -> new ArrayList<>()).add(itinerary));
+
+        List<CompletableFuture<List<Itinerary>>> extensions = new ArrayList<>();
+        itinerariesByAirport.forEach((airport, itineraries) -> {
+            LocalDateTime earliestReady = itineraries.stream()
+                    .map(Itinerary::readyAt)
+                    .min(Comparator.naturalOrder())
+                    .orElseThrow();
+
+            for (String next : nextAirports(routeIndex, airport)) {
+                Integer legsFromNext = state.legsToDestination().get(next);
+                if (legsFromNext == null || legsFromNext > legsLeftAfterNext) {
+                    continue;
+                }
+                // Every leg still needed after this one has to be preceded by a minimum layover
+                LocalDateTime latestArrival = state.criteria().getArrivalDateTime().minusMinutes(legsFromNext * MINIMUM_LAYOVER_MINUTES);
+                if (earliestReady.isAfter(latestArrival)) {
+                    continue;
+                }
+                FlightSearchCriteria legCriteria = new FlightSearchCriteria(airport, next, earliestReady, latestArrival);
+                // Itineraries reaching the destination are results and are all kept; the frontier is capped
+                int maxExtended = next.equals(state.destination()) ? Integer.MAX_VALUE : searchProperties.getMaxItinerariesPerLeg();
+                extensions.add(interconnectionService.findDirectFlights(legCriteria, state.fetchContext())
+                        .thenApply(flights -> extendWithLegs(itineraries, flights, next, maxExtended, state)));
+            }
+        });
+
+        return CompletableFuture.allOf(extensions.toArray(new CompletableFuture[0])).thenCompose(v -> {
+            List<Itinerary> nextFrontier = new ArrayList<>();
+            List<Flight> found = new ArrayList<>();
+            for (CompletableFuture<List<Itinerary>> extension : extensions) {
+                for (Itinerary itinerary : extension.join()) {
+                    if (itinerary.airport().equals(state.destination())) {
+                        found.add(Flight.createFlightsFromLegs(itinerary.legs()));
+                    } else {
+                        nextFrontier.add(itinerary);
+                    }
+                }
+            }
+            if (!found.isEmpty()) {
+                state.results().addAll(found);
+                state.onResults().accept(found);
+            }
+            return extend(routeIndex, limit(nextFrontier, state), legsTaken + 1, state);
+        });
+    }
+
+    /**
+     * Extends every itinerary with each leg to {@code next} it can connect to: departing once the itinerary is
+     * ready and, when a maximum layover is set, no later than that after its last arrival. At most
+     * {@code maxExtended} itineraries are created, those ready first; when there are more candidates they are
+     * ranked on primitives before any itinerary is built.
+     */
+    private List<Itinerary> extendWithLegs(List<Itinerary> itineraries, List<Flight> flights, String next,
+                                           int maxExtended, SearchState state) {
+        if (flights.isEmpty()) {
+            return Collections.emptyList();
+        }
+        FlightLeg[] legs = flights.stream()
+                .map(flight -> flight.getLegs().getFirst())
+                .sorted(Comparator.comparing(FlightLeg::getFlightDepartureTime))
+                .toArray(FlightLeg[]::new);
+        long[] departures = new long[legs.length];
+        long[] arrivals = new long[legs.length];
+        for (int i = 0; i < legs.length; i++) {
+            departures[i] = DateTimeUtil.toEpochMinutes(legs[i].getFlightDepartureTime());
+            arrivals[i] = DateTimeUtil.toEpochMinutes(legs[i].getFlightArrivalTime());
+        }
+
+        long maxLayoverMinutes = maxLayoverMinutes();
+        int[] firstLeg = new int[itineraries.size()];
+        int[] endLeg = new int[itineraries.size()];
+        long candidates = 0;
+        for (int k = 0; k < itineraries.size(); k++) {
+            Itinerary itinerary = itineraries.get(k);
+            if (itinerary.hasVisited(next)) {
+                continue;
+            }
+            long readyAt = DateTimeUtil.toEpochMinutes(itinerary.readyAt());
+            firstLeg[k] = ConnectionJoiner.lowerBound(departures, readyAt);
+            // readyAt of an itinerary with legs is its last arrival plus the minimum layover
+            endLeg[k] = maxLayoverMinutes == ConnectionJoiner.NO_MAX_LAYOVER || itinerary.legs().isEmpty() ? legs.length
+                    : ConnectionJoiner.lowerBound(departures, readyAt - MINIMUM_LAYOVER_MINUTES + maxLayoverMinutes + 1);
+            candidates += Math.max(0, endLeg[k] - firstLeg[k]);
+        }
+
+        List<Itinerary> extended = new ArrayList<>((int) Math.min(candidates, maxExtended));
+        if (candidates <= maxExtended) {
+            for (int k = 0; k < itineraries.size(); k++) {
+                for (int i = firstLeg[k]; i < endLeg[k]; i++) {
+                    extended.add(extend(itineraries.get(k), legs[i], next));
+                }
+            }
+            return extended;
+        }
+
+        log.warn("Multi-stop search {}-{} found {} partial itineraries to {}, keeping the {} that are ready first",
+                state.criteria().getDeparture(), state.criteria().getArrival(), candidates, next, maxExtended);
+        state.fetchContext().markIncomplete();
+        EarliestArrivals earliest = new EarliestArrivals(maxExtended);
+        for (int k = 0; k < itineraries.size(); k++) {
+            for (int i = firstLeg[k]; i < endLeg[k]; i++) {
+                earliest.offer(arrivals[i], k, i);
+            }
+        }
+        for (int j = 0; j < earliest.size; j++) {
+            extended.add(extend(itineraries.get(earliest.itineraries[j]), legs[earliest.legs[j]], next));
+        }
+        return extended;
+    }
+
+    private static Itinerary extend(Itinerary itinerary, FlightLeg leg, String next) {
+        List<FlightLeg> path = new ArrayList<>(itinerary.legs().size() + 1);
+        path.addAll(itinerary.legs());
+        path.add(leg);
+        return new Itinerary(List.copyOf(path), next, leg.getFlightArrivalTime().plusMinutes(MINIMUM_LAYOVER_MINUTES));
+    }
+
+    /**
+     * Keeps the itinerary-leg combinations with the earliest arrivals, in a max-heap on the arrival held in
+     * primitive arrays.
+     */
+    private static final class EarliestArrivals {
+        private final long[] arrivals;
+        private final int[] itineraries;
+        private final int[] legs;
+        private int size;
+
+        private EarliestArrivals(int capacity) {
+            this.arrivals = new long[capacity];
+            this.itineraries = new int[capacity];
+            this.legs = new int[capacity];
+        }
+
+        void offer(long arrival, int itinerary, int leg) {
+            if (size < arrivals.length) {
+                int i = size++;
+                while (i > 0 && arrivals[(i - 1) / 2] < arrival) {
+                    move((i - 1) / 2, i);
+                    i = (i - 1) / 2;
+                }
+                set(i, arrival, itinerary, leg);
+            } else if (arrivals.length > 0 && arrival < arrivals[0]) {
+                int i = 0;
+                while (true) {
+                    int child = 2 * i + 1;
+                    if (child >= size) {
+                        break;
+                    }
+                    if (child + 1 < size && arrivals[child + 1] > arrivals[child]) {
+                        child++;
+                    }
+                    if (arrivals[child] <= arrival) {
+                        break;
+                    }
+                    move(child, i);
+                    i = child;
+                }
+                set(i, arrival, itinerary, leg);
+            }
+        }
+
+        private void move(int from, int to) {
+            set(to, arrivals[from], itineraries[from], legs[from]);
+        }
+
+        private void set(int i, long arrival, int itinerary, int leg) {
+            arrivals[i] = arrival;
+            itineraries[i] = itinerary;
+            legs[i] = leg;
+        }
+    }
+
+    private long maxLayoverMinutes() {
+        Duration maxLayover = searchProperties.getMaxLayover();
+        return maxLayover == null ? ConnectionJoiner.NO_MAX_LAYOVER : maxLayover.toMinutes();
+    }
+
+    private List<Itinerary> limit(List<Itinerary> frontier, SearchState state) {
+        int maxItineraries = searchProperties.getMaxItinerariesPerLeg();
+        if (frontier.size() <= maxItineraries) {
+            return frontier;
+        }
+        log.warn("Multi-stop search {}-{} produced {} partial itineraries, keeping the {} that are ready first",
+                state.criteria().getDeparture(), state.criteria().getArrival(), frontier.size(), maxItineraries);
+        state.fetchContext().markIncomplete();
+        return frontier.stream()
+                .sorted(Comparator.comparing(Itinerary::readyAt))
+                .limit(maxItineraries)
+                .toList();
+    }
+
+    private Set<String> nextAirports(RouteIndex routeIndex, String airport) {
+        Set<String> airports = new LinkedHashSet<>();
+        for (Route route : routeIndex.routesFrom(airport)) {
+            airports.add(RouteIndex.normalize(route.getAirportTo()));
+        }
+        return airports;
+    }
+
+    /**
+     * Breadth-first search over incoming routes, giving the minimum number of legs from each airport to the
+     * destination, for airports that can reach it in at most {@code maxLegs} legs.
+     */
+    private Map<String, Integer> legsToDestination(RouteIndex routeIndex, String destination, int maxLegs) {
+        Map<String, Integer> legs = new HashMap<>();
+        legs.put(destination, 0);
+        Deque<String> queue = new ArrayDeque<>();
+        queue.add(destination);
+        while (!queue.isEmpty()) {
+            String airport = queue.poll();
+            int distance = legs.get(airport);
+            if (distance == maxLegs) {
+                continue;
+            }
+            for (Route route : routeIndex.routesTo(airport)) {
+                String previous = RouteIndex.normalize(route.getAirportFrom());
+                if (!legs.containsKey(previous)) {
+                    legs.put(previous, distance + 1);
+                    queue.add(previous);
+                }
+            }
+        }
+        return legs;
+    }
+}
@@ -0,0 +1,184 @@
+package com.ryanair.flights.service;
+
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.ryanair.flights.config.PaginationProperties;
+import com.ryanair.flights.exception.InvalidRequestException;
+import com.ryanair.flights.model.dto.Flight;
+import com.ryanair.flights.model.dto.FlightPage;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.security.SecureRandom;
+import java.util.Base64;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+/**
+ * Keeps the ordered flights of paginated searches so that later pages are cut from the same list instead of
+ * running the search again. Only results spanning more than one page are kept, under a random id, until their
+ * TTL passes or the total weight in legs is exceeded. A result heavier than that total on its own could not be
+ * kept at all and is refused instead of being served with a cursor that would never work.
+ * <p>
+ * A cursor names the result, the offset of the page and the page size, and is opaque to clients. A cursor
+ * whose result is gone is rejected; the client has to start again from the first page.
+ * <p>
+ * A result may also be kept while it is still being searched for, once its first page was served from a faster
+ * search; a later page then waits for it.
+ */
+@Component
+public class ResultPages {
+
+    public static final String CACHE_NAME = "resultPages";
+
+    private static final Base64.Encoder ENCODER = Base64.getUrlEncoder().withoutPadding();
+    private static final Base64.Decoder DECODER = Base64.getUrlDecoder();
+
+    private record Cursor(String resultId, int offset, int pageSize) {
+    }
+
+    private final SecureRandom random = new SecureRandom();
+    private final PaginationProperties properties;
+    private final AsyncCache<String, List<Flight>> results;
+
+    public ResultPages(PaginationProperties properties, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.results = Caffeine.newBuilder()
+                .maximumWeight(properties.getMaximumWeight())
+                .weigher((String id, List<Flight> flights) -> weight(flights))
+                .expireAfterWrite(properties.getTtl())
+                .recordStats()
+                .buildAsync();
+        CaffeineCacheMetrics.monitor(meterRegistry, results, CACHE_NAME);
+    }
+
+    /**
+     * @param flights  Every flight of the search, in a deterministic order.
+     * @param pageSize Flights per page, see {@link #pageSize(Integer)}.
+     * @return The first page, with a cursor to the next one when there are more flights.
+     * @throws InvalidRequestException when the result spans several pages but is too large to be kept.
+     */
+    public FlightPage firstPage(List<Flight> flights, int pageSize) {
+        int size = Math.max(1, pageSize);
+        if (flights.size() <= size) {
+            return new FlightPage(flights, flights.size(), null);
+        }
+        String resultId = newResultId();
+        results.put(resultId, CompletableFuture.completedFuture(keepable(flights)));
+        return page(flights, new Cursor(resultId, 0, size));
+    }
+
+    /**
+     * Serves the first page from the best flights of a search whose complete result is still being searched for,
+     * and keeps the complete result for the later pages. The total is not known yet and is left out.
+     *
+     * @param best     The first flights of the result, more than a page of them.
+     * @param pageSize Flights per page, see {@link #pageSize(Integer)}.
+     * @param all      Every flight of the search, in the same order as {@code best}. A later page fails when it
+     *                 fails or is too large to be kept.
+     * @return The first page, with a cursor to the next one.
+     */
+    public FlightPage firstPage(List<Flight> best, int pageSize, CompletableFuture<List<Flight>> all) {
+        int size = Math.max(1, pageSize);
+        String resultId = newResultId();
+        results.put(resultId, all.thenApply(this::keepable));
+        return new FlightPage(best.subList(0, Math.min(size, best.size())), null, encode(new Cursor(resultId, size, size)));
+    }
+
+    /**
+     * @param cursor   A cursor returned with a previous page.
+     * @param pageSize Flights per page, or null to keep the page size of the previous page.
+     * @return The page the cursor points to.
+     */
+    public FlightPage nextPage(String cursor, Integer pageSize) {
+        Cursor decoded = decode(cursor);
+        CompletableFuture<List<Flight>> result = results.getIfPresent(decoded.resultId());
+        List<Flight> flights = result == null ? null : await(result);
+        if (flights == null || decoded.offset() >= flights.size()) {
+            throw new InvalidRequestException("The cursor has expired, please repeat the search.");
+        }
+        return page(flights, new Cursor(decoded.resultId(), decoded.offset(),
+                pageSize(pageSize == null ? decoded.pageSize() : pageSize)));
+    }
+
+    private FlightPage page(List<Flight> flights, Cursor cursor) {
+        int end = Math.min(flights.size(), cursor.offset() + cursor.pageSize());
+        String nextCursor = end < flights.size() ? encode(new Cursor(cursor.resultId(), end, cursor.pageSize())) : null;
+        return new FlightPage(flights.subList(cursor.offset(), end), flights.size(), nextCursor);
+    }
+
+    /**
+     * @return The requested page size, or the default one when none was requested.
+     * @throws InvalidRequestException when the requested size is out of range.
+     */
+    public int pageSize(Integer requested) {
+        if (requested == null) {
+            return properties.getDefaultPageSize();
+        }
+        if (requested < 1 || requested > properties.getMaxPageSize()) {
+            throw new InvalidRequestException("Page size must be between 1 and " + properties.getMaxPageSize() + ".");
+        }
+        return requested;
+    }
+
+    /**
+     * @throws InvalidRequestException when the result is too large to be kept.
+     */
+    private List<Flight> keepable(List<Flight> flights) {
+        if (weight(flights) > properties.getMaximumWeight()) {
+            throw new InvalidRequestException("The search found too many flights (" + flights.size()
+                    + ") to page through, please narrow the time window or set a limit.");
+        }
+        return List.copyOf(flights);
+    }
+
+    /**
+     * @return The result once it is searched for, or null when the search failed.
+     * @throws InvalidRequestException when the result is too large to be kept.
+     */
+    private static List<Flight> await(CompletableFuture<List<Flight>> result) {
+        try {
+            return result.join();
+        } catch (CompletionException | CancellationException e) {
+            if (e.getCause() instanceof InvalidRequestException tooLarge) {
+                throw tooLarge;
+            }
+            return null;
+        }
+    }
+
+    private static int weight(List<Flight> flights) {
+        return 1 + flights.stream().mapToInt(flight -> flight.getLegs().size()).sum();
+    }
+
+    private String newResultId() {
+        byte[] id = new byte[16];
+        random.nextBytes(id);
+        return ENCODER.encodeToString(id);
+    }
+
+    private static String encode(Cursor cursor) {
+        String value = cursor.resultId() + "." + cursor.offset() + "." + cursor.pageSize();
+        return ENCODER.encodeToString(value.getBytes(StandardCharsets.US_ASCII));
+    }
+
+    private static Cursor decode(String cursor) {
+        try {
+            String[] parts = new String(DECODER.decode(cursor), StandardCharsets.US_ASCII).split("\\.");
+            if (parts.length == 3) {
+                int offset = Integer.parseInt(parts[1]);
+                int pageSize = Integer.parseInt(parts[2]);
+                if (offset >= 0 && pageSize > 0) {
+                    return new Cursor(parts[0], offset, pageSize);
+                }
+            }
+        } catch (IllegalArgumentException e) {
+            // Not Base64 or not a number, rejected below
+        }
+        throw new InvalidRequestException("Invalid cursor.");
+    }
+}
@@ -1,43 +1,51 @@
 package com.ryanair.flights.service;
 
 import com.ryanair.flights.model.external.Route;
+import com.ryanair.flights.model.internal.RouteIndex;
 import com.ryanair.flights.util.Constants;
 import org.springframework.stereotype.Service;
 
 import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
 
 @Service
 public class RouteService {
 
     private final CachedRouteService cachedRouteService;
+    private final AtomicReference<RouteIndex> routeIndex = new AtomicReference<>(RouteIndex.EMPTY);
 
     public RouteService(CachedRouteService cachedRouteService) {
         this.cachedRouteService = cachedRouteService;
     }
 
     public List<Route> findDirectRoute(String from, String to) {
-        return cachedRouteService.getAllRoutes().stream()
-                .filter(this::isValidRoute)
-                .filter(route -> route.getAirportFrom().equalsIgnoreCase(from) &&
-                        route.getAirportTo().equalsIgnoreCase(to))
-                .toList();
+        return getRouteIndex().routesBetween(from, to);
     }
 
     public List<Route> findRoutesFrom(String airport) {
-        return cachedRouteService.getAllRoutes().stream()
-                .filter(this::isValidRoute)
-                .filter(route -> route.getAirportFrom().equalsIgnoreCase(airport))
-                .toList();
+        return getRouteIndex().routesFrom(airport);
     }
 
     public List<Route> findRoutesTo(String airport) {
-        return cachedRouteService.getAllRoutes().stream()
-                .filter(this::isValidRoute)
-                .filter(route -> route.getAirportTo().equalsIgnoreCase(airport))
-                .toList();
+        return getRouteIndex().routesTo(airport);
     }
 
     public boolean isValidRoute(Route route) {
         return route != null && route.getOperator() != null && route.getOperator().equalsIgnoreCase(Constants.RYANAIR_OPERATOR) && route.getConnectingAirport() == null;
     }
-}
\ No newline at end of file
+
+    /**
+     * Returns the index over the currently cached route list. The index is rebuilt only when the route cache
+     * hands out a new list, and the new index is swapped in atomically.
+     */
+    public RouteIndex getRouteIndex() {
+        List<Route> routes = cachedRouteService.getAllRoutes();
+        RouteIndex current = routeIndex.get();
+        if (current.isBuiltFrom(routes)) {
+            return current;
+        }
+        RouteIndex rebuilt = RouteIndex.build(routes, this::isValidRoute);
+        routeIndex.compareAndSet(current, rebuilt);
+        return rebuilt;
+    }
+}
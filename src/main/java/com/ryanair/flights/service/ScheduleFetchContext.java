@@ -0,0 +1,118 @@
+package com.ryanair.flights.service;
+
+import com.ryanair.flights.model.internal.CompactSchedule;
+import com.ryanair.flights.model.internal.ScheduleKey;
+
+import java.util.ArrayDeque;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+/**
+ * Coalesces the schedule fetches of a single search, so every distinct route-month is requested at most once
+ * and all the route pairs that need it share the same future.
+ * <p>
+ * At most {@code maxConcurrentFetches} loads run at a time; the others are queued and started, in request order,
+ * as earlier ones complete. This keeps one wide search from occupying every upstream connection.
+ * <p>
+ * A search that loses part of its result, because a schedule could not be fetched or because it had to cut its
+ * itineraries short, marks its context incomplete so that the result is not cached as if it were complete.
+ */
+public class ScheduleFetchContext {
+
+    private record PendingFetch(ScheduleKey key, Function<ScheduleKey, CompletableFuture<CompactSchedule>> loader,
+                                CompletableFuture<CompactSchedule> result) {
+    }
+
+    private final Map<ScheduleKey, CompletableFuture<CompactSchedule>> fetches = new ConcurrentHashMap<>();
+    private final Queue<PendingFetch> pending = new ArrayDeque<>();
+    private final int maxConcurrentFetches;
+    private int running;
+    private boolean draining;
+    private boolean drainRequested;
+    private volatile boolean incomplete;
+
+    public ScheduleFetchContext() {
+        this(Integer.MAX_VALUE);
+    }
+
+    public ScheduleFetchContext(int maxConcurrentFetches) {
+        this.maxConcurrentFetches = Math.max(1, maxConcurrentFetches);
+    }
+
+    public CompletableFuture<CompactSchedule> fetch(ScheduleKey key, Function<ScheduleKey, CompletableFuture<CompactSchedule>> loader) {
+        CompletableFuture<CompactSchedule> result = fetches.computeIfAbsent(key, k -> {
+            CompletableFuture<CompactSchedule> future = new CompletableFuture<>();
+            synchronized (this) {
+                pending.add(new PendingFetch(k, loader, future));
+            }
+            return future;
+        });
+        drain();
+        return result;
+    }
+
+    public int getFetchCount() {
+        return fetches.size();
+    }
+
+    public void markIncomplete() {
+        incomplete = true;
+    }
+
+    public boolean isIncomplete() {
+        return incomplete;
+    }
+
+    /**
+     * Starts queued fetches while there is capacity. Loads that complete synchronously request another pass
+     * instead of recursing, so long runs of cached schedules do not grow the stack.
+     */
+    private void drain() {
+        synchronized (this) {
+            if (draining) {
+                drainRequested = true;
+                return;
+            }
+            draining = true;
+        }
+        while (true) {
+            PendingFetch next;
+            synchronized (this) {
+                if (running >= maxConcurrentFetches || pending.isEmpty()) {
+                    if (!drainRequested) {
+                        draining = false;
+                        return;
+                    }
+                    drainRequested = false;
+                    continue;
+                }
+                next = pending.poll();
+                running++;
+            }
+            start(next);
+        }
+    }
+
+    private void start(PendingFetch fetch) {
+        CompletableFuture<CompactSchedule> load;
+        try {
+            load = fetch.loader().apply(fetch.key());
+        } catch (RuntimeException e) {
+            load = CompletableFuture.failedFuture(e);
+        }
+        load.whenComplete((schedule, ex) -> {
+            synchronized (this) {
+                running--;
+            }
+            if (ex != null) {
+                fetch.result().completeExceptionally(ex);
+            } else {
+                fetch.result().complete(schedule);
+            }
+            drain();
+        });
+    }
+}
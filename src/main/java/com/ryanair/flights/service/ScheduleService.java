@@ -1,21 +1,44 @@
 package com.ryanair.flights.service;
 
-import com.ryanair.flights.client.RyanairApiClient;
-import com.ryanair.flights.model.external.Schedule;
-import org.springframework.beans.factory.annotation.Autowired;
+import com.github.benmanes.caffeine.cache.AsyncLoadingCache;
+import com.ryanair.flights.config.CacheConfig;
+import com.ryanair.flights.model.internal.CompactSchedule;
+import com.ryanair.flights.model.internal.ScheduleKey;
+import org.springframework.cache.CacheManager;
 import org.springframework.stereotype.Service;
 
+import java.time.YearMonth;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Reads schedules through the {@link CacheConfig#SCHEDULES_CACHE}, which loads missing months from the Ryanair
+ * API. A month is fetched once however many callers ask for it while it loads.
+ */
 @Service
 public class ScheduleService {
 
-    private final RyanairApiClient ryanairApiClient;
+    private final AsyncLoadingCache<Object, Object> schedules;
+
+    public ScheduleService(CacheManager cacheManager) {
+        this.schedules = CacheConfig.schedulesAsyncCache(cacheManager);
+    }
+
+    /**
+     * @return The schedule of the month, or null when upstream has none.
+     */
+    public CompactSchedule getSchedule(String departureAirport, String arrivalAirport, int year, int month) {
+        return (CompactSchedule) schedules.synchronous().get(key(departureAirport, arrivalAirport, year, month));
+    }
 
-    @Autowired
-    public ScheduleService(RyanairApiClient ryanairApiClient) {
-        this.ryanairApiClient = ryanairApiClient;
+    /**
+     * Non-blocking counterpart of {@link #getSchedule}. With a blocking API client the fetch runs on the upstream
+     * executor; either way the calling thread is not held while it is in flight.
+     */
+    public CompletableFuture<CompactSchedule> getScheduleAsync(String departureAirport, String arrivalAirport, int year, int month) {
+        return schedules.get(key(departureAirport, arrivalAirport, year, month)).thenApply(CompactSchedule.class::cast);
     }
 
-    public Schedule getSchedule(String departureAirport, String arrivalAirport, int year, int month) {
-        return ryanairApiClient.getSchedule(departureAirport, arrivalAirport, year, month);
+    private static ScheduleKey key(String departureAirport, String arrivalAirport, int year, int month) {
+        return new ScheduleKey(departureAirport, arrivalAirport, YearMonth.of(year, month));
     }
-}
\ No newline at end of file
+}
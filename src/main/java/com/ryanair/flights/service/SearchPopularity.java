@@ -0,0 +1,56 @@
+package com.ryanair.flights.service;
+
+import org.springframework.stereotype.Component;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Counts searches per (departure, arrival) pair. Counts are halved on every {@link #decay()}, so the ranking
+ * follows recent traffic.
+ */
+@Component
+public class SearchPopularity {
+
+    private static final int MAX_TRACKED_PAIRS = 10_000;
+
+    public record RoutePair(String departure, String arrival) {
+    }
+
+    private final Map<RoutePair, LongAdder> counts = new ConcurrentHashMap<>();
+
+    public void record(String departure, String arrival) {
+        RoutePair pair = new RoutePair(departure.toUpperCase(Locale.ROOT), arrival.toUpperCase(Locale.ROOT));
+        LongAdder count = counts.get(pair);
+        if (count == null) {
+            if (counts.size() >= MAX_TRACKED_PAIRS) {
+                return;
+            }
+            count = counts.computeIfAbsent(pair, k -> new LongAdder());
+        }
+        count.increment();
+    }
+
+    public List<RoutePair> top(int limit) {
+        return counts.entrySet().stream()
+                .sorted(Comparator.comparingLong((Map.Entry<RoutePair, LongAdder> entry) -> entry.getValue().sum()).reversed())
+                .limit(limit)
+                .map(Map.Entry::getKey)
+                .toList();
+    }
+
+    public void decay() {
+        counts.forEach((pair, count) -> {
+            long current = count.sumThenReset();
+            if (current / 2 > 0) {
+                count.add(current / 2);
+            } else {
+                counts.remove(pair, count);
+            }
+        });
+    }
+}
@@ -0,0 +1,240 @@
+package com.ryanair.flights.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.RemovalCause;
+import com.ryanair.flights.config.ResultCacheProperties;
+import com.ryanair.flights.model.dto.Flight;
+import com.ryanair.flights.model.internal.FlightSearchCriteria;
+import com.ryanair.flights.model.internal.ScheduleEvictedEvent;
+import com.ryanair.flights.model.internal.ScheduleKey;
+import com.ryanair.flights.util.DateTimeUtil;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Caches complete search results per (departure, arrival, maximum stops, whole-day window).
+ * <p>
+ * Searches are widened to whole days with {@link #normalize(FlightSearchCriteria)} before they run, so requests for
+ * the same route that only differ in the time of day share one entry. A request is answered by any cached entry
+ * whose days cover its window, filtered down to the requested times.
+ * <p>
+ * Eviction is bounded by the number of flight legs held rather than by entry count. An entry is dropped as soon as
+ * one of the schedule months it may have been built from leaves the schedule cache. Entries are indexed by those
+ * {@link Dependency dependencies}, so a schedule leaving the cache only touches the entries that may use it.
+ */
+@Component
+public class SearchResultCache {
+
+    public static final String CACHE_NAME = "searchResults";
+
+    record Key(String departure, String arrival, int maxStops, LocalDate firstDay, LocalDate lastDay) {
+
+        boolean covers(LocalDate from, LocalDate to) {
+            return !firstDay.isAfter(from) && !lastDay.isBefore(to);
+        }
+
+        List<Dependency> dependencies() {
+            List<Dependency> dependencies = new ArrayList<>();
+            for (YearMonth month = YearMonth.from(firstDay); !month.isAfter(YearMonth.from(lastDay)); month = month.plusMonths(1)) {
+                if (maxStops > 1) {
+                    // Itineraries with more than one stop can use legs between any two airports
+                    dependencies.add(new Dependency(null, null, month));
+                } else {
+                    dependencies.add(new Dependency(departure, null, month));
+                    dependencies.add(new Dependency(null, arrival, month));
+                }
+            }
+            return dependencies;
+        }
+
+        long days() {
+            return lastDay.toEpochDay() - firstDay.toEpochDay();
+        }
+    }
+
+    private record RouteKey(String departure, String arrival, int maxStops) {
+    }
+
+    /**
+     * The schedule months of the routes leaving {@code from}, of the routes arriving at {@code to}, or, when both
+     * are null, of every route.
+     */
+    record Dependency(String from, String to, YearMonth month) {
+
+        static List<Dependency> of(ScheduleKey scheduleKey) {
+            return List.of(new Dependency(scheduleKey.from().toUpperCase(Locale.ROOT), null, scheduleKey.month()),
+                    new Dependency(null, scheduleKey.to().toUpperCase(Locale.ROOT), scheduleKey.month()),
+                    new Dependency(null, null, scheduleKey.month()));
+        }
+    }
+
+    private final boolean enabled;
+    private final Cache<Key, List<Flight>> cache;
+    private final Map<RouteKey, Set<Key>> keysByRoute = new ConcurrentHashMap<>();
+    private final Map<Dependency, Set<Key>> keysByDependency = new ConcurrentHashMap<>();
+    // Generation of the last change of every dependency; generations are drawn from one sequence
+    private final Map<Dependency, Long> changedAt = new ConcurrentHashMap<>();
+    private final AtomicLong generation = new AtomicLong();
+    private volatile long allInvalidatedAt;
+
+    public SearchResultCache(ResultCacheProperties properties, MeterRegistry meterRegistry) {
+        this.enabled = properties.isEnabled();
+        this.cache = Caffeine.newBuilder()
+                .maximumWeight(properties.getMaximumWeight())
+                .weigher((Key key, List<Flight> flights) -> 1 + flights.stream().mapToInt(flight -> flight.getLegs().size()).sum())
+                .expireAfterWrite(properties.getTtl())
+                .removalListener((Key key, List<Flight> flights, RemovalCause cause) -> onRemoval(key, cause))
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, CACHE_NAME);
+    }
+
+    private void onRemoval(Key key, RemovalCause cause) {
+        // The listener runs asynchronously, the key may have been cached again in the meantime
+        if (key != null && cause != RemovalCause.REPLACED && !cache.asMap().containsKey(key)) {
+            Set<Key> keys = keysByRoute.get(routeKey(key));
+            if (keys != null) {
+                keys.remove(key);
+            }
+            for (Dependency dependency : key.dependencies()) {
+                Set<Key> dependents = keysByDependency.get(dependency);
+                if (dependents != null) {
+                    dependents.remove(key);
+                }
+            }
+        }
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Returns the cached flights matching the criteria, taken from the narrowest cached window covering it.
+     */
+    public Optional<List<Flight>> get(FlightSearchCriteria criteria) {
+        if (!enabled) {
+            return Optional.empty();
+        }
+        Set<Key> keys = keysByRoute.get(routeKey(criteria));
+        if (keys == null) {
+            return Optional.empty();
+        }
+        LocalDate from = criteria.getDepartureDateTime().toLocalDate();
+        LocalDate to = criteria.getArrivalDateTime().toLocalDate();
+        return keys.stream()
+                .filter(key -> key.covers(from, to))
+                .sorted(Comparator.comparingLong(Key::days))
+                .map(cache::getIfPresent)
+                .filter(Objects::nonNull)
+                .findFirst()
+                .map(flights -> filter(flights, criteria));
+    }
+
+    /**
+     * Returns the current generation. A search reads it before it starts and hands it to {@link #put}, so results
+     * built while one of their own schedules changed are not cached. Changes to unrelated schedules do not count.
+     */
+    public long generation() {
+        return generation.get();
+    }
+
+    public void put(FlightSearchCriteria normalizedCriteria, List<Flight> flights, long generationAtStart) {
+        if (!enabled) {
+            return;
+        }
+        Key key = key(normalizedCriteria);
+        List<Dependency> dependencies = key.dependencies();
+        if (changedSince(dependencies, generationAtStart)) {
+            return;
+        }
+        keysByRoute.computeIfAbsent(routeKey(key), k -> ConcurrentHashMap.newKeySet()).add(key);
+        dependencies.forEach(dependency -> keysByDependency.computeIfAbsent(dependency, k -> ConcurrentHashMap.newKeySet()).add(key));
+        cache.put(key, List.copyOf(flights));
+        // A schedule may have changed between the check and the put
+        if (changedSince(dependencies, generationAtStart)) {
+            cache.invalidate(key);
+        }
+    }
+
+    @EventListener
+    public void onScheduleEvicted(ScheduleEvictedEvent event) {
+        long changed = generation.incrementAndGet();
+        for (Dependency dependency : Dependency.of(event.key())) {
+            changedAt.merge(dependency, changed, Math::max);
+            Set<Key> dependents = keysByDependency.get(dependency);
+            if (dependents != null) {
+                dependents.forEach(cache::invalidate);
+            }
+        }
+    }
+
+    public void invalidateAll() {
+        allInvalidatedAt = generation.incrementAndGet();
+        cache.invalidateAll();
+    }
+
+    private boolean changedSince(List<Dependency> dependencies, long generationAtStart) {
+        if (allInvalidatedAt > generationAtStart) {
+            return true;
+        }
+        for (Dependency dependency : dependencies) {
+            if (changedAt.getOrDefault(dependency, Long.MIN_VALUE) > generationAtStart) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Widens the criteria to whole days: from the start of the departure day to the end of the arrival day.
+     */
+    public static FlightSearchCriteria normalize(FlightSearchCriteria criteria) {
+        FlightSearchCriteria normalized = new FlightSearchCriteria(criteria.getDeparture(), criteria.getArrival(),
+                criteria.getDepartureDateTime().toLocalDate().atStartOfDay(),
+                criteria.getArrivalDateTime().toLocalDate().atTime(LocalTime.MAX));
+        normalized.setMaxStops(criteria.getMaxStops());
+        return normalized;
+    }
+
+    /**
+     * Keeps the flights that depart and arrive within the criteria window.
+     */
+    public static List<Flight> filter(List<Flight> flights, FlightSearchCriteria criteria) {
+        return flights.stream()
+                .filter(flight -> DateTimeUtil.isWithinTimeWindow(criteria.getDepartureDateTime(), criteria.getArrivalDateTime(),
+                        flight.getLegs().getFirst().getFlightDepartureTime(), flight.getLegs().getLast().getFlightArrivalTime()))
+                .toList();
+    }
+
+    private static Key key(FlightSearchCriteria criteria) {
+        return new Key(criteria.getDeparture().toUpperCase(Locale.ROOT), criteria.getArrival().toUpperCase(Locale.ROOT),
+                criteria.getMaxStops(), criteria.getDepartureDateTime().toLocalDate(), criteria.getArrivalDateTime().toLocalDate());
+    }
+
+    private static RouteKey routeKey(FlightSearchCriteria criteria) {
+        return new RouteKey(criteria.getDeparture().toUpperCase(Locale.ROOT), criteria.getArrival().toUpperCase(Locale.ROOT),
+                criteria.getMaxStops());
+    }
+
+    private static RouteKey routeKey(Key key) {
+        return new RouteKey(key.departure(), key.arrival(), key.maxStops());
+    }
+}
@@ -0,0 +1,232 @@
+package com.ryanair.flights.util;
+
+import com.ryanair.flights.model.external.Route;
+import com.ryanair.flights.model.internal.CacheSnapshot;
+import com.ryanair.flights.model.internal.CompactSchedule;
+import com.ryanair.flights.model.internal.FlightNumbers;
+import com.ryanair.flights.model.internal.ScheduleKey;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Binary encoding of a {@link CacheSnapshot}.
+ * <p>
+ * Layout: magic number, format version and creation time, followed by a table of every distinct string (airport
+ * codes, flight numbers), the route list and the schedule months, each month stored as its departure and
+ * arrival minutes and flight numbers. Strings are referenced by their index in
+ * the table, so each one is stored once. Files are written to a temporary file and moved into place, and read
+ * through a memory-mapped buffer.
+ */
+public class CacheSnapshotCodec {
+
+    public static final int VERSION = 2;
+
+    private static final int MAGIC = 0x52594E53;
+    private static final int NO_STRING = -1;
+
+    /**
+     * Writes the snapshot, replacing the file atomically.
+     */
+    public static void write(CacheSnapshot snapshot, Path path) throws IOException {
+        Map<String, Integer> strings = collectStrings(snapshot);
+        Path directory = path.toAbsolutePath().getParent();
+        Files.createDirectories(directory);
+        Path temporary = Files.createTempFile(directory, path.getFileName().toString(), ".tmp");
+        try {
+            try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temporary)))) {
+                out.writeInt(MAGIC);
+                out.writeInt(VERSION);
+                out.writeLong(snapshot.createdAt().toEpochMilli());
+
+                out.writeInt(strings.size());
+                for (String value : strings.keySet()) {
+                    byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+                    out.writeShort(bytes.length);
+                    out.write(bytes);
+                }
+
+                writeRoutes(out, snapshot, strings);
+                writeSchedules(out, snapshot.schedules(), strings);
+            }
+            Files.move(temporary, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(temporary);
+        }
+    }
+
+    /**
+     * Reads a snapshot written by {@link #write}.
+     *
+     * @return The snapshot, or empty when there is no file or it was written in another format version.
+     * @throws IOException if the file cannot be read or is corrupt.
+     */
+    public static Optional<CacheSnapshot> read(Path path) throws IOException {
+        if (!Files.isRegularFile(path)) {
+            return Optional.empty();
+        }
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            if (buffer.remaining() < Integer.BYTES * 2 || buffer.getInt() != MAGIC) {
+                throw new IOException("Not a cache snapshot: " + path);
+            }
+            if (buffer.getInt() != VERSION) {
+                return Optional.empty();
+            }
+            Instant createdAt = Instant.ofEpochMilli(buffer.getLong());
+
+            String[] strings = new String[buffer.getInt()];
+            for (int i = 0; i < strings.length; i++) {
+                byte[] bytes = new byte[Short.toUnsignedInt(buffer.getShort())];
+                buffer.get(bytes);
+                strings[i] = new String(bytes, StandardCharsets.UTF_8);
+            }
+
+            Instant routesLoadedAt = null;
+            List<Route> routes = null;
+            if (buffer.get() == 1) {
+                routesLoadedAt = Instant.ofEpochMilli(buffer.getLong());
+                routes = readRoutes(buffer, strings);
+            }
+            return Optional.of(new CacheSnapshot(createdAt, routes, routesLoadedAt, readSchedules(buffer, strings)));
+        } catch (RuntimeException e) {
+            // Truncated or corrupted data surfaces as underflows, bad indexes, negative sizes or invalid dates
+            throw new IOException("Truncated or corrupt cache snapshot: " + path, e);
+        }
+    }
+
+    private static void writeRoutes(DataOutputStream out, CacheSnapshot snapshot, Map<String, Integer> strings) throws IOException {
+        if (snapshot.routes() == null) {
+            out.writeByte(0);
+            return;
+        }
+        out.writeByte(1);
+        out.writeLong(snapshot.routesLoadedAt().toEpochMilli());
+        out.writeInt(snapshot.routes().size());
+        for (Route route : snapshot.routes()) {
+            out.writeInt(index(strings, route.getAirportFrom()));
+            out.writeInt(index(strings, route.getAirportTo()));
+            out.writeInt(index(strings, route.getConnectingAirport()));
+            out.writeInt(index(strings, route.getOperator()));
+            out.writeInt(index(strings, route.getGroup()));
+            out.writeByte((route.isNewRoute() ? 1 : 0) | (route.isSeasonalRoute() ? 2 : 0));
+        }
+    }
+
+    private static List<Route> readRoutes(MappedByteBuffer buffer, String[] strings) {
+        int count = buffer.getInt();
+        List<Route> routes = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            Route route = new Route();
+            route.setAirportFrom(string(strings, buffer.getInt()));
+            route.setAirportTo(string(strings, buffer.getInt()));
+            route.setConnectingAirport(string(strings, buffer.getInt()));
+            route.setOperator(string(strings, buffer.getInt()));
+            route.setGroup(string(strings, buffer.getInt()));
+            byte flags = buffer.get();
+            route.setNewRoute((flags & 1) != 0);
+            route.setSeasonalRoute((flags & 2) != 0);
+            routes.add(route);
+        }
+        return routes;
+    }
+
+    private static void writeSchedules(DataOutputStream out, List<CacheSnapshot.ScheduleEntry> entries,
+                                       Map<String, Integer> strings) throws IOException {
+        out.writeInt(entries.size());
+        for (CacheSnapshot.ScheduleEntry entry : entries) {
+            out.writeInt(index(strings, entry.key().from()));
+            out.writeInt(index(strings, entry.key().to()));
+            out.writeInt(entry.key().month().getYear());
+            out.writeByte(entry.key().month().getMonthValue());
+            out.writeLong(entry.loadedAt().toEpochMilli());
+            out.writeLong(entry.expiresAt().toEpochMilli());
+
+            CompactSchedule schedule = entry.schedule();
+            out.writeInt(schedule.size());
+            for (int i = 0; i < schedule.size(); i++) {
+                out.writeInt(schedule.departureMinuteOfMonth(i));
+                out.writeInt(schedule.arrivalMinuteOfMonth(i));
+                out.writeInt(index(strings, schedule.flightNumberAt(i)));
+            }
+        }
+    }
+
+    private static List<CacheSnapshot.ScheduleEntry> readSchedules(MappedByteBuffer buffer, String[] strings) {
+        int count = buffer.getInt();
+        List<CacheSnapshot.ScheduleEntry> entries = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            String from = string(strings, buffer.getInt());
+            String to = string(strings, buffer.getInt());
+            int year = buffer.getInt();
+            int month = buffer.get();
+            ScheduleKey key = new ScheduleKey(from, to, YearMonth.of(year, month));
+            Instant loadedAt = Instant.ofEpochMilli(buffer.getLong());
+            Instant expiresAt = Instant.ofEpochMilli(buffer.getLong());
+
+            int flightCount = buffer.getInt();
+            int[] departures = new int[flightCount];
+            int[] arrivals = new int[flightCount];
+            int[] flightNumbers = new int[flightCount];
+            for (int f = 0; f < flightCount; f++) {
+                departures[f] = buffer.getInt();
+                arrivals[f] = buffer.getInt();
+                flightNumbers[f] = FlightNumbers.idOf(string(strings, buffer.getInt()));
+            }
+            CompactSchedule schedule = CompactSchedule.of(key, departures, arrivals, flightNumbers);
+            entries.add(new CacheSnapshot.ScheduleEntry(key, schedule, loadedAt, expiresAt));
+        }
+        return entries;
+    }
+
+    private static Map<String, Integer> collectStrings(CacheSnapshot snapshot) {
+        Map<String, Integer> strings = new LinkedHashMap<>();
+        if (snapshot.routes() != null) {
+            for (Route route : snapshot.routes()) {
+                addString(strings, route.getAirportFrom());
+                addString(strings, route.getAirportTo());
+                addString(strings, route.getConnectingAirport());
+                addString(strings, route.getOperator());
+                addString(strings, route.getGroup());
+            }
+        }
+        for (CacheSnapshot.ScheduleEntry entry : snapshot.schedules()) {
+            addString(strings, entry.key().from());
+            addString(strings, entry.key().to());
+            CompactSchedule schedule = entry.schedule();
+            for (int i = 0; i < schedule.size(); i++) {
+                addString(strings, schedule.flightNumberAt(i));
+            }
+        }
+        return strings;
+    }
+
+    private static void addString(Map<String, Integer> strings, String value) {
+        if (value != null) {
+            strings.putIfAbsent(value, strings.size());
+        }
+    }
+
+    private static int index(Map<String, Integer> strings, String value) {
+        return value == null ? NO_STRING : strings.get(value);
+    }
+
+    private static String string(String[] strings, int index) {
+        return index == NO_STRING ? null : strings[index];
+    }
+}
@@ -0,0 +1,151 @@
+package com.ryanair.flights.util;
+
+import com.ryanair.flights.model.dto.Flight;
+import com.ryanair.flights.model.internal.ConnectionSummary;
+import com.ryanair.flights.model.internal.FlightOrder;
+import com.ryanair.flights.model.internal.ScheduleWindow;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Joins first-leg and second-leg flights into one-stop connections.
+ * Second legs are ordered by departure, and every first leg binary-searches its earliest valid connection,
+ * so only matching pairs are visited. All comparisons are done on epoch minutes.
+ */
+public class ConnectionJoiner {
+
+    public static final long NO_MAX_LAYOVER = -1;
+
+    /**
+     * Joins the flights of two compact schedule windows. Legs are only materialized for the flights that are part
+     * of a connection.
+     *
+     * @param firstLegs          Flights of the first leg.
+     * @param secondLegs         Flights of the second leg.
+     * @param minLayoverMinutes  Minimum time between the first leg's arrival and the second leg's departure.
+     * @param maxLayoverMinutes  Maximum time between the legs, or {@link #NO_MAX_LAYOVER} for no upper bound.
+     * @return The connections, grouped by first leg and ordered by second-leg departure.
+     */
+    public static List<Flight> join(ScheduleWindow firstLegs, ScheduleWindow secondLegs,
+                                    long minLayoverMinutes, long maxLayoverMinutes) {
+        if (firstLegs.isEmpty() || secondLegs.isEmpty()) {
+            return Collections.emptyList();
+        }
+
+        List<Flight> interconnected = new ArrayList<>();
+        for (int first = 0; first < firstLegs.size(); first++) {
+            long arrival = firstLegs.arrivalAt(first);
+            long earliestDeparture = arrival + minLayoverMinutes;
+            long latestDeparture = maxLayoverMinutes == NO_MAX_LAYOVER ? Long.MAX_VALUE : arrival + maxLayoverMinutes;
+
+            for (int second = secondLegs.firstDepartingAtOrAfter(earliestDeparture);
+                 second < secondLegs.size() && secondLegs.departureAt(second) <= latestDeparture; second++) {
+                interconnected.add(Flight.createFlightsFromLegs(List.of(firstLegs.legAt(first), secondLegs.legAt(second))));
+            }
+        }
+        return interconnected;
+    }
+
+    /**
+     * Same join as {@link #join(ScheduleWindow, ScheduleWindow, long, long)}, but offers the connections to
+     * {@code best} instead of returning them. A connection is only created when its rank is within the current
+     * threshold of {@code best}, so a join whose connections mostly rank too low allocates next to nothing.
+     */
+    public static void join(ScheduleWindow firstLegs, ScheduleWindow secondLegs,
+                            long minLayoverMinutes, long maxLayoverMinutes, TopFlights best) {
+        FlightOrder order = best.getOrder();
+        for (int first = 0; first < firstLegs.size() && !secondLegs.isEmpty(); first++) {
+            long departure = firstLegs.departureAt(first);
+            long arrival = firstLegs.arrivalAt(first);
+            long earliestDeparture = arrival + minLayoverMinutes;
+            long latestDeparture = maxLayoverMinutes == NO_MAX_LAYOVER ? Long.MAX_VALUE : arrival + maxLayoverMinutes;
+
+            for (int second = secondLegs.firstDepartingAtOrAfter(earliestDeparture);
+                 second < secondLegs.size() && secondLegs.departureAt(second) <= latestDeparture; second++) {
+                if (best.admits(order.rank(departure, secondLegs.arrivalAt(second)))) {
+                    best.offer(Flight.createFlightsFromLegs(List.of(firstLegs.legAt(first), secondLegs.legAt(second))));
+                }
+            }
+        }
+    }
+
+    /**
+     * A lower bound of the rank of any connection between the two windows, computed without joining them. A route
+     * pair whose bound is above the threshold of the flights found so far cannot contribute and is skipped.
+     *
+     * @return The bound, or {@link Long#MAX_VALUE} when either window is empty.
+     */
+    public static long bestPossibleRank(FlightOrder order, ScheduleWindow firstLegs, ScheduleWindow secondLegs,
+                                        long minLayoverMinutes) {
+        if (firstLegs.isEmpty() || secondLegs.isEmpty()) {
+            return Long.MAX_VALUE;
+        }
+        return switch (order) {
+            case EARLIEST_ARRIVAL -> {
+                // No connection leaves before the earliest first-leg arrival plus the layover
+                long earliestConnection = firstLegs.summarize().earliestArrival() + minLayoverMinutes;
+                long earliestArrival = Long.MAX_VALUE;
+                for (int second = secondLegs.firstDepartingAtOrAfter(earliestConnection); second < secondLegs.size(); second++) {
+                    earliestArrival = Math.min(earliestArrival, secondLegs.arrivalAt(second));
+                }
+                yield earliestArrival;
+            }
+            case SHORTEST_DURATION -> shortestDuration(firstLegs) + minLayoverMinutes + shortestDuration(secondLegs);
+            // Windows are ordered by departure
+            case LATEST_DEPARTURE -> order.rank(firstLegs.departureAt(firstLegs.size() - 1), Long.MAX_VALUE);
+        };
+    }
+
+    private static long shortestDuration(ScheduleWindow window) {
+        long shortest = Long.MAX_VALUE;
+        for (int i = 0; i < window.size(); i++) {
+            shortest = Math.min(shortest, window.arrivalAt(i) - window.departureAt(i));
+        }
+        return shortest;
+    }
+
+    /**
+     * Counts the connections {@link #join(ScheduleWindow, ScheduleWindow, long, long)} would return and finds the
+     * earliest arrival among them, without creating any of them.
+     */
+    public static ConnectionSummary summarize(ScheduleWindow firstLegs, ScheduleWindow secondLegs,
+                                              long minLayoverMinutes, long maxLayoverMinutes) {
+        int count = 0;
+        long earliestArrival = Long.MAX_VALUE;
+        for (int first = 0; first < firstLegs.size() && !secondLegs.isEmpty(); first++) {
+            long arrival = firstLegs.arrivalAt(first);
+            long earliestDeparture = arrival + minLayoverMinutes;
+            long latestDeparture = maxLayoverMinutes == NO_MAX_LAYOVER ? Long.MAX_VALUE : arrival + maxLayoverMinutes;
+
+            for (int second = secondLegs.firstDepartingAtOrAfter(earliestDeparture);
+                 second < secondLegs.size() && secondLegs.departureAt(second) <= latestDeparture; second++) {
+                count++;
+                earliestArrival = Math.min(earliestArrival, secondLegs.arrivalAt(second));
+            }
+        }
+        return new ConnectionSummary(count, earliestArrival);
+    }
+
+    /**
+     * @return the index of the first element that is not smaller than the key, or the array length if none is.
+     */
+    public static int lowerBound(long[] sorted, long key) {
+        int low = 0;
+        int high = sorted.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (sorted[mid] < key) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    private ConnectionJoiner() {
+        // Private constructor to prevent instantiation
+    }
+}
@@ -2,6 +2,7 @@ package com.ryanair.flights.util;
 
 public class Constants {
     public static final int MINIMUM_LAYOVER_HOURS = 2;
+    public static final int MAXIMUM_STOPS = 3;
     public static final String RYANAIR_OPERATOR = "RYANAIR";
     public static final String ROUTES_API_URL = "https://services-api.ryanair.com/views/locate/3/routes";
     public static final String SCHEDULES_API_URL = "https://services-api.ryanair.com/timtbl/3/schedules/{0}/{1}/years/{2}/months/{3}";
@@ -1,7 +1,9 @@
 package com.ryanair.flights.util;
 
 import java.time.LocalDateTime;
+import java.time.LocalTime;
 import java.time.YearMonth;
+import java.time.ZoneOffset;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -24,6 +26,40 @@ public class DateTimeUtil {
         return months;
     }
 
+    /**
+     * Converts a local date-time to minutes since the epoch, treating it as UTC so that local times stay comparable.
+     */
+    public static long toEpochMinutes(LocalDateTime dateTime) {
+        return dateTime.toEpochSecond(ZoneOffset.UTC) / 60;
+    }
+
+    /**
+     * Inverse of {@link #toEpochMinutes(LocalDateTime)}.
+     */
+    public static LocalDateTime fromEpochMinutes(long epochMinutes) {
+        return LocalDateTime.ofEpochSecond(epochMinutes * 60, 0, ZoneOffset.UTC);
+    }
+
+    /**
+     * Parses a schedule time such as {@code "07:45"} into minutes since midnight. The upstream HH:mm form is read
+     * directly from its characters; any other form goes through {@link LocalTime#parse}.
+     */
+    public static int parseMinuteOfDay(String time) {
+        if (time.length() == 5 && time.charAt(2) == ':') {
+            int hours = digit(time, 0) * 10 + digit(time, 1);
+            int minutes = digit(time, 3) * 10 + digit(time, 4);
+            if (hours >= 0 && hours < 24 && minutes >= 0 && minutes < 60) {
+                return hours * 60 + minutes;
+            }
+        }
+        return LocalTime.parse(time).toSecondOfDay() / 60;
+    }
+
+    private static int digit(String value, int index) {
+        char c = value.charAt(index);
+        return c >= '0' && c <= '9' ? c - '0' : -100;
+    }
+
     private DateTimeUtil(){
         // Private constructor to prevent instantiation
     }
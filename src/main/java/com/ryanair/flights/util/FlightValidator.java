@@ -2,6 +2,7 @@ package com.ryanair.flights.util;
 
 import com.ryanair.flights.exception.InvalidRequestException;
 import com.ryanair.flights.model.dto.FlightLeg;
+import com.ryanair.flights.model.internal.DateMatrixCriteria;
 import com.ryanair.flights.model.internal.FlightSearchCriteria;
 import org.springframework.stereotype.Component;
 
@@ -18,6 +19,28 @@ public class FlightValidator {
         if (criteria.getDeparture().equalsIgnoreCase(criteria.getArrival())) {
             throw new InvalidRequestException("Departure and arrival airports cannot be the same.");
         }
+        validateMaxStops(criteria.getMaxStops());
+        if (criteria.getLimit() < 0) {
+            throw new InvalidRequestException("Limit must not be negative.");
+        }
+    }
+
+    public static void validateDateMatrixCriteria(DateMatrixCriteria criteria) {
+        validateAirportCode(criteria.getDeparture());
+        validateAirportCode(criteria.getArrival());
+        if (criteria.getDeparture().equalsIgnoreCase(criteria.getArrival())) {
+            throw new InvalidRequestException("Departure and arrival airports cannot be the same.");
+        }
+        if (criteria.getFirstDate().isAfter(criteria.getLastDate())) {
+            throw new InvalidRequestException("The first date must not be after the last date.");
+        }
+        validateMaxStops(criteria.getMaxStops());
+    }
+
+    public static void validateMaxStops(int maxStops) {
+        if (maxStops < 0 || maxStops > Constants.MAXIMUM_STOPS) {
+            throw new InvalidRequestException("Maximum stops must be between 0 and " + Constants.MAXIMUM_STOPS + ".");
+        }
     }
 
     public static void validateAirportCode(String code) {
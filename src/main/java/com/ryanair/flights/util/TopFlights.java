@@ -0,0 +1,93 @@
+package com.ryanair.flights.util;
+
+import com.ryanair.flights.model.dto.Flight;
+import com.ryanair.flights.model.internal.FlightOrder;
+import com.ryanair.flights.model.internal.ScheduleWindow;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+
+/**
+ * The best {@code limit} flights offered so far, by a {@link FlightOrder}. A bounded heap keeps the worst of them
+ * on top, so an offer costs a comparison with it and, when it wins, a replacement of it.
+ * <p>
+ * Once the heap is full, {@link #threshold()} is the rank of its worst flight: a candidate ranked above it can
+ * never make it in, and need not be created. Offers may come from several threads.
+ */
+public class TopFlights {
+
+    private final FlightOrder order;
+    private final int limit;
+    private final Comparator<Flight> comparator;
+    private final PriorityQueue<Flight> worstFirst;
+    private volatile long threshold = Long.MAX_VALUE;
+
+    public TopFlights(FlightOrder order, int limit) {
+        this.order = order;
+        this.limit = Math.max(1, limit);
+        this.comparator = order.comparator();
+        this.worstFirst = new PriorityQueue<>(this.limit, comparator.reversed());
+    }
+
+    /**
+     * @return The best flights of the given ones, best first.
+     */
+    public static List<Flight> of(FlightOrder order, int limit, Collection<Flight> flights) {
+        TopFlights best = new TopFlights(order, limit);
+        flights.forEach(best::offer);
+        return best.toList();
+    }
+
+    public FlightOrder getOrder() {
+        return order;
+    }
+
+    /**
+     * @return The rank a flight must not exceed to still make it in; {@link Long#MAX_VALUE} until the heap is full.
+     * A flight of exactly this rank may still win on the tie-break.
+     */
+    public long threshold() {
+        return threshold;
+    }
+
+    public boolean admits(long rank) {
+        return rank <= threshold;
+    }
+
+    public synchronized void offer(Flight flight) {
+        if (worstFirst.size() < limit) {
+            worstFirst.add(flight);
+        } else if (comparator.compare(flight, worstFirst.peek()) < 0) {
+            worstFirst.poll();
+            worstFirst.add(flight);
+        } else {
+            return;
+        }
+        if (worstFirst.size() == limit) {
+            threshold = order.rank(worstFirst.peek());
+        }
+    }
+
+    /**
+     * Offers every flight of the window as a direct flight, creating only those that rank within the threshold.
+     */
+    public void offer(ScheduleWindow direct) {
+        for (int i = 0; i < direct.size(); i++) {
+            if (admits(order.rank(direct.departureAt(i), direct.arrivalAt(i)))) {
+                offer(Flight.createFlightsFromLegs(List.of(direct.legAt(i))));
+            }
+        }
+    }
+
+    /**
+     * @return The flights kept, best first.
+     */
+    public synchronized List<Flight> toList() {
+        List<Flight> flights = new ArrayList<>(worstFirst);
+        flights.sort(comparator);
+        return flights;
+    }
+}
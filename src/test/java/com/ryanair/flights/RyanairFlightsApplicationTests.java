@@ -6,7 +6,7 @@ import org.springframework.context.ApplicationContext;
 
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 
-@SpringBootTest
+@SpringBootTest(properties = "ryanair.snapshot.enabled=false")
 class RyanairFlightsApplicationTests {
 
     @Test
@@ -0,0 +1,110 @@
+package com.ryanair.flights.client;
+
+import com.ryanair.flights.client.impl.LimitedRyanairApiClient;
+import com.ryanair.flights.client.limit.AdaptiveConcurrencyLimiter;
+import com.ryanair.flights.config.UpstreamLimitProperties;
+import com.ryanair.flights.exception.ExternalApiException;
+import com.ryanair.flights.model.external.Schedule;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.client.HttpClientErrorException;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class LimitedRyanairApiClientTest {
+
+    @Mock
+    private RyanairApiClient delegate;
+
+    private AdaptiveConcurrencyLimiter limiter;
+    private LimitedRyanairApiClient client;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        UpstreamLimitProperties properties = new UpstreamLimitProperties();
+        properties.setInitialLimit(4);
+        properties.setMinLimit(1);
+        properties.setBackoffRatio(0.5);
+        limiter = new AdaptiveConcurrencyLimiter(properties, new SimpleMeterRegistry());
+        client = new LimitedRyanairApiClient(delegate, limiter);
+    }
+
+    @Test
+    void getScheduleReleasesTheSlotWhenTheCallFails() {
+        when(delegate.getSchedule("DUB", "WRO", 2025, 10)).thenThrow(failure(HttpStatus.NOT_FOUND));
+
+        assertThrows(ExternalApiException.class, () -> client.getSchedule("DUB", "WRO", 2025, 10));
+
+        assertEquals(0, limiter.getInFlight());
+        assertEquals(4, limiter.getLimit());
+    }
+
+    @Test
+    void getScheduleLowersTheLimitWhenUpstreamThrottles() {
+        when(delegate.getSchedule("DUB", "WRO", 2025, 10)).thenThrow(failure(HttpStatus.TOO_MANY_REQUESTS));
+
+        assertThrows(ExternalApiException.class, () -> client.getSchedule("DUB", "WRO", 2025, 10));
+
+        assertEquals(2, limiter.getLimit());
+    }
+
+    @Test
+    void getScheduleAsyncWaitsForAFreeSlot() {
+        List<CompletableFuture<Schedule>> pending = new ArrayList<>();
+        when(delegate.getScheduleAsync(eq("DUB"), eq("STN"), anyInt(), anyInt(), any())).thenAnswer(invocation -> {
+            CompletableFuture<Schedule> future = new CompletableFuture<>();
+            pending.add(future);
+            return future;
+        });
+        Schedule schedule = new Schedule();
+        when(delegate.getScheduleAsync(eq("DUB"), eq("WRO"), anyInt(), anyInt(), any()))
+                .thenReturn(CompletableFuture.completedFuture(schedule));
+        for (int month = 1; month <= 4; month++) {
+            client.getScheduleAsync("DUB", "STN", 2025, month, Runnable::run);
+        }
+
+        CompletableFuture<Schedule> waiting = client.getScheduleAsync("DUB", "WRO", 2025, 10, Runnable::run);
+
+        assertFalse(waiting.isDone());
+        verify(delegate, never()).getScheduleAsync(eq("DUB"), eq("WRO"), anyInt(), anyInt(), any());
+        pending.getFirst().complete(schedule);
+        assertSame(schedule, waiting.join());
+        assertEquals(3, limiter.getInFlight());
+    }
+
+    @Test
+    void cancellingGetScheduleAsyncCancelsTheRequestAndFreesTheSlot() {
+        CompletableFuture<Schedule> request = new CompletableFuture<>();
+        when(delegate.getScheduleAsync(eq("DUB"), eq("WRO"), anyInt(), anyInt(), any())).thenReturn(request);
+
+        client.getScheduleAsync("DUB", "WRO", 2025, 10, Runnable::run).cancel(true);
+
+        assertTrue(request.isCancelled());
+        assertEquals(0, limiter.getInFlight());
+        assertEquals(4, limiter.getLimit());
+    }
+
+    private static ExternalApiException failure(HttpStatus status) {
+        return new ExternalApiException(status.getReasonPhrase(),
+                HttpClientErrorException.create(status, status.getReasonPhrase(), null, null, null));
+    }
+}
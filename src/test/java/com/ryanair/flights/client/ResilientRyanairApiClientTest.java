@@ -0,0 +1,221 @@
+package com.ryanair.flights.client;
+
+import com.ryanair.flights.client.impl.ResilientRyanairApiClient;
+import com.ryanair.flights.config.UpstreamResilienceProperties;
+import com.ryanair.flights.exception.CircuitBreakerOpenException;
+import com.ryanair.flights.exception.ConcurrencyLimitExceededException;
+import com.ryanair.flights.exception.ExternalApiException;
+import com.ryanair.flights.model.external.Schedule;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.HttpServerErrorException;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class ResilientRyanairApiClientTest {
+
+    private static final Executor DIRECT = Runnable::run;
+
+    @Mock
+    private RyanairApiClient delegate;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private UpstreamResilienceProperties properties;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        properties = new UpstreamResilienceProperties();
+        properties.getRetry().setInitialBackoff(Duration.ofMillis(1));
+        properties.getRetry().setMaxBackoff(Duration.ofMillis(5));
+        properties.getCircuitBreaker().setSlidingWindowSize(4);
+        properties.getCircuitBreaker().setMinimumCalls(4);
+    }
+
+    @Test
+    void getScheduleRetriesServerErrors() {
+        Schedule schedule = new Schedule();
+        when(delegate.getSchedule("DUB", "WRO", 2025, 10))
+                .thenThrow(failure(HttpServerErrorException.create(HttpStatus.BAD_GATEWAY, "Bad Gateway", null, null, null)))
+                .thenReturn(schedule);
+
+        assertSame(schedule, client().getSchedule("DUB", "WRO", 2025, 10));
+
+        verify(delegate, times(2)).getSchedule("DUB", "WRO", 2025, 10);
+        assertEquals(1, meterRegistry.get(ResilientRyanairApiClient.RETRY_METRIC).tag("endpoint", "schedules").counter().count());
+    }
+
+    @Test
+    void getScheduleDoesNotRetryClientErrors() {
+        when(delegate.getSchedule("DUB", "WRO", 2025, 10))
+                .thenThrow(failure(HttpClientErrorException.create(HttpStatus.NOT_FOUND, "Not Found", null, null, null)));
+
+        assertThrows(ExternalApiException.class, () -> client().getSchedule("DUB", "WRO", 2025, 10));
+
+        verify(delegate, times(1)).getSchedule("DUB", "WRO", 2025, 10);
+    }
+
+    @Test
+    void getScheduleGivesUpAfterMaxAttempts() {
+        when(delegate.getSchedule("DUB", "WRO", 2025, 10))
+                .thenThrow(failure(HttpClientErrorException.create(HttpStatus.TOO_MANY_REQUESTS, "Too Many Requests", null, null, null)));
+
+        assertThrows(ExternalApiException.class, () -> client().getSchedule("DUB", "WRO", 2025, 10));
+
+        verify(delegate, times(3)).getSchedule("DUB", "WRO", 2025, 10);
+    }
+
+    @Test
+    void openCircuitBreakerRejectsCallsWithoutReachingUpstream() {
+        properties.getRetry().setEnabled(false);
+        ResilientRyanairApiClient client = client();
+        when(delegate.getSchedule("DUB", "WRO", 2025, 10))
+                .thenThrow(failure(HttpServerErrorException.create(HttpStatus.SERVICE_UNAVAILABLE, "Unavailable", null, null, null)));
+        for (int i = 0; i < 4; i++) {
+            assertThrows(ExternalApiException.class, () -> client.getSchedule("DUB", "WRO", 2025, 10));
+        }
+
+        assertThrows(CircuitBreakerOpenException.class, () -> client.getSchedule("DUB", "WRO", 2025, 10));
+
+        verify(delegate, times(4)).getSchedule("DUB", "WRO", 2025, 10);
+        assertEquals(2, meterRegistry.get(ResilientRyanairApiClient.CIRCUIT_STATE_METRIC).tag("endpoint", "schedules").gauge().value());
+        assertEquals(1, meterRegistry.get(ResilientRyanairApiClient.CIRCUIT_REJECTED_METRIC).tag("endpoint", "schedules").counter().count());
+    }
+
+    @Test
+    void concurrencyLimitRejectionsAreNotCountedAsHalfOpenTrials() {
+        properties.getRetry().setEnabled(false);
+        properties.getCircuitBreaker().setOpenDuration(Duration.ZERO);
+        properties.getCircuitBreaker().setHalfOpenCalls(1);
+        ResilientRyanairApiClient client = client();
+        ExternalApiException unavailable =
+                failure(HttpServerErrorException.create(HttpStatus.SERVICE_UNAVAILABLE, "Unavailable", null, null, null));
+        Schedule schedule = new Schedule();
+        when(delegate.getSchedule("DUB", "WRO", 2025, 10))
+                .thenThrow(unavailable, unavailable, unavailable, unavailable)
+                .thenThrow(new ConcurrencyLimitExceededException("Too many upstream requests are waiting"))
+                .thenReturn(schedule);
+        for (int i = 0; i < 4; i++) {
+            assertThrows(ExternalApiException.class, () -> client.getSchedule("DUB", "WRO", 2025, 10));
+        }
+
+        assertThrows(ConcurrencyLimitExceededException.class, () -> client.getSchedule("DUB", "WRO", 2025, 10));
+        assertEquals(1, meterRegistry.get(ResilientRyanairApiClient.CIRCUIT_STATE_METRIC).tag("endpoint", "schedules").gauge().value());
+
+        assertSame(schedule, client.getSchedule("DUB", "WRO", 2025, 10));
+        assertEquals(0, meterRegistry.get(ResilientRyanairApiClient.CIRCUIT_STATE_METRIC).tag("endpoint", "schedules").gauge().value());
+    }
+
+    @Test
+    void getScheduleAsyncRetriesServerErrors() {
+        Schedule schedule = new Schedule();
+        when(delegate.getScheduleAsync("DUB", "WRO", 2025, 10, DIRECT))
+                .thenReturn(CompletableFuture.failedFuture(
+                        failure(HttpServerErrorException.create(HttpStatus.INTERNAL_SERVER_ERROR, "Error", null, null, null))))
+                .thenReturn(CompletableFuture.completedFuture(schedule));
+
+        assertSame(schedule, client().getScheduleAsync("DUB", "WRO", 2025, 10, DIRECT).join());
+    }
+
+    @Test
+    void getScheduleAsyncFailsWithTheUpstreamException() {
+        ExternalApiException notFound = failure(HttpClientErrorException.create(HttpStatus.NOT_FOUND, "Not Found", null, null, null));
+        when(delegate.getScheduleAsync("DUB", "WRO", 2025, 10, DIRECT)).thenReturn(CompletableFuture.failedFuture(notFound));
+
+        CompletionException exception = assertThrows(CompletionException.class,
+                () -> client().getScheduleAsync("DUB", "WRO", 2025, 10, DIRECT).join());
+
+        assertSame(notFound, exception.getCause());
+    }
+
+    @Test
+    void cancellingTheResultCancelsTheRequestInFlight() {
+        CompletableFuture<Schedule> request = new CompletableFuture<>();
+        when(delegate.getScheduleAsync("DUB", "WRO", 2025, 10, DIRECT)).thenReturn(request);
+
+        client().getScheduleAsync("DUB", "WRO", 2025, 10, DIRECT).cancel(true);
+
+        assertTrue(request.isCancelled());
+    }
+
+    @Test
+    void cancelledResultIsNotRetried() throws InterruptedException {
+        CompletableFuture<Schedule> request = new CompletableFuture<>();
+        when(delegate.getScheduleAsync("DUB", "WRO", 2025, 10, DIRECT)).thenReturn(request);
+        CompletableFuture<Schedule> result = client().getScheduleAsync("DUB", "WRO", 2025, 10, DIRECT);
+        request.whenComplete((schedule, ex) -> result.cancel(true));
+
+        request.completeExceptionally(
+                failure(HttpServerErrorException.create(HttpStatus.BAD_GATEWAY, "Bad Gateway", null, null, null)));
+        Thread.sleep(properties.getRetry().getMaxBackoff().toMillis() * 4);
+
+        assertTrue(result.isCancelled());
+        verify(delegate, times(1)).getScheduleAsync("DUB", "WRO", 2025, 10, DIRECT);
+    }
+
+    @Test
+    void slowSchedulesAreHedgedOnceEnoughLatenciesAreKnown() {
+        properties.getHedge().setEnabled(true);
+        properties.getHedge().setMinSamples(1);
+        properties.getHedge().setMinDelay(Duration.ofMillis(1));
+        properties.getHedge().setMaxRatio(1);
+        when(delegate.isNonBlocking()).thenReturn(true);
+        ResilientRyanairApiClient client = client();
+        Schedule schedule = new Schedule();
+        List<CompletableFuture<Schedule>> requests = new ArrayList<>();
+        when(delegate.getScheduleAsync(any(), any(), any(Integer.class), any(Integer.class), any())).thenAnswer(invocation -> {
+            CompletableFuture<Schedule> request = new CompletableFuture<>();
+            requests.add(request);
+            return request;
+        });
+        CompletableFuture<Schedule> first = client.getScheduleAsync("DUB", "WRO", 2025, 9, DIRECT);
+        requests.getFirst().complete(schedule);
+        first.join();
+
+        CompletableFuture<Schedule> slow = client.getScheduleAsync("DUB", "WRO", 2025, 10, DIRECT);
+        await(() -> requests.size() == 3);
+        requests.get(2).complete(schedule);
+
+        assertSame(schedule, slow.join());
+        assertTrue(requests.get(1).isCancelled());
+        assertEquals(1, meterRegistry.get(ResilientRyanairApiClient.HEDGE_METRIC).tag("result", "won").counter().count());
+    }
+
+    private ResilientRyanairApiClient client() {
+        return new ResilientRyanairApiClient(delegate, properties, meterRegistry);
+    }
+
+    private static ExternalApiException failure(Exception cause) {
+        return new ExternalApiException(cause.getMessage(), cause);
+    }
+
+    private static void await(java.util.function.BooleanSupplier condition) {
+        long deadline = System.nanoTime() + Duration.ofSeconds(5).toNanos();
+        while (!condition.getAsBoolean()) {
+            if (System.nanoTime() > deadline) {
+                throw new AssertionError("Condition not met in time");
+            }
+            Thread.onSpinWait();
+        }
+    }
+}
@@ -5,10 +5,14 @@ import com.ryanair.flights.exception.ExternalApiException;
 import com.ryanair.flights.model.external.Route;
 import com.ryanair.flights.model.external.Schedule;
 import com.ryanair.flights.util.Constants;
+import com.ryanair.flights.metrics.SearchMetrics;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.client.HttpServerErrorException;
 import org.springframework.web.client.RestTemplate;
 
 import java.text.MessageFormat;
@@ -23,10 +27,13 @@ class RyanairApiClientTest {
     @Mock
     private RestTemplate restTemplate;
 
+    private SimpleMeterRegistry meterRegistry;
+
     @BeforeEach
     void setUp() {
         MockitoAnnotations.openMocks(this);
-        ryanairApiClient = new RyanairApiClientImpl(restTemplate);
+        meterRegistry = new SimpleMeterRegistry();
+        ryanairApiClient = new RyanairApiClientImpl(restTemplate, new SearchMetrics(meterRegistry));
     }
 
     @Test
@@ -72,4 +79,20 @@ class RyanairApiClientTest {
         assertEquals(mockSchedule, result);
         verify(restTemplate, times(1)).getForObject(url, Schedule.class);
     }
-}
\ No newline at end of file
+
+    @Test
+    void getScheduleRecordsUpstreamCallWithStatus() {
+        String url = MessageFormat.format(Constants.SCHEDULES_API_URL,"DUB","WRO","2023","6");
+        when(restTemplate.getForObject(url, Schedule.class))
+                .thenReturn(new Schedule())
+                .thenThrow(new HttpServerErrorException(HttpStatus.SERVICE_UNAVAILABLE));
+
+        ryanairApiClient.getSchedule("DUB", "WRO", 2023, 6);
+        assertThrows(ExternalApiException.class, () -> ryanairApiClient.getSchedule("DUB", "WRO", 2023, 6));
+
+        assertEquals(1, meterRegistry.get(SearchMetrics.UPSTREAM_REQUESTS)
+                .tags("endpoint", "schedules", "status", "2xx", "outcome", "success").timer().count());
+        assertEquals(1, meterRegistry.get(SearchMetrics.UPSTREAM_REQUESTS)
+                .tags("endpoint", "schedules", "status", "503", "outcome", "server_error").timer().count());
+    }
+}
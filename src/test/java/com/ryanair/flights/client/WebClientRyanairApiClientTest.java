@@ -0,0 +1,101 @@
+package com.ryanair.flights.client;
+
+import com.ryanair.flights.client.impl.WebClientRyanairApiClient;
+import com.ryanair.flights.exception.ExternalApiException;
+import com.ryanair.flights.metrics.SearchMetrics;
+import com.ryanair.flights.model.external.Schedule;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.reactive.function.client.ClientRequest;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class WebClientRyanairApiClientTest {
+
+    private static final String SCHEDULE_JSON = """
+            {"month": 6, "days": [{"day": 1, "flights": [{"number": "1926", "departureTime": "14:05", "arrivalTime": "17:50"}]}]}
+            """;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final List<ClientRequest> requests = new ArrayList<>();
+    private Sinks.One<ClientResponse> response;
+    private WebClientRyanairApiClient ryanairApiClient;
+
+    @BeforeEach
+    void setUp() {
+        response = Sinks.one();
+        WebClient webClient = WebClient.builder()
+                .exchangeFunction(request -> {
+                    requests.add(request);
+                    return response.asMono();
+                })
+                .build();
+        ryanairApiClient = new WebClientRyanairApiClient(webClient, new SearchMetrics(meterRegistry));
+    }
+
+    @Test
+    void getScheduleAsyncCompletesWhenTheResponseArrives() {
+        CompletableFuture<Schedule> schedule = ryanairApiClient.getScheduleAsync("DUB", "WRO", 2023, 6, failingExecutor());
+
+        assertFalse(schedule.isDone());
+        assertEquals("/timtbl/3/schedules/DUB/WRO/years/2023/months/6", requests.getFirst().url().getPath());
+
+        response.tryEmitValue(jsonResponse(HttpStatus.OK, SCHEDULE_JSON));
+
+        assertEquals("1926", schedule.join().getDays().getFirst().getFlights().getFirst().getNumber());
+        assertEquals(1, meterRegistry.get(SearchMetrics.UPSTREAM_REQUESTS)
+                .tags("endpoint", "schedules", "status", "2xx", "outcome", "success").timer().count());
+    }
+
+    @Test
+    void getScheduleThrowsExternalApiExceptionOnServerError() {
+        response.tryEmitValue(jsonResponse(HttpStatus.SERVICE_UNAVAILABLE, "{}"));
+
+        assertThrows(ExternalApiException.class, () -> ryanairApiClient.getSchedule("DUB", "WRO", 2023, 6));
+        assertEquals(1, meterRegistry.get(SearchMetrics.UPSTREAM_REQUESTS)
+                .tags("endpoint", "schedules", "status", "503", "outcome", "server_error").timer().count());
+    }
+
+    @Test
+    void getRoutesThrowsExternalApiExceptionWhenApiReturnsEmptyArray() {
+        response.tryEmitValue(jsonResponse(HttpStatus.OK, "[]"));
+
+        ExternalApiException exception = assertThrows(ExternalApiException.class, () -> ryanairApiClient.getRoutes());
+
+        assertEquals("No routes found", exception.getMessage());
+    }
+
+    @Test
+    void isNonBlocking() {
+        assertTrue(ryanairApiClient.isNonBlocking());
+    }
+
+    private static ClientResponse jsonResponse(HttpStatus status, String body) {
+        return ClientResponse.create(status)
+                .header(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                .body(body)
+                .build();
+    }
+
+    private static Executor failingExecutor() {
+        return task -> {
+            throw new AssertionError("A non-blocking client must not use the executor");
+        };
+    }
+}
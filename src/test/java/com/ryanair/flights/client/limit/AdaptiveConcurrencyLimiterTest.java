@@ -0,0 +1,155 @@
+package com.ryanair.flights.client.limit;
+
+import com.ryanair.flights.client.limit.AdaptiveConcurrencyLimiter.Outcome;
+import com.ryanair.flights.client.limit.AdaptiveConcurrencyLimiter.Permit;
+import com.ryanair.flights.config.UpstreamLimitProperties;
+import com.ryanair.flights.exception.ConcurrencyLimitExceededException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class AdaptiveConcurrencyLimiterTest {
+
+    private final AtomicLong nanoTime = new AtomicLong();
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private UpstreamLimitProperties properties;
+
+    @BeforeEach
+    void setUp() {
+        properties = new UpstreamLimitProperties();
+        properties.setInitialLimit(4);
+        properties.setMinLimit(2);
+        properties.setMaxLimit(6);
+        properties.setBackoffRatio(0.5);
+        properties.setLatencyThreshold(Duration.ofSeconds(1));
+    }
+
+    @Test
+    void acquireQueuesRequestsBeyondTheLimit() {
+        AdaptiveConcurrencyLimiter limiter = limiter();
+        List<Permit> permits = acquire(limiter, "search", 4);
+
+        CompletableFuture<Permit> waiting = limiter.acquire("search");
+
+        assertFalse(waiting.isDone());
+        assertEquals(1, limiter.getQueued());
+        permits.getFirst().release(Outcome.IGNORED);
+        assertTrue(waiting.isDone());
+        assertEquals(4, limiter.getInFlight());
+    }
+
+    @Test
+    void successfulResponsesRaiseTheLimitUpToTheMaximum() {
+        AdaptiveConcurrencyLimiter limiter = limiter();
+
+        for (int i = 0; i < 5; i++) {
+            acquire(limiter, "search", limiter.getLimit()).forEach(permit -> permit.release(Outcome.SUCCESS));
+        }
+
+        assertEquals(6, limiter.getLimit());
+    }
+
+    @Test
+    void successfulResponsesDoNotRaiseAnUnusedLimit() {
+        AdaptiveConcurrencyLimiter limiter = limiter();
+
+        for (int i = 0; i < 10; i++) {
+            limiter.acquire("search").join().release(Outcome.SUCCESS);
+        }
+
+        assertEquals(4, limiter.getLimit());
+    }
+
+    @Test
+    void droppedResponsesLowerTheLimitOncePerGeneration() {
+        AdaptiveConcurrencyLimiter limiter = limiter();
+        List<Permit> permits = acquire(limiter, "search", 4);
+
+        permits.forEach(permit -> permit.release(Outcome.DROPPED));
+
+        assertEquals(2, limiter.getLimit());
+        assertEquals(1, meterRegistry.get(AdaptiveConcurrencyLimiter.DECREASE_METRIC).counter().count());
+    }
+
+    @Test
+    void slowResponsesCountAsDropped() {
+        AdaptiveConcurrencyLimiter limiter = limiter();
+        Permit permit = limiter.acquire("search").join();
+
+        nanoTime.addAndGet(Duration.ofSeconds(2).toNanos());
+        permit.release(Outcome.SUCCESS);
+
+        assertEquals(2, limiter.getLimit());
+    }
+
+    @Test
+    void freedSlotsAreSharedBetweenTenantsInTurn() {
+        AdaptiveConcurrencyLimiter limiter = limiter();
+        List<Permit> permits = acquire(limiter, "wide", 4);
+        List<CompletableFuture<Permit>> wide = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            wide.add(limiter.acquire("wide"));
+        }
+        CompletableFuture<Permit> narrow = limiter.acquire("narrow");
+
+        permits.get(0).release(Outcome.IGNORED);
+        permits.get(1).release(Outcome.IGNORED);
+
+        assertTrue(wide.getFirst().isDone());
+        assertTrue(narrow.isDone());
+        assertFalse(wide.get(1).isDone());
+    }
+
+    @Test
+    void acquireFailsWhenTooManyRequestsAreWaiting() {
+        properties.setMaxQueued(1);
+        AdaptiveConcurrencyLimiter limiter = limiter();
+        acquire(limiter, "search", 4);
+        limiter.acquire("search");
+
+        CompletionException exception = assertThrows(CompletionException.class, () -> limiter.acquire("search").join());
+
+        assertInstanceOf(ConcurrencyLimitExceededException.class, exception.getCause());
+        assertEquals(1, meterRegistry.get(AdaptiveConcurrencyLimiter.REJECTED_METRIC).counter().count());
+    }
+
+    @Test
+    void cancelledWaitersGiveTheirSlotToTheNext() {
+        AdaptiveConcurrencyLimiter limiter = limiter();
+        List<Permit> permits = acquire(limiter, "search", 4);
+        CompletableFuture<Permit> cancelled = limiter.acquire("search");
+        CompletableFuture<Permit> next = limiter.acquire("search");
+
+        cancelled.cancel(false);
+        permits.getFirst().release(Outcome.IGNORED);
+
+        assertTrue(next.isDone());
+        assertEquals(4, limiter.getInFlight());
+        assertEquals(0, limiter.getQueued());
+    }
+
+    private AdaptiveConcurrencyLimiter limiter() {
+        return new AdaptiveConcurrencyLimiter(properties, meterRegistry, nanoTime::get);
+    }
+
+    private List<Permit> acquire(AdaptiveConcurrencyLimiter limiter, Object tenant, int count) {
+        List<Permit> permits = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            permits.add(limiter.acquire(tenant).join());
+        }
+        return permits;
+    }
+}
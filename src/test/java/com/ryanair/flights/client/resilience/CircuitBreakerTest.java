@@ -0,0 +1,111 @@
+package com.ryanair.flights.client.resilience;
+
+import com.ryanair.flights.config.UpstreamResilienceProperties;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class CircuitBreakerTest {
+
+    private final AtomicLong nanoTime = new AtomicLong();
+    private UpstreamResilienceProperties.CircuitBreaker properties;
+
+    @BeforeEach
+    void setUp() {
+        properties = new UpstreamResilienceProperties.CircuitBreaker();
+        properties.setSlidingWindowSize(4);
+        properties.setMinimumCalls(4);
+        properties.setFailureRateThreshold(0.5);
+        properties.setOpenDuration(Duration.ofSeconds(10));
+        properties.setHalfOpenCalls(2);
+    }
+
+    @Test
+    void opensOnceTheFailureRateIsReached() {
+        CircuitBreaker breaker = new CircuitBreaker(properties, nanoTime::get);
+
+        call(breaker, false);
+        call(breaker, true);
+        call(breaker, false);
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.getState());
+        call(breaker, true);
+
+        assertEquals(CircuitBreaker.State.OPEN, breaker.getState());
+        assertFalse(breaker.tryAcquire());
+    }
+
+    @Test
+    void onlyCountsTheLastCallsOfTheWindow() {
+        CircuitBreaker breaker = new CircuitBreaker(properties, nanoTime::get);
+
+        call(breaker, true);
+        call(breaker, true);
+        for (int i = 0; i < 3; i++) {
+            call(breaker, false);
+        }
+        call(breaker, true);
+
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.getState());
+    }
+
+    @Test
+    void closesAfterSuccessfulTrialCalls() {
+        CircuitBreaker breaker = openBreaker();
+
+        nanoTime.addAndGet(Duration.ofSeconds(10).toNanos());
+
+        assertTrue(breaker.tryAcquire());
+        assertTrue(breaker.tryAcquire());
+        assertFalse(breaker.tryAcquire());
+        breaker.onSuccess();
+        breaker.onSuccess();
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.getState());
+    }
+
+    @Test
+    void reopensWhenATrialCallFails() {
+        CircuitBreaker breaker = openBreaker();
+
+        nanoTime.addAndGet(Duration.ofSeconds(10).toNanos());
+        call(breaker, true);
+
+        assertEquals(CircuitBreaker.State.OPEN, breaker.getState());
+        assertFalse(breaker.tryAcquire());
+    }
+
+    @Test
+    void disabledBreakerNeverOpens() {
+        properties.setEnabled(false);
+        CircuitBreaker breaker = new CircuitBreaker(properties, nanoTime::get);
+
+        for (int i = 0; i < 10; i++) {
+            call(breaker, true);
+        }
+
+        assertTrue(breaker.tryAcquire());
+    }
+
+    private CircuitBreaker openBreaker() {
+        CircuitBreaker breaker = new CircuitBreaker(properties, nanoTime::get);
+        for (int i = 0; i < 4; i++) {
+            call(breaker, true);
+        }
+        assertEquals(CircuitBreaker.State.OPEN, breaker.getState());
+        return breaker;
+    }
+
+    private void call(CircuitBreaker breaker, boolean failed) {
+        assertTrue(breaker.tryAcquire());
+        if (failed) {
+            breaker.onFailure();
+        } else {
+            breaker.onSuccess();
+        }
+    }
+}
@@ -0,0 +1,104 @@
+package com.ryanair.flights.config;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ExecutorConfigTest {
+
+    private final ExecutorConfig executorConfig = new ExecutorConfig();
+
+    @Test
+    void boundedExecutorRejectsTasksBeyondQueueCapacityWhenAbortPolicyIsUsed() throws InterruptedException {
+        UpstreamExecutorProperties properties = new UpstreamExecutorProperties();
+        properties.setCorePoolSize(1);
+        properties.setMaxPoolSize(1);
+        properties.setQueueCapacity(1);
+        properties.setRejectionPolicy(UpstreamExecutorProperties.RejectionPolicy.ABORT);
+        ExecutorService executor = executorConfig.upstreamExecutor(properties, new SimpleMeterRegistry());
+        CountDownLatch release = new CountDownLatch(1);
+        try {
+            executor.execute(() -> awaitQuietly(release));
+            executor.execute(() -> awaitQuietly(release));
+
+            assertThrows(RejectedExecutionException.class, () -> executor.execute(() -> { }));
+        } finally {
+            release.countDown();
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    void virtualExecutorRunsTasksOnVirtualThreads() throws InterruptedException {
+        UpstreamExecutorProperties properties = new UpstreamExecutorProperties();
+        properties.setMode(UpstreamExecutorProperties.Mode.VIRTUAL);
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        ExecutorService executor = executorConfig.upstreamExecutor(properties, meterRegistry);
+        boolean virtual = CompletableFuture.supplyAsync(() -> Thread.currentThread().isVirtual(), executor).join();
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(5, TimeUnit.SECONDS));
+
+        assertTrue(virtual);
+        assertEquals(1L, meterRegistry.get("executor").tag("name", ExecutorConfig.UPSTREAM_EXECUTOR).timer().count());
+    }
+
+    @Test
+    void virtualExecutorRunsAtMostMaxPoolSizeTasksAndRejectsBeyondQueueCapacity() throws InterruptedException {
+        UpstreamExecutorProperties properties = new UpstreamExecutorProperties();
+        properties.setMode(UpstreamExecutorProperties.Mode.VIRTUAL);
+        properties.setMaxPoolSize(1);
+        properties.setQueueCapacity(1);
+        properties.setRejectionPolicy(UpstreamExecutorProperties.RejectionPolicy.ABORT);
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        ExecutorService executor = executorConfig.upstreamExecutor(properties, meterRegistry);
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicInteger started = new AtomicInteger();
+        try {
+            executor.execute(() -> {
+                started.incrementAndGet();
+                awaitQuietly(release);
+            });
+            executor.execute(started::incrementAndGet);
+
+            assertThrows(RejectedExecutionException.class, () -> executor.execute(() -> { }));
+            await(() -> meterRegistry.get("executor.active").gauge().value() == 1);
+            assertEquals(1, started.get());
+            assertEquals(1, meterRegistry.get("executor.queued").gauge().value());
+            assertEquals(1, meterRegistry.get(ExecutorConfig.REJECTED_METRIC).counter().count());
+        } finally {
+            release.countDown();
+            executor.shutdown();
+        }
+        assertTrue(executor.awaitTermination(5, TimeUnit.SECONDS));
+        assertEquals(2, started.get());
+    }
+
+    private static void awaitQuietly(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static void await(BooleanSupplier condition) {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (!condition.getAsBoolean()) {
+            if (System.nanoTime() > deadline) {
+                throw new AssertionError("Condition not met in time");
+            }
+            Thread.onSpinWait();
+        }
+    }
+}
@@ -0,0 +1,40 @@
+package com.ryanair.flights.config;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.client.ClientHttpRequestFactory;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.http.client.JdkClientHttpRequestFactory;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+
+class RestTemplateConfigTest {
+
+    private final RestTemplateConfig restTemplateConfig = new RestTemplateConfig();
+
+    @Test
+    void upstreamRequestFactoryUsesConfiguredPoolLimitsAndExposesPoolMetrics() throws Exception {
+        UpstreamHttpProperties properties = new UpstreamHttpProperties();
+        properties.setMaxConnectionsTotal(150);
+        properties.setMaxConnectionsPerRoute(120);
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+        ClientHttpRequestFactory requestFactory = restTemplateConfig.upstreamRequestFactory(properties, meterRegistry);
+
+        assertInstanceOf(HttpComponentsClientHttpRequestFactory.class, requestFactory);
+        assertEquals(150.0, meterRegistry.get("httpcomponents.httpclient.pool.total.max")
+                .tag("httpclient", RestTemplateConfig.UPSTREAM_POOL_NAME).gauge().value());
+        ((HttpComponentsClientHttpRequestFactory) requestFactory).destroy();
+    }
+
+    @Test
+    void upstreamRequestFactoryUsesJdkClientWhenHttp2IsEnabled() {
+        UpstreamHttpProperties properties = new UpstreamHttpProperties();
+        properties.setHttp2(true);
+
+        ClientHttpRequestFactory requestFactory = restTemplateConfig.upstreamRequestFactory(properties, new SimpleMeterRegistry());
+
+        assertInstanceOf(JdkClientHttpRequestFactory.class, requestFactory);
+    }
+}
@@ -0,0 +1,54 @@
+package com.ryanair.flights.config;
+
+import com.ryanair.flights.model.internal.ScheduleKey;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class ScheduleExpiryTest {
+
+    private ScheduleCacheProperties properties;
+    private ScheduleExpiry scheduleExpiry;
+
+    @BeforeEach
+    void setUp() {
+        properties = new ScheduleCacheProperties();
+        properties.setPastMonthTtl(Duration.ofDays(1));
+        properties.setCurrentMonthTtl(Duration.ofHours(1));
+        properties.setFutureMonthTtl(Duration.ofHours(6));
+        Clock clock = Clock.fixed(Instant.parse("2025-10-15T12:00:00Z"), ZoneOffset.UTC);
+        scheduleExpiry = new ScheduleExpiry(properties, clock);
+    }
+
+    @Test
+    void ttlForPastMonthUsesPastMonthTtl() {
+        assertEquals(Duration.ofDays(1), scheduleExpiry.ttlFor(ScheduleKey.of("DUB", "WRO", 2025, 9)));
+    }
+
+    @Test
+    void ttlForCurrentMonthUsesCurrentMonthTtl() {
+        assertEquals(Duration.ofHours(1), scheduleExpiry.ttlFor(ScheduleKey.of("DUB", "WRO", 2025, 10)));
+    }
+
+    @Test
+    void ttlForFutureMonthUsesFutureMonthTtl() {
+        assertEquals(Duration.ofHours(6), scheduleExpiry.ttlFor(ScheduleKey.of("DUB", "WRO", 2026, 1)));
+    }
+
+    @Test
+    void expireAfterReadKeepsRemainingDuration() {
+        assertEquals(42L, scheduleExpiry.expireAfterRead(ScheduleKey.of("DUB", "WRO", 2025, 10), new Object(), 0L, 42L));
+    }
+
+    @Test
+    void expireAfterUpdateRestartsTtl() {
+        long expected = Duration.ofHours(6).toNanos();
+        assertEquals(expected, scheduleExpiry.expireAfterUpdate(ScheduleKey.of("DUB", "WRO", 2025, 11), new Object(), 0L, 1L));
+    }
+}
@@ -1,8 +1,12 @@
 package com.ryanair.flights.controller;
 
 import com.ryanair.flights.exception.InvalidRequestException;
+import com.ryanair.flights.model.dto.DayFlights;
 import com.ryanair.flights.model.dto.Flight;
 import com.ryanair.flights.model.dto.FlightLeg;
+import com.ryanair.flights.model.dto.FlightPage;
+import com.ryanair.flights.model.dto.RoutePairFlights;
+import com.ryanair.flights.model.internal.FlightOrder;
 import com.ryanair.flights.model.internal.FlightSearchCriteria;
 import com.ryanair.flights.service.FlightService;
 import com.ryanair.flights.util.FlightValidator;
@@ -15,14 +19,23 @@ import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 
+import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.anyList;
 import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
@@ -131,6 +144,201 @@ class FlightControllerTest {
                 .andExpect(status().isBadRequest());
     }
 
+    @Test
+    void getInterconnectionsShouldStreamNdjsonWhenRequestedByAcceptHeader() throws Exception {
+        when(flightService.streamFlights(any(FlightSearchCriteria.class), any())).thenAnswer(invocation -> {
+            Consumer<List<Flight>> sink = invocation.getArgument(1);
+            sink.accept(List.of(createMockFlight(), createMockFlight()));
+            return CompletableFuture.completedFuture(null);
+        });
+
+        MvcResult mvcResult = mockMvc.perform(get("/ryanair/interconnections")
+                        .accept(MediaType.APPLICATION_NDJSON)
+                        .param("departure", departure)
+                        .param("arrival", arrival)
+                        .param("departureDateTime", departureDateTime)
+                        .param("arrivalDateTime", arrivalDateTime))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        String body = mockMvc.perform(asyncDispatch(mvcResult))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_NDJSON))
+                .andReturn().getResponse().getContentAsString();
+
+        String[] lines = body.split("\n");
+        assertEquals(2, lines.length);
+        assertTrue(lines[0].startsWith("{\"stops\":0"));
+        verify(flightService, never()).searchFlights(any());
+    }
+
+    @Test
+    void getInterconnectionsShouldStreamNdjsonWhenRequestedByParameter() throws Exception {
+        when(flightService.streamFlights(any(FlightSearchCriteria.class), any())).thenAnswer(invocation -> {
+            Consumer<List<Flight>> sink = invocation.getArgument(1);
+            sink.accept(List.of(createMockFlight()));
+            return CompletableFuture.completedFuture(null);
+        });
+
+        MvcResult mvcResult = mockMvc.perform(get("/ryanair/interconnections")
+                        .param("stream", "true")
+                        .param("departure", departure)
+                        .param("arrival", arrival)
+                        .param("departureDateTime", departureDateTime)
+                        .param("arrivalDateTime", arrivalDateTime))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(mvcResult))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_NDJSON))
+                .andExpect(content().string(org.hamcrest.Matchers.endsWith("}\n")));
+    }
+
+    @Test
+    void getInterconnectionsShouldReturnBadRequestWhenStreamedRequestIsInvalid() throws Exception {
+        mockMvc.perform(get("/ryanair/interconnections")
+                        .accept(MediaType.APPLICATION_NDJSON)
+                        .param("departure", departure)
+                        .param("arrival", arrival)
+                        .param("departureDateTime", "2023/10/20 08:00")
+                        .param("arrivalDateTime", arrivalDateTime))
+                .andExpect(status().isBadRequest());
+
+        verify(flightService, never()).streamFlights(any(), any());
+    }
+
+    @Test
+    void getInterconnectionsPassesSortAndLimitToTheSearch() throws Exception {
+        when(flightService.searchFlights(any())).thenReturn(List.of(createMockFlight()));
+
+        mockMvc.perform(get("/ryanair/interconnections")
+                        .param("departure", departure)
+                        .param("arrival", arrival)
+                        .param("departureDateTime", departureDateTime)
+                        .param("arrivalDateTime", arrivalDateTime)
+                        .param("sort", "shortest-duration")
+                        .param("limit", "10"))
+                .andExpect(status().isOk());
+
+        verify(flightService).searchFlights(argThat(criteria ->
+                criteria.getSort() == FlightOrder.SHORTEST_DURATION && criteria.getLimit() == 10));
+    }
+
+    @Test
+    void getInterconnectionsShouldReturnBadRequestForAnUnknownSortOrder() throws Exception {
+        mockMvc.perform(get("/ryanair/interconnections")
+                        .param("departure", departure)
+                        .param("arrival", arrival)
+                        .param("departureDateTime", departureDateTime)
+                        .param("arrivalDateTime", arrivalDateTime)
+                        .param("sort", "cheapest"))
+                .andExpect(status().isBadRequest());
+
+        verify(flightService, never()).searchFlights(any());
+    }
+
+    @Test
+    void getInterconnectionsReturnsAPageWhenAPageSizeIsGiven() throws Exception {
+        when(flightService.searchFlightsPage(any(), eq(20))).thenReturn(new FlightPage(List.of(createMockFlight()), 45, "next"));
+
+        mockMvc.perform(get("/ryanair/interconnections")
+                        .param("departure", departure)
+                        .param("arrival", arrival)
+                        .param("departureDateTime", departureDateTime)
+                        .param("arrivalDateTime", arrivalDateTime)
+                        .param("pageSize", "20"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.flights.size()").value(1))
+                .andExpect(jsonPath("$.total").value(45))
+                .andExpect(jsonPath("$.nextCursor").value("next"));
+    }
+
+    @Test
+    void getInterconnectionsWithACursorReturnsTheNextPage() throws Exception {
+        when(flightService.nextFlightsPage("next", null)).thenReturn(new FlightPage(List.of(createMockFlight()), 45, null));
+
+        mockMvc.perform(get("/ryanair/interconnections")
+                        .param("cursor", "next"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.flights.size()").value(1))
+                .andExpect(jsonPath("$.nextCursor").doesNotExist());
+
+        verify(flightService, never()).searchFlights(any());
+    }
+
+    @Test
+    void getBatchInterconnectionsSearchesEveryPairOnce() throws Exception {
+        when(flightService.searchFlightsBatchAsync(anyList())).thenAnswer(invocation -> {
+            List<FlightSearchCriteria> pairs = invocation.getArgument(0);
+            return CompletableFuture.completedFuture(pairs.stream()
+                    .map(pair -> new RoutePairFlights(pair.getDeparture(), pair.getArrival(), List.of(createMockFlight())))
+                    .toList());
+        });
+
+        mockMvc.perform(get("/ryanair/interconnections/batch")
+                        .param("departures", "stn,LTN,STN")
+                        .param("arrivals", "WRO,KRK")
+                        .param("departureDateTime", departureDateTime)
+                        .param("arrivalDateTime", arrivalDateTime))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.size()").value(4))
+                .andExpect(jsonPath("$[0].departure").value("STN"))
+                .andExpect(jsonPath("$[0].arrival").value("WRO"))
+                .andExpect(jsonPath("$[3].departure").value("LTN"))
+                .andExpect(jsonPath("$[3].arrival").value("KRK"))
+                .andExpect(jsonPath("$[0].flights[0].stops").value(0));
+    }
+
+    @Test
+    void getBatchInterconnectionsShouldReturnBadRequestWhenAnAirportCodeIsInvalid() throws Exception {
+        mockMvc.perform(get("/ryanair/interconnections/batch")
+                        .param("departures", "STN,LONDON")
+                        .param("arrivals", "WRO")
+                        .param("departureDateTime", departureDateTime)
+                        .param("arrivalDateTime", arrivalDateTime))
+                .andExpect(status().isBadRequest());
+
+        verify(flightService, never()).searchFlightsBatchAsync(any());
+    }
+
+    @Test
+    void getDateMatrixPassesTheDailyWindowAndOmitsFlightsInSummaryMode() throws Exception {
+        when(flightService.searchDateMatrix(any(), eq(true))).thenReturn(List.of(
+                new DayFlights(LocalDate.of(2025, 10, 6), 1, 2, LocalDateTime.of(2025, 10, 6, 11, 0), null)));
+
+        mockMvc.perform(get("/ryanair/interconnections/matrix")
+                        .param("departure", "dub")
+                        .param("arrival", "WRO")
+                        .param("fromDate", "2025-10-06")
+                        .param("toDate", "2025-10-12")
+                        .param("departureTime", "22:00")
+                        .param("arrivalTime", "06:00")
+                        .param("summary", "true"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].date").value("2025-10-06"))
+                .andExpect(jsonPath("$[0].directFlights").value(1))
+                .andExpect(jsonPath("$[0].oneStopFlights").value(2))
+                .andExpect(jsonPath("$[0].flights").doesNotExist());
+
+        verify(flightService).searchDateMatrix(argThat(criteria -> criteria.getDeparture().equals("DUB")
+                && criteria.windowEnd(criteria.getFirstDate()).equals(LocalDateTime.of(2025, 10, 7, 6, 0))), eq(true));
+    }
+
+    @Test
+    void getDateMatrixShouldReturnBadRequestWhenTheDatesAreReversed() throws Exception {
+        mockMvc.perform(get("/ryanair/interconnections/matrix")
+                        .param("departure", departure)
+                        .param("arrival", arrival)
+                        .param("fromDate", "2025-10-12")
+                        .param("toDate", "2025-10-06")
+                        .param("departureTime", "07:00")
+                        .param("arrivalTime", "21:00"))
+                .andExpect(status().isBadRequest());
+
+        verify(flightService, never()).searchDateMatrix(any(), anyBoolean());
+    }
+
     private Flight createMockFlight() {
         FlightLeg leg = new FlightLeg();
         leg.setFlightFrom("DUB");
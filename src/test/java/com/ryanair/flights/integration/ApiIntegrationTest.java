@@ -15,7 +15,7 @@ import static org.springframework.test.web.servlet.request.MockMvcRequestBuilder
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
-@SpringBootTest(classes = RyanairFlightsApplication.class)
+@SpringBootTest(classes = RyanairFlightsApplication.class, properties = "ryanair.snapshot.enabled=false")
 @AutoConfigureMockMvc
 class ApiIntegrationTest {
 
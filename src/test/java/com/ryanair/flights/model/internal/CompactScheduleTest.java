@@ -0,0 +1,99 @@
+package com.ryanair.flights.model.internal;
+
+import com.ryanair.flights.model.dto.FlightLeg;
+import com.ryanair.flights.model.external.Day;
+import com.ryanair.flights.model.external.FlightSchedule;
+import com.ryanair.flights.model.external.Schedule;
+import com.ryanair.flights.util.DateTimeUtil;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class CompactScheduleTest {
+
+    private static final ScheduleKey KEY = ScheduleKey.of("DUB", "WRO", 2025, 10);
+
+    @Test
+    void fromOrdersFlightsByDeparture() {
+        Schedule schedule = createSchedule(
+                createDay(2, createFlight("1", "06:00", "08:00")),
+                createDay(1, createFlight("2", "18:00", "20:00"), createFlight("3", "07:30", "09:30")));
+
+        CompactSchedule compact = CompactSchedule.from(KEY, schedule);
+
+        assertEquals(3, compact.size());
+        assertEquals("3", compact.flightNumberAt(0));
+        assertEquals("2", compact.flightNumberAt(1));
+        assertEquals("1", compact.flightNumberAt(2));
+    }
+
+    @Test
+    void fromMovesArrivalBeforeDepartureToTheNextDay() {
+        CompactSchedule compact = CompactSchedule.from(KEY, createSchedule(createDay(31, createFlight("1926", "23:10", "01:05"))));
+
+        FlightLeg leg = compact.toLeg(0);
+
+        assertEquals(LocalDateTime.of(2025, 10, 31, 23, 10), leg.getFlightDepartureTime());
+        assertEquals(LocalDateTime.of(2025, 11, 1, 1, 5), leg.getFlightArrivalTime());
+        assertEquals("1926", leg.getFlightNumber());
+        assertEquals("DUB", leg.getFlightFrom());
+        assertEquals("WRO", leg.getFlightTo());
+    }
+
+    @Test
+    void firstDepartingAtOrAfterStartsFromTheDayOfTheGivenTime() {
+        CompactSchedule compact = CompactSchedule.from(KEY, createSchedule(
+                createDay(1, createFlight("1", "06:00", "08:00")),
+                createDay(3, createFlight("2", "06:00", "08:00"), createFlight("3", "18:00", "20:00")),
+                createDay(31, createFlight("4", "22:00", "23:30"))));
+
+        assertEquals(0, compact.firstDepartingAtOrAfter(epochMinutes(LocalDateTime.of(2025, 9, 30, 12, 0))));
+        assertEquals(1, compact.firstDepartingAtOrAfter(epochMinutes(LocalDateTime.of(2025, 10, 2, 12, 0))));
+        assertEquals(2, compact.firstDepartingAtOrAfter(epochMinutes(LocalDateTime.of(2025, 10, 3, 6, 1))));
+        assertEquals(3, compact.firstDepartingAtOrAfter(epochMinutes(LocalDateTime.of(2025, 10, 31, 22, 0))));
+        assertEquals(4, compact.firstDepartingAtOrAfter(epochMinutes(LocalDateTime.of(2025, 11, 1, 0, 0))));
+    }
+
+    @Test
+    void fromReturnsNullWithoutDays() {
+        assertNull(CompactSchedule.from(KEY, null));
+        assertNull(CompactSchedule.from(KEY, new Schedule()));
+    }
+
+    @Test
+    void flightNumbersAreInternedOnce() {
+        assertEquals(FlightNumbers.idOf("FR 1926"), FlightNumbers.idOf(new String("FR 1926")));
+        assertEquals(FlightNumbers.NONE, FlightNumbers.idOf(null));
+        assertNull(FlightNumbers.numberOf(FlightNumbers.NONE));
+    }
+
+    private static long epochMinutes(LocalDateTime dateTime) {
+        return DateTimeUtil.toEpochMinutes(dateTime);
+    }
+
+    private static Schedule createSchedule(Day... days) {
+        Schedule schedule = new Schedule();
+        schedule.setMonth(10);
+        schedule.setDays(List.of(days));
+        return schedule;
+    }
+
+    private static Day createDay(int dayOfMonth, FlightSchedule... flights) {
+        Day day = new Day();
+        day.setDay(dayOfMonth);
+        day.setFlights(List.of(flights));
+        return day;
+    }
+
+    private static FlightSchedule createFlight(String number, String departure, String arrival) {
+        FlightSchedule flight = new FlightSchedule();
+        flight.setNumber(number);
+        flight.setDepartureTime(departure);
+        flight.setArrivalTime(arrival);
+        return flight;
+    }
+}
@@ -0,0 +1,81 @@
+package com.ryanair.flights.model.internal;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class HubConnectivityIndexTest {
+
+    private static final int DAY = 24 * 60;
+    private static final int NUMBER = FlightNumbers.idOf("1926");
+    private static final long MIN_LAYOVER = 120;
+
+    @Test
+    void mayConnectOnTheWeekdaysAndHoursOfTheIndexedFlights() {
+        // Wednesday 2025-10-01: DUB-STN 07:00-08:00, STN-WRO 10:00-12:00
+        HubConnectivityIndex index = HubConnectivityIndex.builder()
+                .add(schedule("DUB", "STN", 7 * 60, 8 * 60))
+                .add(schedule("STN", "WRO", 10 * 60, 12 * 60))
+                .build();
+
+        assertEquals(2, index.routes());
+        // The following Wednesday
+        assertTrue(index.mayConnect("DUB", "STN", "WRO",
+                LocalDateTime.of(2025, 10, 8, 6, 0), LocalDateTime.of(2025, 10, 8, 23, 0), MIN_LAYOVER));
+        // Thursday, nothing flies
+        assertFalse(index.mayConnect("DUB", "STN", "WRO",
+                LocalDateTime.of(2025, 10, 2, 6, 0), LocalDateTime.of(2025, 10, 2, 23, 0), MIN_LAYOVER));
+        // The window ends before the second leg leaves
+        assertFalse(index.mayConnect("DUB", "STN", "WRO",
+                LocalDateTime.of(2025, 10, 8, 6, 0), LocalDateTime.of(2025, 10, 8, 9, 59), MIN_LAYOVER));
+    }
+
+    @Test
+    void mayNotConnectWhenTheLayoverIsTooShort() {
+        HubConnectivityIndex index = HubConnectivityIndex.builder()
+                .add(schedule("DUB", "STN", 7 * 60, 8 * 60))
+                .add(schedule("STN", "WRO", 9 * 60, 11 * 60))
+                .build();
+
+        assertFalse(index.mayConnect("DUB", "STN", "WRO",
+                LocalDateTime.of(2025, 10, 1, 6, 0), LocalDateTime.of(2025, 10, 1, 23, 0), MIN_LAYOVER));
+        assertTrue(index.mayConnect("DUB", "STN", "WRO",
+                LocalDateTime.of(2025, 10, 1, 6, 0), LocalDateTime.of(2025, 10, 1, 23, 0), 60));
+    }
+
+    @Test
+    void mayConnectAcrossMidnight() {
+        // Wednesday DUB-STN 22:00-23:00, Thursday STN-WRO 02:00-04:00
+        HubConnectivityIndex index = HubConnectivityIndex.builder()
+                .add(schedule("DUB", "STN", 22 * 60, 23 * 60))
+                .add(schedule("STN", "WRO", DAY + 2 * 60, DAY + 4 * 60))
+                .build();
+
+        assertTrue(index.mayConnect("DUB", "STN", "WRO",
+                LocalDateTime.of(2025, 10, 15, 20, 0), LocalDateTime.of(2025, 10, 16, 6, 0), MIN_LAYOVER));
+        assertFalse(index.mayConnect("DUB", "STN", "WRO",
+                LocalDateTime.of(2025, 10, 15, 20, 0), LocalDateTime.of(2025, 10, 16, 1, 0), MIN_LAYOVER));
+    }
+
+    @Test
+    void mayConnectWhenALegIsNotIndexed() {
+        HubConnectivityIndex index = HubConnectivityIndex.builder()
+                .add(schedule("DUB", "STN", 7 * 60, 8 * 60))
+                .add(CompactSchedule.of(ScheduleKey.of("STN", "WRO", 2025, 10), new int[0], new int[0], new int[0]))
+                .build();
+
+        assertEquals(1, index.routes());
+        assertTrue(index.mayConnect("DUB", "STN", "WRO",
+                LocalDateTime.of(2025, 10, 2, 6, 0), LocalDateTime.of(2025, 10, 2, 23, 0), MIN_LAYOVER));
+        assertTrue(HubConnectivityIndex.EMPTY.mayConnect("DUB", "STN", "WRO",
+                LocalDateTime.of(2025, 10, 2, 6, 0), LocalDateTime.of(2025, 10, 2, 23, 0), MIN_LAYOVER));
+    }
+
+    private static CompactSchedule schedule(String from, String to, int departure, int arrival) {
+        return CompactSchedule.of(ScheduleKey.of(from, to, 2025, 10), new int[]{departure}, new int[]{arrival}, new int[]{NUMBER});
+    }
+}
@@ -0,0 +1,68 @@
+package com.ryanair.flights.model.internal;
+
+import com.ryanair.flights.model.external.Route;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class RouteIndexTest {
+
+    private final Route dubStn = createRoute("DUB", "STN", "RYANAIR");
+    private final Route dubWro = createRoute("DUB", "WRO", "RYANAIR");
+    private final Route stnWro = createRoute("STN", "WRO", "RYANAIR");
+    private final Route dubBcn = createRoute("DUB", "BCN", "OTHER");
+    private final List<Route> routes = List.of(dubStn, dubWro, stnWro, dubBcn);
+    private final RouteIndex routeIndex = RouteIndex.build(routes, route -> "RYANAIR".equals(route.getOperator()));
+
+    @Test
+    void routesFromReturnsOutgoingRoutesThatPassTheFilter() {
+        assertEquals(List.of(dubStn, dubWro), routeIndex.routesFrom("DUB"));
+    }
+
+    @Test
+    void routesToReturnsIncomingRoutes() {
+        assertEquals(List.of(dubWro, stnWro), routeIndex.routesTo("WRO"));
+    }
+
+    @Test
+    void routesBetweenReturnsDirectRoutes() {
+        assertEquals(List.of(stnWro), routeIndex.routesBetween("STN", "WRO"));
+        assertTrue(routeIndex.routesBetween("DUB", "BCN").isEmpty());
+    }
+
+    @Test
+    void lookupsIgnoreCase() {
+        assertEquals(List.of(dubStn), routeIndex.routesBetween("dub", "stn"));
+    }
+
+    @Test
+    void lookupsReturnTheSameListInstanceOnEveryCall() {
+        assertSame(routeIndex.routesFrom("DUB"), routeIndex.routesFrom("DUB"));
+    }
+
+    @Test
+    void lookupsForUnknownOrNullAirportReturnEmptyList() {
+        assertTrue(routeIndex.routesFrom("XXX").isEmpty());
+        assertTrue(routeIndex.routesTo(null).isEmpty());
+    }
+
+    @Test
+    void isBuiltFromComparesListIdentity() {
+        assertTrue(routeIndex.isBuiltFrom(routes));
+        assertFalse(routeIndex.isBuiltFrom(new ArrayList<>(routes)));
+    }
+
+    private static Route createRoute(String from, String to, String operator) {
+        Route route = new Route();
+        route.setAirportFrom(from);
+        route.setAirportTo(to);
+        route.setOperator(operator);
+        return route;
+    }
+}
@@ -0,0 +1,54 @@
+package com.ryanair.flights.model.internal;
+
+import com.ryanair.flights.model.dto.Flight;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+class ScheduleWindowTest {
+
+    private static final int DAY = 24 * 60;
+    private static final int NUMBER = FlightNumbers.idOf("1926");
+
+    @Test
+    void ofKeepsFlightsDepartingAndArrivingInsideTheWindow() {
+        CompactSchedule schedule = CompactSchedule.of(ScheduleKey.of("DUB", "WRO", 2025, 10),
+                new int[]{6 * 60, 10 * 60, 21 * 60, DAY + 6 * 60},
+                new int[]{8 * 60, 12 * 60, 23 * 60, DAY + 8 * 60},
+                new int[]{NUMBER, NUMBER, NUMBER, NUMBER});
+
+        ScheduleWindow window = ScheduleWindow.of(List.of(schedule),
+                LocalDateTime.of(2025, 10, 1, 7, 0), LocalDateTime.of(2025, 10, 1, 22, 0));
+
+        assertEquals(1, window.size());
+        assertEquals(LocalDateTime.of(2025, 10, 1, 10, 0), window.legAt(0).getFlightDepartureTime());
+        assertSame(window.legAt(0), window.legAt(0));
+    }
+
+    @Test
+    void ofOrdersFlightsOfSeveralSchedulesByDeparture() {
+        CompactSchedule october = CompactSchedule.of(ScheduleKey.of("DUB", "WRO", 2025, 10),
+                new int[]{30 * DAY + 20 * 60}, new int[]{30 * DAY + 22 * 60}, new int[]{NUMBER});
+        CompactSchedule november = CompactSchedule.of(ScheduleKey.of("DUB", "WRO", 2025, 11),
+                new int[]{6 * 60}, new int[]{8 * 60}, new int[]{NUMBER});
+
+        ScheduleWindow window = ScheduleWindow.of(List.of(november, october),
+                LocalDateTime.of(2025, 10, 31, 0, 0), LocalDateTime.of(2025, 11, 1, 23, 0));
+
+        List<Flight> flights = window.toFlights();
+        assertEquals(2, flights.size());
+        assertEquals(LocalDateTime.of(2025, 10, 31, 20, 0), flights.get(0).getLegs().getFirst().getFlightDepartureTime());
+        assertEquals(LocalDateTime.of(2025, 11, 1, 6, 0), flights.get(1).getLegs().getFirst().getFlightDepartureTime());
+        assertEquals(1, window.firstDepartingAtOrAfter(window.departureAt(0) + 1));
+    }
+
+    @Test
+    void ofReturnsEmptyWindowWhenNothingMatches() {
+        assertSame(ScheduleWindow.EMPTY, ScheduleWindow.of(List.of(),
+                LocalDateTime.of(2025, 10, 1, 0, 0), LocalDateTime.of(2025, 10, 2, 0, 0)));
+    }
+}
@@ -0,0 +1,105 @@
+package com.ryanair.flights.service;
+
+import com.ryanair.flights.client.RyanairApiClient;
+import com.ryanair.flights.config.CacheConfig;
+import com.ryanair.flights.config.PrewarmProperties;
+import com.ryanair.flights.config.RouteCacheProperties;
+import com.ryanair.flights.config.ScheduleCacheProperties;
+import com.ryanair.flights.model.external.Route;
+import com.ryanair.flights.model.external.Schedule;
+import com.ryanair.flights.model.internal.RouteIndex;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.cache.CacheManager;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.concurrent.Executor;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class CachePrewarmerTest {
+
+    private static final Clock CLOCK = Clock.fixed(Instant.parse("2025-10-15T10:00:00Z"), ZoneOffset.UTC);
+
+    @Mock
+    private RyanairApiClient ryanairApiClient;
+
+    @Mock
+    private RouteService routeService;
+
+    private final PrewarmProperties properties = new PrewarmProperties();
+    private final SearchPopularity searchPopularity = new SearchPopularity();
+    private CachePrewarmer cachePrewarmer;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        List<Route> routes = List.of(createRoute("DUB", "WRO"), createRoute("DUB", "STN"), createRoute("STN", "WRO"),
+                createRoute("DUB", "OPO"));
+        when(ryanairApiClient.getRoutes()).thenReturn(routes);
+        Schedule schedule = new Schedule();
+        schedule.setDays(List.of());
+        when(ryanairApiClient.getSchedule(anyString(), anyString(), anyInt(), anyInt())).thenReturn(schedule);
+        when(ryanairApiClient.getScheduleAsync(anyString(), anyString(), anyInt(), anyInt(), any())).thenCallRealMethod();
+        when(routeService.getRouteIndex()).thenReturn(RouteIndex.build(routes, route -> true));
+
+        CacheManager cacheManager = new CacheConfig().cacheManager(new ScheduleCacheProperties(), ryanairApiClient, event -> {
+                }, (Executor) Runnable::run);
+        properties.setMonths(2);
+        CachedRouteService cachedRouteService = new CachedRouteService(ryanairApiClient, new RouteCacheProperties(),
+                Runnable::run, new SimpleMeterRegistry(), CLOCK);
+        cachePrewarmer = new CachePrewarmer(properties, cachedRouteService, routeService, searchPopularity, cacheManager,
+                CLOCK);
+    }
+
+    @Test
+    void prewarmLoadsDirectAndConnectingLegsOfConfiguredRoutes() {
+        properties.setRoutes(List.of("dub-wro"));
+
+        int loaded = cachePrewarmer.prewarm();
+
+        // DUB-WRO, DUB-STN and STN-WRO for October and November
+        assertEquals(6, loaded);
+        verify(ryanairApiClient).getSchedule("DUB", "STN", 2025, 10);
+        verify(ryanairApiClient).getSchedule("STN", "WRO", 2025, 11);
+        verify(ryanairApiClient, times(6)).getSchedule(anyString(), anyString(), anyInt(), anyInt());
+        verify(ryanairApiClient).getRoutes();
+    }
+
+    @Test
+    void prewarmSkipsEntriesThatStayFreshUntilTheNextRun() {
+        properties.setRoutes(List.of("DUB-WRO"));
+        cachePrewarmer.prewarm();
+
+        assertEquals(0, cachePrewarmer.prewarm());
+        verify(ryanairApiClient, times(6)).getSchedule(anyString(), anyString(), anyInt(), anyInt());
+    }
+
+    @Test
+    void prewarmIncludesRecentSearches() {
+        searchPopularity.record("DUB", "STN");
+
+        assertEquals(2, cachePrewarmer.prewarm());
+        verify(ryanairApiClient).getSchedule("DUB", "STN", 2025, 10);
+        verify(ryanairApiClient).getSchedule("DUB", "STN", 2025, 11);
+    }
+
+    private Route createRoute(String from, String to) {
+        Route route = new Route();
+        route.setAirportFrom(from);
+        route.setAirportTo(to);
+        return route;
+    }
+}
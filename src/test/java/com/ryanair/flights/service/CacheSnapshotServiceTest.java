@@ -0,0 +1,176 @@
+package com.ryanair.flights.service;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.ryanair.flights.client.RyanairApiClient;
+import com.ryanair.flights.config.CacheConfig;
+import com.ryanair.flights.config.RouteCacheProperties;
+import com.ryanair.flights.config.ScheduleCacheProperties;
+import com.ryanair.flights.config.SnapshotProperties;
+import com.ryanair.flights.model.external.Route;
+import com.ryanair.flights.model.internal.CacheSnapshot;
+import com.ryanair.flights.model.internal.CompactSchedule;
+import com.ryanair.flights.model.internal.ScheduleKey;
+import com.ryanair.flights.util.CacheSnapshotCodec;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.cache.caffeine.CaffeineCache;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+class CacheSnapshotServiceTest {
+
+    private static final Instant NOW = Instant.parse("2025-10-01T10:00:00Z");
+    private static final ScheduleKey KEY = ScheduleKey.of("DUB", "WRO", 2025, 10);
+
+    @TempDir
+    private Path directory;
+
+    @Mock
+    private RyanairApiClient ryanairApiClient;
+
+    private final AtomicInteger loads = new AtomicInteger();
+    private SnapshotProperties properties;
+    private ScheduleCacheProperties scheduleCacheProperties;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        properties = new SnapshotProperties();
+        properties.setPath(directory.resolve("snapshot.bin"));
+        scheduleCacheProperties = new ScheduleCacheProperties();
+        scheduleCacheProperties.setRefreshAfterWrite(Duration.ofHours(1));
+    }
+
+    @Test
+    void restoreLoadsWhatWriteSaved() throws IOException {
+        CaffeineCacheManager cacheManager = createCacheManager();
+        CompactSchedule schedule = emptySchedule();
+        cacheManager.getCache(CacheConfig.SCHEDULES_CACHE).put(KEY, schedule);
+        CachedRouteService routes = createRouteService();
+        List<Route> routeList = List.of(new Route());
+        routes.restore(routeList, Instant.now());
+        createService(routes, cacheManager).write();
+
+        CaffeineCacheManager restoredCacheManager = createCacheManager();
+        CachedRouteService restoredRoutes = createRouteService();
+        int restored = createService(restoredRoutes, restoredCacheManager).restore();
+
+        assertEquals(1, restored);
+        assertEquals(1, restoredRoutes.getAllRoutes().size());
+        assertNotNull(restoredCacheManager.getCache(CacheConfig.SCHEDULES_CACHE).get(KEY));
+        assertEquals(0, loads.get());
+        verify(ryanairApiClient, never()).getRoutes();
+    }
+
+    @Test
+    void restoreSkipsExpiredSchedules() throws IOException {
+        CacheSnapshotCodec.write(new CacheSnapshot(NOW, null, null, List.of(
+                new CacheSnapshot.ScheduleEntry(KEY, emptySchedule(), NOW.minusSeconds(7200), NOW.minusSeconds(1)))),
+                properties.getPath());
+        CaffeineCacheManager cacheManager = createCacheManager();
+
+        int restored = createService(createRouteService(), cacheManager).restore();
+
+        assertEquals(0, restored);
+        assertNull(((CaffeineCache) cacheManager.getCache(CacheConfig.SCHEDULES_CACHE)).getNativeCache().getIfPresent(KEY));
+    }
+
+    @Test
+    void restoreIgnoresSnapshotOlderThanMaxAge() throws IOException {
+        CompactSchedule schedule = emptySchedule();
+        CacheSnapshotCodec.write(new CacheSnapshot(NOW.minus(Duration.ofDays(2)), null, null, List.of(
+                new CacheSnapshot.ScheduleEntry(KEY, schedule, NOW, NOW.plusSeconds(3600)))), properties.getPath());
+
+        int restored = createService(createRouteService(), createCacheManager()).restore();
+
+        assertEquals(0, restored);
+    }
+
+    @Test
+    void restoreKeepsEntriesAlreadyInTheCache() throws IOException {
+        CacheSnapshotCodec.write(new CacheSnapshot(NOW, null, null, List.of(
+                new CacheSnapshot.ScheduleEntry(KEY, emptySchedule(), NOW, NOW.plusSeconds(3600)))), properties.getPath());
+        CaffeineCacheManager cacheManager = createCacheManager();
+        CompactSchedule current = emptySchedule();
+        cacheManager.getCache(CacheConfig.SCHEDULES_CACHE).put(KEY, current);
+
+        createService(createRouteService(), cacheManager).restore();
+
+        assertSame(current, cacheManager.getCache(CacheConfig.SCHEDULES_CACHE).get(KEY).get());
+    }
+
+    @Test
+    void restoreIgnoresCorruptSnapshot() throws IOException {
+        Files.write(properties.getPath(), new byte[]{0x52, 0x59, 0x4E, 0x53, 0, 0, 0, CacheSnapshotCodec.VERSION, 1, 2, 3});
+        CachedRouteService routes = createRouteService();
+
+        int restored = createService(routes, createCacheManager()).restore();
+
+        assertEquals(0, restored);
+        assertTrue(routes.peekRoutes().isEmpty());
+    }
+
+    private static CompactSchedule emptySchedule() {
+        return CompactSchedule.of(KEY, new int[0], new int[0], new int[0]);
+    }
+
+    private CachedRouteService createRouteService() {
+        return new CachedRouteService(ryanairApiClient, new RouteCacheProperties(), Runnable::run,
+                new SimpleMeterRegistry(), Clock.systemUTC());
+    }
+
+    private CacheSnapshotService createService(CachedRouteService routes, CaffeineCacheManager cacheManager) {
+        return new CacheSnapshotService(properties, scheduleCacheProperties, routes, cacheManager,
+                Clock.fixed(NOW, ZoneOffset.UTC));
+    }
+
+    private CaffeineCacheManager createCacheManager() {
+        CaffeineCacheManager cacheManager = new CaffeineCacheManager();
+        cacheManager.registerCustomCache(CacheConfig.SCHEDULES_CACHE, Caffeine.newBuilder()
+                .expireAfter(new Expiry<Object, Object>() {
+                    @Override
+                    public long expireAfterCreate(Object key, Object value, long currentTime) {
+                        return Duration.ofHours(2).toNanos();
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(Object key, Object value, long currentTime, long currentDuration) {
+                        return currentDuration;
+                    }
+
+                    @Override
+                    public long expireAfterRead(Object key, Object value, long currentTime, long currentDuration) {
+                        return currentDuration;
+                    }
+                })
+                .refreshAfterWrite(scheduleCacheProperties.getRefreshAfterWrite())
+                .executor(Runnable::run)
+                .build(key -> {
+                    loads.incrementAndGet();
+                    return emptySchedule();
+                }));
+        return cacheManager;
+    }
+}
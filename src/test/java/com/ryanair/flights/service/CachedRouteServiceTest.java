@@ -0,0 +1,157 @@
+package com.ryanair.flights.service;
+
+import com.ryanair.flights.client.RyanairApiClient;
+import com.ryanair.flights.config.RouteCacheProperties;
+import com.ryanair.flights.exception.ExternalApiException;
+import com.ryanair.flights.model.external.Route;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.ArrayDeque;
+import java.util.List;
+import java.util.Queue;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class CachedRouteServiceTest {
+
+    private static final List<Route> FIRST_ROUTES = List.of(createRoute("DUB", "WRO"));
+    private static final List<Route> SECOND_ROUTES = List.of(createRoute("DUB", "STN"));
+
+    @Mock
+    private RyanairApiClient ryanairApiClient;
+
+    private final Queue<Runnable> pendingLoads = new ArrayDeque<>();
+    private final MutableClock clock = new MutableClock();
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private CachedRouteService cachedRouteService;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        RouteCacheProperties properties = new RouteCacheProperties();
+        properties.setRefreshAfterWrite(Duration.ofHours(6));
+        properties.setRetryAfterFailure(Duration.ofMinutes(1));
+        cachedRouteService = new CachedRouteService(ryanairApiClient, properties, pendingLoads::add, meterRegistry, clock);
+    }
+
+    @Test
+    void getAllRoutesWaitsOnlyForTheFirstLoad() {
+        when(ryanairApiClient.getRoutes()).thenReturn(FIRST_ROUTES);
+        cachedRouteService = new CachedRouteService(ryanairApiClient, new RouteCacheProperties(), Runnable::run,
+                new SimpleMeterRegistry(), clock);
+
+        assertSame(FIRST_ROUTES, cachedRouteService.getAllRoutes());
+        assertSame(FIRST_ROUTES, cachedRouteService.getAllRoutes());
+        verify(ryanairApiClient, times(1)).getRoutes();
+    }
+
+    @Test
+    void getAllRoutesServesTheStaleSnapshotWhileOneRefreshRuns() {
+        when(ryanairApiClient.getRoutes()).thenReturn(FIRST_ROUTES).thenReturn(SECOND_ROUTES);
+        cachedRouteService.refreshAhead(Duration.ZERO);
+        pendingLoads.poll().run();
+
+        clock.advance(Duration.ofHours(7));
+        assertSame(FIRST_ROUTES, cachedRouteService.getAllRoutes());
+        assertSame(FIRST_ROUTES, cachedRouteService.getAllRoutes());
+        assertEquals(1, pendingLoads.size());
+
+        pendingLoads.poll().run();
+        assertSame(SECOND_ROUTES, cachedRouteService.getAllRoutes());
+        assertEquals(Duration.ZERO, cachedRouteService.getAge().orElseThrow());
+    }
+
+    @Test
+    void failedRefreshKeepsTheLastGoodSnapshot() {
+        when(ryanairApiClient.getRoutes()).thenReturn(FIRST_ROUTES).thenThrow(new ExternalApiException("timeout"));
+        cachedRouteService.refreshAhead(Duration.ZERO);
+        pendingLoads.poll().run();
+
+        clock.advance(Duration.ofHours(7));
+        cachedRouteService.getAllRoutes();
+        pendingLoads.poll().run();
+
+        assertSame(FIRST_ROUTES, cachedRouteService.getAllRoutes());
+        assertEquals(7 * 3600, meterRegistry.get(CachedRouteService.STALENESS_METRIC).gauge().value());
+        assertEquals(1, meterRegistry.get(CachedRouteService.REFRESH_METRIC).tag("outcome", "error").counter().count());
+    }
+
+    @Test
+    void failedRefreshIsNotRetriedBeforeTheRetryInterval() {
+        when(ryanairApiClient.getRoutes()).thenReturn(FIRST_ROUTES)
+                .thenThrow(new ExternalApiException("timeout"))
+                .thenReturn(SECOND_ROUTES);
+        cachedRouteService.refreshAhead(Duration.ZERO);
+        pendingLoads.poll().run();
+
+        clock.advance(Duration.ofHours(7));
+        cachedRouteService.getAllRoutes();
+        pendingLoads.poll().run();
+
+        clock.advance(Duration.ofSeconds(30));
+        assertSame(FIRST_ROUTES, cachedRouteService.getAllRoutes());
+        cachedRouteService.refreshAhead(Duration.ZERO);
+        assertEquals(0, pendingLoads.size());
+
+        clock.advance(Duration.ofSeconds(30));
+        assertSame(FIRST_ROUTES, cachedRouteService.getAllRoutes());
+        pendingLoads.poll().run();
+        assertSame(SECOND_ROUTES, cachedRouteService.getAllRoutes());
+    }
+
+    @Test
+    void getAllRoutesThrowsWhenTheFirstLoadFails() {
+        when(ryanairApiClient.getRoutes()).thenThrow(new ExternalApiException("No routes found"));
+        cachedRouteService = new CachedRouteService(ryanairApiClient, new RouteCacheProperties(), Runnable::run,
+                new SimpleMeterRegistry(), clock);
+
+        ExternalApiException exception = assertThrows(ExternalApiException.class, () -> cachedRouteService.getAllRoutes());
+
+        assertEquals("No routes found", exception.getMessage());
+    }
+
+    private static Route createRoute(String from, String to) {
+        Route route = new Route();
+        route.setAirportFrom(from);
+        route.setAirportTo(to);
+        return route;
+    }
+
+    private static class MutableClock extends Clock {
+
+        private Instant now = Instant.parse("2025-10-15T10:00:00Z");
+
+        void advance(Duration duration) {
+            now = now.plus(duration);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+    }
+}
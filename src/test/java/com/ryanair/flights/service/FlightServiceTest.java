@@ -1,20 +1,49 @@
 package com.ryanair.flights.service;
 
+import com.ryanair.flights.config.PaginationProperties;
+import com.ryanair.flights.config.ResultCacheProperties;
+import com.ryanair.flights.config.SearchProperties;
+import com.ryanair.flights.exception.ExternalApiException;
+import com.ryanair.flights.exception.InvalidRequestException;
+import com.ryanair.flights.metrics.SearchMetrics;
 import com.ryanair.flights.model.dto.Flight;
+import com.ryanair.flights.model.dto.FlightLeg;
+import com.ryanair.flights.model.dto.FlightPage;
+import com.ryanair.flights.model.dto.RoutePairFlights;
+import com.ryanair.flights.model.internal.DateMatrixCriteria;
+import com.ryanair.flights.model.internal.FlightOrder;
 import com.ryanair.flights.model.internal.FlightSearchCriteria;
+import com.ryanair.flights.util.TopFlights;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import org.mockito.Spy;
 
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Optional;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ExecutionException;
+import java.util.function.Consumer;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 class FlightServiceTest {
@@ -25,6 +54,26 @@ class FlightServiceTest {
     @Mock
     private InterconnectionService interconnectionService;
 
+    @Mock
+    private MultiStopSearchService multiStopSearchService;
+
+    @Spy
+    private SearchProperties searchProperties = new SearchProperties();
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Spy
+    private SearchMetrics searchMetrics = new SearchMetrics(meterRegistry);
+
+    @Mock
+    private SearchResultCache searchResultCache;
+
+    @Mock
+    private SearchPopularity searchPopularity;
+
+    @Spy
+    private ResultPages resultPages = new ResultPages(new PaginationProperties(), meterRegistry);
+
     @BeforeEach
     void setUp() {
         MockitoAnnotations.openMocks(this);
@@ -42,14 +91,30 @@ class FlightServiceTest {
         List<Flight> interconnectedFlights = new ArrayList<>();
         interconnectedFlights.add(new Flight(1, new ArrayList<>()));
 
-        when(interconnectionService.findDirectFlights(criteria)).thenReturn(CompletableFuture.completedFuture(directFlights));
-        when(interconnectionService.findInterconnectedFlights(criteria)).thenReturn(CompletableFuture.completedFuture(interconnectedFlights));
+        when(interconnectionService.findDirectFlights(eq(criteria), any(ScheduleFetchContext.class))).thenReturn(CompletableFuture.completedFuture(directFlights));
+        when(interconnectionService.findInterconnectedFlights(eq(criteria), any(ScheduleFetchContext.class))).thenReturn(CompletableFuture.completedFuture(interconnectedFlights));
 
         List<Flight> result = flightService.searchFlights(criteria);
 
         assertEquals(2, result.size());
-        verify(interconnectionService).findDirectFlights(criteria);
-        verify(interconnectionService).findInterconnectedFlights(criteria);
+        verify(interconnectionService).findDirectFlights(eq(criteria), any(ScheduleFetchContext.class));
+        verify(interconnectionService).findInterconnectedFlights(eq(criteria), any(ScheduleFetchContext.class));
+    }
+
+    @Test
+    void searchFlightsRecordsDurationAndResultSize() throws ExecutionException, InterruptedException {
+        FlightSearchCriteria criteria = new FlightSearchCriteria();
+
+        when(interconnectionService.findDirectFlights(eq(criteria), any(ScheduleFetchContext.class)))
+                .thenReturn(CompletableFuture.completedFuture(List.of(new Flight(0, new ArrayList<>()))));
+        when(interconnectionService.findInterconnectedFlights(eq(criteria), any(ScheduleFetchContext.class)))
+                .thenReturn(CompletableFuture.completedFuture(List.of(new Flight(1, new ArrayList<>()), new Flight(1, new ArrayList<>()))));
+
+        flightService.searchFlights(criteria);
+
+        assertEquals(1, meterRegistry.get(SearchMetrics.SEARCH_DURATION)
+                .tags("mode", "collect", "maxStops", "1", "outcome", "success").timer().count());
+        assertEquals(3, meterRegistry.get(SearchMetrics.SEARCH_RESULTS).tags("mode", "collect").summary().totalAmount());
     }
 
     @Test
@@ -58,14 +123,137 @@ class FlightServiceTest {
         criteria.setDeparture("DUB");
         criteria.setArrival("WRO");
 
-        when(interconnectionService.findDirectFlights(criteria)).thenReturn(CompletableFuture.completedFuture(new ArrayList<>()));
-        when(interconnectionService.findInterconnectedFlights(criteria)).thenReturn(CompletableFuture.completedFuture(new ArrayList<>()));
+        when(interconnectionService.findDirectFlights(eq(criteria), any(ScheduleFetchContext.class))).thenReturn(CompletableFuture.completedFuture(new ArrayList<>()));
+        when(interconnectionService.findInterconnectedFlights(eq(criteria), any(ScheduleFetchContext.class))).thenReturn(CompletableFuture.completedFuture(new ArrayList<>()));
 
         List<Flight> result = flightService.searchFlights(criteria);
 
         assertTrue(result.isEmpty());
-        verify(interconnectionService).findDirectFlights(criteria);
-        verify(interconnectionService).findInterconnectedFlights(criteria);
+        verify(interconnectionService).findDirectFlights(eq(criteria), any(ScheduleFetchContext.class));
+        verify(interconnectionService).findInterconnectedFlights(eq(criteria), any(ScheduleFetchContext.class));
+    }
+
+    @Test
+    void searchFlightsAsyncStartsBothBranchesBeforeEitherCompletes() {
+        FlightSearchCriteria criteria = new FlightSearchCriteria();
+        CompletableFuture<List<Flight>> directFlights = new CompletableFuture<>();
+        CompletableFuture<List<Flight>> interconnectedFlights = new CompletableFuture<>();
+
+        when(interconnectionService.findDirectFlights(eq(criteria), any(ScheduleFetchContext.class))).thenReturn(directFlights);
+        when(interconnectionService.findInterconnectedFlights(eq(criteria), any(ScheduleFetchContext.class))).thenReturn(interconnectedFlights);
+
+        CompletableFuture<List<Flight>> result = flightService.searchFlightsAsync(criteria);
+
+        verify(interconnectionService).findDirectFlights(eq(criteria), any(ScheduleFetchContext.class));
+        verify(interconnectionService).findInterconnectedFlights(eq(criteria), any(ScheduleFetchContext.class));
+        assertFalse(result.isDone());
+
+        interconnectedFlights.complete(List.of(new Flight(1, new ArrayList<>())));
+        directFlights.complete(List.of(new Flight(0, new ArrayList<>())));
+
+        assertEquals(2, result.join().size());
+        assertEquals(0, result.join().getFirst().getStops());
+    }
+
+    @Test
+    void searchFlightsReturnsPartialResultsWhenOneBranchMissesTheDeadline() throws ExecutionException, InterruptedException {
+        FlightSearchCriteria criteria = new FlightSearchCriteria();
+        searchProperties.setTimeout(Duration.ofMillis(50));
+
+        List<Flight> directFlights = List.of(new Flight(0, new ArrayList<>()));
+
+        when(interconnectionService.findDirectFlights(eq(criteria), any(ScheduleFetchContext.class))).thenReturn(CompletableFuture.completedFuture(directFlights));
+        when(interconnectionService.findInterconnectedFlights(eq(criteria), any(ScheduleFetchContext.class))).thenReturn(new CompletableFuture<>());
+
+        List<Flight> result = flightService.searchFlights(criteria);
+
+        assertEquals(1, result.size());
+        assertEquals(0, result.getFirst().getStops());
+    }
+
+    @Test
+    void streamFlightsPassesEachNonEmptyBatchToTheSink() {
+        FlightSearchCriteria criteria = new FlightSearchCriteria();
+        List<Flight> interconnectedFlights = List.of(new Flight(1, new ArrayList<>()));
+
+        when(interconnectionService.findDirectFlights(eq(criteria), any(ScheduleFetchContext.class))).thenReturn(CompletableFuture.completedFuture(new ArrayList<>()));
+        when(interconnectionService.streamInterconnectedFlights(eq(criteria), any(ScheduleFetchContext.class), any())).thenAnswer(invocation -> {
+            Consumer<List<Flight>> sink = invocation.getArgument(2);
+            sink.accept(interconnectedFlights);
+            return CompletableFuture.completedFuture(null);
+        });
+
+        List<List<Flight>> batches = new ArrayList<>();
+        flightService.streamFlights(criteria, batches::add).join();
+
+        assertEquals(List.of(interconnectedFlights), batches);
+    }
+
+    @Test
+    void streamFlightsStopsCallingTheSinkOnceTheDeadlineHasPassed() {
+        searchProperties.setTimeout(Duration.ofMillis(50));
+        FlightSearchCriteria criteria = new FlightSearchCriteria();
+        List<Consumer<List<Flight>>> sinks = new ArrayList<>();
+
+        when(interconnectionService.findDirectFlights(eq(criteria), any(ScheduleFetchContext.class))).thenReturn(CompletableFuture.completedFuture(new ArrayList<>()));
+        when(interconnectionService.streamInterconnectedFlights(eq(criteria), any(ScheduleFetchContext.class), any())).thenAnswer(invocation -> {
+            sinks.add(invocation.getArgument(2));
+            return new CompletableFuture<Void>();
+        });
+
+        List<List<Flight>> batches = new ArrayList<>();
+        flightService.streamFlights(criteria, batches::add).join();
+        sinks.getFirst().accept(List.of(new Flight(1, new ArrayList<>())));
+
+        assertEquals(List.of(), batches);
+    }
+
+    @Test
+    void streamFlightsFetchesBothBranchesThroughOneContext() {
+        FlightSearchCriteria criteria = new FlightSearchCriteria();
+        when(interconnectionService.findDirectFlights(eq(criteria), any(ScheduleFetchContext.class))).thenReturn(CompletableFuture.completedFuture(new ArrayList<>()));
+        when(interconnectionService.streamInterconnectedFlights(eq(criteria), any(ScheduleFetchContext.class), any()))
+                .thenReturn(CompletableFuture.completedFuture(null));
+
+        flightService.streamFlights(criteria, flights -> {
+        }).join();
+
+        ArgumentCaptor<ScheduleFetchContext> direct = ArgumentCaptor.forClass(ScheduleFetchContext.class);
+        ArgumentCaptor<ScheduleFetchContext> interconnected = ArgumentCaptor.forClass(ScheduleFetchContext.class);
+        verify(interconnectionService).findDirectFlights(eq(criteria), direct.capture());
+        verify(interconnectionService).streamInterconnectedFlights(eq(criteria), interconnected.capture(), any());
+        assertSame(direct.getValue(), interconnected.getValue());
+        assertEquals(1, meterRegistry.get(SearchMetrics.SEARCH_FAN_OUT).tags("branch", "stream").summary().count());
+    }
+
+    @Test
+    void searchFlightsUsesMultiStopSearchWhenMoreThanOneStopIsAllowed() throws ExecutionException, InterruptedException {
+        FlightSearchCriteria criteria = new FlightSearchCriteria();
+        criteria.setMaxStops(2);
+        List<Flight> flights = List.of(new Flight(2, new ArrayList<>()));
+
+        when(multiStopSearchService.findFlights(eq(criteria), any(ScheduleFetchContext.class), any()))
+                .thenReturn(CompletableFuture.completedFuture(flights));
+
+        List<Flight> result = flightService.searchFlights(criteria);
+
+        assertEquals(flights, result);
+        verify(interconnectionService, never()).findDirectFlights(any(), any());
+        verify(interconnectionService, never()).findInterconnectedFlights(any(), any());
+    }
+
+    @Test
+    void searchFlightsSkipsInterconnectedSearchWhenNoStopsAreAllowed() throws ExecutionException, InterruptedException {
+        FlightSearchCriteria criteria = new FlightSearchCriteria();
+        criteria.setMaxStops(0);
+
+        when(interconnectionService.findDirectFlights(eq(criteria), any(ScheduleFetchContext.class)))
+                .thenReturn(CompletableFuture.completedFuture(List.of(new Flight(0, new ArrayList<>()))));
+
+        List<Flight> result = flightService.searchFlights(criteria);
+
+        assertEquals(1, result.size());
+        verify(interconnectionService, never()).findInterconnectedFlights(any(), any());
     }
 
     @Test
@@ -108,4 +296,233 @@ class FlightServiceTest {
         assertEquals(1, result.size());
         assertEquals(1, result.getFirst().getStops());
     }
-}
\ No newline at end of file
+
+    @Test
+    void searchFlightsServesNarrowerWindowFromResultCache() throws ExecutionException, InterruptedException {
+        SearchResultCache resultCache = new SearchResultCache(new ResultCacheProperties(), meterRegistry);
+        FlightService cachingFlightService = new FlightService(interconnectionService, multiStopSearchService,
+                searchProperties, searchMetrics, resultCache, searchPopularity, resultPages);
+        LocalDateTime day = LocalDateTime.of(2025, 10, 6, 0, 0);
+        Flight morning = createDirectFlight(day.plusHours(7), day.plusHours(10));
+        Flight evening = createDirectFlight(day.plusHours(18), day.plusHours(21));
+
+        when(interconnectionService.findDirectFlights(any(FlightSearchCriteria.class), any(ScheduleFetchContext.class)))
+                .thenReturn(CompletableFuture.completedFuture(List.of(morning, evening)));
+        when(interconnectionService.findInterconnectedFlights(any(FlightSearchCriteria.class), any(ScheduleFetchContext.class)))
+                .thenReturn(CompletableFuture.completedFuture(List.of()));
+
+        List<Flight> wide = cachingFlightService.searchFlights(new FlightSearchCriteria("DUB", "WRO", day.plusHours(6), day.plusHours(22)));
+        List<Flight> narrow = cachingFlightService.searchFlights(new FlightSearchCriteria("DUB", "WRO", day.plusHours(12), day.plusHours(22)));
+
+        assertEquals(List.of(morning, evening), wide);
+        assertEquals(List.of(evening), narrow);
+        verify(interconnectionService, times(1)).findDirectFlights(any(FlightSearchCriteria.class), any(ScheduleFetchContext.class));
+    }
+
+    @Test
+    void searchFlightsDoesNotCacheAResultMissingAScheduleThatFailedToLoad() throws ExecutionException, InterruptedException {
+        SearchResultCache resultCache = new SearchResultCache(new ResultCacheProperties(), meterRegistry);
+        FlightService cachingFlightService = new FlightService(interconnectionService, multiStopSearchService,
+                searchProperties, searchMetrics, resultCache, searchPopularity, resultPages);
+        LocalDateTime day = LocalDateTime.of(2025, 10, 6, 0, 0);
+        FlightSearchCriteria criteria = new FlightSearchCriteria("DUB", "WRO", day.plusHours(6), day.plusHours(22));
+
+        when(interconnectionService.findDirectFlights(any(FlightSearchCriteria.class), any(ScheduleFetchContext.class)))
+                .thenAnswer(invocation -> {
+                    // One month of the route failed upstream and was left out
+                    invocation.<ScheduleFetchContext>getArgument(1).markIncomplete();
+                    return CompletableFuture.completedFuture(List.of());
+                });
+        when(interconnectionService.findInterconnectedFlights(any(FlightSearchCriteria.class), any(ScheduleFetchContext.class)))
+                .thenReturn(CompletableFuture.completedFuture(List.of()));
+
+        cachingFlightService.searchFlights(criteria);
+        cachingFlightService.searchFlights(criteria);
+
+        verify(interconnectionService, times(2)).findDirectFlights(any(FlightSearchCriteria.class), any(ScheduleFetchContext.class));
+    }
+
+    @Test
+    void searchFlightsDoesNotCacheAMultiStopResultWhosePartialItinerariesWereCapped() throws ExecutionException, InterruptedException {
+        SearchResultCache resultCache = new SearchResultCache(new ResultCacheProperties(), meterRegistry);
+        FlightService cachingFlightService = new FlightService(interconnectionService, multiStopSearchService,
+                searchProperties, searchMetrics, resultCache, searchPopularity, resultPages);
+        LocalDateTime day = LocalDateTime.of(2025, 10, 6, 0, 0);
+        FlightSearchCriteria criteria = new FlightSearchCriteria("DUB", "WRO", day.plusHours(6), day.plusHours(22));
+        criteria.setMaxStops(2);
+
+        when(multiStopSearchService.findFlights(any(FlightSearchCriteria.class), any(ScheduleFetchContext.class), any()))
+                .thenAnswer(invocation -> {
+                    invocation.<ScheduleFetchContext>getArgument(1).markIncomplete();
+                    return CompletableFuture.completedFuture(List.of());
+                });
+
+        cachingFlightService.searchFlights(criteria);
+        cachingFlightService.searchFlights(criteria);
+
+        verify(multiStopSearchService, times(2)).findFlights(any(FlightSearchCriteria.class), any(ScheduleFetchContext.class), any());
+    }
+
+    @Test
+    void searchFlightsBatchAsyncSharesOneFetchContextAcrossPairs() {
+        LocalDateTime day = LocalDateTime.of(2025, 10, 6, 0, 0);
+        FlightSearchCriteria toWroclaw = new FlightSearchCriteria("STN", "WRO", day, day.plusHours(23));
+        FlightSearchCriteria toKrakow = new FlightSearchCriteria("STN", "KRK", day, day.plusHours(23));
+        Flight flight = createDirectFlight(day.plusHours(7), day.plusHours(10));
+        when(searchResultCache.get(any())).thenReturn(Optional.empty());
+        when(interconnectionService.findDirectFlights(any(FlightSearchCriteria.class), any(ScheduleFetchContext.class)))
+                .thenReturn(CompletableFuture.completedFuture(List.of(flight)));
+        when(interconnectionService.findInterconnectedFlights(any(FlightSearchCriteria.class), any(ScheduleFetchContext.class)))
+                .thenReturn(CompletableFuture.completedFuture(List.of()));
+
+        List<RoutePairFlights> result = flightService.searchFlightsBatchAsync(List.of(toWroclaw, toKrakow)).join();
+
+        assertEquals(2, result.size());
+        assertEquals("WRO", result.get(0).getArrival());
+        assertEquals("KRK", result.get(1).getArrival());
+        assertEquals(List.of(flight), result.get(1).getFlights());
+        ArgumentCaptor<ScheduleFetchContext> contexts = ArgumentCaptor.forClass(ScheduleFetchContext.class);
+        verify(interconnectionService, times(2)).findDirectFlights(any(FlightSearchCriteria.class), contexts.capture());
+        assertSame(contexts.getAllValues().get(0), contexts.getAllValues().get(1));
+    }
+
+    @Test
+    void searchFlightsBatchAsyncMarksPairsThatMissedTheDeadline() {
+        searchProperties.setTimeout(Duration.ofMillis(50));
+        LocalDateTime day = LocalDateTime.of(2025, 10, 6, 0, 0);
+        FlightSearchCriteria toWroclaw = new FlightSearchCriteria("STN", "WRO", day, day.plusHours(23));
+        FlightSearchCriteria toKrakow = new FlightSearchCriteria("STN", "KRK", day, day.plusHours(23));
+        when(searchResultCache.get(any())).thenReturn(Optional.empty());
+        when(interconnectionService.findDirectFlights(any(FlightSearchCriteria.class), any(ScheduleFetchContext.class)))
+                .thenReturn(CompletableFuture.completedFuture(List.of()));
+        when(interconnectionService.findInterconnectedFlights(eq(toWroclaw), any(ScheduleFetchContext.class)))
+                .thenReturn(new CompletableFuture<>());
+        when(interconnectionService.findInterconnectedFlights(eq(toKrakow), any(ScheduleFetchContext.class)))
+                .thenReturn(CompletableFuture.completedFuture(List.of()));
+
+        List<RoutePairFlights> result = flightService.searchFlightsBatchAsync(List.of(toWroclaw, toKrakow)).join();
+
+        assertTrue(result.get(0).isIncomplete());
+        assertFalse(result.get(1).isIncomplete());
+    }
+
+    @Test
+    void searchFlightsBatchAsyncRejectsMultiStopSearches() {
+        FlightSearchCriteria criteria = new FlightSearchCriteria();
+        criteria.setMaxStops(2);
+
+        assertThrows(InvalidRequestException.class, () -> flightService.searchFlightsBatchAsync(List.of(criteria)));
+    }
+
+    @Test
+    void searchFlightsKeepsOnlyTheBestFlightsOfALimitedSearchWithoutCachingThem() throws ExecutionException, InterruptedException {
+        FlightSearchCriteria criteria = new FlightSearchCriteria("DUB", "WRO",
+                LocalDateTime.of(2025, 10, 1, 6, 0), LocalDateTime.of(2025, 10, 1, 23, 0));
+        criteria.setSort(FlightOrder.EARLIEST_ARRIVAL);
+        criteria.setLimit(1);
+        Flight early = createDirectFlight(LocalDateTime.of(2025, 10, 1, 7, 0), LocalDateTime.of(2025, 10, 1, 9, 0));
+        Flight late = createDirectFlight(LocalDateTime.of(2025, 10, 1, 8, 0), LocalDateTime.of(2025, 10, 1, 11, 0));
+        when(searchResultCache.get(criteria)).thenReturn(Optional.empty());
+        when(interconnectionService.findBestFlights(eq(criteria), any())).thenAnswer(invocation -> {
+            TopFlights best = invocation.getArgument(1);
+            best.offer(late);
+            best.offer(early);
+            return CompletableFuture.completedFuture(null);
+        });
+
+        List<Flight> result = flightService.searchFlights(criteria);
+
+        assertEquals(List.of(early), result);
+        verify(interconnectionService, never()).findInterconnectedFlights(any(), any());
+        verify(searchResultCache, never()).put(any(), any(), anyLong());
+    }
+
+    @Test
+    void searchFlightsSortsEveryFlightWhenNoLimitIsGiven() throws ExecutionException, InterruptedException {
+        FlightSearchCriteria criteria = new FlightSearchCriteria("DUB", "WRO",
+                LocalDateTime.of(2025, 10, 1, 6, 0), LocalDateTime.of(2025, 10, 1, 23, 0));
+        criteria.setSort(FlightOrder.SHORTEST_DURATION);
+        Flight longer = createDirectFlight(LocalDateTime.of(2025, 10, 1, 7, 0), LocalDateTime.of(2025, 10, 1, 10, 0));
+        Flight shorter = createDirectFlight(LocalDateTime.of(2025, 10, 1, 8, 0), LocalDateTime.of(2025, 10, 1, 10, 0));
+        when(searchResultCache.get(criteria)).thenReturn(Optional.empty());
+        when(interconnectionService.findDirectFlights(eq(criteria), any(ScheduleFetchContext.class))).thenReturn(CompletableFuture.completedFuture(List.of(longer)));
+        when(interconnectionService.findInterconnectedFlights(eq(criteria), any(ScheduleFetchContext.class))).thenReturn(CompletableFuture.completedFuture(List.of(shorter)));
+
+        assertEquals(List.of(shorter, longer), flightService.searchFlights(criteria));
+    }
+
+    @Test
+    void searchFlightsPageOrdersByEarliestArrivalAndServesLaterPagesWithoutSearchingAgain() throws ExecutionException, InterruptedException {
+        FlightSearchCriteria criteria = new FlightSearchCriteria("DUB", "WRO",
+                LocalDateTime.of(2025, 10, 1, 6, 0), LocalDateTime.of(2025, 10, 1, 23, 0));
+        Flight late = createDirectFlight(LocalDateTime.of(2025, 10, 1, 7, 0), LocalDateTime.of(2025, 10, 1, 12, 0));
+        Flight early = createDirectFlight(LocalDateTime.of(2025, 10, 1, 8, 0), LocalDateTime.of(2025, 10, 1, 10, 0));
+        when(searchResultCache.get(any())).thenReturn(Optional.empty());
+        when(interconnectionService.findDirectFlights(any(FlightSearchCriteria.class), any(ScheduleFetchContext.class))).thenReturn(CompletableFuture.completedFuture(List.of(late, early)));
+        when(interconnectionService.findInterconnectedFlights(any(FlightSearchCriteria.class), any(ScheduleFetchContext.class))).thenReturn(CompletableFuture.completedFuture(List.of()));
+        when(interconnectionService.findBestFlights(any(), any())).thenAnswer(invocation -> {
+            TopFlights best = invocation.getArgument(1);
+            best.offer(late);
+            best.offer(early);
+            return CompletableFuture.completedFuture(null);
+        });
+
+        FlightPage first = flightService.searchFlightsPage(criteria, 1);
+        FlightPage second = flightService.nextFlightsPage(first.getNextCursor(), null);
+
+        assertEquals(List.of(early), first.getFlights());
+        assertNull(first.getTotal());
+        assertEquals(List.of(late), second.getFlights());
+        assertEquals(2, second.getTotal());
+        assertNull(criteria.getSort());
+        verify(interconnectionService, times(1)).findDirectFlights(any(FlightSearchCriteria.class), any(ScheduleFetchContext.class));
+    }
+
+    @Test
+    void searchFlightsPageServesASinglePageFromTheBestFlightsAlone() throws ExecutionException, InterruptedException {
+        FlightSearchCriteria criteria = new FlightSearchCriteria("DUB", "WRO",
+                LocalDateTime.of(2025, 10, 1, 6, 0), LocalDateTime.of(2025, 10, 1, 23, 0));
+        Flight flight = createDirectFlight(LocalDateTime.of(2025, 10, 1, 8, 0), LocalDateTime.of(2025, 10, 1, 10, 0));
+        when(searchResultCache.get(any())).thenReturn(Optional.empty());
+        when(interconnectionService.findBestFlights(any(), any())).thenAnswer(invocation -> {
+            TopFlights best = invocation.getArgument(1);
+            best.offer(flight);
+            return CompletableFuture.completedFuture(null);
+        });
+
+        FlightPage page = flightService.searchFlightsPage(criteria, 5);
+
+        assertEquals(List.of(flight), page.getFlights());
+        assertEquals(1, page.getTotal());
+        assertNull(page.getNextCursor());
+        verify(interconnectionService, never()).findDirectFlights(any(), any());
+    }
+
+    @Test
+    void searchDateMatrixRejectsRangesLongerThanTheLimit() {
+        DateMatrixCriteria criteria = new DateMatrixCriteria("DUB", "WRO", LocalDate.of(2025, 10, 1), LocalDate.of(2025, 11, 15),
+                LocalTime.of(7, 0), LocalTime.of(21, 0), 1);
+
+        assertThrows(InvalidRequestException.class, () -> flightService.searchDateMatrix(criteria, true));
+        verify(interconnectionService, never()).findDateMatrix(any(), anyBoolean());
+    }
+
+    @Test
+    void searchDateMatrixFailsWhenTheDeadlinePasses() {
+        DateMatrixCriteria criteria = new DateMatrixCriteria("DUB", "WRO", LocalDate.of(2025, 10, 1), LocalDate.of(2025, 10, 7),
+                LocalTime.of(7, 0), LocalTime.of(21, 0), 1);
+        searchProperties.setTimeout(Duration.ofMillis(50));
+        when(interconnectionService.findDateMatrix(criteria, false)).thenReturn(new CompletableFuture<>());
+
+        assertThrows(ExternalApiException.class, () -> flightService.searchDateMatrix(criteria, false));
+    }
+
+    private static Flight createDirectFlight(LocalDateTime departure, LocalDateTime arrival) {
+        FlightLeg leg = new FlightLeg();
+        leg.setFlightFrom("DUB");
+        leg.setFlightTo("WRO");
+        leg.setFlightDepartureTime(departure);
+        leg.setFlightArrivalTime(arrival);
+        return Flight.createFlightsFromLegs(List.of(leg));
+    }
+}
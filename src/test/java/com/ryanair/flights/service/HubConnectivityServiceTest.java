@@ -0,0 +1,83 @@
+package com.ryanair.flights.service;
+
+import com.github.benmanes.caffeine.cache.LoadingCache;
+import com.ryanair.flights.client.RyanairApiClient;
+import com.ryanair.flights.config.CacheConfig;
+import com.ryanair.flights.config.ConnectivityProperties;
+import com.ryanair.flights.config.ScheduleCacheProperties;
+import com.ryanair.flights.model.internal.CompactSchedule;
+import com.ryanair.flights.model.internal.FlightNumbers;
+import com.ryanair.flights.model.internal.ScheduleKey;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.CacheManager;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.Executor;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.mock;
+
+class HubConnectivityServiceTest {
+
+    private static final LocalDateTime START = LocalDateTime.of(2025, 10, 8, 6, 0);
+    private static final LocalDateTime END = LocalDateTime.of(2025, 10, 8, 23, 0);
+
+    private final ConnectivityProperties properties = new ConnectivityProperties();
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private CacheManager cacheManager;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        cacheManager = new CacheConfig().cacheManager(new ScheduleCacheProperties(), mock(RyanairApiClient.class), event -> {
+        }, (Executor) Runnable::run);
+        LoadingCache<Object, Object> schedules =
+                (LoadingCache<Object, Object>) cacheManager.getCache(CacheConfig.SCHEDULES_CACHE).getNativeCache();
+        int number = FlightNumbers.idOf("1926");
+        // Wednesday 2025-10-01: DUB-STN 07:00-08:00, STN-WRO 09:00-11:00 and STN-KRK 12:00-14:00
+        put(schedules, ScheduleKey.of("DUB", "STN", 2025, 10), 7 * 60, 8 * 60, number);
+        put(schedules, ScheduleKey.of("STN", "WRO", 2025, 10), 9 * 60, 11 * 60, number);
+        put(schedules, ScheduleKey.of("STN", "KRK", 2025, 10), 12 * 60, 14 * 60, number);
+    }
+
+    @Test
+    void rebuildIndexesTheCachedSchedules() {
+        HubConnectivityService service = new HubConnectivityService(properties, cacheManager, meterRegistry);
+
+        assertEquals(HubConnectivityService.Decision.SEARCH, service.decide("DUB", "STN", "WRO", START, END, 120));
+        assertEquals(3, service.rebuild());
+
+        assertEquals(3, meterRegistry.get(HubConnectivityService.INDEXED_ROUTES_METRIC).gauge().value());
+        assertEquals(HubConnectivityService.Decision.SEARCH, service.decide("DUB", "STN", "KRK", START, END, 120));
+        assertEquals(HubConnectivityService.Decision.VERIFY, service.decide("DUB", "STN", "WRO", START, END, 120));
+    }
+
+    @Test
+    void pruneModeSkipsPairsThatCannotConnectExceptTheVerifiedShare() {
+        properties.setMode(ConnectivityProperties.Mode.PRUNE);
+        properties.setVerificationRate(0.1);
+        double[] draw = {0.5};
+        HubConnectivityService service = new HubConnectivityService(properties, cacheManager, meterRegistry, () -> draw[0]);
+        service.rebuild();
+
+        assertEquals(HubConnectivityService.Decision.SKIP, service.decide("DUB", "STN", "WRO", START, END, 120));
+        draw[0] = 0.05;
+        assertEquals(HubConnectivityService.Decision.VERIFY, service.decide("DUB", "STN", "WRO", START, END, 120));
+        assertEquals(HubConnectivityService.Decision.SEARCH, service.decide("DUB", "STN", "KRK", START, END, 120));
+    }
+
+    @Test
+    void offModeSearchesEveryPair() {
+        properties.setMode(ConnectivityProperties.Mode.OFF);
+        HubConnectivityService service = new HubConnectivityService(properties, cacheManager, meterRegistry);
+        service.rebuild();
+
+        assertEquals(HubConnectivityService.Decision.SEARCH, service.decide("DUB", "STN", "WRO", START, END, 120));
+    }
+
+    private static void put(LoadingCache<Object, Object> schedules, ScheduleKey key, int departure, int arrival, int number) {
+        schedules.asMap().put(key, CompactSchedule.of(key, new int[]{departure}, new int[]{arrival}, new int[]{number}));
+    }
+}
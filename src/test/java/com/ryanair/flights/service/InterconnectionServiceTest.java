@@ -1,19 +1,48 @@
 package com.ryanair.flights.service;
 
+import com.ryanair.flights.config.ConnectivityProperties;
+import com.ryanair.flights.config.SearchProperties;
+import com.ryanair.flights.exception.ExternalApiException;
+import com.ryanair.flights.metrics.SearchMetrics;
+import com.ryanair.flights.model.dto.DayFlights;
 import com.ryanair.flights.model.dto.Flight;
+import com.ryanair.flights.model.external.Route;
+import com.ryanair.flights.model.internal.CompactSchedule;
+import com.ryanair.flights.model.internal.DateMatrixCriteria;
+import com.ryanair.flights.model.internal.FlightOrder;
 import com.ryanair.flights.model.internal.FlightSearchCriteria;
+import com.ryanair.flights.model.internal.FlightNumbers;
+import com.ryanair.flights.model.internal.ScheduleKey;
+import com.ryanair.flights.util.TopFlights;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import org.springframework.test.util.ReflectionTestUtils;
 
+import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.time.LocalTime;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
 
+import static java.util.concurrent.CompletableFuture.completedFuture;
+import static java.util.concurrent.CompletableFuture.failedFuture;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
@@ -25,9 +54,19 @@ class InterconnectionServiceTest {
     @Mock
     private RouteService routeService;
 
+    @Mock
+    private ScheduleService scheduleService;
+
     @BeforeEach
     void setUp() {
         MockitoAnnotations.openMocks(this);
+        ReflectionTestUtils.setField(interconnectionService, "upstreamExecutor", (Executor) Runnable::run);
+        ReflectionTestUtils.setField(interconnectionService, "searchProperties", new SearchProperties());
+        ReflectionTestUtils.setField(interconnectionService, "searchMetrics", new SearchMetrics(new SimpleMeterRegistry()));
+        ConnectivityProperties connectivityProperties = new ConnectivityProperties();
+        connectivityProperties.setMode(ConnectivityProperties.Mode.OFF);
+        ReflectionTestUtils.setField(interconnectionService, "hubConnectivity",
+                new HubConnectivityService(connectivityProperties, null, new SimpleMeterRegistry()));
     }
 
     @Test
@@ -63,4 +102,219 @@ class InterconnectionServiceTest {
         verify(routeService).findRoutesFrom("DUB");
         verify(routeService).findRoutesTo("WRO");
     }
-}
\ No newline at end of file
+
+    @Test
+    void findInterconnectedFlightsFetchesSharedLegScheduleOnlyOncePerSearch() throws ExecutionException, InterruptedException {
+        FlightSearchCriteria criteria = new FlightSearchCriteria("DUB", "WRO",
+                LocalDateTime.of(2025, 10, 1, 6, 0), LocalDateTime.of(2025, 10, 1, 23, 0));
+
+        Route firstLeg = createRoute("DUB", "STN");
+        when(routeService.findRoutesFrom("DUB")).thenReturn(List.of(firstLeg));
+        when(routeService.findRoutesTo("WRO")).thenReturn(List.of(createRoute("STN", "WRO"), createRoute("STN", "WRO")));
+        when(routeService.findDirectRoute("DUB", "STN")).thenReturn(List.of(firstLeg));
+        when(routeService.findDirectRoute("STN", "WRO")).thenReturn(List.of(createRoute("STN", "WRO")));
+        when(scheduleService.getScheduleAsync(anyString(), anyString(), anyInt(), anyInt()))
+                .thenReturn(completedFuture(
+                        CompactSchedule.of(ScheduleKey.of("DUB", "STN", 2025, 10), new int[0], new int[0], new int[0])));
+
+        interconnectionService.findInterconnectedFlights(criteria).get();
+
+        verify(scheduleService, times(1)).getScheduleAsync("DUB", "STN", 2025, 10);
+        verify(scheduleService, times(1)).getScheduleAsync("STN", "WRO", 2025, 10);
+    }
+
+    @Test
+    void findInterconnectedFlightsJoinsCompactSchedulesRespectingMinimumLayover() throws ExecutionException, InterruptedException {
+        FlightSearchCriteria criteria = new FlightSearchCriteria("DUB", "WRO",
+                LocalDateTime.of(2025, 10, 1, 6, 0), LocalDateTime.of(2025, 10, 1, 23, 0));
+
+        Route firstLeg = createRoute("DUB", "STN");
+        Route secondLeg = createRoute("STN", "WRO");
+        when(routeService.findRoutesFrom("DUB")).thenReturn(List.of(firstLeg));
+        when(routeService.findRoutesTo("WRO")).thenReturn(List.of(secondLeg));
+        when(routeService.findDirectRoute("DUB", "STN")).thenReturn(List.of(firstLeg));
+        when(routeService.findDirectRoute("STN", "WRO")).thenReturn(List.of(secondLeg));
+        int number = FlightNumbers.idOf("1926");
+        // DUB-STN 07:00-08:00; STN-WRO 09:00-11:00 (layover too short) and 10:00-12:00
+        when(scheduleService.getScheduleAsync("DUB", "STN", 2025, 10)).thenReturn(completedFuture(CompactSchedule.of(
+                ScheduleKey.of("DUB", "STN", 2025, 10), new int[]{7 * 60}, new int[]{8 * 60}, new int[]{number})));
+        when(scheduleService.getScheduleAsync("STN", "WRO", 2025, 10)).thenReturn(completedFuture(CompactSchedule.of(
+                ScheduleKey.of("STN", "WRO", 2025, 10), new int[]{10 * 60, 9 * 60}, new int[]{12 * 60, 11 * 60},
+                new int[]{number, number})));
+
+        List<Flight> result = interconnectionService.findInterconnectedFlights(criteria).get();
+
+        assertEquals(1, result.size());
+        assertEquals(1, result.getFirst().getStops());
+        assertEquals("STN", result.getFirst().getLegs().get(1).getFlightFrom());
+        assertEquals(LocalDateTime.of(2025, 10, 1, 10, 0), result.getFirst().getLegs().get(1).getFlightDepartureTime());
+    }
+
+    @Test
+    void searchesSharingAFetchContextFetchCommonLegsOnce() {
+        LocalDateTime start = LocalDateTime.of(2025, 10, 1, 6, 0);
+        LocalDateTime end = LocalDateTime.of(2025, 10, 1, 23, 0);
+        Route firstLeg = createRoute("DUB", "STN");
+        when(routeService.findRoutesFrom("DUB")).thenReturn(List.of(firstLeg));
+        when(routeService.findRoutesTo("WRO")).thenReturn(List.of(createRoute("STN", "WRO")));
+        when(routeService.findRoutesTo("KRK")).thenReturn(List.of(createRoute("STN", "KRK")));
+        when(routeService.findDirectRoute(anyString(), anyString()))
+                .thenAnswer(invocation -> List.of(createRoute(invocation.getArgument(0), invocation.getArgument(1))));
+        when(scheduleService.getScheduleAsync(anyString(), anyString(), anyInt(), anyInt()))
+                .thenReturn(completedFuture(
+                        CompactSchedule.of(ScheduleKey.of("DUB", "STN", 2025, 10), new int[0], new int[0], new int[0])));
+        ScheduleFetchContext fetchContext = new ScheduleFetchContext();
+
+        interconnectionService.findInterconnectedFlights(new FlightSearchCriteria("DUB", "WRO", start, end), fetchContext).join();
+        interconnectionService.findInterconnectedFlights(new FlightSearchCriteria("DUB", "KRK", start, end), fetchContext).join();
+
+        verify(scheduleService, times(1)).getScheduleAsync("DUB", "STN", 2025, 10);
+        assertEquals(3, fetchContext.getFetchCount());
+    }
+
+    @Test
+    void aScheduleThatFailsToLoadMarksTheFetchContextIncomplete() {
+        LocalDateTime start = LocalDateTime.of(2025, 10, 31, 6, 0);
+        LocalDateTime end = LocalDateTime.of(2025, 11, 1, 23, 0);
+        when(routeService.findDirectRoute("DUB", "WRO")).thenReturn(List.of(createRoute("DUB", "WRO")));
+        when(scheduleService.getScheduleAsync("DUB", "WRO", 2025, 10))
+                .thenReturn(completedFuture(
+                        CompactSchedule.of(ScheduleKey.of("DUB", "WRO", 2025, 10), new int[0], new int[0], new int[0])));
+        when(scheduleService.getScheduleAsync("DUB", "WRO", 2025, 11))
+                .thenReturn(failedFuture(new ExternalApiException("Upstream failed")));
+        ScheduleFetchContext fetchContext = new ScheduleFetchContext();
+
+        List<Flight> result = interconnectionService.findDirectFlights(new FlightSearchCriteria("DUB", "WRO", start, end), fetchContext).join();
+
+        assertEquals(List.of(), result);
+        assertTrue(fetchContext.isIncomplete());
+    }
+
+    @Test
+    void findDateMatrixFetchesEachRouteMonthOnceAndSummarizesEveryDay() {
+        DateMatrixCriteria criteria = new DateMatrixCriteria("DUB", "WRO", LocalDate.of(2025, 10, 1), LocalDate.of(2025, 10, 3),
+                LocalTime.of(6, 0), LocalTime.of(23, 0), 1);
+        Route firstLeg = createRoute("DUB", "STN");
+        Route secondLeg = createRoute("STN", "WRO");
+        when(routeService.findDirectRoute("DUB", "WRO")).thenReturn(List.of(createRoute("DUB", "WRO")));
+        when(routeService.findRoutesFrom("DUB")).thenReturn(List.of(firstLeg));
+        when(routeService.findRoutesTo("WRO")).thenReturn(List.of(secondLeg));
+        int number = FlightNumbers.idOf("1926");
+        int day = 24 * 60;
+        // DUB-WRO 08:00-11:00 on the 1st and the 3rd
+        when(scheduleService.getScheduleAsync("DUB", "WRO", 2025, 10)).thenReturn(completedFuture(CompactSchedule.of(
+                ScheduleKey.of("DUB", "WRO", 2025, 10), new int[]{8 * 60, 2 * day + 8 * 60}, new int[]{11 * 60, 2 * day + 11 * 60},
+                new int[]{number, number})));
+        // DUB-STN 07:00-08:00 and STN-WRO 10:00-12:00 on the 2nd and 3rd
+        when(scheduleService.getScheduleAsync("DUB", "STN", 2025, 10)).thenReturn(completedFuture(CompactSchedule.of(
+                ScheduleKey.of("DUB", "STN", 2025, 10), new int[]{day + 7 * 60, 2 * day + 7 * 60},
+                new int[]{day + 8 * 60, 2 * day + 8 * 60}, new int[]{number, number})));
+        when(scheduleService.getScheduleAsync("STN", "WRO", 2025, 10)).thenReturn(completedFuture(CompactSchedule.of(
+                ScheduleKey.of("STN", "WRO", 2025, 10), new int[]{day + 10 * 60, 2 * day + 10 * 60},
+                new int[]{day + 12 * 60, 2 * day + 12 * 60}, new int[]{number, number})));
+
+        List<DayFlights> matrix = interconnectionService.findDateMatrix(criteria, true).join();
+
+        assertEquals(3, matrix.size());
+        assertEquals(LocalDate.of(2025, 10, 1), matrix.get(0).getDate());
+        assertEquals(1, matrix.get(0).getDirectFlights());
+        assertEquals(0, matrix.get(0).getOneStopFlights());
+        assertEquals(LocalDateTime.of(2025, 10, 1, 11, 0), matrix.get(0).getEarliestArrival());
+        assertEquals(0, matrix.get(1).getDirectFlights());
+        assertEquals(1, matrix.get(1).getOneStopFlights());
+        assertEquals(LocalDateTime.of(2025, 10, 2, 12, 0), matrix.get(1).getEarliestArrival());
+        assertEquals(1, matrix.get(2).getDirectFlights());
+        assertEquals(1, matrix.get(2).getOneStopFlights());
+        assertEquals(LocalDateTime.of(2025, 10, 3, 11, 0), matrix.get(2).getEarliestArrival());
+        assertNull(matrix.get(2).getFlights());
+        verify(scheduleService, times(1)).getScheduleAsync("DUB", "WRO", 2025, 10);
+        verify(scheduleService, times(1)).getScheduleAsync("DUB", "STN", 2025, 10);
+        verify(scheduleService, times(1)).getScheduleAsync("STN", "WRO", 2025, 10);
+    }
+
+    @Test
+    void findDateMatrixReturnsTheFlightsOfEveryDayOutsideSummaryMode() {
+        // 22:00 to 06:00 the next morning
+        DateMatrixCriteria criteria = new DateMatrixCriteria("DUB", "WRO", LocalDate.of(2025, 10, 1), LocalDate.of(2025, 10, 2),
+                LocalTime.of(22, 0), LocalTime.of(6, 0), 0);
+        when(routeService.findDirectRoute("DUB", "WRO")).thenReturn(List.of(createRoute("DUB", "WRO")));
+        int number = FlightNumbers.idOf("1926");
+        // DUB-WRO 23:00-02:00 departing on the 2nd
+        when(scheduleService.getScheduleAsync("DUB", "WRO", 2025, 10)).thenReturn(completedFuture(CompactSchedule.of(
+                ScheduleKey.of("DUB", "WRO", 2025, 10), new int[]{24 * 60 + 23 * 60}, new int[]{2 * 24 * 60 + 2 * 60},
+                new int[]{number})));
+
+        List<DayFlights> matrix = interconnectionService.findDateMatrix(criteria, false).join();
+
+        assertEquals(List.of(), matrix.get(0).getFlights());
+        assertNull(matrix.get(0).getEarliestArrival());
+        assertEquals(1, matrix.get(1).getFlights().size());
+        assertEquals(LocalDateTime.of(2025, 10, 3, 2, 0), matrix.get(1).getEarliestArrival());
+        verify(routeService, never()).findRoutesFrom(anyString());
+    }
+
+    @Test
+    void findBestFlightsSkipsRoutePairsThatCannotBeatTheFlightsFound() {
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        ReflectionTestUtils.setField(interconnectionService, "searchMetrics", new SearchMetrics(meterRegistry));
+        FlightSearchCriteria criteria = new FlightSearchCriteria("DUB", "WRO",
+                LocalDateTime.of(2025, 10, 1, 6, 0), LocalDateTime.of(2025, 10, 1, 23, 0));
+        when(routeService.findDirectRoute("DUB", "WRO")).thenReturn(List.of(createRoute("DUB", "WRO")));
+        when(routeService.findRoutesFrom("DUB")).thenReturn(List.of(createRoute("DUB", "STN")));
+        when(routeService.findRoutesTo("WRO")).thenReturn(List.of(createRoute("STN", "WRO")));
+        when(routeService.findDirectRoute("DUB", "STN")).thenReturn(List.of(createRoute("DUB", "STN")));
+        when(routeService.findDirectRoute("STN", "WRO")).thenReturn(List.of(createRoute("STN", "WRO")));
+        int number = FlightNumbers.idOf("1926");
+        // DUB-WRO 07:00-10:00; DUB-STN 07:00-08:00 connecting to STN-WRO 10:00-12:00
+        when(scheduleService.getScheduleAsync("DUB", "WRO", 2025, 10)).thenReturn(completedFuture(CompactSchedule.of(
+                ScheduleKey.of("DUB", "WRO", 2025, 10), new int[]{7 * 60}, new int[]{10 * 60}, new int[]{number})));
+        when(scheduleService.getScheduleAsync("DUB", "STN", 2025, 10)).thenReturn(completedFuture(CompactSchedule.of(
+                ScheduleKey.of("DUB", "STN", 2025, 10), new int[]{7 * 60}, new int[]{8 * 60}, new int[]{number})));
+        when(scheduleService.getScheduleAsync("STN", "WRO", 2025, 10)).thenReturn(completedFuture(CompactSchedule.of(
+                ScheduleKey.of("STN", "WRO", 2025, 10), new int[]{10 * 60}, new int[]{12 * 60}, new int[]{number})));
+        TopFlights best = new TopFlights(FlightOrder.EARLIEST_ARRIVAL, 1);
+
+        interconnectionService.findBestFlights(criteria, best).join();
+
+        assertEquals(1, best.toList().size());
+        assertEquals(0, best.toList().getFirst().getStops());
+        assertEquals(1, meterRegistry.get(SearchMetrics.PRUNED_ROUTE_PAIRS).tag("reason", "rank").counter().count());
+    }
+
+    @Test
+    void findInterconnectedFlightsSkipsRoutePairsTheConnectivityIndexRulesOut() {
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        ReflectionTestUtils.setField(interconnectionService, "searchMetrics", new SearchMetrics(meterRegistry));
+        HubConnectivityService hubConnectivity = mock(HubConnectivityService.class);
+        ReflectionTestUtils.setField(interconnectionService, "hubConnectivity", hubConnectivity);
+        FlightSearchCriteria criteria = new FlightSearchCriteria("DUB", "WRO",
+                LocalDateTime.of(2025, 10, 1, 6, 0), LocalDateTime.of(2025, 10, 1, 23, 0));
+        when(routeService.findRoutesFrom("DUB")).thenReturn(List.of(createRoute("DUB", "STN"), createRoute("DUB", "BGY")));
+        when(routeService.findRoutesTo("WRO")).thenReturn(List.of(createRoute("STN", "WRO"), createRoute("BGY", "WRO")));
+        when(routeService.findDirectRoute(anyString(), anyString()))
+                .thenAnswer(invocation -> List.of(createRoute(invocation.getArgument(0), invocation.getArgument(1))));
+        when(scheduleService.getScheduleAsync(anyString(), anyString(), anyInt(), anyInt()))
+                .thenReturn(completedFuture(
+                        CompactSchedule.of(ScheduleKey.of("DUB", "BGY", 2025, 10), new int[0], new int[0], new int[0])));
+        when(hubConnectivity.decide(eq("DUB"), eq("STN"), eq("WRO"), any(), any(), anyLong()))
+                .thenReturn(HubConnectivityService.Decision.SKIP);
+        when(hubConnectivity.decide(eq("DUB"), eq("BGY"), eq("WRO"), any(), any(), anyLong()))
+                .thenReturn(HubConnectivityService.Decision.VERIFY);
+
+        List<Flight> result = interconnectionService.findInterconnectedFlights(criteria).join();
+
+        assertEquals(0, result.size());
+        verify(scheduleService, never()).getScheduleAsync("DUB", "STN", 2025, 10);
+        verify(scheduleService, never()).getScheduleAsync("STN", "WRO", 2025, 10);
+        verify(scheduleService).getScheduleAsync("DUB", "BGY", 2025, 10);
+        assertEquals(1, meterRegistry.get(SearchMetrics.PRUNED_ROUTE_PAIRS).tag("reason", "connectivity").counter().count());
+        assertEquals(1, meterRegistry.get(SearchMetrics.CONNECTIVITY_PREDICTIONS).tag("outcome", "correct").counter().count());
+    }
+
+    private Route createRoute(String from, String to) {
+        Route route = new Route();
+        route.setAirportFrom(from);
+        route.setAirportTo(to);
+        return route;
+    }
+}
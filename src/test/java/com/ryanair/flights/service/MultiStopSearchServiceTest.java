@@ -0,0 +1,182 @@
+package com.ryanair.flights.service;
+
+import com.ryanair.flights.config.SearchProperties;
+import com.ryanair.flights.metrics.SearchMetrics;
+import com.ryanair.flights.model.dto.Flight;
+import com.ryanair.flights.model.dto.FlightLeg;
+import com.ryanair.flights.model.external.Route;
+import com.ryanair.flights.model.internal.FlightSearchCriteria;
+import com.ryanair.flights.model.internal.RouteIndex;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class MultiStopSearchServiceTest {
+
+    private static final LocalDateTime DAY = LocalDateTime.of(2025, 10, 1, 0, 0);
+
+    @Mock
+    private RouteService routeService;
+
+    @Mock
+    private InterconnectionService interconnectionService;
+
+    private MultiStopSearchService multiStopSearchService;
+    private final SearchProperties searchProperties = new SearchProperties();
+    private final Map<String, List<Flight>> flightsByRoute = new HashMap<>();
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        multiStopSearchService = new MultiStopSearchService(routeService, interconnectionService, searchProperties,
+                new SearchMetrics(new SimpleMeterRegistry()));
+
+        List<Route> routes = List.of(
+                createRoute("DUB", "STN"), createRoute("STN", "BGY"), createRoute("BGY", "WRO"),
+                createRoute("DUB", "OPO"), createRoute("OPO", "FAO"));
+        when(routeService.getRouteIndex()).thenReturn(RouteIndex.build(routes, route -> true));
+
+        when(interconnectionService.findDirectFlights(any(FlightSearchCriteria.class), any(ScheduleFetchContext.class)))
+                .thenAnswer(invocation -> {
+                    FlightSearchCriteria criteria = invocation.getArgument(0);
+                    List<Flight> flights = flightsByRoute.getOrDefault(criteria.getDeparture() + "-" + criteria.getArrival(), List.of())
+                            .stream()
+                            .filter(flight -> !flight.getLegs().getFirst().getFlightDepartureTime().isBefore(criteria.getDepartureDateTime())
+                                    && !flight.getLegs().getFirst().getFlightArrivalTime().isAfter(criteria.getArrivalDateTime()))
+                            .toList();
+                    return CompletableFuture.completedFuture(flights);
+                });
+    }
+
+    @Test
+    void findFlightsReturnsTwoStopItineraryRespectingMinimumLayover() {
+        addFlight("DUB", "STN", DAY.plusHours(6), DAY.plusHours(7));
+        addFlight("STN", "BGY", DAY.plusHours(8), DAY.plusHours(10));
+        addFlight("STN", "BGY", DAY.plusHours(9), DAY.plusHours(11));
+        addFlight("BGY", "WRO", DAY.plusHours(13), DAY.plusHours(15));
+
+        List<Flight> result = multiStopSearchService.findFlights(criteria(2), flights -> {
+        }).join();
+
+        assertEquals(1, result.size());
+        assertEquals(2, result.getFirst().getStops());
+        assertEquals(DAY.plusHours(9), result.getFirst().getLegs().get(1).getFlightDepartureTime());
+    }
+
+    @Test
+    void findFlightsNeverFetchesEdgesThatCannotReachTheDestination() {
+        addFlight("DUB", "OPO", DAY.plusHours(6), DAY.plusHours(8));
+
+        multiStopSearchService.findFlights(criteria(2), flights -> {
+        }).join();
+
+        verify(interconnectionService, never()).findDirectFlights(
+                argThat(criteria -> criteria != null && criteria.getArrival().equals("OPO")), any(ScheduleFetchContext.class));
+    }
+
+    @Test
+    void findFlightsSkipsEdgesThatCannotArriveBeforeTheDeadline() {
+        FlightSearchCriteria criteria = new FlightSearchCriteria("DUB", "WRO", DAY.plusHours(6), DAY.plusHours(9));
+        criteria.setMaxStops(2);
+
+        List<Flight> result = multiStopSearchService.findFlights(criteria, flights -> {
+        }).join();
+
+        assertTrue(result.isEmpty());
+        verify(interconnectionService, never()).findDirectFlights(
+                argThat(legCriteria -> legCriteria != null && legCriteria.getDeparture().equals("STN")), any(ScheduleFetchContext.class));
+    }
+
+    @Test
+    void findFlightsReportsResultsPerLegCount() {
+        addFlight("DUB", "STN", DAY.plusHours(6), DAY.plusHours(7));
+        addFlight("STN", "BGY", DAY.plusHours(9), DAY.plusHours(11));
+        addFlight("BGY", "WRO", DAY.plusHours(13), DAY.plusHours(15));
+        List<List<Flight>> batches = new ArrayList<>();
+
+        multiStopSearchService.findFlights(criteria(3), batches::add).join();
+
+        assertEquals(1, batches.size());
+        assertEquals(2, batches.getFirst().getFirst().getStops());
+    }
+
+    @Test
+    void findFlightsSkipsConnectionsLongerThanTheMaximumLayover() {
+        searchProperties.setMaxLayover(Duration.ofHours(3));
+        addFlight("DUB", "STN", DAY.plusHours(6), DAY.plusHours(7));
+        addFlight("STN", "BGY", DAY.plusHours(9), DAY.plusHours(11));
+        addFlight("STN", "BGY", DAY.plusHours(11), DAY.plusHours(13));
+        addFlight("BGY", "WRO", DAY.plusHours(13), DAY.plusHours(15));
+        addFlight("BGY", "WRO", DAY.plusHours(18), DAY.plusHours(20));
+        ScheduleFetchContext fetchContext = new ScheduleFetchContext();
+
+        List<Flight> result = multiStopSearchService.findFlights(criteria(2), fetchContext, flights -> {
+        }).join();
+
+        // STN-BGY at 11:00 leaves 4 hours after the arrival at STN, BGY-WRO at 18:00 7 hours after 11:00
+        assertEquals(1, result.size());
+        assertEquals(DAY.plusHours(9), result.getFirst().getLegs().get(1).getFlightDepartureTime());
+        assertEquals(DAY.plusHours(13), result.getFirst().getLegs().get(2).getFlightDepartureTime());
+        assertFalse(fetchContext.isIncomplete());
+    }
+
+    @Test
+    void findFlightsKeepsOnlyThePartialItinerariesReadyFirst() {
+        searchProperties.setMaxItinerariesPerLeg(1);
+        addFlight("DUB", "STN", DAY.plusHours(6), DAY.plusHours(8));
+        addFlight("DUB", "STN", DAY.plusHours(5), DAY.plusHours(6));
+        addFlight("STN", "BGY", DAY.plusHours(9), DAY.plusHours(11));
+        addFlight("STN", "BGY", DAY.plusHours(10), DAY.plusHours(12));
+        addFlight("BGY", "WRO", DAY.plusHours(14), DAY.plusHours(16));
+        ScheduleFetchContext fetchContext = new ScheduleFetchContext();
+
+        List<Flight> result = multiStopSearchService.findFlights(criteria(2), fetchContext, flights -> {
+        }).join();
+
+        assertEquals(1, result.size());
+        assertEquals(DAY.plusHours(5), result.getFirst().getLegs().getFirst().getFlightDepartureTime());
+        assertEquals(DAY.plusHours(9), result.getFirst().getLegs().get(1).getFlightDepartureTime());
+        assertTrue(fetchContext.isIncomplete());
+    }
+
+    private FlightSearchCriteria criteria(int maxStops) {
+        FlightSearchCriteria criteria = new FlightSearchCriteria("DUB", "WRO", DAY, DAY.plusHours(23));
+        criteria.setMaxStops(maxStops);
+        return criteria;
+    }
+
+    private void addFlight(String from, String to, LocalDateTime departure, LocalDateTime arrival) {
+        FlightLeg leg = new FlightLeg();
+        leg.setFlightFrom(from);
+        leg.setFlightTo(to);
+        leg.setFlightDepartureTime(departure);
+        leg.setFlightArrivalTime(arrival);
+        flightsByRoute.computeIfAbsent(from + "-" + to, k -> new ArrayList<>()).add(Flight.createFlightsFromLegs(List.of(leg)));
+    }
+
+    private Route createRoute(String from, String to) {
+        Route route = new Route();
+        route.setAirportFrom(from);
+        route.setAirportTo(to);
+        return route;
+    }
+}
@@ -0,0 +1,130 @@
+package com.ryanair.flights.service;
+
+import com.ryanair.flights.config.PaginationProperties;
+import com.ryanair.flights.exception.InvalidRequestException;
+import com.ryanair.flights.model.dto.Flight;
+import com.ryanair.flights.model.dto.FlightLeg;
+import com.ryanair.flights.model.dto.FlightPage;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class ResultPagesTest {
+
+    private static final LocalDateTime DAY = LocalDateTime.of(2025, 10, 6, 0, 0);
+
+    private final PaginationProperties properties = new PaginationProperties();
+    private ResultPages resultPages;
+    private List<Flight> flights;
+
+    @BeforeEach
+    void setUp() {
+        properties.setMaxPageSize(10);
+        resultPages = new ResultPages(properties, new SimpleMeterRegistry());
+        flights = new ArrayList<>();
+        for (int i = 0; i < 7; i++) {
+            flights.add(createFlight(DAY.plusHours(i), DAY.plusHours(i + 2)));
+        }
+    }
+
+    @Test
+    void cursorsWalkThroughTheResultWithoutGapsOrRepeats() {
+        List<Flight> seen = new ArrayList<>();
+        FlightPage page = resultPages.firstPage(flights, 3);
+        seen.addAll(page.getFlights());
+        while (page.getNextCursor() != null) {
+            page = resultPages.nextPage(page.getNextCursor(), null);
+            seen.addAll(page.getFlights());
+            assertEquals(7, page.getTotal());
+        }
+
+        assertEquals(flights, seen);
+    }
+
+    @Test
+    void singlePageResultsHaveNoCursor() {
+        FlightPage page = resultPages.firstPage(flights, 7);
+
+        assertEquals(7, page.getFlights().size());
+        assertNull(page.getNextCursor());
+    }
+
+    @Test
+    void aLaterPageMayChangeThePageSize() {
+        FlightPage first = resultPages.firstPage(flights, 2);
+
+        FlightPage second = resultPages.nextPage(first.getNextCursor(), 5);
+
+        assertEquals(flights.subList(2, 7), second.getFlights());
+        assertNull(second.getNextCursor());
+    }
+
+    @Test
+    void laterPagesOfAResultStillBeingSearchedForWaitForIt() {
+        CompletableFuture<List<Flight>> all = new CompletableFuture<>();
+        FlightPage first = resultPages.firstPage(flights.subList(0, 4), 3, all);
+
+        assertEquals(flights.subList(0, 3), first.getFlights());
+        assertNull(first.getTotal());
+        CompletableFuture<FlightPage> second = CompletableFuture.supplyAsync(() -> resultPages.nextPage(first.getNextCursor(), null));
+        all.complete(flights);
+
+        assertEquals(flights.subList(3, 6), second.join().getFlights());
+        assertEquals(7, second.join().getTotal());
+    }
+
+    @Test
+    void laterPagesOfAFailedSearchAreRejected() {
+        FlightPage first = resultPages.firstPage(flights.subList(0, 4), 3,
+                CompletableFuture.failedFuture(new IllegalStateException("Upstream failed")));
+
+        assertThrows(InvalidRequestException.class, () -> resultPages.nextPage(first.getNextCursor(), null));
+    }
+
+    @Test
+    void rejectsMalformedAndExpiredCursors() {
+        assertThrows(InvalidRequestException.class, () -> resultPages.nextPage("not a cursor", null));
+
+        properties.setTtl(Duration.ZERO);
+        ResultPages expiring = new ResultPages(properties, new SimpleMeterRegistry());
+        String cursor = expiring.firstPage(flights, 3).getNextCursor();
+        assertNotNull(cursor);
+        assertThrows(InvalidRequestException.class, () -> expiring.nextPage(cursor, null));
+    }
+
+    @Test
+    void refusesToPaginateAResultTooLargeToBeKept() {
+        properties.setMaximumWeight(5);
+        ResultPages small = new ResultPages(properties, new SimpleMeterRegistry());
+
+        assertThrows(InvalidRequestException.class, () -> small.firstPage(flights, 3));
+        assertEquals(7, small.firstPage(flights, 7).getFlights().size());
+    }
+
+    @Test
+    void rejectsPageSizesAboveTheMaximum() {
+        assertEquals(properties.getDefaultPageSize(), resultPages.pageSize(null));
+        assertThrows(InvalidRequestException.class, () -> resultPages.pageSize(11));
+        assertThrows(InvalidRequestException.class, () -> resultPages.pageSize(0));
+    }
+
+    private Flight createFlight(LocalDateTime departure, LocalDateTime arrival) {
+        FlightLeg leg = new FlightLeg();
+        leg.setFlightFrom("DUB");
+        leg.setFlightTo("WRO");
+        leg.setFlightDepartureTime(departure);
+        leg.setFlightArrivalTime(arrival);
+        return Flight.createFlightsFromLegs(List.of(leg));
+    }
+}
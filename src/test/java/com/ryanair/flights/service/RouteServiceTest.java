@@ -2,6 +2,7 @@ package com.ryanair.flights.service;
 
 import com.ryanair.flights.client.RyanairApiClient;
 import com.ryanair.flights.model.external.Route;
+import com.ryanair.flights.model.internal.RouteIndex;
 import com.ryanair.flights.util.Constants;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -12,7 +13,9 @@ import org.mockito.MockitoAnnotations;
 import java.util.Arrays;
 import java.util.List;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.Mockito.when;
 
@@ -109,4 +112,38 @@ class RouteServiceTest {
 
         assertTrue(result);
     }
-}
\ No newline at end of file
+
+    @Test
+    void findDirectRouteReturnsValidRyanairRoutes() {
+        Route route = createValidRoute("DUB", "WRO");
+        when(cachedRouteService.getAllRoutes()).thenReturn(List.of(route));
+
+        List<Route> result = routeService.findDirectRoute("DUB", "WRO");
+
+        assertEquals(List.of(route), result);
+    }
+
+    @Test
+    void routeIndexIsRebuiltOnlyWhenCachedRoutesChange() {
+        List<Route> routes = List.of(createValidRoute("DUB", "STN"));
+        when(cachedRouteService.getAllRoutes()).thenReturn(routes);
+
+        RouteIndex first = routeService.getRouteIndex();
+        RouteIndex second = routeService.getRouteIndex();
+
+        assertSame(first, second);
+
+        Route refreshedRoute = createValidRoute("DUB", "WRO");
+        when(cachedRouteService.getAllRoutes()).thenReturn(List.of(refreshedRoute));
+
+        assertEquals(List.of(refreshedRoute), routeService.findRoutesFrom("DUB"));
+    }
+
+    private Route createValidRoute(String from, String to) {
+        Route route = new Route();
+        route.setAirportFrom(from);
+        route.setAirportTo(to);
+        route.setOperator(Constants.RYANAIR_OPERATOR);
+        return route;
+    }
+}
@@ -0,0 +1,86 @@
+package com.ryanair.flights.service;
+
+import com.ryanair.flights.model.internal.CompactSchedule;
+import com.ryanair.flights.model.internal.ScheduleKey;
+import org.junit.jupiter.api.Test;
+
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ScheduleFetchContextTest {
+
+    @Test
+    void fetchLoadsEachRouteMonthOnlyOnce() {
+        ScheduleFetchContext context = new ScheduleFetchContext();
+        AtomicInteger loads = new AtomicInteger();
+
+        CompletableFuture<CompactSchedule> first = context.fetch(ScheduleKey.of("DUB", "STN", 2025, 10), key -> {
+            loads.incrementAndGet();
+            return CompletableFuture.completedFuture(emptySchedule(key));
+        });
+        CompletableFuture<CompactSchedule> second = context.fetch(ScheduleKey.of("DUB", "STN", 2025, 10), key -> {
+            loads.incrementAndGet();
+            return CompletableFuture.completedFuture(emptySchedule(key));
+        });
+
+        assertSame(first, second);
+        assertEquals(1, loads.get());
+        assertEquals(1, context.getFetchCount());
+    }
+
+    @Test
+    void fetchLoadsDistinctMonthsSeparately() {
+        ScheduleFetchContext context = new ScheduleFetchContext();
+
+        context.fetch(ScheduleKey.of("DUB", "STN", 2025, 10), key -> CompletableFuture.completedFuture(emptySchedule(key)));
+        context.fetch(ScheduleKey.of("DUB", "STN", 2025, 11), key -> CompletableFuture.completedFuture(emptySchedule(key)));
+
+        assertEquals(2, context.getFetchCount());
+    }
+
+    @Test
+    void fetchKeepsAtMostTheConfiguredNumberOfLoadsInFlight() {
+        ScheduleFetchContext context = new ScheduleFetchContext(2);
+        List<CompletableFuture<CompactSchedule>> loads = new ArrayList<>();
+
+        List<CompletableFuture<CompactSchedule>> results = new ArrayList<>();
+        for (int month = 1; month <= 4; month++) {
+            results.add(context.fetch(ScheduleKey.of("DUB", "STN", 2025, month), key -> {
+                CompletableFuture<CompactSchedule> load = new CompletableFuture<>();
+                loads.add(load);
+                return load;
+            }));
+        }
+
+        assertEquals(2, loads.size());
+        loads.getFirst().complete(null);
+        assertEquals(3, loads.size());
+        assertTrue(results.getFirst().isDone());
+        assertFalse(results.get(2).isDone());
+    }
+
+    @Test
+    void fetchStartsQueuedLoadsThatCompleteSynchronously() {
+        ScheduleFetchContext context = new ScheduleFetchContext(1);
+        List<CompletableFuture<CompactSchedule>> results = new ArrayList<>();
+
+        for (int month = 0; month < 10_000; month++) {
+            results.add(context.fetch(new ScheduleKey("DUB", "STN", YearMonth.of(2025, 1).plusMonths(month)),
+                    key -> CompletableFuture.completedFuture(emptySchedule(key))));
+        }
+
+        assertTrue(results.stream().allMatch(CompletableFuture::isDone));
+    }
+
+    private static CompactSchedule emptySchedule(ScheduleKey key) {
+        return CompactSchedule.of(key, new int[0], new int[0], new int[0]);
+    }
+}
@@ -1,29 +1,45 @@
 package com.ryanair.flights.service;
 
 import com.ryanair.flights.client.RyanairApiClient;
+import com.ryanair.flights.config.CacheConfig;
+import com.ryanair.flights.config.ScheduleCacheProperties;
+import com.ryanair.flights.exception.ExternalApiException;
+import com.ryanair.flights.model.external.Day;
+import com.ryanair.flights.model.external.FlightSchedule;
 import com.ryanair.flights.model.external.Schedule;
+import com.ryanair.flights.model.internal.CompactSchedule;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
 
 import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 class ScheduleServiceTest {
 
-    @InjectMocks
-    private ScheduleService scheduleService;
-
     @Mock
     private RyanairApiClient ryanairApiClient;
 
+    private ScheduleService scheduleService;
+
     @BeforeEach
     void setUp() {
         MockitoAnnotations.openMocks(this);
+        scheduleService = new ScheduleService(new CacheConfig().cacheManager(new ScheduleCacheProperties(), ryanairApiClient,
+                event -> {
+                }, Runnable::run));
     }
 
     @Test
@@ -31,13 +47,71 @@ class ScheduleServiceTest {
         String from = "DUB";
         String to = "WRO";
         LocalDateTime date = LocalDateTime.of(2023, 10, 1, 0, 0);
+        FlightSchedule flight = new FlightSchedule();
+        flight.setNumber("1926");
+        flight.setDepartureTime("14:05");
+        flight.setArrivalTime("17:50");
+        Day day = new Day();
+        day.setDay(3);
+        day.setFlights(List.of(flight));
+        Schedule schedule = new Schedule();
+        schedule.setMonth(10);
+        schedule.setDays(List.of(day));
+
+        when(ryanairApiClient.getScheduleAsync(eq(from), eq(to), eq(2023), eq(10), any()))
+                .thenReturn(CompletableFuture.completedFuture(schedule));
+
+        CompactSchedule result = scheduleService.getSchedule(from, to, date.getYear(), date.getMonthValue());
+
+        assertEquals(1, result.size());
+        assertEquals("1926", result.flightNumberAt(0));
+        assertEquals(LocalDateTime.of(2023, 10, 3, 14, 5), result.toLeg(0).getFlightDepartureTime());
+    }
+
+    @Test
+    void getScheduleReturnsNullWhenUpstreamHasNoSchedule() {
+        when(ryanairApiClient.getScheduleAsync(eq("DUB"), eq("WRO"), eq(2023), eq(10), any()))
+                .thenReturn(CompletableFuture.completedFuture(null));
+
+        assertNull(scheduleService.getSchedule("DUB", "WRO", 2023, 10));
+    }
+
+    @Test
+    void getScheduleAsyncFetchesOnceAndServesLaterCallsFromTheCache() {
+        CompletableFuture<Schedule> upstream = new CompletableFuture<>();
+        when(ryanairApiClient.getScheduleAsync(eq("DUB"), eq("WRO"), eq(2023), eq(10), any())).thenReturn(upstream);
+
+        CompletableFuture<CompactSchedule> first = scheduleService.getScheduleAsync("DUB", "WRO", 2023, 10);
+        CompletableFuture<CompactSchedule> second = scheduleService.getScheduleAsync("DUB", "WRO", 2023, 10);
         Schedule schedule = new Schedule();
+        schedule.setDays(List.of());
+        upstream.complete(schedule);
+        CompletableFuture<CompactSchedule> third = scheduleService.getScheduleAsync("DUB", "WRO", 2023, 10);
 
-        when(ryanairApiClient.getSchedule(from, to, 2023, 10)).thenReturn(schedule);
+        assertSame(first.join(), second.join());
+        assertSame(first.join(), third.join());
+        verify(ryanairApiClient, times(1)).getScheduleAsync(eq("DUB"), eq("WRO"), eq(2023), eq(10), any());
+    }
 
-        Schedule result = scheduleService.getSchedule(from, to, date.getYear(), date.getMonthValue());
+    @Test
+    void getScheduleSharesTheFetchOfAnAsyncCallerAskingForTheSameMonth() {
+        CompletableFuture<Schedule> upstream = new CompletableFuture<>();
+        when(ryanairApiClient.getScheduleAsync(eq("DUB"), eq("WRO"), eq(2023), eq(10), any())).thenReturn(upstream);
+        CompletableFuture<CompactSchedule> pending = scheduleService.getScheduleAsync("DUB", "WRO", 2023, 10);
+        Schedule schedule = new Schedule();
+        schedule.setDays(List.of());
+        upstream.complete(schedule);
 
-        assertEquals(schedule, result);
+        assertSame(pending.join(), scheduleService.getSchedule("DUB", "WRO", 2023, 10));
+        verify(ryanairApiClient, times(1)).getScheduleAsync(eq("DUB"), eq("WRO"), eq(2023), eq(10), any());
     }
 
-}
\ No newline at end of file
+    @Test
+    void getScheduleThrowsTheUpstreamException() {
+        ExternalApiException failure = new ExternalApiException("Upstream failed");
+        when(ryanairApiClient.getScheduleAsync(eq("DUB"), eq("WRO"), eq(2023), eq(10), any()))
+                .thenReturn(CompletableFuture.failedFuture(failure));
+
+        assertSame(failure, assertThrows(ExternalApiException.class, () -> scheduleService.getSchedule("DUB", "WRO", 2023, 10)));
+    }
+}
@@ -0,0 +1,40 @@
+package com.ryanair.flights.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SearchPopularityTest {
+
+    private final SearchPopularity searchPopularity = new SearchPopularity();
+
+    @Test
+    void topReturnsTheMostSearchedPairsFirst() {
+        searchPopularity.record("BGY", "FAO");
+        searchPopularity.record("DUB", "WRO");
+        searchPopularity.record("DUB", "WRO");
+        searchPopularity.record("dub", "stn");
+        searchPopularity.record("DUB", "STN");
+        searchPopularity.record("DUB", "STN");
+
+        assertEquals(List.of(new SearchPopularity.RoutePair("DUB", "STN"), new SearchPopularity.RoutePair("DUB", "WRO")),
+                searchPopularity.top(2));
+        assertEquals(3, searchPopularity.top(10).size());
+    }
+
+    @Test
+    void decayForgetsPairsThatAreNoLongerSearched() {
+        searchPopularity.record("DUB", "WRO");
+        searchPopularity.record("DUB", "STN");
+        searchPopularity.record("DUB", "STN");
+
+        searchPopularity.decay();
+
+        assertEquals(List.of(new SearchPopularity.RoutePair("DUB", "STN")), searchPopularity.top(10));
+        searchPopularity.decay();
+        assertTrue(searchPopularity.top(10).isEmpty());
+    }
+}
@@ -0,0 +1,134 @@
+package com.ryanair.flights.service;
+
+import com.ryanair.flights.config.ResultCacheProperties;
+import com.ryanair.flights.model.dto.Flight;
+import com.ryanair.flights.model.dto.FlightLeg;
+import com.ryanair.flights.model.internal.FlightSearchCriteria;
+import com.ryanair.flights.model.internal.ScheduleEvictedEvent;
+import com.ryanair.flights.model.internal.ScheduleKey;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SearchResultCacheTest {
+
+    private static final LocalDateTime DAY = LocalDateTime.of(2025, 10, 6, 0, 0);
+
+    private final Flight morningFlight = createFlight("DUB", "WRO", DAY.plusHours(7), DAY.plusHours(10));
+    private final Flight eveningFlight = createFlight("DUB", "WRO", DAY.plusHours(18), DAY.plusHours(21));
+
+    private SearchResultCache searchResultCache;
+
+    @BeforeEach
+    void setUp() {
+        searchResultCache = new SearchResultCache(new ResultCacheProperties(), new SimpleMeterRegistry());
+    }
+
+    @Test
+    void normalizeWidensTheWindowToWholeDays() {
+        FlightSearchCriteria normalized = SearchResultCache.normalize(criteria(DAY.plusHours(7), DAY.plusDays(1).plusHours(9)));
+
+        assertEquals(DAY, normalized.getDepartureDateTime());
+        assertEquals(DAY.plusDays(2).minusNanos(1), normalized.getArrivalDateTime());
+    }
+
+    @Test
+    void getAnswersANarrowerWindowByFilteringTheCachedResult() {
+        cache(criteria(DAY.plusHours(6), DAY.plusHours(22)), List.of(morningFlight, eveningFlight));
+
+        Optional<List<Flight>> result = searchResultCache.get(criteria(DAY.plusHours(12), DAY.plusHours(23)));
+
+        assertTrue(result.isPresent());
+        assertEquals(List.of(eveningFlight), result.get());
+    }
+
+    @Test
+    void getMissesWhenNoCachedWindowCoversTheRequest() {
+        cache(criteria(DAY.plusHours(6), DAY.plusHours(22)), List.of(morningFlight));
+
+        assertTrue(searchResultCache.get(criteria(DAY.plusHours(6), DAY.plusDays(1).plusHours(2))).isEmpty());
+        assertTrue(searchResultCache.get(criteria("DUB", "STN", DAY.plusHours(6), DAY.plusHours(22))).isEmpty());
+    }
+
+    @Test
+    void scheduleEvictionInvalidatesResultsBuiltFromIt() {
+        cache(criteria(DAY, DAY.plusHours(22)), List.of(morningFlight));
+
+        searchResultCache.onScheduleEvicted(new ScheduleEvictedEvent(new ScheduleKey("STN", "WRO", YearMonth.of(2025, 10))));
+
+        assertTrue(searchResultCache.get(criteria(DAY, DAY.plusHours(22))).isEmpty());
+    }
+
+    @Test
+    void scheduleEvictionKeepsUnrelatedResults() {
+        cache(criteria(DAY, DAY.plusHours(22)), List.of(morningFlight));
+
+        searchResultCache.onScheduleEvicted(new ScheduleEvictedEvent(new ScheduleKey("STN", "BGY", YearMonth.of(2025, 10))));
+        searchResultCache.onScheduleEvicted(new ScheduleEvictedEvent(new ScheduleKey("DUB", "STN", YearMonth.of(2025, 11))));
+
+        assertTrue(searchResultCache.get(criteria(DAY, DAY.plusHours(22))).isPresent());
+    }
+
+    @Test
+    void putIsSkippedWhenSchedulesChangedDuringTheSearch() {
+        FlightSearchCriteria normalized = SearchResultCache.normalize(criteria(DAY, DAY.plusHours(22)));
+        long generation = searchResultCache.generation();
+
+        searchResultCache.onScheduleEvicted(new ScheduleEvictedEvent(new ScheduleKey("STN", "WRO", YearMonth.of(2025, 10))));
+        searchResultCache.put(normalized, List.of(morningFlight), generation);
+
+        assertTrue(searchResultCache.get(criteria(DAY, DAY.plusHours(22))).isEmpty());
+    }
+
+    @Test
+    void putIsKeptWhenOnlyUnrelatedSchedulesChangedDuringTheSearch() {
+        FlightSearchCriteria normalized = SearchResultCache.normalize(criteria(DAY, DAY.plusHours(22)));
+        long generation = searchResultCache.generation();
+
+        searchResultCache.onScheduleEvicted(new ScheduleEvictedEvent(new ScheduleKey("BGY", "FAO", YearMonth.of(2025, 10))));
+        searchResultCache.onScheduleEvicted(new ScheduleEvictedEvent(new ScheduleKey("DUB", "STN", YearMonth.of(2025, 11))));
+        searchResultCache.put(normalized, List.of(morningFlight), generation);
+
+        assertTrue(searchResultCache.get(criteria(DAY, DAY.plusHours(22))).isPresent());
+    }
+
+    @Test
+    void getReturnsNothingWhenDisabled() {
+        ResultCacheProperties properties = new ResultCacheProperties();
+        properties.setEnabled(false);
+        searchResultCache = new SearchResultCache(properties, new SimpleMeterRegistry());
+
+        cache(criteria(DAY, DAY.plusHours(22)), List.of(morningFlight));
+
+        assertTrue(searchResultCache.get(criteria(DAY, DAY.plusHours(22))).isEmpty());
+    }
+
+    private void cache(FlightSearchCriteria criteria, List<Flight> flights) {
+        searchResultCache.put(SearchResultCache.normalize(criteria), flights, searchResultCache.generation());
+    }
+
+    private static FlightSearchCriteria criteria(LocalDateTime departure, LocalDateTime arrival) {
+        return criteria("DUB", "WRO", departure, arrival);
+    }
+
+    private static FlightSearchCriteria criteria(String from, String to, LocalDateTime departure, LocalDateTime arrival) {
+        return new FlightSearchCriteria(from, to, departure, arrival);
+    }
+
+    private static Flight createFlight(String from, String to, LocalDateTime departure, LocalDateTime arrival) {
+        FlightLeg leg = new FlightLeg();
+        leg.setFlightFrom(from);
+        leg.setFlightTo(to);
+        leg.setFlightDepartureTime(departure);
+        leg.setFlightArrivalTime(arrival);
+        return Flight.createFlightsFromLegs(List.of(leg));
+    }
+}
@@ -0,0 +1,109 @@
+package com.ryanair.flights.util;
+
+import com.ryanair.flights.model.external.Route;
+import com.ryanair.flights.model.internal.CacheSnapshot;
+import com.ryanair.flights.model.internal.CompactSchedule;
+import com.ryanair.flights.model.internal.FlightNumbers;
+import com.ryanair.flights.model.internal.ScheduleKey;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class CacheSnapshotCodecTest {
+
+    private static final Instant NOW = Instant.parse("2025-10-01T10:00:00Z");
+
+    @TempDir
+    private Path directory;
+
+    @Test
+    void readReturnsWhatWasWritten() throws IOException {
+        Path path = directory.resolve("snapshot.bin");
+        Route route = new Route();
+        route.setAirportFrom("DUB");
+        route.setAirportTo("WRO");
+        route.setOperator("RYANAIR");
+        route.setSeasonalRoute(true);
+        ScheduleKey key = ScheduleKey.of("DUB", "WRO", 2025, 10);
+        CacheSnapshot snapshot = new CacheSnapshot(NOW, List.of(route), NOW.minusSeconds(60),
+                List.of(new CacheSnapshot.ScheduleEntry(key, createSchedule(key), NOW.minusSeconds(30), NOW.plusSeconds(3600))));
+
+        CacheSnapshotCodec.write(snapshot, path);
+        CacheSnapshot read = CacheSnapshotCodec.read(path).orElseThrow();
+
+        assertEquals(NOW, read.createdAt());
+        assertEquals(NOW.minusSeconds(60), read.routesLoadedAt());
+        Route readRoute = read.routes().getFirst();
+        assertEquals("DUB", readRoute.getAirportFrom());
+        assertEquals("WRO", readRoute.getAirportTo());
+        assertEquals("RYANAIR", readRoute.getOperator());
+        assertNull(readRoute.getConnectingAirport());
+        assertTrue(readRoute.isSeasonalRoute());
+
+        CacheSnapshot.ScheduleEntry entry = read.schedules().getFirst();
+        assertEquals(key, entry.key());
+        assertEquals(NOW.plusSeconds(3600), entry.expiresAt());
+        assertEquals(1, entry.schedule().size());
+        assertEquals("1926", entry.schedule().flightNumberAt(0));
+        assertEquals(LocalDateTime.of(2025, 10, 12, 17, 50), entry.schedule().toLeg(0).getFlightArrivalTime());
+    }
+
+    @Test
+    void readReturnsEmptyWithoutFile() throws IOException {
+        assertTrue(CacheSnapshotCodec.read(directory.resolve("missing.bin")).isEmpty());
+    }
+
+    @Test
+    void readIgnoresSnapshotOfAnotherVersion() throws IOException {
+        Path path = directory.resolve("snapshot.bin");
+        CacheSnapshotCodec.write(new CacheSnapshot(NOW, null, null, List.of()), path);
+        byte[] bytes = Files.readAllBytes(path);
+        ByteBuffer.wrap(bytes).putInt(Integer.BYTES, CacheSnapshotCodec.VERSION + 1);
+        Files.write(path, bytes);
+
+        assertTrue(CacheSnapshotCodec.read(path).isEmpty());
+    }
+
+    @Test
+    void readRejectsTruncatedSnapshot() throws IOException {
+        Path path = directory.resolve("snapshot.bin");
+        CacheSnapshotCodec.write(new CacheSnapshot(NOW, null, null,
+                List.of(new CacheSnapshot.ScheduleEntry(ScheduleKey.of("DUB", "WRO", 2025, 10),
+                        createSchedule(ScheduleKey.of("DUB", "WRO", 2025, 10)), NOW, NOW))), path);
+        byte[] bytes = Files.readAllBytes(path);
+        Files.write(path, Arrays.copyOf(bytes, bytes.length - 5));
+
+        assertThrows(IOException.class, () -> CacheSnapshotCodec.read(path));
+    }
+
+    @Test
+    void readRejectsCorruptSnapshot() throws IOException {
+        Path path = directory.resolve("snapshot.bin");
+        CacheSnapshotCodec.write(new CacheSnapshot(NOW, null, null, List.of()), path);
+        byte[] bytes = Files.readAllBytes(path);
+        // Overwrite the string table size, which follows magic number, version and creation time
+        ByteBuffer.wrap(bytes).putInt(Integer.BYTES * 2 + Long.BYTES, -1);
+        Files.write(path, bytes);
+
+        assertThrows(IOException.class, () -> CacheSnapshotCodec.read(path));
+    }
+
+    private static CompactSchedule createSchedule(ScheduleKey key) {
+        int dayStart = 11 * 24 * 60;
+        return CompactSchedule.of(key, new int[]{dayStart + 14 * 60 + 5}, new int[]{dayStart + 17 * 60 + 50},
+                new int[]{FlightNumbers.idOf("1926")});
+    }
+}
@@ -0,0 +1,175 @@
+package com.ryanair.flights.util;
+
+import com.ryanair.flights.model.dto.Flight;
+import com.ryanair.flights.model.dto.FlightLeg;
+import com.ryanair.flights.model.internal.CompactSchedule;
+import com.ryanair.flights.model.internal.ConnectionSummary;
+import com.ryanair.flights.model.internal.FlightNumbers;
+import com.ryanair.flights.model.internal.FlightOrder;
+import com.ryanair.flights.model.internal.ScheduleKey;
+import com.ryanair.flights.model.internal.ScheduleWindow;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ConnectionJoinerTest {
+
+    private static final long MIN_LAYOVER_MINUTES = 120;
+    private static final LocalDateTime BASE = LocalDateTime.of(2025, 10, 1, 0, 0);
+
+    @Test
+    void joinReturnsEmptyListWhenAnyLegIsEmpty() {
+        List<Flight> flights = List.of(createFlight("DUB", "STN", BASE, BASE.plusHours(1)));
+
+        assertTrue(ListConnectionJoiner.join(flights, List.of(), MIN_LAYOVER_MINUTES, ConnectionJoiner.NO_MAX_LAYOVER).isEmpty());
+        assertTrue(ListConnectionJoiner.join(List.of(), flights, MIN_LAYOVER_MINUTES, ConnectionJoiner.NO_MAX_LAYOVER).isEmpty());
+    }
+
+    @Test
+    void joinAcceptsLayoverOfExactlyTheMinimum() {
+        Flight first = createFlight("DUB", "STN", BASE.plusHours(8), BASE.plusHours(10));
+        Flight tooEarly = createFlight("STN", "WRO", BASE.plusHours(12).minusMinutes(1), BASE.plusHours(14));
+        Flight exact = createFlight("STN", "WRO", BASE.plusHours(12), BASE.plusHours(14));
+
+        List<Flight> result = ListConnectionJoiner.join(List.of(first), List.of(exact, tooEarly),
+                MIN_LAYOVER_MINUTES, ConnectionJoiner.NO_MAX_LAYOVER);
+
+        assertEquals(1, result.size());
+        assertEquals(1, result.getFirst().getStops());
+        assertEquals(exact.getLegs().getFirst(), result.getFirst().getLegs().get(1));
+    }
+
+    @Test
+    void joinDropsConnectionsBeyondMaxLayover() {
+        Flight first = createFlight("DUB", "STN", BASE.plusHours(8), BASE.plusHours(10));
+        Flight withinBound = createFlight("STN", "WRO", BASE.plusHours(14), BASE.plusHours(16));
+        Flight beyondBound = createFlight("STN", "WRO", BASE.plusHours(20), BASE.plusHours(22));
+
+        List<Flight> result = ListConnectionJoiner.join(List.of(first), List.of(beyondBound, withinBound), MIN_LAYOVER_MINUTES, 240);
+
+        assertEquals(1, result.size());
+        assertEquals(withinBound.getLegs().getFirst(), result.getFirst().getLegs().get(1));
+    }
+
+    @Test
+    void joinMatchesNestedLoopValidation() {
+        Random random = new Random(42);
+        List<Flight> firstLegs = randomFlights(random, "DUB", "STN", 40);
+        List<Flight> secondLegs = randomFlights(random, "STN", "WRO", 40);
+
+        int expected = 0;
+        for (Flight firstLeg : firstLegs) {
+            for (Flight secondLeg : secondLegs) {
+                if (FlightValidator.validateConnection(firstLeg.getLegs().getFirst(), secondLeg.getLegs().getFirst())) {
+                    expected++;
+                }
+            }
+        }
+
+        List<Flight> result = ListConnectionJoiner.join(firstLegs, secondLegs, MIN_LAYOVER_MINUTES, ConnectionJoiner.NO_MAX_LAYOVER);
+
+        assertEquals(expected, result.size());
+        assertTrue(result.stream().allMatch(flight ->
+                FlightValidator.validateConnection(flight.getLegs().get(0), flight.getLegs().get(1))));
+    }
+
+    @Test
+    void joinOfScheduleWindowsMatchesJoinOfFlights() {
+        Random random = new Random(7);
+        CompactSchedule firstSchedule = randomSchedule(random, "DUB", "STN", 40);
+        CompactSchedule secondSchedule = randomSchedule(random, "STN", "WRO", 40);
+        LocalDateTime end = BASE.plusDays(4);
+        ScheduleWindow firstLegs = ScheduleWindow.of(List.of(firstSchedule), BASE, end);
+        ScheduleWindow secondLegs = ScheduleWindow.of(List.of(secondSchedule), BASE, end);
+
+        List<Flight> expected = ListConnectionJoiner.join(firstLegs.toFlights(), secondLegs.toFlights(), MIN_LAYOVER_MINUTES, 300);
+        List<Flight> result = ConnectionJoiner.join(firstLegs, secondLegs, MIN_LAYOVER_MINUTES, 300);
+
+        assertEquals(expected.size(), result.size());
+        for (int i = 0; i < expected.size(); i++) {
+            assertEquals(expected.get(i).getLegs(), result.get(i).getLegs());
+        }
+    }
+
+    @Test
+    void summarizeMatchesJoinOfScheduleWindows() {
+        Random random = new Random(11);
+        ScheduleWindow firstLegs = ScheduleWindow.of(List.of(randomSchedule(random, "DUB", "STN", 40)), BASE, BASE.plusDays(4));
+        ScheduleWindow secondLegs = ScheduleWindow.of(List.of(randomSchedule(random, "STN", "WRO", 40)), BASE, BASE.plusDays(4));
+
+        List<Flight> joined = ConnectionJoiner.join(firstLegs, secondLegs, MIN_LAYOVER_MINUTES, 300);
+        ConnectionSummary summary = ConnectionJoiner.summarize(firstLegs, secondLegs, MIN_LAYOVER_MINUTES, 300);
+
+        assertEquals(joined.size(), summary.count());
+        assertEquals(joined.stream().mapToLong(flight -> DateTimeUtil.toEpochMinutes(flight.getLegs().get(1).getFlightArrivalTime()))
+                .min().orElse(Long.MAX_VALUE), summary.earliestArrival());
+    }
+
+    @Test
+    void rankedJoinKeepsTheBestConnectionsOfTheFullJoin() {
+        Random random = new Random(13);
+        ScheduleWindow firstLegs = ScheduleWindow.of(List.of(randomSchedule(random, "DUB", "STN", 60)), BASE, BASE.plusDays(4));
+        ScheduleWindow secondLegs = ScheduleWindow.of(List.of(randomSchedule(random, "STN", "WRO", 60)), BASE, BASE.plusDays(4));
+        List<Flight> joined = ConnectionJoiner.join(firstLegs, secondLegs, MIN_LAYOVER_MINUTES, 300);
+
+        for (FlightOrder order : FlightOrder.values()) {
+            TopFlights best = new TopFlights(order, 5);
+            ConnectionJoiner.join(firstLegs, secondLegs, MIN_LAYOVER_MINUTES, 300, best);
+
+            List<Flight> expected = TopFlights.of(order, 5, joined);
+            assertEquals(expected.size(), best.toList().size());
+            for (int i = 0; i < expected.size(); i++) {
+                assertEquals(expected.get(i).getLegs(), best.toList().get(i).getLegs());
+            }
+            long bound = ConnectionJoiner.bestPossibleRank(order, firstLegs, secondLegs, MIN_LAYOVER_MINUTES);
+            assertTrue(bound <= order.rank(expected.getFirst()));
+        }
+    }
+
+    @Test
+    void lowerBoundReturnsFirstIndexNotSmallerThanKey() {
+        long[] sorted = {10, 20, 20, 30};
+
+        assertEquals(0, ConnectionJoiner.lowerBound(sorted, 5));
+        assertEquals(1, ConnectionJoiner.lowerBound(sorted, 20));
+        assertEquals(3, ConnectionJoiner.lowerBound(sorted, 25));
+        assertEquals(4, ConnectionJoiner.lowerBound(sorted, 31));
+    }
+
+    private List<Flight> randomFlights(Random random, String from, String to, int count) {
+        List<Flight> flights = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            LocalDateTime departure = BASE.plusMinutes(random.nextInt(3 * 24 * 60));
+            flights.add(createFlight(from, to, departure, departure.plusMinutes(60 + random.nextInt(120))));
+        }
+        return flights;
+    }
+
+    private CompactSchedule randomSchedule(Random random, String from, String to, int count) {
+        int[] departures = new int[count];
+        int[] arrivals = new int[count];
+        int[] flightNumbers = new int[count];
+        for (int i = 0; i < count; i++) {
+            departures[i] = random.nextInt(3 * 24 * 60);
+            arrivals[i] = departures[i] + 60 + random.nextInt(120);
+            flightNumbers[i] = FlightNumbers.idOf(String.valueOf(i));
+        }
+        return CompactSchedule.of(new ScheduleKey(from, to, YearMonth.from(BASE)), departures, arrivals, flightNumbers);
+    }
+
+    private Flight createFlight(String from, String to, LocalDateTime departure, LocalDateTime arrival) {
+        FlightLeg leg = new FlightLeg();
+        leg.setFlightFrom(from);
+        leg.setFlightTo(to);
+        leg.setFlightDepartureTime(departure);
+        leg.setFlightArrivalTime(arrival);
+        return Flight.createFlightsFromLegs(List.of(leg));
+    }
+}
@@ -3,8 +3,11 @@ package com.ryanair.flights.util;
 import org.junit.jupiter.api.Test;
 
 import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 class DateTimeUtilTest {
@@ -75,4 +78,18 @@ class DateTimeUtilTest {
 
         assertFalse(DateTimeUtil.isWithinTimeWindow(criteriaDeparture, criteriaArrival, flightStart, flightEnd));
     }
-}
\ No newline at end of file
+
+    @Test
+    void parseMinuteOfDayReadsScheduleTimes() {
+        assertEquals(0, DateTimeUtil.parseMinuteOfDay("00:00"));
+        assertEquals(7 * 60 + 45, DateTimeUtil.parseMinuteOfDay("07:45"));
+        assertEquals(23 * 60 + 59, DateTimeUtil.parseMinuteOfDay("23:59"));
+        assertEquals(14 * 60 + 5, DateTimeUtil.parseMinuteOfDay("14:05:30"));
+    }
+
+    @Test
+    void parseMinuteOfDayRejectsInvalidTimes() {
+        assertThrows(DateTimeParseException.class, () -> DateTimeUtil.parseMinuteOfDay("24:00"));
+        assertThrows(DateTimeParseException.class, () -> DateTimeUtil.parseMinuteOfDay("7:450"));
+    }
+}
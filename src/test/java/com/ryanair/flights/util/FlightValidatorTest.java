@@ -40,6 +40,18 @@ class FlightValidatorTest {
     }
 
 
+    @Test
+    void validateSearchCriteriaWhenMaxStopsIsOutOfRangeShouldThrowException() {
+        LocalDateTime departureTime = LocalDateTime.of(2023, 10, 27, 10, 0);
+        LocalDateTime arrivalTime = LocalDateTime.of(2023, 10, 27, 15, 0);
+        FlightSearchCriteria criteria = new FlightSearchCriteria("DUB", "WRO", departureTime, arrivalTime);
+        criteria.setMaxStops(Constants.MAXIMUM_STOPS + 1);
+
+        assertThatThrownBy(() -> FlightValidator.validateSearchCriteria(criteria))
+                .isInstanceOf(InvalidRequestException.class)
+                .hasMessage("Maximum stops must be between 0 and 3.");
+    }
+
     @Test
     void validateAirportCodeWhenValidShouldNotThrow() {
         assertDoesNotThrow(() -> FlightValidator.validateAirportCode("DUB"));
@@ -0,0 +1,58 @@
+package com.ryanair.flights.util;
+
+import com.ryanair.flights.model.dto.Flight;
+import com.ryanair.flights.model.dto.FlightLeg;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * The join on materialized flights that {@link ConnectionJoiner#join(com.ryanair.flights.model.internal.ScheduleWindow,
+ * com.ryanair.flights.model.internal.ScheduleWindow, long, long)} replaced. It is kept out of the application as the
+ * reference the window join is tested against and as the baseline of {@code ConnectionJoinBenchmark}.
+ */
+public class ListConnectionJoiner {
+
+    /**
+     * @param firstLegFlights    Direct flights of the first leg.
+     * @param secondLegFlights   Direct flights of the second leg.
+     * @param minLayoverMinutes  Minimum time between the first leg's arrival and the second leg's departure.
+     * @param maxLayoverMinutes  Maximum time between the legs, or {@link ConnectionJoiner#NO_MAX_LAYOVER} for no upper bound.
+     * @return The connections, grouped by first leg and ordered by second-leg departure.
+     */
+    public static List<Flight> join(List<Flight> firstLegFlights, List<Flight> secondLegFlights,
+                                    long minLayoverMinutes, long maxLayoverMinutes) {
+        if (firstLegFlights.isEmpty() || secondLegFlights.isEmpty()) {
+            return Collections.emptyList();
+        }
+
+        FlightLeg[] secondLegs = secondLegFlights.stream()
+                .map(flight -> flight.getLegs().getFirst())
+                .sorted(Comparator.comparing(FlightLeg::getFlightDepartureTime))
+                .toArray(FlightLeg[]::new);
+        long[] secondLegDepartures = new long[secondLegs.length];
+        for (int i = 0; i < secondLegs.length; i++) {
+            secondLegDepartures[i] = DateTimeUtil.toEpochMinutes(secondLegs[i].getFlightDepartureTime());
+        }
+
+        List<Flight> interconnected = new ArrayList<>();
+        for (Flight firstLegFlight : firstLegFlights) {
+            FlightLeg firstLeg = firstLegFlight.getLegs().getFirst();
+            long arrival = DateTimeUtil.toEpochMinutes(firstLeg.getFlightArrivalTime());
+            long earliestDeparture = arrival + minLayoverMinutes;
+            long latestDeparture = maxLayoverMinutes == ConnectionJoiner.NO_MAX_LAYOVER ? Long.MAX_VALUE : arrival + maxLayoverMinutes;
+
+            for (int i = ConnectionJoiner.lowerBound(secondLegDepartures, earliestDeparture);
+                 i < secondLegs.length && secondLegDepartures[i] <= latestDeparture; i++) {
+                interconnected.add(Flight.createFlightsFromLegs(List.of(firstLeg, secondLegs[i])));
+            }
+        }
+        return interconnected;
+    }
+
+    private ListConnectionJoiner() {
+        // Private constructor to prevent instantiation
+    }
+}
@@ -0,0 +1,70 @@
+package com.ryanair.flights.util;
+
+import com.ryanair.flights.model.dto.Flight;
+import com.ryanair.flights.model.dto.FlightLeg;
+import com.ryanair.flights.model.internal.FlightOrder;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TopFlightsTest {
+
+    private static final LocalDateTime BASE = LocalDateTime.of(2025, 10, 1, 0, 0);
+
+    @Test
+    void keepsTheSameFlightsAsSortingAllOfThemForEveryOrder() {
+        Random random = new Random(3);
+        List<Flight> flights = new ArrayList<>();
+        for (int i = 0; i < 500; i++) {
+            LocalDateTime departure = BASE.plusMinutes(random.nextInt(24 * 60));
+            flights.add(createFlight(String.valueOf(i), departure, departure.plusMinutes(60 + random.nextInt(240))));
+        }
+
+        for (FlightOrder order : FlightOrder.values()) {
+            List<Flight> expected = flights.stream().sorted(order.comparator()).limit(10).toList();
+
+            assertEquals(expected, TopFlights.of(order, 10, flights));
+        }
+    }
+
+    @Test
+    void thresholdIsTheRankOfTheWorstFlightOnceFull() {
+        TopFlights best = new TopFlights(FlightOrder.EARLIEST_ARRIVAL, 2);
+        best.offer(createFlight("1", BASE.plusHours(8), BASE.plusHours(12)));
+        assertEquals(Long.MAX_VALUE, best.threshold());
+
+        best.offer(createFlight("2", BASE.plusHours(7), BASE.plusHours(10)));
+        best.offer(createFlight("3", BASE.plusHours(6), BASE.plusHours(9)));
+
+        assertEquals(DateTimeUtil.toEpochMinutes(BASE.plusHours(10)), best.threshold());
+        assertTrue(best.admits(DateTimeUtil.toEpochMinutes(BASE.plusHours(10))));
+        assertFalse(best.admits(DateTimeUtil.toEpochMinutes(BASE.plusHours(11))));
+        assertEquals(List.of("3", "2"), best.toList().stream().map(flight -> flight.getLegs().getFirst().getFlightNumber()).toList());
+    }
+
+    @Test
+    void latestDepartureRanksLaterDeparturesFirst() {
+        Flight early = createFlight("1", BASE.plusHours(6), BASE.plusHours(8));
+        Flight late = createFlight("2", BASE.plusHours(18), BASE.plusHours(20));
+
+        assertEquals(List.of(late), TopFlights.of(FlightOrder.LATEST_DEPARTURE, 1, List.of(early, late)));
+        assertEquals(FlightOrder.LATEST_DEPARTURE, FlightOrder.parse("latest-departure"));
+    }
+
+    private Flight createFlight(String number, LocalDateTime departure, LocalDateTime arrival) {
+        FlightLeg leg = new FlightLeg();
+        leg.setFlightNumber(number);
+        leg.setFlightFrom("DUB");
+        leg.setFlightTo("WRO");
+        leg.setFlightDepartureTime(departure);
+        leg.setFlightArrivalTime(arrival);
+        return Flight.createFlightsFromLegs(List.of(leg));
+    }
+}